@@ -17,14 +17,17 @@ import de.invesdwin.norva.beanpath.impl.object.BeanObjectProcessor;
 import de.invesdwin.norva.beanpath.spi.element.IPropertyBeanPathElement;
 import de.invesdwin.norva.beanpath.spi.visitor.SimpleBeanPathVisitorSupport;
 import de.invesdwin.norva.marker.ISerializableValueObject;
+import de.invesdwin.util.bean.internal.ValueObjectDeepClone;
 import de.invesdwin.util.bean.internal.ValueObjectMerge;
+import de.invesdwin.util.bean.internal.ValueObjectMethods;
 import de.invesdwin.util.error.Throwables;
 import de.invesdwin.util.lang.Objects;
 
 /**
  * ValueObjects are non persistent Entities. They do not contain any logic, but they contain data and verifications.
  * 
- * This class implements toString, hashCode, equals und compareTo methods via reflection.
+ * This class implements toString, hashCode, equals und compareTo methods via reflection. The fields are looked up once
+ * per class and then accessed via method handles (see ValueObjectMethods).
  * 
  * Clone is done by serialization to ensure deep copies.
  * 
@@ -50,7 +53,7 @@ public abstract class AValueObject extends APropertyChangeSupported
 
     @Override
     public String toString() {
-        return Objects.toString(this);
+        return ValueObjectMethods.toString(this);
     }
 
     @Hidden(skip = true)
@@ -60,12 +63,12 @@ public abstract class AValueObject extends APropertyChangeSupported
 
     @Override
     public int hashCode() {
-        return Objects.reflectionHashCode(this);
+        return ValueObjectMethods.hashCode(this);
     }
 
     @Override
     public boolean equals(final Object obj) {
-        return Objects.reflectionEquals(this, obj);
+        return ValueObjectMethods.equals(this, obj);
     }
 
     /**
@@ -105,7 +108,7 @@ public abstract class AValueObject extends APropertyChangeSupported
 
     @Override
     public int compareTo(final Object o) {
-        return Objects.reflectionCompareTo(this, o);
+        return ValueObjectMethods.compareTo(this, o);
     }
 
     /**
@@ -145,7 +148,31 @@ public abstract class AValueObject extends APropertyChangeSupported
      */
     @Override
     public AValueObject clone() { //SUPPRESS CHECKSTYLE super.clone()
-        return Objects.deepClone(this);
+        if (isDeepCloneStructural()) {
+            return deepCloneStructural();
+        } else {
+            return Objects.deepClone(this);
+        }
+    }
+
+    /**
+     * Override this to return true if clone() should use deepCloneStructural() instead of serialization.
+     */
+    @Hidden(skip = true)
+    protected boolean isDeepCloneStructural() {
+        return false;
+    }
+
+    /**
+     * Creates a deep copy by copying the fields directly instead of using serialization, which is a lot faster. The
+     * result is the same as with serialization for value objects that only contain values, arrays, common collections
+     * and other value objects (see ValueObjectDeepClone). Other objects are copied via serialization one by one, thus
+     * references from inside them back into the rest of the graph get duplicated. Values that are not Serializable
+     * cause an exception instead of being shared with the copy.
+     */
+    @Hidden(skip = true)
+    public AValueObject deepCloneStructural() {
+        return ValueObjectDeepClone.deepClone(this);
     }
 
     /**
@@ -0,0 +1,414 @@
+package de.invesdwin.util.bean.internal;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import de.invesdwin.util.bean.AValueObject;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.lang.Reflections;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Creates deep copies of value objects by copying their fields directly instead of serializing and deserializing them.
+ * What to do with the fields of a class is determined once and cached. Immutable values are shared, arrays and common
+ * collections are copied, value objects are copied via shallowClone() and then get their reference fields replaced by
+ * deep copies. Transient fields are reset like serialization would do. Objects that are referenced multiple times
+ * (including cycles) are only copied once.
+ *
+ * Everything else (also classes that customize their serialization) falls back to Objects.deepClone() for that part of
+ * the object graph. Such a part is copied on its own, thus objects that it references from the rest of the graph (e.g.
+ * a back-reference to its parent) are copied again instead of being shared. Values that are neither transient nor
+ * Serializable cause an exception, since serialization would fail for them as well.
+ */
+@ThreadSafe
+public final class ValueObjectDeepClone {
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = ConcurrentHashMap.newKeySet();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<ACopyPlan> CLASS_PLAN = new ClassValue<ACopyPlan>() {
+        @Override
+        protected ACopyPlan computeValue(final Class<?> type) {
+            return newPlan(type);
+        }
+    };
+
+    static {
+        IMMUTABLE_TYPES.add(String.class);
+        IMMUTABLE_TYPES.add(Class.class);
+        IMMUTABLE_TYPES.add(BigDecimal.class);
+        IMMUTABLE_TYPES.add(BigInteger.class);
+        IMMUTABLE_TYPES.add(UUID.class);
+        IMMUTABLE_TYPES.add(FDate.class);
+        IMMUTABLE_TYPES.add(ADecimal.class);
+        IMMUTABLE_TYPES.add(Duration.class);
+        IMMUTABLE_TYPES.add(Instant.class);
+    }
+
+    private ValueObjectDeepClone() {
+    }
+
+    /**
+     * Instances of the given type and its subclasses will be shared instead of copied. Should be called before the
+     * first clone, since the copy plans are cached.
+     */
+    public static void registerImmutableType(final Class<?> type) {
+        IMMUTABLE_TYPES.add(type);
+    }
+
+    public static <T> T deepClone(final T obj) {
+        if (obj == null) {
+            return null;
+        }
+        return deepClone(obj, new IdentityHashMap<Object, Object>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T deepClone(final T obj, final Map<Object, Object> original_copy) {
+        if (obj == null) {
+            return null;
+        }
+        final ACopyPlan plan = CLASS_PLAN.get(obj.getClass());
+        if (plan == ImmutablePlan.INSTANCE) {
+            return obj;
+        }
+        final Object existing = original_copy.get(obj);
+        if (existing != null) {
+            return (T) existing;
+        }
+        return (T) plan.copy(obj, original_copy);
+    }
+
+    private static ACopyPlan newPlan(final Class<?> type) {
+        if (isImmutable(type)) {
+            return ImmutablePlan.INSTANCE;
+        } else if (type.isArray()) {
+            if (type.getComponentType().isPrimitive()) {
+                return PrimitiveArrayPlan.INSTANCE;
+            } else {
+                return ObjectArrayPlan.INSTANCE;
+            }
+        } else if (AValueObject.class.isAssignableFrom(type) && !hasCustomSerialization(type)) {
+            try {
+                return new ValueObjectPlan(type);
+            } catch (final Throwable t) {
+                return FallbackPlan.INSTANCE;
+            }
+        } else if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            try {
+                return newCollectionPlan(type);
+            } catch (final Throwable t) {
+                return FallbackPlan.INSTANCE;
+            }
+        } else {
+            return FallbackPlan.INSTANCE;
+        }
+    }
+
+    private static boolean isImmutable(final Class<?> type) {
+        if (type.isPrimitive() || ClassUtils.isPrimitiveWrapper(type) || type.isEnum()
+                || type.getSuperclass() != null && type.getSuperclass().isEnum()) {
+            return true;
+        }
+        if (type.getName().startsWith("java.time.") && Modifier.isFinal(type.getModifiers())) {
+            return true;
+        }
+        for (final Class<?> immutableType : IMMUTABLE_TYPES) {
+            if (immutableType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCustomSerialization(final Class<?> type) {
+        Class<?> clazz = type;
+        while (clazz != null && clazz != Object.class) {
+            if (hasMethod(clazz, "writeObject") || hasMethod(clazz, "readObject") || hasMethod(clazz, "writeReplace")
+                    || hasMethod(clazz, "readResolve")) {
+                return true;
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return false;
+    }
+
+    private static boolean hasMethod(final Class<?> clazz, final String name) {
+        for (final java.lang.reflect.Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ACopyPlan newCollectionPlan(final Class<?> type) throws ReflectiveOperationException {
+        //only the well known ones, others might have state that is not visible via the collection interface
+        if (type == TreeMap.class || type == TreeSet.class) {
+            return new CollectionPlan(MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class, Comparator.class))
+                    .asType(MethodType.methodType(Object.class, Comparator.class)), true);
+        }
+        if (type == ArrayList.class || type == LinkedList.class || type == ArrayDeque.class
+                || type == CopyOnWriteArrayList.class || type == HashSet.class || type == LinkedHashSet.class
+                || type == HashMap.class || type == LinkedHashMap.class || type == ConcurrentHashMap.class) {
+            return new CollectionPlan(MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class)), false);
+        }
+        return FallbackPlan.INSTANCE;
+    }
+
+    private abstract static class ACopyPlan {
+
+        public abstract Object copy(Object obj, Map<Object, Object> original_copy);
+
+    }
+
+    @Immutable
+    private static final class ImmutablePlan extends ACopyPlan {
+
+        private static final ImmutablePlan INSTANCE = new ImmutablePlan();
+
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            return obj;
+        }
+
+    }
+
+    @Immutable
+    private static final class FallbackPlan extends ACopyPlan {
+
+        private static final FallbackPlan INSTANCE = new FallbackPlan();
+
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            if (!(obj instanceof Serializable)) {
+                //sharing it instead would leak mutable state of the original into the copy
+                throw new RuntimeException(new NotSerializableException(obj.getClass().getName()));
+            }
+            final Object copy = Objects.deepClone(obj);
+            original_copy.put(obj, copy);
+            return copy;
+        }
+
+    }
+
+    @Immutable
+    private static final class PrimitiveArrayPlan extends ACopyPlan {
+
+        private static final PrimitiveArrayPlan INSTANCE = new PrimitiveArrayPlan();
+
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            final int length = Array.getLength(obj);
+            final Object copy = Array.newInstance(obj.getClass().getComponentType(), length);
+            System.arraycopy(obj, 0, copy, 0, length);
+            original_copy.put(obj, copy);
+            return copy;
+        }
+
+    }
+
+    @Immutable
+    private static final class ObjectArrayPlan extends ACopyPlan {
+
+        private static final ObjectArrayPlan INSTANCE = new ObjectArrayPlan();
+
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            final Object[] array = (Object[]) obj;
+            final Object[] copy = array.clone();
+            original_copy.put(obj, copy);
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = deepClone(copy[i], original_copy);
+            }
+            return copy;
+        }
+
+    }
+
+    @Immutable
+    private static final class CollectionPlan extends ACopyPlan {
+
+        private final MethodHandle constructor;
+        private final boolean sorted;
+
+        private CollectionPlan(final MethodHandle constructor, final boolean sorted) {
+            this.constructor = constructor;
+            this.sorted = sorted;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            final Object copy = newInstance(obj);
+            original_copy.put(obj, copy);
+            if (obj instanceof Map) {
+                final Map<Object, Object> map = (Map<Object, Object>) obj;
+                final Map<Object, Object> mapCopy = (Map<Object, Object>) copy;
+                for (final Entry<Object, Object> entry : map.entrySet()) {
+                    mapCopy.put(deepClone(entry.getKey(), original_copy), deepClone(entry.getValue(), original_copy));
+                }
+            } else {
+                final Collection<Object> collection = (Collection<Object>) obj;
+                final Collection<Object> collectionCopy = (Collection<Object>) copy;
+                for (final Object element : collection) {
+                    collectionCopy.add(deepClone(element, original_copy));
+                }
+            }
+            return copy;
+        }
+
+        private Object newInstance(final Object obj) {
+            try {
+                if (sorted) {
+                    final Comparator<?> comparator;
+                    if (obj instanceof SortedMap) {
+                        comparator = ((SortedMap<?, ?>) obj).comparator();
+                    } else {
+                        comparator = ((SortedSet<?>) obj).comparator();
+                    }
+                    return (Object) constructor.invokeExact(comparator);
+                } else {
+                    return (Object) constructor.invokeExact();
+                }
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+    }
+
+    @Immutable
+    private static final class ValueObjectPlan extends ACopyPlan {
+
+        private final FieldCopy[] fields;
+
+        private ValueObjectPlan(final Class<?> type) throws IllegalAccessException {
+            final List<FieldCopy> fieldsList = new ArrayList<FieldCopy>();
+            Class<?> clazz = type;
+            while (clazz != null && clazz != Object.class) {
+                for (final Field field : clazz.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)) {
+                        continue;
+                    }
+                    if (Modifier.isTransient(modifiers)) {
+                        fieldsList.add(new FieldCopy(field, true));
+                    } else if (!field.getType().isPrimitive() && !isImmutableFieldType(field.getType())) {
+                        //primitives and immutable values are already copied by shallowClone
+                        fieldsList.add(new FieldCopy(field, false));
+                    }
+                }
+                clazz = clazz.getSuperclass();
+            }
+            this.fields = fieldsList.toArray(new FieldCopy[fieldsList.size()]);
+        }
+
+        private static boolean isImmutableFieldType(final Class<?> fieldType) {
+            //only final types, since subclasses of other types might be mutable
+            return Modifier.isFinal(fieldType.getModifiers()) && isImmutable(fieldType);
+        }
+
+        @Override
+        public Object copy(final Object obj, final Map<Object, Object> original_copy) {
+            final AValueObject copy = ((AValueObject) obj).shallowClone();
+            original_copy.put(obj, copy);
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].copy(copy, original_copy);
+            }
+            return copy;
+        }
+
+    }
+
+    @Immutable
+    private static final class FieldCopy {
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Object resetValue;
+        private final boolean reset;
+        private final boolean lock;
+
+        private FieldCopy(final Field field, final boolean reset) throws IllegalAccessException {
+            Reflections.makeAccessible(field);
+            this.getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            this.reset = reset;
+            this.lock = Modifier.isFinal(field.getModifiers()) && field.getType() == Object.class;
+            if (field.getType().isPrimitive()) {
+                //boxed default value of the primitive
+                this.resetValue = Array.get(Array.newInstance(field.getType(), 1), 0);
+            } else {
+                this.resetValue = null;
+            }
+        }
+
+        /**
+         * The shallow copy still references the values of the original.
+         */
+        public void copy(final Object copy, final Map<Object, Object> original_copy) {
+            try {
+                if (reset) {
+                    setter.invokeExact(copy, resetValue);
+                } else {
+                    final Object value = (Object) getter.invokeExact(copy);
+                    final Object valueCopy;
+                    if (lock && value != null && value.getClass() == Object.class) {
+                        //a lock of the original (which a constructor would have created anew)
+                        valueCopy = new Object();
+                    } else {
+                        valueCopy = deepClone(value, original_copy);
+                    }
+                    if (valueCopy != value) {
+                        setter.invokeExact(copy, valueCopy);
+                    }
+                }
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,396 @@
+package de.invesdwin.util.bean.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.builder.CompareToBuilder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.EqualsExclude;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.HashCodeExclude;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringExclude;
+import org.apache.commons.lang3.builder.ToStringSummary;
+
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.lang.Reflections;
+import de.invesdwin.util.lang.internal.DefaultToStringStyle;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Caches the fields per class that the reflection builders of commons-lang would look up on each call and accesses them
+ * via method handles. The fields are selected and ordered the same way as in
+ * Objects.reflectionHashCode/reflectionEquals/reflectionCompareTo (honoring Objects.REFLECTION_EXCLUDED_FIELDS) and
+ * Strings.asStringReflective (which does not), so the results stay the same. Classes whose fields can not be accessed fall back
+ * to the reflective implementations.
+ */
+@ThreadSafe
+public final class ValueObjectMethods {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final FieldAccessor[] EMPTY_FIELDS = new FieldAccessor[0];
+    private static final Comparator<Field> FIELD_NAME_COMPARATOR = new Comparator<Field>() {
+        @Override
+        public int compare(final Field o1, final Field o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+    private static final ClassValue<ValueObjectMethods> CLASS_METHODS = new ClassValue<ValueObjectMethods>() {
+        @Override
+        protected ValueObjectMethods computeValue(final Class<?> type) {
+            return new ValueObjectMethods(type);
+        }
+    };
+    /**
+     * Prevents endless recursions for objects that reference each other, like the registries of the commons-lang
+     * builders do.
+     */
+    private static final FastThreadLocal<ValueObjectRegistry> HASH_CODE_REGISTRY = new FastThreadLocal<ValueObjectRegistry>() {
+        @Override
+        protected ValueObjectRegistry initialValue() {
+            return new ValueObjectRegistry();
+        }
+    };
+    private static final FastThreadLocal<ValueObjectRegistry> EQUALS_REGISTRY = new FastThreadLocal<ValueObjectRegistry>() {
+        @Override
+        protected ValueObjectRegistry initialValue() {
+            return new ValueObjectRegistry();
+        }
+    };
+
+    private final int excludedFieldsSize;
+    private final boolean supported;
+    private final boolean registryRequired;
+    private final FieldAccessor[] hashCodeFields;
+    private final FieldAccessor[] equalsFields;
+    private final FieldAccessor[] compareToFields;
+    private final FieldAccessor[] toStringFields;
+
+    private ValueObjectMethods(final Class<?> type) {
+        this.excludedFieldsSize = Objects.REFLECTION_EXCLUDED_FIELDS.size();
+        FieldAccessor[] hashCodeFieldsCopy;
+        FieldAccessor[] equalsFieldsCopy;
+        FieldAccessor[] compareToFieldsCopy;
+        FieldAccessor[] toStringFieldsCopy;
+        boolean supportedCopy;
+        try {
+            hashCodeFieldsCopy = newFields(type, true, true, HashCodeExclude.class);
+            equalsFieldsCopy = newFields(type, false, true, EqualsExclude.class);
+            compareToFieldsCopy = newFields(type, false, true, null);
+            //ReflectionToStringBuilder does not know about Objects.REFLECTION_EXCLUDED_FIELDS
+            toStringFieldsCopy = newFields(type, true, false, ToStringExclude.class);
+            supportedCopy = true;
+        } catch (final Throwable t) {
+            //e.g. fields of jdk classes that are not opened for reflection
+            hashCodeFieldsCopy = EMPTY_FIELDS;
+            equalsFieldsCopy = EMPTY_FIELDS;
+            compareToFieldsCopy = EMPTY_FIELDS;
+            toStringFieldsCopy = EMPTY_FIELDS;
+            supportedCopy = false;
+        }
+        this.hashCodeFields = hashCodeFieldsCopy;
+        this.equalsFields = equalsFieldsCopy;
+        this.compareToFields = compareToFieldsCopy;
+        this.toStringFields = toStringFieldsCopy;
+        this.supported = supportedCopy;
+        this.registryRequired = isRegistryRequired(hashCodeFieldsCopy) || isRegistryRequired(equalsFieldsCopy);
+    }
+
+    public static ValueObjectMethods get(final Class<?> type) {
+        final ValueObjectMethods methods = CLASS_METHODS.get(type);
+        if (methods.excludedFieldsSize != Objects.REFLECTION_EXCLUDED_FIELDS.size()) {
+            //some class added an excluded field after the fields were cached
+            CLASS_METHODS.remove(type);
+            return CLASS_METHODS.get(type);
+        }
+        return methods;
+    }
+
+    public static int hashCode(final Object obj) {
+        final Class<?> type = obj.getClass();
+        final ValueObjectMethods methods = get(type);
+        if (!methods.supported) {
+            return Objects.reflectionHashCode(obj);
+        }
+        return Objects.hashCode(type, methods.innerHashCode(obj));
+    }
+
+    private int innerHashCode(final Object obj) {
+        final HashCodeBuilder builder = new HashCodeBuilder();
+        if (!registryRequired) {
+            appendHashCode(builder, obj);
+            return builder.toHashCode();
+        }
+        final ValueObjectRegistry registry = HASH_CODE_REGISTRY.get();
+        if (registry.contains(obj)) {
+            return builder.toHashCode();
+        }
+        registry.push(obj, obj);
+        try {
+            appendHashCode(builder, obj);
+        } finally {
+            registry.pop();
+        }
+        return builder.toHashCode();
+    }
+
+    private void appendHashCode(final HashCodeBuilder builder, final Object obj) {
+        for (int i = 0; i < hashCodeFields.length; i++) {
+            builder.append(hashCodeFields[i].get(obj));
+        }
+    }
+
+    public static boolean equals(final Object thisObj, final Object obj) {
+        if (thisObj == obj) {
+            return true;
+        }
+        if (thisObj == null || obj == null) {
+            return false;
+        }
+        final Class<?> testClass = getEqualsTestClass(thisObj, obj);
+        if (testClass == null) {
+            return false;
+        }
+        final ValueObjectMethods methods = get(testClass);
+        if (!methods.supported) {
+            return Objects.reflectionEquals(thisObj, obj);
+        }
+        return methods.innerEquals(thisObj, obj);
+    }
+
+    /**
+     * Uses the more specific class if one is a subclass of the other, same as EqualsBuilder.reflectionEquals.
+     */
+    private static Class<?> getEqualsTestClass(final Object thisObj, final Object obj) {
+        final Class<?> thisClass = thisObj.getClass();
+        final Class<?> objClass = obj.getClass();
+        if (thisClass == objClass) {
+            return thisClass;
+        } else if (thisClass.isInstance(obj)) {
+            if (!objClass.isInstance(thisObj)) {
+                return objClass;
+            } else {
+                return thisClass;
+            }
+        } else if (objClass.isInstance(thisObj)) {
+            if (!thisClass.isInstance(obj)) {
+                return thisClass;
+            } else {
+                return objClass;
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private boolean innerEquals(final Object thisObj, final Object obj) {
+        if (!registryRequired) {
+            return appendEquals(thisObj, obj);
+        }
+        final ValueObjectRegistry registry = EQUALS_REGISTRY.get();
+        if (registry.contains(thisObj, obj)) {
+            return true;
+        }
+        registry.push(thisObj, obj);
+        try {
+            return appendEquals(thisObj, obj);
+        } finally {
+            registry.pop();
+        }
+    }
+
+    private boolean appendEquals(final Object thisObj, final Object obj) {
+        final EqualsBuilder builder = new EqualsBuilder();
+        for (int i = 0; i < equalsFields.length; i++) {
+            final FieldAccessor field = equalsFields[i];
+            builder.append(field.get(thisObj), field.get(obj));
+            if (!builder.isEquals()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int compareTo(final Object thisObj, final Object obj) {
+        if (thisObj == obj) {
+            return 0;
+        }
+        if (thisObj == null || obj == null) {
+            throw new NullPointerException("both objects need to be not null");
+        }
+        final Class<?> type = thisObj.getClass();
+        if (!type.isInstance(obj)) {
+            throw new ClassCastException();
+        }
+        final ValueObjectMethods methods = get(type);
+        if (!methods.supported) {
+            return Objects.reflectionCompareTo(thisObj, obj);
+        }
+        final CompareToBuilder builder = new CompareToBuilder();
+        final FieldAccessor[] fields = methods.compareToFields;
+        for (int i = 0; i < fields.length; i++) {
+            final FieldAccessor field = fields[i];
+            builder.append(field.get(thisObj), field.get(obj));
+            final int comparison = builder.toComparison();
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    public static String toString(final Object obj) {
+        if (obj == null) {
+            return Objects.toString(obj);
+        }
+        final ValueObjectMethods methods = get(obj.getClass());
+        if (!methods.supported) {
+            return Objects.toString(obj);
+        }
+        final ToStringBuilder builder = new ToStringBuilder(obj, DefaultToStringStyle.INSTANCE);
+        final FieldAccessor[] fields = methods.toStringFields;
+        for (int i = 0; i < fields.length; i++) {
+            final FieldAccessor field = fields[i];
+            builder.append(field.name, field.get(obj), field.fullDetail);
+        }
+        return builder.toString();
+    }
+
+    private static FieldAccessor[] newFields(final Class<?> type, final boolean sortByName,
+            final boolean applyExcludedFields, final Class<? extends Annotation> excludeAnnotation)
+            throws IllegalAccessException {
+        final List<FieldAccessor> fields = new ArrayList<FieldAccessor>();
+        Class<?> clazz = type;
+        while (clazz != null) {
+            final Field[] declaredFields = clazz.getDeclaredFields();
+            if (sortByName) {
+                Arrays.sort(declaredFields, FIELD_NAME_COMPARATOR);
+            }
+            for (int i = 0; i < declaredFields.length; i++) {
+                final Field field = declaredFields[i];
+                if (isIncluded(field, applyExcludedFields, excludeAnnotation)) {
+                    fields.add(new FieldAccessor(field));
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return fields.toArray(EMPTY_FIELDS);
+    }
+
+    private static boolean isIncluded(final Field field, final boolean applyExcludedFields,
+            final Class<? extends Annotation> excludeAnnotation) {
+        final String name = field.getName();
+        final int modifiers = field.getModifiers();
+        if (name.indexOf('$') != -1 || Modifier.isTransient(modifiers) || Modifier.isStatic(modifiers)) {
+            return false;
+        }
+        if (applyExcludedFields && Objects.REFLECTION_EXCLUDED_FIELDS.contains(name)) {
+            return false;
+        }
+        return excludeAnnotation == null || !field.isAnnotationPresent(excludeAnnotation);
+    }
+
+    /**
+     * Only fields that might reference other objects with fields need to be guarded against recursions.
+     */
+    private static boolean isRegistryRequired(final FieldAccessor[] fields) {
+        for (int i = 0; i < fields.length; i++) {
+            final Class<?> type = fields[i].type;
+            if (type.isPrimitive() || ClassUtils.isPrimitiveWrapper(type) || type == String.class || type.isEnum()) {
+                continue;
+            }
+            if (Modifier.isFinal(type.getModifiers()) && (type.getName().startsWith("java.lang.")
+                    || type.getName().startsWith("java.math.") || type.getName().startsWith("java.time."))) {
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Immutable
+    private static final class FieldAccessor {
+
+        private final String name;
+        private final Class<?> type;
+        private final boolean fullDetail;
+        private final MethodHandle getter;
+
+        private FieldAccessor(final Field field) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.fullDetail = !field.isAnnotationPresent(ToStringSummary.class);
+            Reflections.makeAccessible(field);
+            this.getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        }
+
+        public Object get(final Object obj) {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+    }
+
+    /**
+     * A small identity based stack, nesting is usually not deep enough to justify hashing.
+     */
+    @NotThreadSafe
+    private static final class ValueObjectRegistry {
+
+        private Object[] lefts = new Object[8];
+        private Object[] rights = new Object[8];
+        private int size;
+
+        public boolean contains(final Object obj) {
+            for (int i = 0; i < size; i++) {
+                if (lefts[i] == obj) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean contains(final Object left, final Object right) {
+            for (int i = 0; i < size; i++) {
+                if (lefts[i] == left && rights[i] == right || lefts[i] == right && rights[i] == left) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void push(final Object left, final Object right) {
+            if (size == lefts.length) {
+                lefts = Arrays.copyOf(lefts, size * 2);
+                rights = Arrays.copyOf(rights, size * 2);
+            }
+            lefts[size] = left;
+            rights[size] = right;
+            size++;
+        }
+
+        public void pop() {
+            size--;
+            lefts[size] = null;
+            rights[size] = null;
+        }
+
+    }
+
+}
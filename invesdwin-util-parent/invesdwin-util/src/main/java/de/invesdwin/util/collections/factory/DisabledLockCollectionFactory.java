@@ -16,10 +16,20 @@ import com.koloboke.collect.impl.hash.LHashParallelKVObjObjMapFactoryImpl;
 import com.koloboke.collect.map.hash.HashObjObjMapFactory;
 import com.koloboke.collect.set.hash.HashObjSetFactory;
 
+import de.invesdwin.util.collections.fast.AFastIterableDelegateDoubleList;
+import de.invesdwin.util.collections.fast.AFastIterableDelegateIntMap;
+import de.invesdwin.util.collections.fast.AFastIterableDelegateIntSet;
 import de.invesdwin.util.collections.fast.AFastIterableDelegateList;
+import de.invesdwin.util.collections.fast.AFastIterableDelegateLongMap;
+import de.invesdwin.util.collections.fast.AFastIterableDelegateLongSet;
 import de.invesdwin.util.collections.fast.AFastIterableDelegateMap;
 import de.invesdwin.util.collections.fast.AFastIterableDelegateSet;
+import de.invesdwin.util.collections.fast.IFastIterableDoubleList;
+import de.invesdwin.util.collections.fast.IFastIterableIntMap;
+import de.invesdwin.util.collections.fast.IFastIterableIntSet;
 import de.invesdwin.util.collections.fast.IFastIterableList;
+import de.invesdwin.util.collections.fast.IFastIterableLongMap;
+import de.invesdwin.util.collections.fast.IFastIterableLongSet;
 import de.invesdwin.util.collections.fast.IFastIterableMap;
 import de.invesdwin.util.collections.fast.IFastIterableSet;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
@@ -30,6 +40,16 @@ import de.invesdwin.util.concurrent.lock.disabled.DisabledReadWriteLock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
 import de.invesdwin.util.concurrent.nested.DisabledNestedExecutor;
 import de.invesdwin.util.concurrent.nested.INestedExecutor;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import uk.co.omegaprime.btreemap.BTreeMap;
@@ -130,6 +150,56 @@ public final class DisabledLockCollectionFactory implements ILockCollectionFacto
         return new ObjectLinkedOpenHashSet<>();
     }
 
+    @Override
+    public <V> Long2ObjectMap<V> newLongMap() {
+        return new Long2ObjectOpenHashMap<V>();
+    }
+
+    @Override
+    public <V> IFastIterableLongMap<V> newFastIterableLongMap() {
+        return new DisabledFastIterableLongMap<V>();
+    }
+
+    @Override
+    public <V> Int2ObjectMap<V> newIntMap() {
+        return new Int2ObjectOpenHashMap<V>();
+    }
+
+    @Override
+    public <V> IFastIterableIntMap<V> newFastIterableIntMap() {
+        return new DisabledFastIterableIntMap<V>();
+    }
+
+    @Override
+    public LongSet newLongSet() {
+        return new LongOpenHashSet();
+    }
+
+    @Override
+    public IFastIterableLongSet newFastIterableLongSet() {
+        return new DisabledFastIterableLongSet();
+    }
+
+    @Override
+    public IntSet newIntSet() {
+        return new IntOpenHashSet();
+    }
+
+    @Override
+    public IFastIterableIntSet newFastIterableIntSet() {
+        return new DisabledFastIterableIntSet();
+    }
+
+    @Override
+    public DoubleList newDoubleArrayList() {
+        return new DoubleArrayList();
+    }
+
+    @Override
+    public IFastIterableDoubleList newFastIterableDoubleArrayList() {
+        return new DisabledFastIterableDoubleList();
+    }
+
     private static final class DisabledFastIterableMap<K, V> extends AFastIterableDelegateMap<K, V> {
         @Override
         protected Map<K, V> newDelegate() {
@@ -137,6 +207,41 @@ public final class DisabledLockCollectionFactory implements ILockCollectionFacto
         }
     }
 
+    private static final class DisabledFastIterableLongMap<V> extends AFastIterableDelegateLongMap<V> {
+        @Override
+        protected Long2ObjectMap<V> newDelegate() {
+            return INSTANCE.newLongMap();
+        }
+    }
+
+    private static final class DisabledFastIterableIntMap<V> extends AFastIterableDelegateIntMap<V> {
+        @Override
+        protected Int2ObjectMap<V> newDelegate() {
+            return INSTANCE.newIntMap();
+        }
+    }
+
+    private static final class DisabledFastIterableLongSet extends AFastIterableDelegateLongSet {
+        @Override
+        protected LongSet newDelegate() {
+            return INSTANCE.newLongSet();
+        }
+    }
+
+    private static final class DisabledFastIterableIntSet extends AFastIterableDelegateIntSet {
+        @Override
+        protected IntSet newDelegate() {
+            return INSTANCE.newIntSet();
+        }
+    }
+
+    private static final class DisabledFastIterableDoubleList extends AFastIterableDelegateDoubleList {
+        @Override
+        protected DoubleList newDelegate() {
+            return INSTANCE.newDoubleArrayList();
+        }
+    }
+
     private static final class DisabledFastIterableSet<T> extends AFastIterableDelegateSet<T> {
         @Override
         protected Set<T> newDelegate() {
@@ -6,7 +6,12 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 
+import de.invesdwin.util.collections.fast.IFastIterableDoubleList;
+import de.invesdwin.util.collections.fast.IFastIterableIntMap;
+import de.invesdwin.util.collections.fast.IFastIterableIntSet;
 import de.invesdwin.util.collections.fast.IFastIterableList;
+import de.invesdwin.util.collections.fast.IFastIterableLongMap;
+import de.invesdwin.util.collections.fast.IFastIterableLongSet;
 import de.invesdwin.util.collections.fast.IFastIterableMap;
 import de.invesdwin.util.collections.fast.IFastIterableSet;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
@@ -14,6 +19,11 @@ import de.invesdwin.util.collections.loadingcache.ALoadingCacheConfig;
 import de.invesdwin.util.concurrent.lock.ILock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
 import de.invesdwin.util.concurrent.nested.INestedExecutor;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
 
 public interface ILockCollectionFactory {
 
@@ -55,6 +65,30 @@ public interface ILockCollectionFactory {
 
     <K, V> NavigableMap<K, V> newTreeMap(Comparator<? extends K> comparator);
 
+    /*
+     * primitive variants to prevent boxing of keys like millis or indexes
+     */
+
+    <V> Long2ObjectMap<V> newLongMap();
+
+    <V> IFastIterableLongMap<V> newFastIterableLongMap();
+
+    <V> Int2ObjectMap<V> newIntMap();
+
+    <V> IFastIterableIntMap<V> newFastIterableIntMap();
+
+    LongSet newLongSet();
+
+    IFastIterableLongSet newFastIterableLongSet();
+
+    IntSet newIntSet();
+
+    IFastIterableIntSet newFastIterableIntSet();
+
+    DoubleList newDoubleArrayList();
+
+    IFastIterableDoubleList newFastIterableDoubleArrayList();
+
     INestedExecutor newNestedExecutor(String name);
 
     /**
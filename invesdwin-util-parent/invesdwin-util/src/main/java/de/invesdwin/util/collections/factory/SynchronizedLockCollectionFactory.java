@@ -10,10 +10,20 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.concurrent.Immutable;
 
+import de.invesdwin.util.collections.fast.IFastIterableDoubleList;
+import de.invesdwin.util.collections.fast.IFastIterableIntMap;
+import de.invesdwin.util.collections.fast.IFastIterableIntSet;
 import de.invesdwin.util.collections.fast.IFastIterableList;
+import de.invesdwin.util.collections.fast.IFastIterableLongMap;
+import de.invesdwin.util.collections.fast.IFastIterableLongSet;
 import de.invesdwin.util.collections.fast.IFastIterableMap;
 import de.invesdwin.util.collections.fast.IFastIterableSet;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateDoubleList;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateIntMap;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateIntSet;
 import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateList;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateLongMap;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateLongSet;
 import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateMap;
 import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateSet;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
@@ -25,6 +35,16 @@ import de.invesdwin.util.concurrent.lock.Locks;
 import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
 import de.invesdwin.util.concurrent.nested.ANestedExecutor;
 import de.invesdwin.util.concurrent.nested.INestedExecutor;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.doubles.DoubleLists;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 
 @Immutable
 public final class SynchronizedLockCollectionFactory implements ILockCollectionFactory {
@@ -128,6 +148,56 @@ public final class SynchronizedLockCollectionFactory implements ILockCollectionF
         return Collections.synchronizedSet(DisabledLockCollectionFactory.INSTANCE.newLinkedSet());
     }
 
+    @Override
+    public <V> Long2ObjectMap<V> newLongMap() {
+        return Long2ObjectMaps.synchronize(DisabledLockCollectionFactory.INSTANCE.newLongMap());
+    }
+
+    @Override
+    public <V> IFastIterableLongMap<V> newFastIterableLongMap() {
+        return new SynchronizedFastIterableLongMap<V>();
+    }
+
+    @Override
+    public <V> Int2ObjectMap<V> newIntMap() {
+        return Int2ObjectMaps.synchronize(DisabledLockCollectionFactory.INSTANCE.newIntMap());
+    }
+
+    @Override
+    public <V> IFastIterableIntMap<V> newFastIterableIntMap() {
+        return new SynchronizedFastIterableIntMap<V>();
+    }
+
+    @Override
+    public LongSet newLongSet() {
+        return LongSets.synchronize(DisabledLockCollectionFactory.INSTANCE.newLongSet());
+    }
+
+    @Override
+    public IFastIterableLongSet newFastIterableLongSet() {
+        return new SynchronizedFastIterableLongSet();
+    }
+
+    @Override
+    public IntSet newIntSet() {
+        return IntSets.synchronize(DisabledLockCollectionFactory.INSTANCE.newIntSet());
+    }
+
+    @Override
+    public IFastIterableIntSet newFastIterableIntSet() {
+        return new SynchronizedFastIterableIntSet();
+    }
+
+    @Override
+    public DoubleList newDoubleArrayList() {
+        return DoubleLists.synchronize(DisabledLockCollectionFactory.INSTANCE.newDoubleArrayList());
+    }
+
+    @Override
+    public IFastIterableDoubleList newFastIterableDoubleArrayList() {
+        return new SynchronizedFastIterableDoubleList();
+    }
+
     private static final class SynchronizedFastIterableMap<K, V> extends ASynchronizedFastIterableDelegateMap<K, V> {
         @Override
         protected Map<K, V> newDelegate() {
@@ -135,6 +205,41 @@ public final class SynchronizedLockCollectionFactory implements ILockCollectionF
         }
     }
 
+    private static final class SynchronizedFastIterableLongMap<V> extends ASynchronizedFastIterableDelegateLongMap<V> {
+        @Override
+        protected Long2ObjectMap<V> newDelegate() {
+            return DisabledLockCollectionFactory.INSTANCE.newLongMap();
+        }
+    }
+
+    private static final class SynchronizedFastIterableIntMap<V> extends ASynchronizedFastIterableDelegateIntMap<V> {
+        @Override
+        protected Int2ObjectMap<V> newDelegate() {
+            return DisabledLockCollectionFactory.INSTANCE.newIntMap();
+        }
+    }
+
+    private static final class SynchronizedFastIterableLongSet extends ASynchronizedFastIterableDelegateLongSet {
+        @Override
+        protected LongSet newDelegate() {
+            return DisabledLockCollectionFactory.INSTANCE.newLongSet();
+        }
+    }
+
+    private static final class SynchronizedFastIterableIntSet extends ASynchronizedFastIterableDelegateIntSet {
+        @Override
+        protected IntSet newDelegate() {
+            return DisabledLockCollectionFactory.INSTANCE.newIntSet();
+        }
+    }
+
+    private static final class SynchronizedFastIterableDoubleList extends ASynchronizedFastIterableDelegateDoubleList {
+        @Override
+        protected DoubleList newDelegate() {
+            return DisabledLockCollectionFactory.INSTANCE.newDoubleArrayList();
+        }
+    }
+
     private static final class SynchronizedFastIterableSet<T> extends ASynchronizedFastIterableDelegateSet<T> {
         @Override
         protected Set<T> newDelegate() {
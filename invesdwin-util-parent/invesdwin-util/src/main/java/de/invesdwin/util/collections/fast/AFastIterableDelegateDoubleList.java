@@ -0,0 +1,122 @@
+package de.invesdwin.util.collections.fast;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import it.unimi.dsi.fastutil.doubles.AbstractDoubleList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the list
+ * occur.
+ * 
+ * All modifications of AbstractDoubleList (including those via iterators and sub lists) end up in the methods
+ * overridden here, thus the array can not get stale.
+ */
+@NotThreadSafe
+public abstract class AFastIterableDelegateDoubleList extends AbstractDoubleList implements IFastIterableDoubleList {
+
+    private transient double[] array;
+
+    private final DoubleList delegate = newDelegate();
+
+    protected abstract DoubleList newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public double[] asArray() {
+        if (array == null) {
+            array = delegate.toDoubleArray();
+        }
+        return array;
+    }
+
+    @Override
+    public void add(final int index, final double k) {
+        delegate.add(index, k);
+        refreshFastIterable();
+    }
+
+    @Override
+    public boolean add(final double k) {
+        delegate.add(k);
+        refreshFastIterable();
+        return true;
+    }
+
+    @Override
+    public double set(final int index, final double k) {
+        final double prev = delegate.set(index, k);
+        refreshFastIterable();
+        return prev;
+    }
+
+    @Override
+    public double removeDouble(final int index) {
+        final double removed = delegate.removeDouble(index);
+        refreshFastIterable();
+        return removed;
+    }
+
+    @Override
+    public void removeElements(final int from, final int to) {
+        delegate.removeElements(from, to);
+        refreshFastIterable();
+    }
+
+    @Override
+    public void addElements(final int index, final double[] a, final int offset, final int length) {
+        delegate.addElements(index, a, offset, length);
+        refreshFastIterable();
+    }
+
+    @Override
+    public void size(final int size) {
+        delegate.size(size);
+        refreshFastIterable();
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public double getDouble(final int index) {
+        return delegate.getDouble(index);
+    }
+
+    @Override
+    public void getElements(final int from, final double[] a, final int offset, final int length) {
+        delegate.getElements(from, a, offset, length);
+    }
+
+    @Override
+    public int indexOf(final double k) {
+        return delegate.indexOf(k);
+    }
+
+    @Override
+    public int lastIndexOf(final double k) {
+        return delegate.lastIndexOf(k);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return delegate.toDoubleArray();
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.invesdwin.util.collections.fast;
+
+import java.lang.reflect.Array;
+import java.util.function.BiFunction;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import it.unimi.dsi.fastutil.ints.AbstractInt2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+import it.unimi.dsi.fastutil.objects.ObjectCollection;
+import it.unimi.dsi.fastutil.objects.ObjectCollections;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+
+/**
+ * Boosts the iteration speed over the keys and values by caching arrays of them that only get recreated when changes
+ * to the map occur.
+ * 
+ * The views returned from this map are unmodifiable, so that all modifications go through the map itself.
+ */
+@NotThreadSafe
+public abstract class AFastIterableDelegateIntMap<V> extends AbstractInt2ObjectMap<V>
+        implements IFastIterableIntMap<V> {
+
+    private transient int[] keyArray;
+    private transient V[] valueArray;
+
+    private final Int2ObjectMap<V> delegate = newDelegate();
+    private final ObjectSet<Entry<V>> entrySet = ObjectSets.unmodifiable(delegate.int2ObjectEntrySet());
+    private final IntSet keySet = IntSets.unmodifiable(delegate.keySet());
+    private final ObjectCollection<V> values = ObjectCollections.unmodifiable(delegate.values());
+
+    protected abstract Int2ObjectMap<V> newDelegate();
+
+    @Override
+    public V put(final int key, final V value) {
+        final V prev = delegate.put(key, value);
+        //a null value might still have added the key
+        if (prev != value || prev == null) {
+            refreshFastIterable();
+        }
+        return prev;
+    }
+
+    @Override
+    public V remove(final int key) {
+        final int sizeBefore = delegate.size();
+        final V removed = delegate.remove(key);
+        //a key mapped to a null value might still have been removed
+        if (removed != null || delegate.size() != sizeBefore) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public void replaceAll(final BiFunction<? super Integer, ? super V, ? extends V> function) {
+        //the default would call setValue on the entries of the unmodifiable entry set and bypass the cached arrays
+        delegate.replaceAll(function);
+        refreshFastIterable();
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    protected void refreshFastIterable() {
+        keyArray = null;
+        valueArray = null;
+    }
+
+    @Override
+    public V get(final int key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final int key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return delegate.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public ObjectSet<Entry<V>> int2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public IntSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectCollection<V> values() {
+        return values;
+    }
+
+    @Override
+    public int[] asKeyArray() {
+        if (keyArray == null) {
+            keyArray = delegate.keySet().toIntArray();
+        }
+        return keyArray;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V[] asValueArray(final Class<V> valueType) {
+        if (valueArray == null) {
+            final V[] empty = (V[]) Array.newInstance(valueType, delegate.size());
+            valueArray = delegate.values().toArray(empty);
+        }
+        return valueArray;
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
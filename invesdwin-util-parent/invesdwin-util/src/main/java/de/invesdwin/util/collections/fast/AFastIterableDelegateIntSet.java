@@ -0,0 +1,205 @@
+package de.invesdwin.util.collections.fast;
+
+import java.util.Collection;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the set
+ * occur.
+ */
+@NotThreadSafe
+public abstract class AFastIterableDelegateIntSet implements IFastIterableIntSet {
+
+    private transient int[] array;
+
+    private final IntSet delegate = newDelegate();
+
+    protected abstract IntSet newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public int[] asArray() {
+        if (array == null) {
+            array = delegate.toIntArray();
+        }
+        return array;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        final IntIterator iterator = delegate.iterator();
+        return new IntIterator() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return iterator.nextInt();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                refreshFastIterable();
+            }
+        };
+    }
+
+    @Override
+    public boolean add(final int key) {
+        final boolean added = delegate.add(key);
+        if (added) {
+            refreshFastIterable();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(final int key) {
+        final boolean removed = delegate.remove(key);
+        if (removed) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean addAll(final IntCollection c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Integer> c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(final IntCollection c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(final IntCollection c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeIf(final java.util.function.IntPredicate filter) {
+        final boolean changed = delegate.removeIf(filter);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public boolean contains(final int key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public boolean containsAll(final IntCollection c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int[] toIntArray() {
+        return delegate.toIntArray();
+    }
+
+    @Override
+    public int[] toArray(final int[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(final T[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
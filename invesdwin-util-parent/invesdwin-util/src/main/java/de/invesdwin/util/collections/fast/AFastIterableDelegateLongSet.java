@@ -0,0 +1,205 @@
+package de.invesdwin.util.collections.fast;
+
+import java.util.Collection;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the set
+ * occur.
+ */
+@NotThreadSafe
+public abstract class AFastIterableDelegateLongSet implements IFastIterableLongSet {
+
+    private transient long[] array;
+
+    private final LongSet delegate = newDelegate();
+
+    protected abstract LongSet newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public long[] asArray() {
+        if (array == null) {
+            array = delegate.toLongArray();
+        }
+        return array;
+    }
+
+    @Override
+    public LongIterator iterator() {
+        final LongIterator iterator = delegate.iterator();
+        return new LongIterator() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                return iterator.nextLong();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                refreshFastIterable();
+            }
+        };
+    }
+
+    @Override
+    public boolean add(final long key) {
+        final boolean added = delegate.add(key);
+        if (added) {
+            refreshFastIterable();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(final long key) {
+        final boolean removed = delegate.remove(key);
+        if (removed) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean addAll(final LongCollection c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Long> c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(final LongCollection c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(final LongCollection c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean removeIf(final java.util.function.LongPredicate filter) {
+        final boolean changed = delegate.removeIf(filter);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public boolean contains(final long key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public boolean containsAll(final LongCollection c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public long[] toLongArray() {
+        return delegate.toLongArray();
+    }
+
+    @Override
+    public long[] toArray(final long[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(final T[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -9,6 +9,7 @@ import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.bean.tuple.ImmutableEntry;
+import de.invesdwin.util.collections.fast.internal.ChunkedEntrySnapshot;
 import de.invesdwin.util.collections.iterable.buffer.BufferingIterator;
 
 /**
@@ -16,11 +17,15 @@ import de.invesdwin.util.collections.iterable.buffer.BufferingIterator;
  * to the map occur.
  * 
  * The iterator returned from this map is also suitable for concurrent modification during iteration.
+ * 
+ * Override isChunkedFastIterable() for maps that get modified often while being iterated even more often (e.g.
+ * listener registries). Then a modification only updates a chunk of a snapshot instead of rebuilding it completely.
  */
 @NotThreadSafe
 public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap<K, V> {
 
     private transient BufferingIterator<Entry<K, V>> fastIterable;
+    private transient ChunkedEntrySnapshot<K, V> chunkedFastIterable;
 
     private transient Entry<K, V>[] entryArray;
     private transient K[] keyArray;
@@ -46,6 +51,9 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
 
         @Override
         public Iterator<Entry<K, V>> iterator() {
+            if (isChunkedFastIterable()) {
+                return getChunkedFastIterable().iterator();
+            }
             if (fastIterable == null) {
                 fastIterable = new BufferingIterator<Entry<K, V>>();
                 for (final Entry<K, V> e : delegate.entrySet()) {
@@ -265,13 +273,30 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
 
     protected abstract Map<K, V> newDelegate();
 
+    /**
+     * Return true to update the fast iterable incrementally via a chunked snapshot. Iterators then only see the entries
+     * from the time they were created, not the ones added during iteration.
+     */
+    protected boolean isChunkedFastIterable() {
+        return false;
+    }
+
+    private ChunkedEntrySnapshot<K, V> getChunkedFastIterable() {
+        if (chunkedFastIterable == null) {
+            final ChunkedEntrySnapshot<K, V> chunked = new ChunkedEntrySnapshot<K, V>();
+            chunked.putAll(delegate);
+            chunkedFastIterable = chunked;
+        }
+        return chunkedFastIterable;
+    }
+
     @Override
     public V put(final K key, final V value) {
         final V prev = delegate.put(key, value);
         if (prev == null) {
             addToFastIterable(key, value);
         } else if (prev != value) {
-            refreshFastIterable();
+            replaceInFastIterable(key, value);
         }
         return prev;
     }
@@ -281,8 +306,6 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
         final V prev = delegate.putIfAbsent(key, value);
         if (prev == null) {
             addToFastIterable(key, value);
-        } else if (prev != value) {
-            refreshFastIterable();
         }
         return prev;
     }
@@ -291,25 +314,59 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
         if (fastIterable != null) {
             fastIterable.add(ImmutableEntry.of(key, value));
         }
+        if (chunkedFastIterable != null) {
+            //also replaces an existing key that was mapped to null
+            chunkedFastIterable.put(key, value);
+        }
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    protected void replaceInFastIterable(final K key, final V value) {
+        if (chunkedFastIterable != null) {
+            chunkedFastIterable.put(key, value);
+            entryArray = null;
+            keyArray = null;
+            valueArray = null;
+        } else {
+            refreshFastIterable();
+        }
+    }
+
+    protected void removeFromFastIterable(final K key) {
+        if (chunkedFastIterable != null) {
+            //the cached arrays are still valid when the key was not contained
+            if (chunkedFastIterable.remove(key)) {
+                entryArray = null;
+                keyArray = null;
+                valueArray = null;
+            }
+        } else {
+            refreshFastIterable();
+        }
+    }
+
     @Override
     public void clear() {
         delegate.clear();
-        fastIterable = new BufferingIterator<Entry<K, V>>();
+        if (isChunkedFastIterable()) {
+            chunkedFastIterable = null;
+        } else {
+            fastIterable = new BufferingIterator<Entry<K, V>>();
+        }
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public V remove(final Object key) {
         final V removed = delegate.remove(key);
-        if (removed != null) {
-            refreshFastIterable();
+        //a key mapped to null has to be removed from the snapshot as well
+        if (removed != null || isChunkedFastIterable()) {
+            removeFromFastIterable((K) key);
         }
         return removed;
     }
@@ -319,16 +376,18 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
      */
     protected void refreshFastIterable() {
         fastIterable = null;
+        chunkedFastIterable = null;
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public boolean remove(final Object key, final Object value) {
         final boolean removed = delegate.remove(key, value);
         if (removed) {
-            refreshFastIterable();
+            removeFromFastIterable((K) key);
         }
         return removed;
     }
@@ -343,7 +402,11 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
     public V[] asValueArray(final Class<V> valueType) {
         if (valueArray == null) {
             final V[] empty = (V[]) Array.newInstance(valueType, delegate.size());
-            valueArray = values.toArray(empty);
+            if (isChunkedFastIterable()) {
+                valueArray = getChunkedFastIterable().toValueArray(empty);
+            } else {
+                valueArray = values.toArray(empty);
+            }
         }
         return valueArray;
     }
@@ -358,7 +421,11 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
     public K[] asKeyArray(final Class<K> keyType) {
         if (keyArray == null) {
             final K[] empty = (K[]) Array.newInstance(keyType, delegate.size());
-            keyArray = keySet.toArray(empty);
+            if (isChunkedFastIterable()) {
+                keyArray = getChunkedFastIterable().toKeyArray(empty);
+            } else {
+                keyArray = keySet.toArray(empty);
+            }
         }
         return keyArray;
     }
@@ -373,7 +440,11 @@ public abstract class AFastIterableDelegateMap<K, V> implements IFastIterableMap
     public Entry<K, V>[] asEntryArray() {
         if (entryArray == null) {
             final Entry<K, V>[] empty = (Entry<K, V>[]) Array.newInstance(Entry.class, delegate.size());
-            entryArray = entrySet.toArray(empty);
+            if (isChunkedFastIterable()) {
+                entryArray = getChunkedFastIterable().toEntryArray(empty);
+            } else {
+                entryArray = entrySet.toArray(empty);
+            }
         }
         return entryArray;
     }
@@ -0,0 +1,14 @@
+package de.invesdwin.util.collections.fast;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+
+/**
+ * A list of primitive doubles. Iteration should happen over the cached array which is only recreated after the list
+ * got modified.
+ */
+public interface IFastIterableDoubleList extends DoubleList, ISerializableValueObject {
+
+    double[] asArray();
+
+}
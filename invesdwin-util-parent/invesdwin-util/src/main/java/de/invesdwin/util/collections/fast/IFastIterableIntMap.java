@@ -0,0 +1,16 @@
+package de.invesdwin.util.collections.fast;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+
+/**
+ * A map with primitive int keys, thus keys like indexes do not need to be boxed. Iteration should happen
+ * over the cached arrays which are only recreated after the map got modified.
+ */
+public interface IFastIterableIntMap<V> extends Int2ObjectMap<V>, ISerializableValueObject {
+
+    V[] asValueArray(Class<V> valueType);
+
+    int[] asKeyArray();
+
+}
@@ -0,0 +1,14 @@
+package de.invesdwin.util.collections.fast;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+/**
+ * A set of primitive ints. Iteration should happen over the cached array which is only recreated after the set got
+ * modified.
+ */
+public interface IFastIterableIntSet extends IntSet, ISerializableValueObject {
+
+    int[] asArray();
+
+}
@@ -0,0 +1,16 @@
+package de.invesdwin.util.collections.fast;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+
+/**
+ * A map with primitive long keys, thus keys like millis or indexes do not need to be boxed. Iteration should happen
+ * over the cached arrays which are only recreated after the map got modified.
+ */
+public interface IFastIterableLongMap<V> extends Long2ObjectMap<V>, ISerializableValueObject {
+
+    V[] asValueArray(Class<V> valueType);
+
+    long[] asKeyArray();
+
+}
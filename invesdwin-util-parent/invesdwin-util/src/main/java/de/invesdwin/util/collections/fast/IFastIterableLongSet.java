@@ -0,0 +1,14 @@
+package de.invesdwin.util.collections.fast;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+/**
+ * A set of primitive longs. Iteration should happen over the cached array which is only recreated after the set got
+ * modified.
+ */
+public interface IFastIterableLongSet extends LongSet, ISerializableValueObject {
+
+    long[] asArray();
+
+}
@@ -0,0 +1,228 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Collection;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.fast.IFastIterableDoubleList;
+import it.unimi.dsi.fastutil.doubles.AbstractDoubleList;
+import it.unimi.dsi.fastutil.doubles.DoubleCollection;
+import it.unimi.dsi.fastutil.doubles.DoubleComparator;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the list
+ * occur.
+ * 
+ * Bulk operations are atomic since the lock is reentrant. Iterators and sub lists are only synchronized per call like
+ * in Collections.synchronizedList(), thus iterate over asArray() to get a consistent snapshot.
+ */
+@ThreadSafe
+public abstract class ASynchronizedFastIterableDelegateDoubleList extends AbstractDoubleList
+        implements IFastIterableDoubleList {
+
+    @GuardedBy("this")
+    private transient double[] array;
+
+    @GuardedBy("this")
+    private final DoubleList delegate = newDelegate();
+
+    protected abstract DoubleList newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public synchronized double[] asArray() {
+        if (array == null) {
+            array = delegate.toDoubleArray();
+        }
+        return array;
+    }
+
+    @Override
+    public synchronized void add(final int index, final double k) {
+        delegate.add(index, k);
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized boolean add(final double k) {
+        delegate.add(k);
+        refreshFastIterable();
+        return true;
+    }
+
+    @Override
+    public synchronized double set(final int index, final double k) {
+        final double prev = delegate.set(index, k);
+        refreshFastIterable();
+        return prev;
+    }
+
+    @Override
+    public synchronized double removeDouble(final int index) {
+        final double removed = delegate.removeDouble(index);
+        refreshFastIterable();
+        return removed;
+    }
+
+    @Override
+    public synchronized void removeElements(final int from, final int to) {
+        delegate.removeElements(from, to);
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized void addElements(final int index, final double[] a, final int offset, final int length) {
+        delegate.addElements(index, a, offset, length);
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized void size(final int size) {
+        delegate.size(size);
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized double getDouble(final int index) {
+        return delegate.getDouble(index);
+    }
+
+    @Override
+    public synchronized void getElements(final int from, final double[] a, final int offset, final int length) {
+        delegate.getElements(from, a, offset, length);
+    }
+
+    @Override
+    public synchronized int indexOf(final double k) {
+        return delegate.indexOf(k);
+    }
+
+    @Override
+    public synchronized int lastIndexOf(final double k) {
+        return delegate.lastIndexOf(k);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public synchronized double[] toDoubleArray() {
+        return delegate.toDoubleArray();
+    }
+
+    /*
+     * bulk operations of AbstractDoubleList iterate over this list, thus holding the lock makes them atomic
+     */
+
+    @Override
+    public synchronized boolean addAll(final int index, final DoubleCollection c) {
+        return super.addAll(index, c);
+    }
+
+    @Override
+    public synchronized boolean addAll(final int index, final Collection<? extends Double> c) {
+        return super.addAll(index, c);
+    }
+
+    @Override
+    public synchronized boolean addAll(final DoubleCollection c) {
+        return super.addAll(c);
+    }
+
+    @Override
+    public synchronized boolean addAll(final Collection<? extends Double> c) {
+        return super.addAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeAll(final DoubleCollection c) {
+        return super.removeAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeAll(final Collection<?> c) {
+        return super.removeAll(c);
+    }
+
+    @Override
+    public synchronized boolean retainAll(final DoubleCollection c) {
+        return super.retainAll(c);
+    }
+
+    @Override
+    public synchronized boolean retainAll(final Collection<?> c) {
+        return super.retainAll(c);
+    }
+
+    @Override
+    public synchronized boolean removeIf(final DoublePredicate filter) {
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public synchronized void replaceAll(final DoubleUnaryOperator operator) {
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public synchronized void forEach(final DoubleConsumer action) {
+        super.forEach(action);
+    }
+
+    @Override
+    public synchronized void sort(final DoubleComparator comparator) {
+        super.sort(comparator);
+    }
+
+    @Override
+    public synchronized void unstableSort(final DoubleComparator comparator) {
+        super.unstableSort(comparator);
+    }
+
+    @Override
+    public synchronized boolean rem(final double k) {
+        return super.rem(k);
+    }
+
+    @Override
+    public synchronized boolean contains(final double k) {
+        return super.contains(k);
+    }
+
+    @Override
+    public synchronized boolean equals(final Object o) {
+        return super.equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return super.toString();
+    }
+
+}
@@ -0,0 +1,216 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Collection;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.fast.IFastIterableIntSet;
+import de.invesdwin.util.error.FastNoSuchElementException;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the set
+ * occur.
+ * 
+ * The iterator works on that array, thus it is suitable for concurrent modification during iteration.
+ */
+@ThreadSafe
+public abstract class ASynchronizedFastIterableDelegateIntSet implements IFastIterableIntSet {
+
+    @GuardedBy("this")
+    private transient int[] array;
+
+    @GuardedBy("this")
+    private final IntSet delegate = newDelegate();
+
+    protected abstract IntSet newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public synchronized int[] asArray() {
+        if (array == null) {
+            array = delegate.toIntArray();
+        }
+        return array;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        final int[] snapshot = asArray();
+        return new IntIterator() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new FastNoSuchElementException("ASynchronizedFastIterableDelegateIntSet: hasNext is false");
+                }
+                return snapshot[index++];
+            }
+
+            @Override
+            public void remove() {
+                ASynchronizedFastIterableDelegateIntSet.this.remove(snapshot[index - 1]);
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean add(final int key) {
+        final boolean added = delegate.add(key);
+        if (added) {
+            refreshFastIterable();
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized boolean remove(final int key) {
+        final boolean removed = delegate.remove(key);
+        if (removed) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean addAll(final IntCollection c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean addAll(final Collection<? extends Integer> c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeAll(final IntCollection c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeAll(final Collection<?> c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean retainAll(final IntCollection c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean retainAll(final Collection<?> c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeIf(final java.util.function.IntPredicate filter) {
+        final boolean changed = delegate.removeIf(filter);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized boolean contains(final int key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public synchronized boolean containsAll(final IntCollection c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public synchronized boolean containsAll(final Collection<?> c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public synchronized int[] toIntArray() {
+        return delegate.toIntArray();
+    }
+
+    @Override
+    public synchronized int[] toArray(final int[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public synchronized Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    @Override
+    public synchronized <T> T[] toArray(final T[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public synchronized boolean equals(final Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return delegate.toString();
+    }
+
+}
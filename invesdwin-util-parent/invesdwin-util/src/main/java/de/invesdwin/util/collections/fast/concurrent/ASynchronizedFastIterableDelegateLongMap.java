@@ -0,0 +1,281 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.fast.IFastIterableLongMap;
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectFunction;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import it.unimi.dsi.fastutil.objects.ObjectCollection;
+import it.unimi.dsi.fastutil.objects.ObjectCollections;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+
+/**
+ * Boosts the iteration speed over the keys and values by caching arrays of them that only get recreated when changes
+ * to the map occur.
+ * 
+ * The views returned from this map are unmodifiable and synchronized per call, thus iterating over them is not atomic.
+ * Use the arrays instead to iterate over a consistent snapshot.
+ */
+@ThreadSafe
+public abstract class ASynchronizedFastIterableDelegateLongMap<V> extends AbstractLong2ObjectMap<V>
+        implements IFastIterableLongMap<V> {
+
+    @GuardedBy("this")
+    private transient long[] keyArray;
+    @GuardedBy("this")
+    private transient V[] valueArray;
+
+    @GuardedBy("this")
+    private final Long2ObjectMap<V> delegate = newDelegate();
+    private final Long2ObjectMap<V> synchronizedDelegate = Long2ObjectMaps.synchronize(delegate, this);
+    private final ObjectSet<Entry<V>> entrySet = ObjectSets
+            .unmodifiable(synchronizedDelegate.long2ObjectEntrySet());
+    private final LongSet keySet = LongSets.unmodifiable(synchronizedDelegate.keySet());
+    private final ObjectCollection<V> values = ObjectCollections.unmodifiable(synchronizedDelegate.values());
+
+    protected abstract Long2ObjectMap<V> newDelegate();
+
+    @Override
+    public synchronized V put(final long key, final V value) {
+        final V prev = delegate.put(key, value);
+        //a null value might still have added the key
+        if (prev != value || prev == null) {
+            refreshFastIterable();
+        }
+        return prev;
+    }
+
+    @Override
+    public synchronized V remove(final long key) {
+        final int sizeBefore = delegate.size();
+        final V removed = delegate.remove(key);
+        //a key mapped to a null value might still have been removed
+        if (removed != null || delegate.size() != sizeBefore) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized void replaceAll(final BiFunction<? super Long, ? super V, ? extends V> function) {
+        //the default would call setValue on the entries of the unmodifiable entry set and bypass the cached arrays
+        delegate.replaceAll(function);
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    protected void refreshFastIterable() {
+        keyArray = null;
+        valueArray = null;
+    }
+
+    @Override
+    public synchronized V get(final long key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public synchronized boolean containsKey(final long key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public synchronized boolean containsValue(final Object value) {
+        return delegate.containsValue(value);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public ObjectSet<Entry<V>> long2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public LongSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectCollection<V> values() {
+        return values;
+    }
+
+    @Override
+    public synchronized long[] asKeyArray() {
+        if (keyArray == null) {
+            keyArray = delegate.keySet().toLongArray();
+        }
+        return keyArray;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized V[] asValueArray(final Class<V> valueType) {
+        if (valueArray == null) {
+            final V[] empty = (V[]) Array.newInstance(valueType, delegate.size());
+            valueArray = delegate.values().toArray(empty);
+        }
+        return valueArray;
+    }
+
+    /*
+     * the compound operations of the interface only use get/put/remove, thus holding the lock makes them atomic
+     */
+
+    @Override
+    public synchronized V getOrDefault(final long key, final V defaultValue) {
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public synchronized V putIfAbsent(final long key, final V value) {
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public synchronized boolean remove(final long key, final Object value) {
+        return super.remove(key, value);
+    }
+
+    @Override
+    public synchronized boolean replace(final long key, final V oldValue, final V newValue) {
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public synchronized V replace(final long key, final V value) {
+        return super.replace(key, value);
+    }
+
+    @Override
+    public synchronized V computeIfAbsent(final long key, final LongFunction<? extends V> mappingFunction) {
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized V computeIfAbsent(final long key, final Long2ObjectFunction<? extends V> mappingFunction) {
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized V computeIfPresent(final long key,
+            final BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V compute(final long key,
+            final BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V merge(final long key, final V value,
+            final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public synchronized void putAll(final Map<? extends Long, ? extends V> m) {
+        super.putAll(m);
+    }
+
+    @Override
+    public synchronized void forEach(final BiConsumer<? super Long, ? super V> consumer) {
+        super.forEach(consumer);
+    }
+
+    /*
+     * the boxed variants would otherwise use the non atomic defaults of java.util.Map
+     */
+
+    @Deprecated
+    @Override
+    public synchronized V getOrDefault(final Object key, final V defaultValue) {
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V putIfAbsent(final Long key, final V value) {
+        return super.putIfAbsent(key, value);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized boolean remove(final Object key, final Object value) {
+        return super.remove(key, value);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized boolean replace(final Long key, final V oldValue, final V newValue) {
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V replace(final Long key, final V value) {
+        return super.replace(key, value);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V computeIfAbsent(final Long key, final Function<? super Long, ? extends V> mappingFunction) {
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V computeIfPresent(final Long key,
+            final BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V compute(final Long key,
+            final BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        return super.compute(key, remappingFunction);
+    }
+
+    @Deprecated
+    @Override
+    public synchronized V merge(final Long key, final V value,
+            final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return delegate.toString();
+    }
+
+}
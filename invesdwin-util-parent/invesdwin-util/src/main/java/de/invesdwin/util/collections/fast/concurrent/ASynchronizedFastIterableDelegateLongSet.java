@@ -0,0 +1,216 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Collection;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.fast.IFastIterableLongSet;
+import de.invesdwin.util.error.FastNoSuchElementException;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+/**
+ * Boosts the iteration speed by caching an array of the elements that only gets recreated when changes to the set
+ * occur.
+ * 
+ * The iterator works on that array, thus it is suitable for concurrent modification during iteration.
+ */
+@ThreadSafe
+public abstract class ASynchronizedFastIterableDelegateLongSet implements IFastIterableLongSet {
+
+    @GuardedBy("this")
+    private transient long[] array;
+
+    @GuardedBy("this")
+    private final LongSet delegate = newDelegate();
+
+    protected abstract LongSet newDelegate();
+
+    protected void refreshFastIterable() {
+        array = null;
+    }
+
+    @Override
+    public synchronized long[] asArray() {
+        if (array == null) {
+            array = delegate.toLongArray();
+        }
+        return array;
+    }
+
+    @Override
+    public LongIterator iterator() {
+        final long[] snapshot = asArray();
+        return new LongIterator() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new FastNoSuchElementException("ASynchronizedFastIterableDelegateLongSet: hasNext is false");
+                }
+                return snapshot[index++];
+            }
+
+            @Override
+            public void remove() {
+                ASynchronizedFastIterableDelegateLongSet.this.remove(snapshot[index - 1]);
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean add(final long key) {
+        final boolean added = delegate.add(key);
+        if (added) {
+            refreshFastIterable();
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized boolean remove(final long key) {
+        final boolean removed = delegate.remove(key);
+        if (removed) {
+            refreshFastIterable();
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean addAll(final LongCollection c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean addAll(final Collection<? extends Long> c) {
+        final boolean changed = delegate.addAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeAll(final LongCollection c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeAll(final Collection<?> c) {
+        final boolean changed = delegate.removeAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean retainAll(final LongCollection c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean retainAll(final Collection<?> c) {
+        final boolean changed = delegate.retainAll(c);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized boolean removeIf(final java.util.function.LongPredicate filter) {
+        final boolean changed = delegate.removeIf(filter);
+        if (changed) {
+            refreshFastIterable();
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        delegate.clear();
+        refreshFastIterable();
+    }
+
+    @Override
+    public synchronized boolean contains(final long key) {
+        return delegate.contains(key);
+    }
+
+    @Override
+    public synchronized boolean containsAll(final LongCollection c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public synchronized boolean containsAll(final Collection<?> c) {
+        return delegate.containsAll(c);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public synchronized long[] toLongArray() {
+        return delegate.toLongArray();
+    }
+
+    @Override
+    public synchronized long[] toArray(final long[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public synchronized Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    @Override
+    public synchronized <T> T[] toArray(final T[] a) {
+        return delegate.toArray(a);
+    }
+
+    @Override
+    public synchronized boolean equals(final Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -12,6 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.bean.tuple.ImmutableEntry;
 import de.invesdwin.util.collections.fast.IFastIterableMap;
+import de.invesdwin.util.collections.fast.internal.ChunkedEntrySnapshot;
 import de.invesdwin.util.collections.iterable.buffer.BufferingIterator;
 
 /**
@@ -19,6 +20,9 @@ import de.invesdwin.util.collections.iterable.buffer.BufferingIterator;
  * to the map occur.
  * 
  * The iterator returned from this map is also suitable for concurrent modification during iteration.
+ * 
+ * Override isChunkedFastIterable() for maps that get modified often while being iterated even more often (e.g.
+ * listener registries). Then a modification only updates a chunk of a snapshot instead of rebuilding it completely.
  */
 @ThreadSafe
 public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFastIterableMap<K, V> {
@@ -26,6 +30,8 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
     //arraylist wins in raw iterator speed compared to bufferingIterator since no remove is needed, though we need protection against concurrent modification
     @GuardedBy("this")
     private transient BufferingIterator<Entry<K, V>> fastIterable;
+    @GuardedBy("this")
+    private transient ChunkedEntrySnapshot<K, V> chunkedFastIterable;
 
     @GuardedBy("this")
     private transient Entry<K, V>[] entryArray;
@@ -49,13 +55,30 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
 
     protected abstract Map<K, V> newDelegate();
 
+    /**
+     * Return true to update the fast iterable incrementally via a chunked snapshot. Iterators then only see the entries
+     * from the time they were created, not the ones added during iteration.
+     */
+    protected boolean isChunkedFastIterable() {
+        return false;
+    }
+
+    private ChunkedEntrySnapshot<K, V> getChunkedFastIterable() {
+        if (chunkedFastIterable == null) {
+            final ChunkedEntrySnapshot<K, V> chunked = new ChunkedEntrySnapshot<K, V>();
+            chunked.putAll(delegate);
+            chunkedFastIterable = chunked;
+        }
+        return chunkedFastIterable;
+    }
+
     @Override
     public synchronized V put(final K key, final V value) {
         final V prev = delegate.put(key, value);
         if (prev == null) {
             addToFastIterable(key, value);
         } else if (prev != value) {
-            refreshFastIterable();
+            replaceInFastIterable(key, value);
         }
         return prev;
     }
@@ -65,8 +88,6 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
         final V prev = delegate.putIfAbsent(key, value);
         if (prev == null) {
             addToFastIterable(key, value);
-        } else if (prev != value) {
-            refreshFastIterable();
         }
         return prev;
     }
@@ -75,25 +96,59 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
         if (fastIterable != null) {
             fastIterable.add(ImmutableEntry.of(key, value));
         }
+        if (chunkedFastIterable != null) {
+            //also replaces an existing key that was mapped to null
+            chunkedFastIterable.put(key, value);
+        }
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    protected void replaceInFastIterable(final K key, final V value) {
+        if (chunkedFastIterable != null) {
+            chunkedFastIterable.put(key, value);
+            entryArray = null;
+            keyArray = null;
+            valueArray = null;
+        } else {
+            refreshFastIterable();
+        }
+    }
+
+    protected void removeFromFastIterable(final K key) {
+        if (chunkedFastIterable != null) {
+            //the cached arrays are still valid when the key was not contained
+            if (chunkedFastIterable.remove(key)) {
+                entryArray = null;
+                keyArray = null;
+                valueArray = null;
+            }
+        } else {
+            refreshFastIterable();
+        }
+    }
+
     @Override
     public synchronized void clear() {
         delegate.clear();
-        fastIterable = new BufferingIterator<Entry<K, V>>();
+        if (isChunkedFastIterable()) {
+            chunkedFastIterable = null;
+        } else {
+            fastIterable = new BufferingIterator<Entry<K, V>>();
+        }
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public synchronized V remove(final Object key) {
         final V removed = delegate.remove(key);
-        if (removed != null) {
-            refreshFastIterable();
+        //a key mapped to null has to be removed from the snapshot as well
+        if (removed != null || isChunkedFastIterable()) {
+            removeFromFastIterable((K) key);
         }
         return removed;
     }
@@ -103,16 +158,18 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
      */
     protected void refreshFastIterable() {
         fastIterable = null;
+        chunkedFastIterable = null;
         entryArray = null;
         keyArray = null;
         valueArray = null;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public synchronized boolean remove(final Object key, final Object value) {
         final boolean removed = delegate.remove(key, value);
         if (removed) {
-            refreshFastIterable();
+            removeFromFastIterable((K) key);
         }
         return removed;
     }
@@ -127,7 +184,11 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
     public synchronized V[] asValueArray(final Class<V> valueType) {
         if (valueArray == null) {
             final V[] empty = (V[]) Array.newInstance(valueType, delegate.size());
-            valueArray = values.toArray(empty);
+            if (isChunkedFastIterable()) {
+                valueArray = getChunkedFastIterable().toValueArray(empty);
+            } else {
+                valueArray = values.toArray(empty);
+            }
         }
         return valueArray;
     }
@@ -142,7 +203,11 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
     public synchronized K[] asKeyArray(final Class<K> keyType) {
         if (keyArray == null) {
             final K[] empty = (K[]) Array.newInstance(keyType, delegate.size());
-            keyArray = keySet.toArray(empty);
+            if (isChunkedFastIterable()) {
+                keyArray = getChunkedFastIterable().toKeyArray(empty);
+            } else {
+                keyArray = keySet.toArray(empty);
+            }
         }
         return keyArray;
     }
@@ -157,7 +222,11 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
     public synchronized Entry<K, V>[] asEntryArray() {
         if (entryArray == null) {
             final Entry<K, V>[] empty = (Entry<K, V>[]) Array.newInstance(Entry.class, delegate.size());
-            entryArray = entrySet.toArray(empty);
+            if (isChunkedFastIterable()) {
+                entryArray = getChunkedFastIterable().toEntryArray(empty);
+            } else {
+                entryArray = entrySet.toArray(empty);
+            }
         }
         return entryArray;
     }
@@ -397,6 +466,10 @@ public abstract class ASynchronizedFastIterableDelegateMap<K, V> implements IFas
         @Override
         public Iterator<Entry<K, V>> iterator() {
             synchronized (ASynchronizedFastIterableDelegateMap.this) {
+                if (isChunkedFastIterable()) {
+                    //the snapshot is immutable, thus iterating it does not need the lock
+                    return getChunkedFastIterable().iterator();
+                }
                 if (fastIterable == null) {
                     fastIterable = new BufferingIterator<Entry<K, V>>();
                     for (final Entry<K, V> e : delegate.entrySet()) {
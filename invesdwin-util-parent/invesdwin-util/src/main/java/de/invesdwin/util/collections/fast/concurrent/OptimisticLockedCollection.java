@@ -0,0 +1,83 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.Locks;
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+
+/**
+ * Reads first run as an optimistic read and only acquire the read lock when a concurrent write invalidated it, writes
+ * use the write lock. The delegate has to tolerate unvalidated reads during a concurrent write (e.g. an ArrayList),
+ * thus JDK collections that modify themselves on reads or can loop during a resize are rejected, see OptimisticReader.
+ * Reads that are called back from a write operation of the same thread access the delegate directly since the lock is
+ * not reentrant. Nested writes are still not supported.
+ */
+@ThreadSafe
+public class OptimisticLockedCollection<E> extends LockedCollection<E> {
+
+    private final IOptimisticReadWriteLock readWriteLock;
+    private final OptimisticReader reader;
+
+    public OptimisticLockedCollection(final Collection<E> delegate) {
+        this(delegate, Locks.newOptimisticReadWriteLock(OptimisticLockedCollection.class.getSimpleName()));
+    }
+
+    public OptimisticLockedCollection(final Collection<E> delegate, final IOptimisticReadWriteLock readWriteLock) {
+        this(delegate, readWriteLock, new OptimisticWriteLock(readWriteLock.writeLock()));
+    }
+
+    private OptimisticLockedCollection(final Collection<E> delegate, final IOptimisticReadWriteLock readWriteLock,
+            final OptimisticWriteLock writeLock) {
+        super(OptimisticReader.checkDelegate(delegate), writeLock);
+        this.readWriteLock = readWriteLock;
+        this.reader = new OptimisticReader(readWriteLock, writeLock);
+    }
+
+    public IOptimisticReadWriteLock getReadWriteLock() {
+        return readWriteLock;
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().contains(object);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> coll) {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().containsAll(coll);
+            }
+        });
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().isEmpty();
+            }
+        });
+    }
+
+    @Override
+    public int size() {
+        return reader.read(new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return getDelegate().size();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,104 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.Locks;
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+
+/**
+ * Reads first run as an optimistic read and only acquire the read lock when a concurrent write invalidated it, writes
+ * use the write lock. An unvalidated read must not harm the delegate, thus maps that modify themselves on get (e.g.
+ * LinkedHashMap with access order or WeakHashMap) or that can loop when a get races a resize or rebalancing (e.g.
+ * HashMap or TreeMap) are rejected. Open addressing maps (e.g. Object2ObjectOpenHashMap of fastutil) can be used
+ * instead. Reads that are called back from a write operation of the same thread (e.g. from the mapping function of
+ * computeIfAbsent) access the delegate directly since the lock is not reentrant. Nested writes are still not supported.
+ */
+@ThreadSafe
+public class OptimisticLockedMap<K, V> extends LockedMap<K, V> {
+
+    private final IOptimisticReadWriteLock readWriteLock;
+    private final OptimisticReader reader;
+
+    public OptimisticLockedMap(final Map<K, V> delegate) {
+        this(delegate, Locks.newOptimisticReadWriteLock(OptimisticLockedMap.class.getSimpleName()));
+    }
+
+    public OptimisticLockedMap(final Map<K, V> delegate, final IOptimisticReadWriteLock readWriteLock) {
+        this(delegate, readWriteLock, new OptimisticWriteLock(readWriteLock.writeLock()));
+    }
+
+    private OptimisticLockedMap(final Map<K, V> delegate, final IOptimisticReadWriteLock readWriteLock,
+            final OptimisticWriteLock writeLock) {
+        super(OptimisticReader.checkDelegate(delegate), writeLock);
+        this.readWriteLock = readWriteLock;
+        this.reader = new OptimisticReader(readWriteLock, writeLock);
+    }
+
+    public IOptimisticReadWriteLock getReadWriteLock() {
+        return readWriteLock;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return reader.read(new Supplier<V>() {
+            @Override
+            public V get() {
+                return getDelegate().get(key);
+            }
+        });
+    }
+
+    @Override
+    public V getOrDefault(final Object key, final V defaultValue) {
+        return reader.read(new Supplier<V>() {
+            @Override
+            public V get() {
+                return getDelegate().getOrDefault(key, defaultValue);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().containsKey(key);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().containsValue(value);
+            }
+        });
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return reader.read(new Supplier<Boolean>() {
+            @Override
+            public Boolean get() {
+                return getDelegate().isEmpty();
+            }
+        });
+    }
+
+    @Override
+    public int size() {
+        return reader.read(new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return getDelegate().size();
+            }
+        });
+    }
+
+}
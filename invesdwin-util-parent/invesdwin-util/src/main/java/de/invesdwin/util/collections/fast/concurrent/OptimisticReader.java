@@ -0,0 +1,78 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+
+/**
+ * Runs the reads of the optimistic locked collections. A read first runs unvalidated and only acquires the read lock
+ * when a concurrent write invalidated it or made it throw. Thus the delegate must neither modify itself during a read
+ * nor be able to loop forever when it is read during a concurrent write.
+ */
+@ThreadSafe
+final class OptimisticReader {
+
+    /**
+     * LinkedHashMap (with access order) and WeakHashMap modify themselves on reads, the others can loop when a read
+     * races a resize or a rebalancing of their trees.
+     */
+    private static final Class<?>[] UNSAFE_DELEGATES = { HashMap.class, HashSet.class, Hashtable.class,
+            TreeMap.class, TreeSet.class, WeakHashMap.class };
+
+    private final IOptimisticReadWriteLock readWriteLock;
+    private final OptimisticWriteLock writeLock;
+
+    OptimisticReader(final IOptimisticReadWriteLock readWriteLock, final OptimisticWriteLock writeLock) {
+        this.readWriteLock = readWriteLock;
+        this.writeLock = writeLock;
+    }
+
+    public <T> T read(final Supplier<T> read) {
+        final long stamp = readWriteLock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final T result = read.get();
+                if (readWriteLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (final RuntimeException e) {
+                //inconsistent state caused by a concurrent write, retry with the read lock
+            }
+        } else if (writeLock.isHeldByCurrentThread()) {
+            //called back from a write operation, e.g. from the mapping function of computeIfAbsent
+            return read.get();
+        }
+        final ILock readLock = readWriteLock.readLock();
+        readLock.lock();
+        try {
+            return read.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Rejects the JDK collections that are known to not tolerate unvalidated reads. Array based lists (e.g. ArrayList)
+     * and open addressing hash maps and sets (e.g. the fastutil ones) can be used instead.
+     */
+    static <T> T checkDelegate(final T delegate) {
+        for (final Class<?> unsafeDelegate : UNSAFE_DELEGATES) {
+            if (unsafeDelegate.isInstance(delegate)) {
+                throw new IllegalArgumentException("Delegate [" + delegate.getClass().getName()
+                        + "] does not tolerate optimistic reads during a concurrent write since it is a "
+                        + unsafeDelegate.getSimpleName());
+            }
+        }
+        return delegate;
+    }
+
+}
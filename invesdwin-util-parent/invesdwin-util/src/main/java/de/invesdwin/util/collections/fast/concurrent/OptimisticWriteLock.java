@@ -0,0 +1,85 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+
+/**
+ * Remembers the thread that holds the write lock of an optimistic locked collection. The underlying StampedLock is not
+ * reentrant, thus reads that are called back from a write operation (e.g. the mapping function of computeIfAbsent)
+ * have to access the delegate directly instead of waiting for the read lock forever.
+ */
+@ThreadSafe
+class OptimisticWriteLock implements ILock {
+
+    private final ILock delegate;
+    /**
+     * no need for volatile, a thread can only ever match its own write which it always sees
+     */
+    private Thread owner;
+
+    OptimisticWriteLock(final ILock delegate) {
+        this.delegate = delegate;
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void lock() {
+        delegate.lock();
+        owner = Thread.currentThread();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        delegate.lockInterruptibly();
+        owner = Thread.currentThread();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (delegate.tryLock()) {
+            owner = Thread.currentThread();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+        if (delegate.tryLock(time, unit)) {
+            owner = Thread.currentThread();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock() {
+        owner = null;
+        delegate.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return delegate.newCondition();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -0,0 +1,261 @@
+package de.invesdwin.util.collections.fast.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.bean.tuple.ImmutableEntry;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.error.FastNoSuchElementException;
+import de.invesdwin.util.lang.Objects;
+
+/**
+ * Keeps the entries of a map in insertion order inside small immutable chunks. A modification only copies the affected
+ * chunk and the array of chunk references, all other chunks are shared with the previous snapshot. Thus a put or remove
+ * costs O(chunkSize + size/chunkSize) instead of copying all entries again.
+ * 
+ * Iterators work on the snapshot that was current when they were created, so modifications during iteration are
+ * allowed and not visible to running iterators. Creating an iterator needs external synchronization when the
+ * modifications happen in other threads, the iteration itself does not.
+ */
+@NotThreadSafe
+public class ChunkedEntrySnapshot<K, V> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    @SuppressWarnings("rawtypes")
+    private static final Entry[][] EMPTY_SNAPSHOT = new Entry[0][];
+
+    private final int chunkSize;
+    private final Map<K, Chunk<K, V>> key_chunk = new HashMap<K, Chunk<K, V>>();
+    private final List<Chunk<K, V>> chunks = new ArrayList<Chunk<K, V>>();
+    private Entry<K, V>[][] snapshot;
+    private int size;
+
+    public ChunkedEntrySnapshot() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ChunkedEntrySnapshot(final int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("chunkSize should be at least 2: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.snapshot = EMPTY_SNAPSHOT;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void putAll(final Map<? extends K, ? extends V> map) {
+        for (final Entry<? extends K, ? extends V> e : map.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Replaces the entry in place if the key already exists, otherwise appends it.
+     */
+    public void put(final K key, final V value) {
+        final Entry<K, V> entry = ImmutableEntry.of(key, value);
+        final Chunk<K, V> chunk = key_chunk.get(key);
+        if (chunk == null) {
+            append(entry);
+        } else {
+            final Entry<K, V>[] entries = chunk.entries.clone();
+            entries[indexOf(entries, key)] = entry;
+            chunk.entries = entries;
+            publish(chunk);
+        }
+    }
+
+    private void append(final Entry<K, V> entry) {
+        Chunk<K, V> last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (last == null || last.entries.length >= chunkSize) {
+            last = new Chunk<K, V>(chunks.size(), newEntries(entry));
+            chunks.add(last);
+            snapshot = Arrays.copyOf(snapshot, snapshot.length + 1);
+            snapshot[last.index] = last.entries;
+        } else {
+            final Entry<K, V>[] entries = Arrays.copyOf(last.entries, last.entries.length + 1);
+            entries[entries.length - 1] = entry;
+            last.entries = entries;
+            publish(last);
+        }
+        key_chunk.put(entry.getKey(), last);
+        size++;
+    }
+
+    public boolean remove(final K key) {
+        final Chunk<K, V> chunk = key_chunk.remove(key);
+        if (chunk == null) {
+            return false;
+        }
+        size--;
+        final Entry<K, V>[] entries = chunk.entries;
+        if (entries.length == 1) {
+            removeChunk(chunk);
+            return true;
+        }
+        final int index = indexOf(entries, key);
+        final Entry<K, V>[] newEntries = Arrays.copyOf(entries, entries.length - 1);
+        System.arraycopy(entries, index + 1, newEntries, index, entries.length - index - 1);
+        chunk.entries = newEntries;
+        final Chunk<K, V> previous = chunk.index > 0 ? chunks.get(chunk.index - 1) : null;
+        //merge sparse neighbours so that removals do not degrade into many tiny chunks
+        if (previous != null && previous.entries.length + newEntries.length <= chunkSize / 2) {
+            final Entry<K, V>[] merged = Arrays.copyOf(previous.entries,
+                    previous.entries.length + newEntries.length);
+            System.arraycopy(newEntries, 0, merged, previous.entries.length, newEntries.length);
+            previous.entries = merged;
+            for (int i = 0; i < newEntries.length; i++) {
+                key_chunk.put(newEntries[i].getKey(), previous);
+            }
+            removeChunk(chunk);
+        } else {
+            publish(chunk);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        key_chunk.clear();
+        chunks.clear();
+        snapshot = EMPTY_SNAPSHOT;
+        size = 0;
+    }
+
+    private void publish(final Chunk<K, V> chunk) {
+        final Entry<K, V>[][] newSnapshot = snapshot.clone();
+        newSnapshot[chunk.index] = chunk.entries;
+        snapshot = newSnapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeChunk(final Chunk<K, V> chunk) {
+        chunks.remove(chunk.index);
+        final Entry<K, V>[][] newSnapshot = new Entry[chunks.size()][];
+        for (int i = 0; i < newSnapshot.length; i++) {
+            final Chunk<K, V> c = chunks.get(i);
+            c.index = i;
+            newSnapshot[i] = c.entries;
+        }
+        snapshot = newSnapshot;
+    }
+
+    private int indexOf(final Entry<K, V>[] entries, final K key) {
+        for (int i = 0; i < entries.length; i++) {
+            if (Objects.equals(entries[i].getKey(), key)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("key not found in its chunk: " + key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<K, V>[] newEntries(final Entry<K, V> entry) {
+        final Entry<K, V>[] entries = new Entry[1];
+        entries[0] = entry;
+        return entries;
+    }
+
+    public ICloseableIterator<Entry<K, V>> iterator() {
+        return new SnapshotIterator<K, V>(snapshot);
+    }
+
+    /**
+     * The array should have the length of size().
+     */
+    public Entry<K, V>[] toEntryArray(final Entry<K, V>[] array) {
+        int i = 0;
+        for (final Entry<K, V>[] entries : snapshot) {
+            System.arraycopy(entries, 0, array, i, entries.length);
+            i += entries.length;
+        }
+        return array;
+    }
+
+    /**
+     * The array should have the length of size().
+     */
+    public K[] toKeyArray(final K[] array) {
+        int i = 0;
+        for (final Entry<K, V>[] entries : snapshot) {
+            for (int j = 0; j < entries.length; j++) {
+                array[i++] = entries[j].getKey();
+            }
+        }
+        return array;
+    }
+
+    /**
+     * The array should have the length of size().
+     */
+    public V[] toValueArray(final V[] array) {
+        int i = 0;
+        for (final Entry<K, V>[] entries : snapshot) {
+            for (int j = 0; j < entries.length; j++) {
+                array[i++] = entries[j].getValue();
+            }
+        }
+        return array;
+    }
+
+    private static final class Chunk<_K, _V> {
+        private int index;
+        private Entry<_K, _V>[] entries;
+
+        private Chunk(final int index, final Entry<_K, _V>[] entries) {
+            this.index = index;
+            this.entries = entries;
+        }
+    }
+
+    private static final class SnapshotIterator<_K, _V> implements ICloseableIterator<Entry<_K, _V>> {
+        private final Entry<_K, _V>[][] snapshot;
+        private int chunkIndex;
+        private int entryIndex;
+
+        private SnapshotIterator(final Entry<_K, _V>[][] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            //chunks are never empty
+            return chunkIndex < snapshot.length;
+        }
+
+        @Override
+        public Entry<_K, _V> next() {
+            if (!hasNext()) {
+                throw new FastNoSuchElementException("SnapshotIterator: hasNext is false");
+            }
+            final Entry<_K, _V>[] entries = snapshot[chunkIndex];
+            final Entry<_K, _V> next = entries[entryIndex++];
+            if (entryIndex >= entries.length) {
+                chunkIndex++;
+                entryIndex = 0;
+            }
+            return next;
+        }
+
+        @Override
+        public void close() {
+            chunkIndex = snapshot.length;
+        }
+    }
+
+}
@@ -0,0 +1,424 @@
+package de.invesdwin.util.collections.iterable.buffer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.norva.marker.ISerializableValueObject;
+import de.invesdwin.util.collections.iterable.EmptyCloseableIterator;
+import de.invesdwin.util.collections.iterable.ICloseableIterable;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterator;
+import de.invesdwin.util.collections.list.Lists;
+import de.invesdwin.util.error.FastNoSuchElementException;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Same semantics as BufferingIterator, but the elements are stored in a chain of fixed size array segments instead of
+ * one node per element. This reduces allocations and improves cache locality when large batches are buffered. Drained
+ * segments are cleared and recycled into a small thread local pool so that continuously refilled buffers don't need to
+ * allocate new segments.
+ */
+@NotThreadSafe
+public class ArrayBufferingIterator<E> implements IBufferingIterator<E>, ISerializableValueObject {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+    private static final int MAX_POOLED_SEGMENTS = 16;
+
+    private static final FastThreadLocal<SegmentPool> SEGMENT_POOL = new FastThreadLocal<SegmentPool>() {
+        @Override
+        protected SegmentPool initialValue() throws Exception {
+            return new SegmentPool();
+        }
+    };
+
+    private Segment head;
+    private Segment tail;
+    private int size = 0;
+
+    public ArrayBufferingIterator() {}
+
+    public ArrayBufferingIterator(final BufferingIterator<E> iterable) {
+        addAll(iterable);
+    }
+
+    public ArrayBufferingIterator(final ICloseableIterator<? extends E> iterator) {
+        addAll(iterator);
+    }
+
+    @Deprecated
+    public ArrayBufferingIterator(final Iterator<? extends E> iterator) {
+        addAll(iterator);
+    }
+
+    public ArrayBufferingIterator(final ICloseableIterable<? extends E> iterable) {
+        addAll(iterable);
+    }
+
+    public ArrayBufferingIterator(final Iterable<? extends E> iterable) {
+        addAll(iterable);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return size > 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E next() {
+        if (size == 0) {
+            throw new FastNoSuchElementException("ArrayBufferingIterator next() head is null");
+        }
+        final Segment segment = head;
+        final E value = (E) segment.values[segment.from];
+        segment.values[segment.from] = null;
+        segment.from++;
+        size--;
+        if (segment.from == segment.to) {
+            head = segment.next;
+            if (head == null) {
+                tail = null;
+            }
+            recycle(segment);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E getHead() {
+        if (size == 0) {
+            return null;
+        } else {
+            return (E) head.values[head.from];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E getTail() {
+        if (size == 0) {
+            return null;
+        } else {
+            return (E) tail.values[tail.to - 1];
+        }
+    }
+
+    @Override
+    public boolean prepend(final E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        if (head == null || head.from == 0) {
+            final Segment newHead = newSegment();
+            //fill from the end so that further prepends can reuse this segment
+            newHead.from = newHead.values.length;
+            newHead.to = newHead.values.length;
+            newHead.next = head;
+            if (head == null) {
+                tail = newHead;
+            }
+            head = newHead;
+        }
+        head.from--;
+        head.values[head.from] = element;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean add(final E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        if (tail == null || tail.to == tail.values.length) {
+            appendSegment();
+        }
+        tail.values[tail.to] = element;
+        tail.to++;
+        size++;
+        return true;
+    }
+
+    private void appendSegment() {
+        final Segment newTail = newSegment();
+        if (head == null) {
+            head = newTail;
+        } else {
+            tail.next = newTail;
+        }
+        tail = newTail;
+    }
+
+    @Override
+    public boolean addAll(final Iterable<? extends E> iterable) {
+        if (iterable == null) {
+            return false;
+        } else {
+            return addAll(WrapperCloseableIterable.maybeWrap(iterable));
+        }
+    }
+
+    @Override
+    public boolean addAll(final ICloseableIterable<? extends E> iterable) {
+        if (iterable == null) {
+            return false;
+        } else {
+            return addAll(iterable.iterator());
+        }
+    }
+
+    @Override
+    public boolean addAll(final BufferingIterator<E> iterable) {
+        if (iterable == null) {
+            return false;
+        } else {
+            return addAll(iterable.iterator());
+        }
+    }
+
+    @Deprecated
+    @Override
+    public boolean addAll(final Iterator<? extends E> iterator) {
+        if (iterator == null) {
+            return false;
+        } else {
+            return addAll(WrapperCloseableIterator.maybeWrap(iterator));
+        }
+    }
+
+    @Override
+    public boolean addAll(final ICloseableIterator<? extends E> iterator) {
+        if (iterator == null) {
+            return false;
+        } else {
+            final int sizeBefore = size;
+            try {
+                while (true) {
+                    final E next = iterator.next();
+                    if (next == null) {
+                        throw new NullPointerException();
+                    }
+                    if (tail == null || tail.to == tail.values.length) {
+                        appendSegment();
+                    }
+                    tail.values[tail.to] = next;
+                    tail.to++;
+                    size++;
+                }
+            } catch (final NoSuchElementException e) {
+                //end reached
+            } finally {
+                iterator.close();
+            }
+            return sizeBefore < size;
+        }
+    }
+
+    @Override
+    public boolean consume(final Iterable<? extends E> iterable) {
+        if (iterable == null) {
+            return false;
+        } else if (iterable instanceof ArrayBufferingIterator) {
+            @SuppressWarnings("unchecked")
+            final ArrayBufferingIterator<E> cIterable = (ArrayBufferingIterator<E>) iterable;
+            return consume(cIterable);
+        } else if (iterable instanceof BufferingIterator) {
+            @SuppressWarnings("unchecked")
+            final BufferingIterator<E> cBuffering = (BufferingIterator<E>) iterable;
+            return consume(cBuffering);
+        } else {
+            return addAll(iterable);
+        }
+    }
+
+    @Deprecated
+    @Override
+    public boolean consume(final Iterator<? extends E> iterator) {
+        if (iterator == null) {
+            return false;
+        } else if (iterator instanceof ArrayBufferingIterator) {
+            @SuppressWarnings("unchecked")
+            final ArrayBufferingIterator<E> cIterator = (ArrayBufferingIterator<E>) iterator;
+            return consume(cIterator);
+        } else if (iterator instanceof BufferingIterator) {
+            @SuppressWarnings("unchecked")
+            final BufferingIterator<E> cBuffering = (BufferingIterator<E>) iterator;
+            return consume(cBuffering);
+        } else {
+            return addAll(iterator);
+        }
+    }
+
+    /**
+     * Elements of a linked list can not be taken over without copying them into the segments.
+     */
+    @Override
+    public boolean consume(final BufferingIterator<E> iterator) {
+        if (iterator == null) {
+            return false;
+        } else {
+            final boolean added = addAll(iterator.iterator());
+            iterator.clear();
+            return added;
+        }
+    }
+
+    /**
+     * Takes over the segments of the given iterator without copying the elements and empties it afterwards.
+     */
+    public boolean consume(final ArrayBufferingIterator<E> iterator) {
+        if (iterator == null || iterator == this || iterator.size == 0) {
+            return false;
+        }
+        if (head == null) {
+            head = iterator.head;
+        } else {
+            tail.next = iterator.head;
+        }
+        tail = iterator.tail;
+        size += iterator.size;
+        //segments now belong to this instance, thus they must not be recycled by the other one
+        iterator.head = null;
+        iterator.tail = null;
+        iterator.size = 0;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        Segment segment = head;
+        head = null;
+        tail = null;
+        size = 0;
+        while (segment != null) {
+            final Segment next = segment.next;
+            Arrays.fill(segment.values, segment.from, segment.to, null);
+            recycle(segment);
+            segment = next;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static Segment newSegment() {
+        final Segment pooled = SEGMENT_POOL.get().poll();
+        if (pooled != null) {
+            return pooled;
+        } else {
+            return new Segment(DEFAULT_SEGMENT_SIZE);
+        }
+    }
+
+    /**
+     * The segment values need to be nulled before they are recycled, which is already the case for drained segments.
+     */
+    private static void recycle(final Segment segment) {
+        segment.from = 0;
+        segment.to = 0;
+        segment.next = null;
+        SEGMENT_POOL.get().offer(segment);
+    }
+
+    private static final class Segment implements ISerializableValueObject {
+        private final Object[] values;
+        private int from;
+        private int to;
+        private Segment next;
+
+        private Segment(final int capacity) {
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class SegmentPool {
+        private final Segment[] segments = new Segment[MAX_POOLED_SEGMENTS];
+        private int count = 0;
+
+        public Segment poll() {
+            if (count == 0) {
+                return null;
+            }
+            count--;
+            final Segment segment = segments[count];
+            segments[count] = null;
+            return segment;
+        }
+
+        public void offer(final Segment segment) {
+            if (count < segments.length) {
+                segments[count] = segment;
+                count++;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Lists.toListWithoutHasNext(iterator()).toString();
+    }
+
+    @Override
+    public ICloseableIterator<E> iterator() {
+        if (size == 0) {
+            return EmptyCloseableIterator.getInstance();
+        } else {
+            return new ArrayBufferingIteratorIterator<E>(head);
+        }
+    }
+
+    private static final class ArrayBufferingIteratorIterator<_E> implements ICloseableIterator<_E> {
+        private Segment innerSegment;
+        private int innerIndex;
+
+        private ArrayBufferingIteratorIterator(final Segment head) {
+            this.innerSegment = head;
+            this.innerIndex = head.from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return innerSegment != null && innerIndex < innerSegment.to;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public _E next() {
+            if (!hasNext()) {
+                throw new FastNoSuchElementException("ArrayBufferingIterator: hasNext is false");
+            }
+            final _E value = (_E) innerSegment.values[innerIndex];
+            innerIndex++;
+            if (innerIndex == innerSegment.to) {
+                innerSegment = innerSegment.next;
+                if (innerSegment != null) {
+                    innerIndex = innerSegment.from;
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public void close() {
+            innerSegment = null;
+        }
+    }
+
+}
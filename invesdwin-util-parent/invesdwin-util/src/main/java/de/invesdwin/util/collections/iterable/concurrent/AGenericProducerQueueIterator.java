@@ -19,6 +19,7 @@ import de.invesdwin.util.concurrent.lock.Locks;
 import de.invesdwin.util.error.FastNoSuchElementException;
 import de.invesdwin.util.lang.description.TextDescription;
 import de.invesdwin.util.lang.finalizer.AFinalizer;
+import de.invesdwin.util.math.Integers;
 
 @NotThreadSafe
 public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterator<E> {
@@ -36,9 +37,11 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
                 };
                 AGenericProducerQueueIterator.this.internalProduce(consumer);
             } catch (final NoSuchElementException e) {
+                flushRingBuffer();
                 finalizer.close();
                 internalCloseProducer();
             } finally {
+                flushRingBuffer();
                 //closing does not prevent queue from getting drained completely
                 finalizer.close();
                 internalCloseProducer();
@@ -48,6 +51,13 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
         private void onElement(final E element) {
             try {
                 Assertions.assertThat(element).isNotNull();
+                if (ringBuffer != null) {
+                    //closed state is only checked per chunk to keep the hand-off cheap
+                    if (ringBuffer.add(element)) {
+                        publishRingBuffer();
+                    }
+                    return;
+                }
                 while (!isInnerClosed()) {
                     final boolean added = queue.offer(element);
                     if (!added && queue.remainingCapacity() == 0) {
@@ -74,13 +84,50 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
                 internalCloseProducer();
             }
         }
+
+        private void publishRingBuffer() throws InterruptedException {
+            int idleCount = 0;
+            while (!ringBuffer.tryPublish()) {
+                if (isInnerClosed()) {
+                    ringBuffer.discardChunk();
+                    return;
+                }
+                if (idleCount == 0 && utilizationDebugEnabled) {
+                    LOGGER.info(TextDescription.format("%s: queue is full", finalizer.name));
+                }
+                waitStrategy.idle(idleCount);
+                idleCount++;
+            }
+        }
+
+        /**
+         * Publishes the last incomplete chunk, this has to happen before the finalizer gets closed.
+         */
+        private void flushRingBuffer() {
+            if (ringBuffer != null) {
+                try {
+                    publishRingBuffer();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
     }
 
     public static final int DEFAULT_QUEUE_SIZE = 10000;
+    public static final int DEFAULT_RING_BUFFER_CHUNK_SIZE = 256;
     private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory
             .getLogger(AGenericProducerQueueIterator.class);
 
+    /**
+     * null when a ring buffer is used
+     */
     private final BlockingQueue<E> queue;
+    /**
+     * null when a blocking queue is used
+     */
+    private final SpscChunkRingBuffer<E> ringBuffer;
+    private final ProducerQueueWaitStrategy waitStrategy;
     private final GenericProducerQueueIteratorFinalizer finalizer;
 
     @GuardedBy("this")
@@ -98,9 +145,27 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
     }
 
     public AGenericProducerQueueIterator(final String name, final int queueSize) {
+        this(name, queueSize, ProducerQueueWaitStrategy.BLOCKING);
+    }
+
+    /**
+     * With a non blocking wait strategy, the elements are handed over in chunks of DEFAULT_RING_BUFFER_CHUNK_SIZE
+     * through a lock free ring buffer. Thus the consumer only sees the elements when a chunk is full or the producer is
+     * finished.
+     */
+    public AGenericProducerQueueIterator(final String name, final int queueSize,
+            final ProducerQueueWaitStrategy waitStrategy) {
         super(new TextDescription(name));
         this.finalizer = new GenericProducerQueueIteratorFinalizer(name);
-        this.queue = new LinkedBlockingDeque<E>(queueSize);
+        this.waitStrategy = waitStrategy;
+        if (waitStrategy.isRingBuffer()) {
+            this.queue = null;
+            this.ringBuffer = new SpscChunkRingBuffer<E>(queueSize,
+                    Integers.min(DEFAULT_RING_BUFFER_CHUNK_SIZE, queueSize / 4));
+        } else {
+            this.queue = new LinkedBlockingDeque<E>(queueSize);
+            this.ringBuffer = null;
+        }
         this.queueSize = queueSize;
         this.drainedLock = Locks
                 .newReentrantLock(AGenericProducerQueueIterator.class.getSimpleName() + "_" + name + "_drainedLock");
@@ -131,9 +196,13 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
         return utilizationDebugEnabled;
     }
 
+    public ProducerQueueWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
     @Override
     protected synchronized boolean innerHasNext() {
-        final boolean hasNext = !isInnerClosed() || !queue.isEmpty() || nextElement != null;
+        final boolean hasNext = !isInnerClosed() || !isQueueEmpty() || nextElement != null;
         if (!hasNext) {
             finalizer.close();
         }
@@ -159,7 +228,18 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
         }
     }
 
+    private boolean isQueueEmpty() {
+        if (ringBuffer != null) {
+            return ringBuffer.isEmpty();
+        } else {
+            return queue.isEmpty();
+        }
+    }
+
     private E readNext() {
+        if (ringBuffer != null) {
+            return readNextFromRingBuffer();
+        }
         try {
             boolean firstPoll = true;
             while (hasNext()) {
@@ -185,6 +265,29 @@ public abstract class AGenericProducerQueueIterator<E> extends ACloseableIterato
         return null;
     }
 
+    private E readNextFromRingBuffer() {
+        try {
+            int idleCount = 0;
+            while (true) {
+                final E element = ringBuffer.poll();
+                if (element != null) {
+                    return element;
+                }
+                if (!hasNext()) {
+                    return null;
+                }
+                if (idleCount == 0 && utilizationDebugEnabled) {
+                    LOGGER.info(TextDescription.format("%s: queue is empty", finalizer.name));
+                }
+                waitStrategy.idle(idleCount);
+                idleCount++;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
     protected boolean isInnerClosed() {
         return finalizer.isClosed();
     }
@@ -1,5 +1,7 @@
 package de.invesdwin.util.collections.iterable.concurrent;
 
+import java.util.concurrent.ExecutorService;
+
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.collections.iterable.ACloseableIterator;
@@ -13,20 +15,33 @@ public abstract class AParallelChunkConsumerIterable<R, E> implements ICloseable
     private final String name;
     private final ICloseableIterable<R> requests;
     private final int chunkSize;
+    private final ExecutorService executor;
+    private final boolean ordered;
 
     public AParallelChunkConsumerIterable(final String name, final ICloseableIterable<R> requests) {
         this(name, requests, DEFAULT_CHUNK_SIZE);
     }
 
     public AParallelChunkConsumerIterable(final String name, final ICloseableIterable<R> requests, final int chunkSize) {
+        this(name, requests, chunkSize, null, true);
+    }
+
+    /**
+     * Pass a shared executor (which will not be shut down) to reuse threads between iterators and ordered=false to get
+     * the results in order of completion.
+     */
+    public AParallelChunkConsumerIterable(final String name, final ICloseableIterable<R> requests, final int chunkSize,
+            final ExecutorService executor, final boolean ordered) {
         this.name = name;
         this.requests = requests;
         this.chunkSize = chunkSize;
+        this.executor = executor;
+        this.ordered = ordered;
     }
 
     @Override
     public ACloseableIterator<E> iterator() {
-        return new AParallelChunkConsumerIterator<R, E>(name, requests.iterator(), chunkSize) {
+        return new AParallelChunkConsumerIterator<R, E>(name, requests.iterator(), chunkSize, executor, ordered) {
             @Override
             protected E doWork(final R request) {
                 return AParallelChunkConsumerIterable.this.doWork(request);
@@ -1,15 +1,19 @@
 package de.invesdwin.util.collections.iterable.concurrent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import de.invesdwin.util.collections.factory.ILockCollectionFactory;
 import de.invesdwin.util.collections.iterable.ACloseableIterator;
 import de.invesdwin.util.collections.iterable.ICloseableIterator;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
 import de.invesdwin.util.concurrent.Executors;
 import de.invesdwin.util.concurrent.WrappedExecutorService;
 import de.invesdwin.util.concurrent.future.Futures;
@@ -17,14 +21,36 @@ import de.invesdwin.util.error.FastNoSuchElementException;
 import de.invesdwin.util.lang.description.TextDescription;
 import de.invesdwin.util.lang.finalizer.AFinalizer;
 
+/**
+ * By default each instance creates its own thread pool. When lots of these iterators are opened, prefer passing in a
+ * shared executor (e.g. getSharedExecutor()) to prevent the thread creation and teardown overhead. Results are returned
+ * in the order of the requests, unless ordered is false, then they are returned in order of completion.
+ */
 @ThreadSafe
 public abstract class AParallelChunkConsumerIterator<R, E> extends ACloseableIterator<E> {
 
     private static final int DEFAULT_CONSUMER_COUNT = Executors.getCpuThreadPoolCount();
     @GuardedBy("this")
     private final ParallelChunkConsumerIteratorFinalizer<R> finalizer;
+    /**
+     * ring buffer of the futures in order of submission, null when results are returned in order of completion
+     */
     @GuardedBy("this")
-    private final List<Future<E>> futures;
+    private final Future<E>[] futures;
+    @GuardedBy("this")
+    private int futuresHead = 0;
+    @GuardedBy("this")
+    private int futuresSize = 0;
+    /**
+     * null when results are returned in order of submission
+     */
+    @GuardedBy("this")
+    private final ExecutorCompletionService<E> completionService;
+    /**
+     * the submitted futures that were not taken yet, null when results are returned in order of submission
+     */
+    @GuardedBy("this")
+    private final Set<Future<E>> completionFutures;
 
     public AParallelChunkConsumerIterator(final String name, final ICloseableIterator<R> requests) {
         this(name, requests, DEFAULT_CONSUMER_COUNT);
@@ -32,36 +58,77 @@ public abstract class AParallelChunkConsumerIterator<R, E> extends ACloseableIte
 
     public AParallelChunkConsumerIterator(final String name, final ICloseableIterator<R> requests,
             final int chunkSize) {
+        this(name, requests, chunkSize, null, true);
+    }
+
+    /**
+     * @param executor
+     *            the executor is not shut down when this iterator is closed, if null a new fixed thread pool of size
+     *            chunkSize is created for this iterator
+     * @param ordered
+     *            if false the results are returned as soon as they are completed instead of in the order of the
+     *            requests
+     */
+    @SuppressWarnings("unchecked")
+    public AParallelChunkConsumerIterator(final String name, final ICloseableIterator<R> requests,
+            final int chunkSize, final ExecutorService executor, final boolean ordered) {
         super(new TextDescription(name));
-        this.finalizer = new ParallelChunkConsumerIteratorFinalizer<>(name, requests, chunkSize);
+        this.finalizer = new ParallelChunkConsumerIteratorFinalizer<>(name, requests, chunkSize, executor);
         this.finalizer.register(this);
-        this.futures = new ArrayList<Future<E>>(chunkSize);
+        if (ordered) {
+            this.futures = new Future[finalizer.chunkSize];
+            this.completionService = null;
+            this.completionFutures = null;
+        } else {
+            this.futures = null;
+            this.completionService = new ExecutorCompletionService<E>(finalizer.consumerExecutor);
+            this.completionFutures = ILockCollectionFactory.getInstance(false).newIdentitySet();
+        }
+    }
+
+    /**
+     * A bounded fork join pool that can be shared between iterators instead of creating a new thread pool each time.
+     */
+    public static ConfiguredForkJoinPool getSharedExecutor() {
+        return SharedExecutorHolder.INSTANCE;
     }
 
     @Override
     protected synchronized boolean innerHasNext() {
-        return finalizer.requests.hasNext() || !futures.isEmpty();
+        return finalizer.requests.hasNext() || futuresSize > 0;
     }
 
     @Override
     protected synchronized E innerNext() {
-        while (finalizer.requests.hasNext()
-                && finalizer.consumerExecutor.getPendingCount() < finalizer.consumerExecutor.getFullPendingCount()
-                && futures.size() < finalizer.chunkSize) {
+        while (finalizer.requests.hasNext() && futuresSize < finalizer.chunkSize && !isExecutorFull()) {
             final R request = finalizer.requests.next();
-            final Future<E> submit = finalizer.consumerExecutor.submit(new Callable<E>() {
+            final Callable<E> task = new Callable<E>() {
                 @Override
                 public E call() throws Exception {
                     return doWork(request);
                 }
-            });
-            futures.add(submit);
+            };
+            if (futures != null) {
+                futures[(futuresHead + futuresSize) % futures.length] = finalizer.consumerExecutor.submit(task);
+            } else {
+                completionFutures.add(completionService.submit(task));
+            }
+            futuresSize++;
         }
-        if (futures.isEmpty()) {
+        if (futuresSize == 0) {
             throw new FastNoSuchElementException("AParallelChunkConsumerIterator: futures is empty");
         }
-        final Future<E> future = futures.remove(0);
         try {
+            final Future<E> future;
+            if (futures != null) {
+                future = futures[futuresHead];
+                futures[futuresHead] = null;
+                futuresHead = (futuresHead + 1) % futures.length;
+            } else {
+                future = completionService.take();
+                completionFutures.remove(future);
+            }
+            futuresSize--;
             final E result = Futures.get(future);
             return result;
         } catch (final InterruptedException e) {
@@ -70,19 +137,38 @@ public abstract class AParallelChunkConsumerIterator<R, E> extends ACloseableIte
         }
     }
 
+    /**
+     * Only a WrappedExecutorService knows its pending count, others are only limited by the chunkSize.
+     */
+    private boolean isExecutorFull() {
+        if (finalizer.consumerExecutor instanceof WrappedExecutorService) {
+            final WrappedExecutorService cExecutor = (WrappedExecutorService) finalizer.consumerExecutor;
+            return cExecutor.getPendingCount() >= cExecutor.getFullPendingCount();
+        } else {
+            return false;
+        }
+    }
+
     protected abstract E doWork(R request);
 
     private static final class ParallelChunkConsumerIteratorFinalizer<_R> extends AFinalizer {
 
         private final int chunkSize;
+        private final boolean ownedExecutor;
         private ICloseableIterator<_R> requests;
-        private WrappedExecutorService consumerExecutor;
+        private ExecutorService consumerExecutor;
 
         private ParallelChunkConsumerIteratorFinalizer(final String name, final ICloseableIterator<_R> requests,
-                final int chunkSize) {
+                final int chunkSize, final ExecutorService executor) {
             this.chunkSize = chunkSize;
             this.requests = requests;
-            this.consumerExecutor = Executors.newFixedThreadPool(name, chunkSize).withDynamicThreadName(false);
+            if (executor == null) {
+                this.consumerExecutor = Executors.newFixedThreadPool(name, chunkSize).withDynamicThreadName(false);
+                this.ownedExecutor = true;
+            } else {
+                this.consumerExecutor = executor;
+                this.ownedExecutor = false;
+            }
         }
 
         @Override
@@ -92,7 +178,9 @@ public abstract class AParallelChunkConsumerIterator<R, E> extends ACloseableIte
                 requests = null;
             }
             if (consumerExecutor != null) {
-                consumerExecutor.shutdown();
+                if (ownedExecutor) {
+                    consumerExecutor.shutdown();
+                }
                 consumerExecutor = null;
             }
         }
@@ -111,7 +199,33 @@ public abstract class AParallelChunkConsumerIterator<R, E> extends ACloseableIte
 
     @Override
     protected void innerClose() {
+        synchronized (this) {
+            if (futures != null) {
+                //don't waste the shared executor on results that nobody will fetch
+                while (futuresSize > 0) {
+                    futures[futuresHead].cancel(false);
+                    futures[futuresHead] = null;
+                    futuresHead = (futuresHead + 1) % futures.length;
+                    futuresSize--;
+                }
+            } else {
+                for (final Future<E> future : completionFutures) {
+                    future.cancel(false);
+                }
+                completionFutures.clear();
+                futuresSize = 0;
+            }
+        }
         finalizer.close();
     }
 
+    @Immutable
+    private static final class SharedExecutorHolder {
+        private static final ConfiguredForkJoinPool INSTANCE = Executors
+                .newForkJoinPool(AParallelChunkConsumerIterator.class.getSimpleName(), DEFAULT_CONSUMER_COUNT)
+                .withDynamicThreadName(false);
+
+        private SharedExecutorHolder() {}
+    }
+
 }
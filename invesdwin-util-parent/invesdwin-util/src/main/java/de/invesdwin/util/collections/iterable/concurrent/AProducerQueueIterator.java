@@ -17,7 +17,12 @@ public abstract class AProducerQueueIterator<E> extends AGenericProducerQueueIte
     }
 
     public AProducerQueueIterator(final String name, final int queueSize) {
-        super(name, queueSize);
+        this(name, queueSize, ProducerQueueWaitStrategy.BLOCKING);
+    }
+
+    public AProducerQueueIterator(final String name, final int queueSize,
+            final ProducerQueueWaitStrategy waitStrategy) {
+        super(name, queueSize, waitStrategy);
         this.producer = new ADelegateCloseableIterator<E>() {
 
             @Override
@@ -13,6 +13,7 @@ public class ProducerQueueIterable<E> implements ICloseableIterable<E> {
     private ICloseableIterable<E> producer;
     private int queueSize;
     private boolean utilizationDebugEnabled;
+    private ProducerQueueWaitStrategy waitStrategy = ProducerQueueWaitStrategy.BLOCKING;
 
     public ProducerQueueIterable(final String name, final ICloseableIterable<E> producer) {
         this(name, producer, AProducerQueueIterator.DEFAULT_QUEUE_SIZE);
@@ -26,7 +27,7 @@ public class ProducerQueueIterable<E> implements ICloseableIterable<E> {
 
     @Override
     public ACloseableIterator<E> iterator() {
-        final AProducerQueueIterator<E> iterator = new AProducerQueueIterator<E>(name, queueSize) {
+        final AProducerQueueIterator<E> iterator = new AProducerQueueIterator<E>(name, queueSize, waitStrategy) {
             @Override
             protected ICloseableIterator<E> newProducer() {
                 return producer.iterator();
@@ -47,4 +48,13 @@ public class ProducerQueueIterable<E> implements ICloseableIterable<E> {
         return utilizationDebugEnabled;
     }
 
+    public ProducerQueueIterable<E> withWaitStrategy(final ProducerQueueWaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
+    public ProducerQueueWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+import de.invesdwin.util.concurrent.Threads;
+import de.invesdwin.util.math.Integers;
+
+/**
+ * Defines how elements are handed from the producer to the consumer thread of a producer queue iterator and how the
+ * threads wait when the queue is full or empty.
+ */
+public enum ProducerQueueWaitStrategy {
+    /**
+     * Uses a linked blocking queue and waits on conditions. Best when the producer or consumer is slow compared to the
+     * hand-off, since no cpu is burned while waiting. When idling is needed elsewhere, the thread gets parked with an
+     * exponential backoff up to about a millisecond.
+     */
+    BLOCKING {
+        @Override
+        public boolean isRingBuffer() {
+            return false;
+        }
+
+        @Override
+        public void idle(final int idleCount) throws InterruptedException {
+            Threads.throwIfInterrupted();
+            LockSupport.parkNanos(PARK_NANOS << Integers.min(idleCount, MAX_BACKOFF_SHIFT));
+        }
+    },
+    /**
+     * Uses a lock free ring buffer and busy spins while waiting. Lowest latency, but burns one core per waiting thread.
+     */
+    SPIN {
+        @Override
+        public boolean isRingBuffer() {
+            return true;
+        }
+
+        @Override
+        public void idle(final int idleCount) throws InterruptedException {
+            Threads.throwIfInterrupted();
+        }
+    },
+    /**
+     * Uses a lock free ring buffer and yields the thread while waiting.
+     */
+    YIELD {
+        @Override
+        public boolean isRingBuffer() {
+            return true;
+        }
+
+        @Override
+        public void idle(final int idleCount) throws InterruptedException {
+            Threads.throwIfInterrupted();
+            Thread.yield();
+        }
+    },
+    /**
+     * Uses a lock free ring buffer, spins shortly and then parks the thread for a microsecond at a time while waiting.
+     */
+    PARK {
+        @Override
+        public boolean isRingBuffer() {
+            return true;
+        }
+
+        @Override
+        public void idle(final int idleCount) throws InterruptedException {
+            Threads.throwIfInterrupted();
+            if (idleCount >= SPIN_BEFORE_PARK_COUNT) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_BEFORE_PARK_COUNT = 100;
+    private static final long PARK_NANOS = 1000L;
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    /**
+     * Determines the queue that is used for the hand-off, independent of how the threads idle while waiting on it.
+     */
+    public abstract boolean isRingBuffer();
+
+    /**
+     * Called repeatedly while waiting, idleCount is reset to 0 after each successful hand-off.
+     */
+    public abstract void idle(int idleCount) throws InterruptedException;
+
+}
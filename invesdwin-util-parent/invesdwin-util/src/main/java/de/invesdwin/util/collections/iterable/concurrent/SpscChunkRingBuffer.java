@@ -0,0 +1,120 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.Integers;
+
+/**
+ * Bounded single producer single consumer ring buffer. The producer collects elements in a local chunk and publishes
+ * the whole chunk with one ordered write of the tail sequence, the consumer drains all published elements before it
+ * releases the slots with one ordered write of the head sequence. Thus the threads only exchange cache lines once per
+ * chunk instead of once per element and no nodes are allocated.
+ *
+ * Not thread safe apart from the single producer single consumer contract: the producer methods (add, tryPublish and
+ * discardChunk) may only be called by one thread at a time and the consumer methods (poll and isEmpty) only by one
+ * other thread at a time. Handing over either role to another thread requires an external happens-before relation.
+ */
+@NotThreadSafe
+class SpscChunkRingBuffer<E> {
+
+    private final Object[] buffer;
+    private final int mask;
+    private final Object[] chunk;
+    /**
+     * next sequence to be read by the consumer
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * next sequence to be written by the producer
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    //producer fields
+    private int chunkSize;
+    private long producerTail;
+    private long producerCachedHead;
+
+    //consumer fields
+    private long consumerHead;
+    private long consumerCachedTail;
+
+    SpscChunkRingBuffer(final int capacity, final int chunkSize) {
+        final int powerOfTwoCapacity = Integer.highestOneBit(Integers.max(2, capacity - 1)) << 1;
+        this.buffer = new Object[powerOfTwoCapacity];
+        this.mask = powerOfTwoCapacity - 1;
+        this.chunk = new Object[Integers.max(1, Integers.min(chunkSize, powerOfTwoCapacity))];
+    }
+
+    /**
+     * Producer: collects the element in the current chunk. Returns true when the chunk is full and needs to be
+     * published before the next element can be added.
+     */
+    boolean add(final E element) {
+        chunk[chunkSize] = element;
+        chunkSize++;
+        return chunkSize == chunk.length;
+    }
+
+    /**
+     * Producer: publishes the current chunk. Returns false when there is not enough free space yet.
+     */
+    boolean tryPublish() {
+        if (chunkSize == 0) {
+            return true;
+        }
+        if (producerTail + chunkSize - producerCachedHead > buffer.length) {
+            producerCachedHead = head.get();
+            if (producerTail + chunkSize - producerCachedHead > buffer.length) {
+                return false;
+            }
+        }
+        for (int i = 0; i < chunkSize; i++) {
+            buffer[(int) (producerTail + i) & mask] = chunk[i];
+            chunk[i] = null;
+        }
+        producerTail += chunkSize;
+        chunkSize = 0;
+        tail.lazySet(producerTail);
+        return true;
+    }
+
+    /**
+     * Producer: drops the elements of the current chunk that were not published yet.
+     */
+    void discardChunk() {
+        for (int i = 0; i < chunkSize; i++) {
+            chunk[i] = null;
+        }
+        chunkSize = 0;
+    }
+
+    /**
+     * Consumer: returns null when no published element is available.
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        if (consumerHead == consumerCachedTail) {
+            //chunk drained, release the slots and fetch the next published elements
+            head.lazySet(consumerHead);
+            consumerCachedTail = tail.get();
+            if (consumerHead == consumerCachedTail) {
+                return null;
+            }
+        }
+        final int index = (int) consumerHead & mask;
+        final E element = (E) buffer[index];
+        buffer[index] = null;
+        consumerHead++;
+        return element;
+    }
+
+    /**
+     * Consumer: checks if published elements are available.
+     */
+    boolean isEmpty() {
+        return consumerHead == consumerCachedTail && consumerHead == tail.get();
+    }
+
+}
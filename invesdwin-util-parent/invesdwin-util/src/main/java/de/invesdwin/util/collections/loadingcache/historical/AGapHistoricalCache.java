@@ -4,6 +4,7 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.buffer.ArrayBufferingIterator;
 import de.invesdwin.util.collections.iterable.buffer.BufferingIterator;
 import de.invesdwin.util.collections.loadingcache.historical.internal.AGapHistoricalCacheMissCounter;
 import de.invesdwin.util.collections.loadingcache.historical.key.IHistoricalCacheAdjustKeyProvider;
@@ -45,7 +46,7 @@ public abstract class AGapHistoricalCache<V> extends AHistoricalCache<V> {
     private static final int MAX_LAST_VALUES_FROM_LOAD_FURTHER_VALUES = 2;
 
     @GuardedBy("this")
-    private final BufferingIterator<V> furtherValues = new BufferingIterator<V>();
+    private final ArrayBufferingIterator<V> furtherValues = new ArrayBufferingIterator<V>();
     @GuardedBy("this")
     private final BufferingIterator<V> lastValuesFromFurtherValues = new BufferingIterator<V>();
     @GuardedBy("this")
@@ -284,7 +285,7 @@ public abstract class AGapHistoricalCache<V> extends AHistoricalCache<V> {
             lastValuesFromFurtherValues.clear();
             FDate curKey = keyForReadAllValues;
             while (true) {
-                final BufferingIterator<V> newFurtherValuesBuffer = new BufferingIterator<V>();
+                final ArrayBufferingIterator<V> newFurtherValuesBuffer = new ArrayBufferingIterator<V>();
                 final Iterable<? extends V> newFurtherValues = readAllValuesAscendingFrom(curKey);
                 newFurtherValuesBuffer.consume(newFurtherValues);
                 if (newFurtherValuesBuffer.isEmpty()) {
@@ -335,7 +336,7 @@ public abstract class AGapHistoricalCache<V> extends AHistoricalCache<V> {
     }
 
     private void skipDuplicates(final FDate key, final FDate curKey,
-            final BufferingIterator<V> newFurtherValuesBuffer) {
+            final ArrayBufferingIterator<V> newFurtherValuesBuffer) {
         while (!newFurtherValuesBuffer.isEmpty()
                 && innerExtractKey(null, newFurtherValuesBuffer.getHead()).isBefore(curKey)) {
             newFurtherValuesBuffer.next();
@@ -0,0 +1,36 @@
+package de.invesdwin.util.concurrent;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.time.CoarseClock;
+import de.invesdwin.util.time.duration.Duration;
+
+/**
+ * Uses the epoch of the CoarseClock instead of System.nanoTime(), thus each check is only a comparison against a
+ * volatile field. This is cheaper when many threads run loops with checks at the same time, but the interval is only as
+ * precise as CoarseClock.RESOLUTION.
+ */
+@NotThreadSafe
+public class CoarseLoopInterruptedCheck extends LoopInterruptedCheck {
+
+    private final long checkIntervalEpochs;
+    private long nextIntervalEpoch;
+
+    public CoarseLoopInterruptedCheck(final Duration checkInterval) {
+        super(checkInterval);
+        this.checkIntervalEpochs = CoarseClock.getEpochs(checkInterval);
+        this.nextIntervalEpoch = CoarseClock.getEpoch() + checkIntervalEpochs;
+    }
+
+    @Override
+    public boolean check() throws InterruptedException {
+        final long epoch = CoarseClock.getEpoch();
+        if (epoch >= nextIntervalEpoch) {
+            onInterval();
+            nextIntervalEpoch = epoch + checkIntervalEpochs;
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -2,6 +2,7 @@ package de.invesdwin.util.concurrent;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
 import java.util.concurrent.TimeUnit;
@@ -10,6 +11,8 @@ import javax.annotation.concurrent.Immutable;
 
 import com.google.common.util.concurrent.MoreExecutors;
 
+import de.invesdwin.util.concurrent.internal.SemaphoreExecutorService;
+import de.invesdwin.util.concurrent.internal.VirtualThreads;
 import de.invesdwin.util.concurrent.internal.WrappedThreadFactory;
 import de.invesdwin.util.concurrent.priority.PriorityThreadPoolExecutor;
 import de.invesdwin.util.math.Integers;
@@ -86,6 +89,72 @@ public final class Executors {
         return new WrappedExecutorService(ex, name);
     }
 
+    /**
+     * Virtual threads are available since java 21.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Returns null when virtual threads are not supported.
+     */
+    public static WrappedThreadFactory newVirtualThreadFactory(final String name) {
+        final java.util.concurrent.ThreadFactory virtualThreadFactory = VirtualThreads.newThreadFactory();
+        if (virtualThreadFactory == null) {
+            return null;
+        }
+        return new WrappedThreadFactory(name, virtualThreadFactory);
+    }
+
+    /**
+     * Starts a new virtual thread for each task, which is suited for lots of tasks that block on I/O. Falls back to
+     * newCachedThreadPool when virtual threads are not supported.
+     * 
+     * @see java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor
+     */
+    public static WrappedExecutorService newVirtualThreadPerTaskExecutor(final String name) {
+        final WrappedThreadFactory threadFactory = newVirtualThreadFactory(name);
+        if (threadFactory == null) {
+            return newCachedThreadPool(name);
+        }
+        final ExecutorService ex = VirtualThreads.newThreadPerTaskExecutor(threadFactory);
+        final WrappedExecutorService executor = new WrappedExecutorService(ex, name) {
+            @Override
+            public int getMaximumPoolSize() {
+                //unbounded like a cached thread pool
+                return Integer.MAX_VALUE;
+            }
+        };
+        //thread naming is only configured automatically for ThreadPoolExecutor delegates
+        threadFactory.setParent(executor.internal);
+        return executor;
+    }
+
+    /**
+     * Starts a new virtual thread for each task, but at most nThreads of them run in parallel while the others wait on
+     * a semaphore. Virtual threads should not be pooled, thus this is used instead of a ThreadPoolExecutor. Falls back
+     * to newFixedThreadPool when virtual threads are not supported.
+     */
+    public static WrappedExecutorService newFixedVirtualThreadPool(final String name, final int nThreads) {
+        final WrappedThreadFactory threadFactory = newVirtualThreadFactory(name);
+        if (threadFactory == null) {
+            return newFixedThreadPool(name, nThreads);
+        }
+        final int threads = Integers.max(1, nThreads);
+        final ExecutorService ex = new SemaphoreExecutorService(VirtualThreads.newThreadPerTaskExecutor(threadFactory),
+                threads);
+        final WrappedExecutorService executor = new WrappedExecutorService(ex, name) {
+            @Override
+            public int getMaximumPoolSize() {
+                return threads;
+            }
+        };
+        //thread naming is only configured automatically for ThreadPoolExecutor delegates
+        threadFactory.setParent(executor.internal);
+        return executor;
+    }
+
     /**
      * Returns the number of cpu cores for ThreadPools that are cpu intensive.
      */
@@ -4,4 +4,13 @@ public interface IPendingCountListener {
 
     void onPendingCountChanged(int currentPendingCount);
 
+    /**
+     * Synchronous listeners are notified about every change of the pending count in order, directly in the thread that
+     * changed it. This serializes the submits and completions of the executor while such a listener is registered.
+     * Otherwise notifications are asynchronous and coalesced, thus only the latest pending count is reported.
+     */
+    default boolean isSynchronous() {
+        return false;
+    }
+
 }
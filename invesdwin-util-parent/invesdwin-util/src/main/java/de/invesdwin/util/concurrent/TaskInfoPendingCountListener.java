@@ -24,6 +24,14 @@ public class TaskInfoPendingCountListener implements IPendingCountListener, ITas
         this.name = name;
     }
 
+    /**
+     * Needs every transition from and to zero, otherwise created tasks might never be completed.
+     */
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
     @Override
     public synchronized void onPendingCountChanged(final int currentPendingCount) {
         curPendingCount = currentPendingCount;
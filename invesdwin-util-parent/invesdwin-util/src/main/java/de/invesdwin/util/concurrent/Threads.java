@@ -2,6 +2,7 @@ package de.invesdwin.util.concurrent;
 
 import javax.annotation.concurrent.Immutable;
 
+import de.invesdwin.util.concurrent.internal.VirtualThreads;
 import de.invesdwin.util.lang.Strings;
 import de.invesdwin.util.shutdown.ShutdownHookManager;
 
@@ -74,6 +75,17 @@ public final class Threads {
         return Thread.currentThread().getName();
     }
 
+    /**
+     * Always false before java 21.
+     */
+    public static boolean isVirtual(final Thread thread) {
+        return VirtualThreads.isVirtual(thread);
+    }
+
+    public static boolean isCurrentThreadVirtual() {
+        return isVirtual(Thread.currentThread());
+    }
+
     public static String getCurrentRootThreadName() {
         final String curThreadName = getCurrentThreadName();
         final String curRootThreadName = Strings.substringBefore(curThreadName, NESTED_THREAD_NAME_SEPARATOR);
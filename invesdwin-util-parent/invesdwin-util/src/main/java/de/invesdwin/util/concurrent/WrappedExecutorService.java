@@ -2,23 +2,27 @@ package de.invesdwin.util.concurrent;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
 import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import de.invesdwin.util.collections.factory.ILockCollectionFactory;
 import de.invesdwin.util.collections.fast.IFastIterableSet;
-import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateSet;
 import de.invesdwin.util.concurrent.future.InterruptingFuture;
 import de.invesdwin.util.concurrent.internal.IWrappedExecutorServiceInternal;
 import de.invesdwin.util.concurrent.internal.WrappedCallable;
@@ -64,16 +68,39 @@ public class WrappedExecutorService implements ExecutorService {
 
     };
     private final Lock pendingCountLock;
-    private final ALoadingCache<Integer, Condition> pendingCount_condition = new ALoadingCache<Integer, Condition>() {
+    /**
+     * Only the thresholds that threads are currently waiting for get signaled, and only when the pending count crosses
+     * them. Thus submitting and completing tasks does not need to acquire the lock as long as nobody waits.
+     */
+    private final ConcurrentHashMap<Integer, PendingCountThreshold> pendingCount_threshold = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCountWaiters = new AtomicInteger();
+    private final PendingCountListenerSet pendingCountListeners = new PendingCountListenerSet();
+    /**
+     * Listener notifications are coalesced, only one notification task is scheduled at a time and it reports the latest
+     * pending count.
+     */
+    private final AtomicBoolean pendingCountListenersNotificationScheduled = new AtomicBoolean();
+    private final Runnable pendingCountListenersNotification = new Runnable() {
         @Override
-        protected Condition loadValue(final Integer key) {
-            return pendingCountLock.newCondition();
+        public void run() {
+            pendingCountListenersNotificationScheduled.set(false);
+            final IPendingCountListener[] listeners = pendingCountListeners.getAsynchronousListeners();
+            final int currentPendingCount = getPendingCount();
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onPendingCountChanged(currentPendingCount);
+            }
         }
     };
-    private final IFastIterableSet<IPendingCountListener> pendingCountListeners = ILockCollectionFactory
-            .getInstance(true)
-            .newFastIterableLinkedSet();
+    /**
+     * The lock free counter only has a single cache line for the value, but other than a striped counter it gives the
+     * exact transitions that are needed to detect threshold crossings.
+     */
     private final AtomicInteger pendingCount = new AtomicInteger();
+    /**
+     * Changes of the pending count are only serialized while synchronous listeners are registered, so that they see
+     * every transition in order.
+     */
+    private final Object synchronousPendingCountListenersLock = new Object();
     private final Object pendingCountWaitLock = new Object();
     private final ExecutorService delegate;
     private volatile boolean logExceptions = true;
@@ -134,39 +161,61 @@ public class WrappedExecutorService implements ExecutorService {
                 while (pendingCount.get() >= getFullPendingCount()) {
                     awaitPendingCount(getMaximumPoolSize() - 1);
                 }
-                notifyPendingCountListeners(pendingCount.incrementAndGet());
+                changePendingCount(1);
             }
         } else {
-            notifyPendingCountListeners(pendingCount.incrementAndGet());
+            changePendingCount(1);
         }
+        notifyPendingCountListeners();
     }
 
     private void decrementPendingCount() {
-        notifyPendingCountListeners(pendingCount.decrementAndGet());
+        final int currentPendingCount = changePendingCount(-1);
+        //the count changes by one at a time, thus waiters for a limit are woken up exactly when it is reached
+        if (pendingCountWaiters.get() > 0) {
+            final PendingCountThreshold threshold = pendingCount_threshold.get(currentPendingCount);
+            if (threshold != null && threshold.waiters.get() > 0) {
+                pendingCountLock.lock();
+                try {
+                    threshold.condition.signalAll();
+                } finally {
+                    pendingCountLock.unlock();
+                }
+            }
+        }
+        notifyPendingCountListeners();
     }
 
-    private void notifyPendingCountListeners(final int currentPendingCount) {
-        pendingCountLock.lock();
-        try {
-            if (!pendingCount_condition.isEmpty()) {
-                for (final Entry<Integer, Condition> e : pendingCount_condition.entrySet()) {
-                    final Integer limit = e.getKey();
-                    if (currentPendingCount <= limit) {
-                        final Condition condition = e.getValue();
-                        if (condition != null) {
-                            condition.signalAll();
-                        }
-                    }
-                }
+    private int changePendingCount(final int delta) {
+        if (pendingCountListeners.hasSynchronousListeners()) {
+            synchronized (synchronousPendingCountListenersLock) {
+                final int currentPendingCount = pendingCount.addAndGet(delta);
+                notifySynchronousPendingCountListeners(currentPendingCount);
+                return currentPendingCount;
             }
-            if (!pendingCountListeners.isEmpty()) {
-                final IPendingCountListener[] array = pendingCountListeners.asArray(IPendingCountListener.class);
-                for (int i = 0; i < array.length; i++) {
-                    array[i].onPendingCountChanged(currentPendingCount);
+        } else {
+            final int currentPendingCount = pendingCount.addAndGet(delta);
+            if (pendingCountListeners.hasSynchronousListeners()) {
+                //listener was added concurrently, it still has to see the latest pending count
+                synchronized (synchronousPendingCountListenersLock) {
+                    notifySynchronousPendingCountListeners(pendingCount.get());
                 }
             }
-        } finally {
-            pendingCountLock.unlock();
+            return currentPendingCount;
+        }
+    }
+
+    private void notifySynchronousPendingCountListeners(final int currentPendingCount) {
+        final IPendingCountListener[] listeners = pendingCountListeners.getSynchronousListeners();
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onPendingCountChanged(currentPendingCount);
+        }
+    }
+
+    private void notifyPendingCountListeners() {
+        if (pendingCountListeners.hasAsynchronousListeners() && !pendingCountListenersNotificationScheduled.get()
+                && pendingCountListenersNotificationScheduled.compareAndSet(false, true)) {
+            PendingCountListenersExecutorHolder.INSTANCE.execute(pendingCountListenersNotification);
         }
     }
 
@@ -266,15 +315,30 @@ public class WrappedExecutorService implements ExecutorService {
      * depend on each others pendingCount, this may cause a deadlock!
      */
     public void awaitPendingCount(final int limit) throws InterruptedException {
+        if (getPendingCount() <= limit) {
+            return;
+        }
+        PendingCountThreshold threshold = pendingCount_threshold.get(limit);
+        if (threshold == null) {
+            final PendingCountThreshold newThreshold = new PendingCountThreshold(pendingCountLock.newCondition());
+            threshold = pendingCount_threshold.putIfAbsent(limit, newThreshold);
+            if (threshold == null) {
+                threshold = newThreshold;
+            }
+        }
+        //register before checking the count, so that a concurrent decrement either is seen or sees this waiter
+        pendingCountWaiters.incrementAndGet();
+        threshold.waiters.incrementAndGet();
         pendingCountLock.lock();
         try {
-            final Condition condition = pendingCount_condition.get(limit);
             while (getPendingCount() > limit) {
                 Threads.throwIfInterrupted();
-                condition.await();
+                threshold.condition.await();
             }
         } finally {
             pendingCountLock.unlock();
+            threshold.waiters.decrementAndGet();
+            pendingCountWaiters.decrementAndGet();
         }
     }
 
@@ -357,8 +421,150 @@ public class WrappedExecutorService implements ExecutorService {
         return getWrappedInstance().invokeAny(WrappedCallable.newInstance(internal, tasks), timeout, unit);
     }
 
+    /**
+     * Listeners are notified asynchronously and coalesced, thus they only see the latest pending count and not every
+     * intermediate value. Listeners that need every transition can be made synchronous, see
+     * {@link IPendingCountListener#isSynchronous()}.
+     */
     public IFastIterableSet<IPendingCountListener> getPendingCountListeners() {
         return pendingCountListeners;
     }
 
+    @ThreadSafe
+    private static final class PendingCountThreshold {
+        private final Condition condition;
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private PendingCountThreshold(final Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * Keeps volatile copies of the synchronous and asynchronous listeners so that checking for listeners does not need
+     * to synchronize.
+     */
+    @ThreadSafe
+    private static final class PendingCountListenerSet
+            extends ASynchronizedFastIterableDelegateSet<IPendingCountListener> {
+
+        private static final IPendingCountListener[] EMPTY_LISTENERS = new IPendingCountListener[0];
+
+        //no initializers, since the super constructor already sets these
+        private volatile IPendingCountListener[] synchronousListeners;
+        private volatile IPendingCountListener[] asynchronousListeners;
+
+        @Override
+        protected Set<IPendingCountListener> newDelegate() {
+            return ILockCollectionFactory.getInstance(false).newLinkedSet();
+        }
+
+        @Override
+        protected void addToFastIterable(final IPendingCountListener e) {
+            super.addToFastIterable(e);
+            updateListeners();
+        }
+
+        @Override
+        protected void refreshFastIterable() {
+            super.refreshFastIterable();
+            updateListeners();
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+            updateListeners();
+        }
+
+        @Override
+        public synchronized boolean retainAll(final Collection<?> c) {
+            final boolean changed = super.retainAll(c);
+            if (changed) {
+                refreshFastIterable();
+            }
+            return changed;
+        }
+
+        private void updateListeners() {
+            final IPendingCountListener[] array = asArray(IPendingCountListener.class);
+            int synchronousCount = 0;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i].isSynchronous()) {
+                    synchronousCount++;
+                }
+            }
+            final IPendingCountListener[] synchronousArray = newListeners(synchronousCount);
+            final IPendingCountListener[] asynchronousArray = newListeners(array.length - synchronousCount);
+            int synchronousIndex = 0;
+            int asynchronousIndex = 0;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i].isSynchronous()) {
+                    synchronousArray[synchronousIndex++] = array[i];
+                } else {
+                    asynchronousArray[asynchronousIndex++] = array[i];
+                }
+            }
+            synchronousListeners = synchronousArray;
+            asynchronousListeners = asynchronousArray;
+        }
+
+        private static IPendingCountListener[] newListeners(final int length) {
+            if (length == 0) {
+                return EMPTY_LISTENERS;
+            } else {
+                return new IPendingCountListener[length];
+            }
+        }
+
+        public boolean hasSynchronousListeners() {
+            return hasListeners(synchronousListeners);
+        }
+
+        public boolean hasAsynchronousListeners() {
+            return hasListeners(asynchronousListeners);
+        }
+
+        private static boolean hasListeners(final IPendingCountListener[] listeners) {
+            return listeners != null && listeners.length > 0;
+        }
+
+        public IPendingCountListener[] getSynchronousListeners() {
+            return nullToEmpty(synchronousListeners);
+        }
+
+        public IPendingCountListener[] getAsynchronousListeners() {
+            return nullToEmpty(asynchronousListeners);
+        }
+
+        private static IPendingCountListener[] nullToEmpty(final IPendingCountListener[] listeners) {
+            if (listeners == null) {
+                return EMPTY_LISTENERS;
+            } else {
+                return listeners;
+            }
+        }
+
+    }
+
+    /**
+     * Uses a plain executor, since a WrappedExecutorService would notify its own listeners again.
+     */
+    @Immutable
+    private static final class PendingCountListenersExecutorHolder {
+        private static final java.util.concurrent.ThreadPoolExecutor INSTANCE = newInstance();
+
+        private PendingCountListenersExecutorHolder() {}
+
+        private static java.util.concurrent.ThreadPoolExecutor newInstance() {
+            final java.util.concurrent.ThreadPoolExecutor executor = new java.util.concurrent.ThreadPoolExecutor(1, 1,
+                    FIXED_THREAD_KEEPALIVE_TIMEOUT.longValue(),
+                    FIXED_THREAD_KEEPALIVE_TIMEOUT.getTimeUnit().timeUnitValue(),
+                    new LinkedBlockingQueue<Runnable>(), Executors.newFastThreadLocalThreadFactory(
+                            WrappedExecutorService.class.getSimpleName() + "_pendingCountListeners"));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
 }
@@ -0,0 +1,66 @@
+package de.invesdwin.util.concurrent.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.ADelegateExecutorService;
+
+/**
+ * Limits the number of tasks that run in parallel on a thread per task executor. The permit is acquired inside the
+ * started thread, thus callers are never blocked and waiting tasks only park their (virtual) thread.
+ */
+@ThreadSafe
+public class SemaphoreExecutorService extends ADelegateExecutorService {
+
+    private final int permits;
+    private final Semaphore semaphore;
+
+    public SemaphoreExecutorService(final ExecutorService delegate, final int permits) {
+        super(delegate);
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits);
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    @Override
+    protected Runnable newRunnable(final Runnable runnable) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    semaphore.acquire();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    semaphore.release();
+                }
+            }
+        };
+    }
+
+    @Override
+    protected <T> Callable<T> newCallable(final Callable<T> callable) {
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                semaphore.acquire();
+                try {
+                    return callable.call();
+                } finally {
+                    semaphore.release();
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.invesdwin.util.concurrent.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.lang.Reflections;
+
+/**
+ * Virtual threads are only available since java 21, thus they are accessed via method handles so that this library can
+ * still be used on older java versions. Everything falls back to platform threads when they are not available.
+ */
+@Immutable
+public final class VirtualThreads {
+
+    private static final MethodHandle THREAD_IS_VIRTUAL_METHOD;
+    private static final MethodHandle THREAD_OF_VIRTUAL_METHOD;
+    private static final MethodHandle BUILDER_FACTORY_METHOD;
+    private static final MethodHandle EXECUTORS_NEW_THREAD_PER_TASK_EXECUTOR_METHOD;
+
+    static {
+        MethodHandle isVirtualMethod;
+        MethodHandle ofVirtualMethod;
+        MethodHandle factoryMethod;
+        MethodHandle newThreadPerTaskExecutorMethod;
+        try {
+            final Lookup lookup = MethodHandles.publicLookup();
+            isVirtualMethod = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+            final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            ofVirtualMethod = lookup.unreflect(ofVirtual);
+            final Class<Object> builderClass = Reflections.classForName("java.lang.Thread$Builder");
+            factoryMethod = lookup.unreflect(builderClass.getMethod("factory"));
+            newThreadPerTaskExecutorMethod = lookup.unreflect(
+                    java.util.concurrent.Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class));
+        } catch (final Throwable t) {
+            isVirtualMethod = null;
+            ofVirtualMethod = null;
+            factoryMethod = null;
+            newThreadPerTaskExecutorMethod = null;
+        }
+        THREAD_IS_VIRTUAL_METHOD = isVirtualMethod;
+        THREAD_OF_VIRTUAL_METHOD = ofVirtualMethod;
+        BUILDER_FACTORY_METHOD = factoryMethod;
+        EXECUTORS_NEW_THREAD_PER_TASK_EXECUTOR_METHOD = newThreadPerTaskExecutorMethod;
+    }
+
+    private VirtualThreads() {}
+
+    public static boolean isSupported() {
+        return THREAD_IS_VIRTUAL_METHOD != null;
+    }
+
+    public static boolean isVirtual(final Thread thread) {
+        if (THREAD_IS_VIRTUAL_METHOD == null) {
+            return false;
+        }
+        try {
+            return (boolean) THREAD_IS_VIRTUAL_METHOD.invokeExact(thread);
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns null when virtual threads are not supported.
+     */
+    public static ThreadFactory newThreadFactory() {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            final Object builder = THREAD_OF_VIRTUAL_METHOD.invoke();
+            return (ThreadFactory) BUILDER_FACTORY_METHOD.invoke(builder);
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a new thread for each task with the given thread factory. Returns null when virtual threads are not
+     * supported.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(final ThreadFactory threadFactory) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            return (ExecutorService) EXECUTORS_NEW_THREAD_PER_TASK_EXECUTOR_METHOD.invoke(threadFactory);
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
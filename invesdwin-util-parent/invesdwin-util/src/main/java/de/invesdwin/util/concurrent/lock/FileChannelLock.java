@@ -7,26 +7,51 @@ import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import de.invesdwin.util.concurrent.lock.internal.FileChannelLockWatcher;
+import de.invesdwin.util.concurrent.lock.internal.FileChannelLockWatcher.DirectoryWatch;
 import de.invesdwin.util.lang.Files;
 import de.invesdwin.util.lang.finalizer.AFinalizer;
-import de.invesdwin.util.time.Instant;
-import de.invesdwin.util.time.duration.Duration;
-import de.invesdwin.util.time.fdate.FTimeUnit;
 
+/**
+ * Waiting for the lock backs off exponentially between attempts and wakes up early when a file in the directory of the
+ * lock file gets deleted (which happens when another exclusive holder unlocks). The file channel only stays open
+ * between the attempts of one wait and is closed again when the lock could not be acquired.
+ * 
+ * Shared locks allow multiple readers in different processes. Inside the same JVM, overlapping file locks are not
+ * allowed on different channels (not even shared ones), thus readers in the same process should share one instance or
+ * use an additional in-process lock.
+ */
 @ThreadSafe
 public class FileChannelLock implements Closeable, ILock {
 
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     @GuardedBy("this")
     private final FileChannelLockFinalizer finalizer;
+    private final boolean shared;
 
     public FileChannelLock(final File file) {
-        this.finalizer = new FileChannelLockFinalizer(file, isDeleteFileAfterUnlock());
+        this(file, false);
+    }
+
+    public FileChannelLock(final File file, final boolean shared) {
+        this.shared = shared;
+        //other readers might still hold the file, thus only delete it after exclusive locks
+        this.finalizer = new FileChannelLockFinalizer(file, isDeleteFileAfterUnlock() && !shared);
+    }
+
+    public boolean isShared() {
+        return shared;
     }
 
     public File getFile() {
@@ -49,59 +74,147 @@ public class FileChannelLock implements Closeable, ILock {
 
     @Override
     public void lockInterruptibly() throws InterruptedException {
-        while (!tryLock()) {
-            FTimeUnit.MILLISECONDS.sleep(1);
-        }
+        await(Long.MAX_VALUE);
     }
 
     @Override
     public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
-        final Duration maxDuration = new Duration(time, FTimeUnit.valueOfTimeUnit(unit));
-        final Instant start = new Instant();
-        while (!tryLock()) {
-            FTimeUnit.MILLISECONDS.sleep(1);
-            if (start.isGreaterThan(maxDuration)) {
-                return false;
+        return await(unit.toNanos(time));
+    }
+
+    private boolean await(final long timeoutNanos) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        boolean locked = false;
+        try {
+            locked = awaitKeepingChannelOpen(timeoutNanos);
+            return locked;
+        } finally {
+            if (!locked) {
+                closeIfNotLocked();
             }
         }
-        return true;
+    }
+
+    private boolean awaitKeepingChannelOpen(final long timeoutNanos) throws InterruptedException {
+        if (tryLockKeepingChannelOpen()) {
+            return true;
+        }
+        final long startNanos = System.nanoTime();
+        final FileChannelLockWatcher watcher = FileChannelLockWatcher.getInstance();
+        final DirectoryWatch watch = watcher.register(getDirectory());
+        try {
+            long backoffNanos = MIN_BACKOFF_NANOS;
+            while (true) {
+                final long sequence = watch.getSequence();
+                if (tryLockKeepingChannelOpen()) {
+                    return true;
+                }
+                final long remainingNanos = timeoutNanos - (System.nanoTime() - startNanos);
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                watch.await(sequence, Math.min(backoffNanos, remainingNanos));
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+            }
+        } finally {
+            watcher.unregister(watch);
+        }
+    }
+
+    private Path getDirectory() {
+        final File directory = finalizer.file.getAbsoluteFile().getParentFile();
+        try {
+            Files.forceMkdir(directory);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Unable to create directory: " + directory, e);
+        }
+        return directory.toPath();
     }
 
     @Override
     public synchronized boolean tryLock() {
+        if (tryLockKeepingChannelOpen()) {
+            return true;
+        }
+        //don't hold on to a file descriptor for a failed attempt
+        closeIfNotLocked();
+        return false;
+    }
+
+    private synchronized boolean tryLockKeepingChannelOpen() {
         try {
             if (finalizer.locked) {
                 return true;
             }
-            if (!finalizer.file.exists()) {
-                Files.forceMkdirParent(finalizer.file);
-                Files.touch(finalizer.file);
+            if (finalizer.channel == null || !finalizer.channel.isOpen()) {
+                openChannel();
             }
-            // Get a file channel for the file
-            finalizer.raf = new RandomAccessFile(finalizer.file, "rw");
-            finalizer.channel = finalizer.raf.getChannel();
 
             // Try acquiring the lock without blocking. This method returns
             // null or throws an exception if the file is already locked.
             try {
-                finalizer.lock = finalizer.channel.tryLock();
+                finalizer.lock = finalizer.channel.tryLock(0L, Long.MAX_VALUE, shared);
             } catch (final OverlappingFileLockException e) {
                 // File is already locked in this thread or virtual machine
-                unlock();
                 return false;
             }
             if (finalizer.lock == null) {
-                unlock();
+                return false;
+            }
+            if (!isSameFile()) {
+                //the previous holder deleted the file after we opened it, thus we would only lock an orphaned file
+                //(closing while not marked as locked does not delete the file that might belong to someone else now)
+                finalizer.close();
                 return false;
             }
             finalizer.locked = true;
-            finalizer.register(this);
             return true;
         } catch (final IOException e) {
             throw new IllegalStateException("Unable to lock file: " + finalizer.file, e);
         }
     }
 
+    private synchronized void closeIfNotLocked() {
+        if (!finalizer.locked) {
+            //closing while not marked as locked does not delete the file that might belong to someone else
+            finalizer.close();
+        }
+    }
+
+    synchronized boolean isChannelOpen() {
+        return finalizer.channel != null;
+    }
+
+    private void openChannel() throws IOException {
+        if (!finalizer.file.exists()) {
+            Files.forceMkdirParent(finalizer.file);
+            Files.touch(finalizer.file);
+        }
+        // Get a file channel for the file
+        finalizer.raf = new RandomAccessFile(finalizer.file, "rw");
+        finalizer.channel = finalizer.raf.getChannel();
+        finalizer.fileKey = getFileKey();
+        finalizer.register(this);
+    }
+
+    private boolean isSameFile() throws IOException {
+        final Object fileKey = getFileKey();
+        if (fileKey == null) {
+            return finalizer.file.exists();
+        }
+        return fileKey.equals(finalizer.fileKey);
+    }
+
+    private Object getFileKey() throws IOException {
+        try {
+            return java.nio.file.Files.readAttributes(finalizer.file.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (final NoSuchFileException e) {
+            return null;
+        }
+    }
+
     public synchronized boolean isLocked() {
         return finalizer.locked;
     }
@@ -134,6 +247,7 @@ public class FileChannelLock implements Closeable, ILock {
         private RandomAccessFile raf;
         private FileChannel channel;
         private FileLock lock;
+        private Object fileKey;
         private boolean locked;
 
         private FileChannelLockFinalizer(final File file, final boolean deleteFileAfterUnlock) {
@@ -143,6 +257,15 @@ public class FileChannelLock implements Closeable, ILock {
 
         @Override
         protected void clean() {
+            if (locked) {
+                locked = false;
+                if (deleteFileAfterUnlock) {
+                    //delete while still holding the lock, otherwise someone else might lock the file in between and
+                    //would then hold an orphaned file while a third one creates and locks a new file
+                    file.delete();
+                }
+            }
+
             // Release the lock - if it is not null!
             if (lock != null) {
                 try {
@@ -170,17 +293,12 @@ public class FileChannelLock implements Closeable, ILock {
                 }
                 raf = null;
             }
-            if (locked) {
-                locked = false;
-                if (deleteFileAfterUnlock) {
-                    file.delete();
-                }
-            }
+            fileKey = null;
         }
 
         @Override
         protected boolean isCleaned() {
-            return !locked;
+            return !locked && channel == null;
         }
 
         @Override
@@ -6,6 +6,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -16,21 +17,31 @@ import com.googlecode.concurentlocks.CompositeLock;
 import de.invesdwin.norva.apt.staticfacade.StaticFacadeDefinition;
 import de.invesdwin.util.concurrent.lock.disabled.DisabledLock;
 import de.invesdwin.util.concurrent.lock.internal.ALocksStaticFacade;
+import de.invesdwin.util.concurrent.lock.internal.ProfiledLock;
+import de.invesdwin.util.concurrent.lock.internal.ProfiledReentrantLock;
 import de.invesdwin.util.concurrent.lock.internal.TimeoutLock;
 import de.invesdwin.util.concurrent.lock.internal.TimeoutReentrantLock;
 import de.invesdwin.util.concurrent.lock.internal.TracedLock;
 import de.invesdwin.util.concurrent.lock.internal.TracedReentrantLock;
 import de.invesdwin.util.concurrent.lock.internal.WrappedLock;
 import de.invesdwin.util.concurrent.lock.internal.WrappedReentrantLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.ProfiledOptimisticReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.ProfiledReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.ProfiledReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutOptimisticReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TimeoutReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedOptimisticReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.TracedReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedOptimisticReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedReadWriteLock;
 import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
 import de.invesdwin.util.concurrent.lock.readwrite.IReentrantReadWriteLock;
 import de.invesdwin.util.concurrent.lock.trace.ILockTrace;
+import de.invesdwin.util.concurrent.lock.trace.SamplingLockTrace;
 import de.invesdwin.util.concurrent.lock.trace.internal.DisabledLockTrace;
 import de.invesdwin.util.concurrent.lock.trace.internal.EnabledLockTrace;
 import de.invesdwin.util.lang.Strings;
@@ -57,6 +68,7 @@ public final class Locks extends ALocksStaticFacade {
     private static ILockTrace lockTrace = DisabledLockTrace.INSTANCE;
     private static Duration lockWaitTimeout = null;
     private static boolean lockWaitTimeoutOnlyWriteLocks = false;
+    private static boolean lockProfilingEnabled = false;
 
     /**
      * Keep it disabled by default to keep best performance.
@@ -90,6 +102,15 @@ public final class Locks extends ALocksStaticFacade {
         return maybeWrap(name, lock);
     }
 
+    /**
+     * Based on StampedLock, which allows optimistic reads for read mostly data structures. Other than the reentrant
+     * variants this lock is not reentrant and does not support conditions and cycle detection.
+     */
+    public static IOptimisticReadWriteLock newOptimisticReadWriteLock(final String lockName) {
+        final String name = UNIQUE_NAME_GENERATOR.get(lockName);
+        return maybeWrap(name, new StampedLock());
+    }
+
     public static void setCycleDetectingLockFactory(final CycleDetectingLockFactory cycleDetectingLockFactory) {
         Locks.cycleDetectingLockFactory = cycleDetectingLockFactory;
     }
@@ -106,10 +127,26 @@ public final class Locks extends ALocksStaticFacade {
         if (lock instanceof ILock) {
             return (ILock) lock;
         } else {
-            return maybeWrapTimeout(maybeWrapTrace(lockName, lock));
+            return maybeWrapProfile(maybeWrapTimeout(maybeWrapTrace(lockName, lock)), isExclusive(lock));
         }
     }
 
+    private static ILock maybeWrapProfile(final ILock lock, final boolean exclusive) {
+        if (isLockProfilingEnabled()) {
+            return new ProfiledLock(lock, exclusive);
+        } else {
+            return lock;
+        }
+    }
+
+    /**
+     * Hold times can only be measured for locks that are held by one thread at a time. Read locks and unknown lock
+     * implementations might be shared.
+     */
+    private static boolean isExclusive(final Lock lock) {
+        return lock instanceof ReentrantLock || lock instanceof ReentrantReadWriteLock.WriteLock;
+    }
+
     private static ILock maybeWrapTimeout(final ILock lock) {
         final Duration lockWaitTimeoutCopy = getLockWaitTimeout();
         if (lockWaitTimeoutCopy == null || isLockWaitTimeoutOnlyWriteLocks()) {
@@ -131,7 +168,15 @@ public final class Locks extends ALocksStaticFacade {
         if (lock instanceof IReentrantLock) {
             return (IReentrantLock) lock;
         } else {
-            return maybeWrapTimeout(maybeWrapTrace(lockName, lock));
+            return maybeWrapProfile(maybeWrapTimeout(maybeWrapTrace(lockName, lock)));
+        }
+    }
+
+    private static IReentrantLock maybeWrapProfile(final IReentrantLock lock) {
+        if (isLockProfilingEnabled()) {
+            return new ProfiledReentrantLock(lock);
+        } else {
+            return lock;
         }
     }
 
@@ -156,7 +201,15 @@ public final class Locks extends ALocksStaticFacade {
         if (lock instanceof IReadWriteLock) {
             return (IReadWriteLock) lock;
         } else {
-            return maybeWrapTimeout(maybeWrapTrace(lockName, lock));
+            return maybeWrapProfile(maybeWrapTimeout(maybeWrapTrace(lockName, lock)));
+        }
+    }
+
+    private static IReadWriteLock maybeWrapProfile(final IReadWriteLock lock) {
+        if (isLockProfilingEnabled()) {
+            return new ProfiledReadWriteLock(lock);
+        } else {
+            return lock;
         }
     }
 
@@ -181,7 +234,15 @@ public final class Locks extends ALocksStaticFacade {
         if (lock instanceof IReentrantReadWriteLock) {
             return (IReentrantReadWriteLock) lock;
         } else {
-            return maybeWrapTimeout(maybeWrapTrace(lockName, lock));
+            return maybeWrapProfile(maybeWrapTimeout(maybeWrapTrace(lockName, lock)));
+        }
+    }
+
+    private static IReentrantReadWriteLock maybeWrapProfile(final IReentrantReadWriteLock lock) {
+        if (isLockProfilingEnabled()) {
+            return new ProfiledReentrantReadWriteLock(lock);
+        } else {
+            return lock;
         }
     }
 
@@ -202,6 +263,35 @@ public final class Locks extends ALocksStaticFacade {
         }
     }
 
+    public static IOptimisticReadWriteLock maybeWrap(final String lockName, final StampedLock lock) {
+        return maybeWrapProfile(maybeWrapTimeout(maybeWrapTrace(lockName, lock)));
+    }
+
+    private static IOptimisticReadWriteLock maybeWrapProfile(final IOptimisticReadWriteLock lock) {
+        if (isLockProfilingEnabled()) {
+            return new ProfiledOptimisticReadWriteLock(lock);
+        } else {
+            return lock;
+        }
+    }
+
+    private static IOptimisticReadWriteLock maybeWrapTimeout(final IOptimisticReadWriteLock lock) {
+        final Duration lockWaitTimeoutCopy = getLockWaitTimeout();
+        if (lockWaitTimeoutCopy == null || isLockWaitTimeoutOnlyWriteLocks()) {
+            return lock;
+        } else {
+            return new TimeoutOptimisticReadWriteLock(lock, lockWaitTimeoutCopy);
+        }
+    }
+
+    private static IOptimisticReadWriteLock maybeWrapTrace(final String lockName, final StampedLock lock) {
+        if (isLockTraceEnabled()) {
+            return new TracedOptimisticReadWriteLock(lockName, lock);
+        } else {
+            return new WrappedOptimisticReadWriteLock(lockName, lock);
+        }
+    }
+
     public static ILockTrace getLockTrace() {
         return lockTrace;
     }
@@ -216,10 +306,49 @@ public final class Locks extends ALocksStaticFacade {
         }
     }
 
+    public static void setLockTraceSamplingEnabled(final boolean lockTraceSamplingEnabled) {
+        setLockTraceSamplingEnabled(lockTraceSamplingEnabled, SamplingLockTrace.DEFAULT_STACK_TRACE_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * The full lock trace captures a stack trace for each acquisition, which is too slow for production use. This low
+     * overhead mode instead records events into per thread ring buffers and wait and hold time histograms per lock name.
+     * Use getLockTrace() to access them. Only every stackTraceSampleInterval-th acquisition per thread captures a stack
+     * trace.
+     */
+    public static void setLockTraceSamplingEnabled(final boolean lockTraceSamplingEnabled,
+            final int stackTraceSampleInterval) {
+        if (lockTraceSamplingEnabled) {
+            final ILockTrace lockTraceCopy = Locks.lockTrace;
+            if (!(lockTraceCopy instanceof SamplingLockTrace) || ((SamplingLockTrace) lockTraceCopy)
+                    .getStackTraceSampleInterval() != stackTraceSampleInterval) {
+                Locks.lockTrace = new SamplingLockTrace(stackTraceSampleInterval);
+            }
+        } else {
+            Locks.lockTrace = DisabledLockTrace.INSTANCE;
+        }
+    }
+
+    public static boolean isLockTraceSamplingEnabled() {
+        return Locks.lockTrace instanceof SamplingLockTrace;
+    }
+
     public static boolean isLockTraceEnabled() {
         return Locks.lockTrace != DisabledLockTrace.INSTANCE;
     }
 
+    /**
+     * Profiling counts acquisitions, contended acquisitions, wait and hold times per lock name in LockProfiles. Only
+     * locks created while profiling is enabled are profiled, other locks do not have any overhead.
+     */
+    public static void setLockProfilingEnabled(final boolean lockProfilingEnabled) {
+        Locks.lockProfilingEnabled = lockProfilingEnabled;
+    }
+
+    public static boolean isLockProfilingEnabled() {
+        return lockProfilingEnabled;
+    }
+
     public static boolean isLockWaitTimeoutEnabled() {
         return lockWaitTimeout != null;
     }
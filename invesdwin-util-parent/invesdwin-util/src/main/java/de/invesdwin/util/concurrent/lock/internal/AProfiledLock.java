@@ -0,0 +1,181 @@
+package de.invesdwin.util.concurrent.lock.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+import de.invesdwin.util.concurrent.lock.profile.LockProfile;
+import de.invesdwin.util.concurrent.lock.profile.LockProfiles;
+import de.invesdwin.util.lang.Objects;
+
+/**
+ * Each acquisition first tries to get the lock without waiting (honoring fairness), only when that fails the wait time
+ * is measured and the acquisition counted as contended.
+ */
+@ThreadSafe
+public abstract class AProfiledLock implements ILock {
+
+    private final ILock delegate;
+    private final LockProfile profile;
+    private final boolean exclusive;
+    /**
+     * only written by the thread that holds the exclusive lock, a stale read never yields the reading thread since it
+     * cleared the field itself when it released the lock
+     */
+    private Thread owner;
+    /**
+     * only accessed by the owner
+     */
+    private int holdCount;
+    private long lockedNanos;
+
+    public AProfiledLock(final ILock delegate, final boolean exclusive) {
+        this.delegate = delegate;
+        this.profile = LockProfiles.getOrCreate(delegate.getName());
+        this.exclusive = exclusive;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    public LockProfile getProfile() {
+        return profile;
+    }
+
+    @Override
+    public void lock() {
+        if (tryLockUncontended()) {
+            profile.acquired();
+            locked();
+            return;
+        }
+        final long waitStartNanos = System.nanoTime();
+        delegate.lock();
+        profile.acquiredContended(System.nanoTime() - waitStartNanos);
+        locked();
+    }
+
+    private boolean tryLockUncontended() {
+        try {
+            return delegate.tryLock(0L, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            //lock() is not interruptible, so keep the flag and wait normally
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (delegate.tryLock(0L, TimeUnit.NANOSECONDS)) {
+            profile.acquired();
+            locked();
+            return;
+        }
+        final long waitStartNanos = System.nanoTime();
+        delegate.lockInterruptibly();
+        profile.acquiredContended(System.nanoTime() - waitStartNanos);
+        locked();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (delegate.tryLock()) {
+            profile.acquired();
+            locked();
+            return true;
+        } else {
+            profile.failed(0L);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+        if (delegate.tryLock(0L, TimeUnit.NANOSECONDS)) {
+            profile.acquired();
+            locked();
+            return true;
+        }
+        final long waitStartNanos = System.nanoTime();
+        final boolean acquired = delegate.tryLock(time, unit);
+        final long waitNanos = System.nanoTime() - waitStartNanos;
+        if (acquired) {
+            profile.acquiredContended(waitNanos);
+            locked();
+        } else {
+            profile.failed(waitNanos);
+        }
+        return acquired;
+    }
+
+    private void locked() {
+        if (exclusive) {
+            if (holdCount == 0) {
+                lockedNanos = System.nanoTime();
+                owner = Thread.currentThread();
+            }
+            holdCount++;
+        }
+    }
+
+    @Override
+    public void unlock() {
+        //an illegal unlock by a non-owner must not touch the counters before the delegate throws
+        if (isOwner()) {
+            //update while still holding the lock
+            holdCount--;
+            if (holdCount == 0) {
+                owner = null;
+                profile.released(System.nanoTime() - lockedNanos);
+            }
+        }
+        delegate.unlock();
+    }
+
+    /**
+     * Await releases the lock completely, thus the hold time ends here and the hold count has to be restored after.
+     */
+    int beforeAwait() {
+        if (!isOwner()) {
+            //the delegate throws when the lock is not held
+            return 0;
+        }
+        final int holdCountBefore = holdCount;
+        holdCount = 0;
+        owner = null;
+        profile.released(System.nanoTime() - lockedNanos);
+        return holdCountBefore;
+    }
+
+    void afterAwait(final int holdCountBefore) {
+        if (!exclusive) {
+            profile.acquired();
+        } else if (holdCountBefore > 0) {
+            //otherwise the await failed because the lock was not held
+            profile.acquired();
+            lockedNanos = System.nanoTime();
+            owner = Thread.currentThread();
+            holdCount = holdCountBefore;
+        }
+    }
+
+    private boolean isOwner() {
+        return exclusive && owner == Thread.currentThread();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new ProfiledCondition(this, delegate.newCondition());
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(delegate).addValue(profile).toString();
+    }
+
+}
@@ -0,0 +1,182 @@
+package de.invesdwin.util.concurrent.lock.internal;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+
+/**
+ * Wakes up threads that wait for a file lock when a file in the directory of the lock file is deleted, which happens
+ * when the holder releases a lock that deletes its file after unlocking. All directories share one WatchService and one
+ * thread to save file descriptors. Waiters still need a timeout, since not every release deletes the file and a
+ * WatchService might not be supported or only poll on some platforms.
+ */
+@ThreadSafe
+public final class FileChannelLockWatcher {
+
+    @GuardedBy("this")
+    private final Map<Path, DirectoryWatch> directory_watch = new HashMap<Path, DirectoryWatch>();
+    @GuardedBy("this")
+    private final Map<WatchKey, DirectoryWatch> key_watch = new HashMap<WatchKey, DirectoryWatch>();
+    @GuardedBy("this")
+    private WatchService watchService;
+    @GuardedBy("this")
+    private WrappedExecutorService executor;
+
+    private FileChannelLockWatcher() {}
+
+    public static FileChannelLockWatcher getInstance() {
+        return FileChannelLockWatcherHolder.INSTANCE;
+    }
+
+    /**
+     * Call unregister when done waiting.
+     */
+    public synchronized DirectoryWatch register(final Path directory) {
+        DirectoryWatch watch = directory_watch.get(directory);
+        if (watch == null) {
+            watch = new DirectoryWatch(directory);
+            try {
+                final WatchService watchServiceCopy = getWatchService();
+                if (watchServiceCopy != null) {
+                    watch.key = directory.register(watchServiceCopy, StandardWatchEventKinds.ENTRY_DELETE);
+                    key_watch.put(watch.key, watch);
+                }
+            } catch (final IOException | UnsupportedOperationException e) {
+                //waiters will rely on the timeout
+                watch.key = null;
+            }
+            directory_watch.put(directory, watch);
+        }
+        watch.registrations++;
+        return watch;
+    }
+
+    public synchronized void unregister(final DirectoryWatch watch) {
+        watch.registrations--;
+        if (watch.registrations <= 0) {
+            directory_watch.remove(watch.directory);
+            if (watch.key != null) {
+                key_watch.remove(watch.key);
+                watch.key.cancel();
+                watch.key = null;
+            }
+            if (directory_watch.isEmpty() && watchService != null) {
+                //free the file descriptor and the thread while nobody waits for a file lock
+                try {
+                    watchService.close();
+                } catch (final IOException e) {
+                    //ignore
+                }
+                watchService = null;
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private WatchService getWatchService() {
+        if (watchService == null) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+            } catch (final IOException | UnsupportedOperationException e) {
+                return null;
+            }
+            final WatchService watchServiceCopy = watchService;
+            executor = Executors.newFixedThreadPool(FileChannelLockWatcher.class.getSimpleName(), 1)
+                    .withDynamicThreadName(false);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    dispatch(watchServiceCopy);
+                }
+            });
+        }
+        return watchService;
+    }
+
+    private void dispatch(final WatchService watchServiceCopy) {
+        try {
+            while (true) {
+                final WatchKey key = watchServiceCopy.take();
+                key.pollEvents();
+                final DirectoryWatch watch;
+                synchronized (this) {
+                    watch = key_watch.get(key);
+                }
+                if (watch != null) {
+                    watch.signal();
+                }
+                key.reset();
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            //stopped
+        }
+    }
+
+    @ThreadSafe
+    public static final class DirectoryWatch {
+
+        private final Path directory;
+        @GuardedBy("FileChannelLockWatcher.this")
+        private WatchKey key;
+        @GuardedBy("FileChannelLockWatcher.this")
+        private int registrations;
+        @GuardedBy("this")
+        private long sequence;
+
+        private DirectoryWatch(final Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Read this before checking the lock, then pass it to await so that no change in between gets lost.
+         */
+        public synchronized long getSequence() {
+            return sequence;
+        }
+
+        private synchronized void signal() {
+            sequence++;
+            notifyAll();
+        }
+
+        /**
+         * Waits until a file in the directory was deleted since the given sequence or the timeout is reached.
+         */
+        public synchronized void await(final long sequence, final long timeoutNanos) throws InterruptedException {
+            final long deadlineNanos = System.nanoTime() + timeoutNanos;
+            while (this.sequence == sequence) {
+                final long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return;
+                }
+                final long millis = remainingNanos / 1_000_000L;
+                final int nanos = (int) (remainingNanos % 1_000_000L);
+                wait(millis, nanos);
+            }
+        }
+
+    }
+
+    @Immutable
+    private static final class FileChannelLockWatcherHolder {
+        private static final FileChannelLockWatcher INSTANCE = new FileChannelLockWatcher();
+
+        private FileChannelLockWatcherHolder() {}
+    }
+
+}
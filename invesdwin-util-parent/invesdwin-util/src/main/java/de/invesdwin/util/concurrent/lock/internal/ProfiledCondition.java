@@ -0,0 +1,100 @@
+package de.invesdwin.util.concurrent.lock.internal;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Awaiting a condition fully releases the lock and reacquires it before returning (even when interrupted), thus the
+ * hold time is recorded before waiting and measured again after the lock is held again.
+ */
+@ThreadSafe
+public class ProfiledCondition implements Condition {
+
+    private final AProfiledLock lock;
+    private final Condition delegate;
+
+    public ProfiledCondition(final AProfiledLock lock, final Condition delegate) {
+        this.lock = lock;
+        this.delegate = delegate;
+    }
+
+    public Condition getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void await() throws InterruptedException {
+        final int holdCount = lock.beforeAwait();
+        try {
+            delegate.await();
+        } finally {
+            lock.afterAwait(holdCount);
+        }
+    }
+
+    @Override
+    public void awaitUninterruptibly() {
+        final int holdCount = lock.beforeAwait();
+        try {
+            delegate.awaitUninterruptibly();
+        } finally {
+            lock.afterAwait(holdCount);
+        }
+    }
+
+    @Override
+    public long awaitNanos(final long nanosTimeout) throws InterruptedException {
+        final int holdCount = lock.beforeAwait();
+        try {
+            return delegate.awaitNanos(nanosTimeout);
+        } finally {
+            lock.afterAwait(holdCount);
+        }
+    }
+
+    @Override
+    public boolean await(final long time, final TimeUnit unit) throws InterruptedException {
+        final int holdCount = lock.beforeAwait();
+        try {
+            return delegate.await(time, unit);
+        } finally {
+            lock.afterAwait(holdCount);
+        }
+    }
+
+    @Override
+    public boolean awaitUntil(final Date deadline) throws InterruptedException {
+        final int holdCount = lock.beforeAwait();
+        try {
+            return delegate.awaitUntil(deadline);
+        } finally {
+            lock.afterAwait(holdCount);
+        }
+    }
+
+    @Override
+    public void signal() {
+        delegate.signal();
+    }
+
+    @Override
+    public void signalAll() {
+        delegate.signalAll();
+    }
+
+    /**
+     * The delegate lock only knows its own conditions, e.g. for hasWaiters(condition).
+     */
+    public static Condition unwrap(final Condition condition) {
+        if (condition instanceof ProfiledCondition) {
+            final ProfiledCondition cCondition = (ProfiledCondition) condition;
+            return cCondition.getDelegate();
+        } else {
+            return condition;
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package de.invesdwin.util.concurrent.lock.internal;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.ILock;
+
+@ThreadSafe
+public final class ProfiledLock extends AProfiledLock {
+
+    /**
+     * @param exclusive
+     *            false for shared read locks, then hold times are not measured
+     */
+    public ProfiledLock(final ILock delegate, final boolean exclusive) {
+        super(delegate, exclusive);
+    }
+
+}
@@ -0,0 +1,64 @@
+package de.invesdwin.util.concurrent.lock.internal;
+
+import java.util.concurrent.locks.Condition;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.IReentrantLock;
+
+@ThreadSafe
+public class ProfiledReentrantLock extends AProfiledLock implements IReentrantLock {
+
+    private final IReentrantLock delegate;
+
+    public ProfiledReentrantLock(final IReentrantLock delegate) {
+        super(delegate, true);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int getHoldCount() {
+        return delegate.getHoldCount();
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread() {
+        return delegate.isHeldByCurrentThread();
+    }
+
+    @Override
+    public boolean isLocked() {
+        return delegate.isLocked();
+    }
+
+    @Override
+    public boolean isFair() {
+        return delegate.isFair();
+    }
+
+    @Override
+    public boolean hasQueuedThreads() {
+        return delegate.hasQueuedThreads();
+    }
+
+    @Override
+    public boolean hasQueuedThread(final Thread thread) {
+        return delegate.hasQueuedThread(thread);
+    }
+
+    @Override
+    public int getQueueLength() {
+        return delegate.getQueueLength();
+    }
+
+    @Override
+    public boolean hasWaiters(final Condition condition) {
+        return delegate.hasWaiters(ProfiledCondition.unwrap(condition));
+    }
+
+    @Override
+    public int getWaitQueueLength(final Condition condition) {
+        return delegate.getWaitQueueLength(ProfiledCondition.unwrap(condition));
+    }
+
+}
@@ -29,8 +29,9 @@ public class TracedReentrantLock implements IReentrantLock {
     @Override
     public void lock() {
         try {
+            final long waitStartNanos = System.nanoTime();
             delegate.lock();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final Throwable t) {
             throw Locks.getLockTrace().handleLockException(getName(), t);
         }
@@ -39,8 +40,9 @@ public class TracedReentrantLock implements IReentrantLock {
     @Override
     public void lockInterruptibly() throws InterruptedException {
         try {
+            final long waitStartNanos = System.nanoTime();
             delegate.lockInterruptibly();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final InterruptedException t) {
             throw t;
         } catch (final Throwable t) {
@@ -51,9 +53,10 @@ public class TracedReentrantLock implements IReentrantLock {
     @Override
     public boolean tryLock() {
         try {
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock();
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final Throwable t) {
@@ -64,9 +67,10 @@ public class TracedReentrantLock implements IReentrantLock {
     @Override
     public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
         try {
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock(time, unit);
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final InterruptedException t) {
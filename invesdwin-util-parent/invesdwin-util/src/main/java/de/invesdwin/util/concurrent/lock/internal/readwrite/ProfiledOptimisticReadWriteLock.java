@@ -0,0 +1,27 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+
+@ThreadSafe
+public class ProfiledOptimisticReadWriteLock extends ProfiledReadWriteLock implements IOptimisticReadWriteLock {
+
+    private final IOptimisticReadWriteLock delegate;
+
+    public ProfiledOptimisticReadWriteLock(final IOptimisticReadWriteLock delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return delegate.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(final long stamp) {
+        return delegate.validate(stamp);
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.internal.ProfiledLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IReadWriteLock;
+import de.invesdwin.util.lang.Objects;
+
+@ThreadSafe
+public class ProfiledReadWriteLock implements IReadWriteLock {
+
+    private final IReadWriteLock delegate;
+    private final ProfiledLock readLock;
+    private final ProfiledLock writeLock;
+
+    public ProfiledReadWriteLock(final IReadWriteLock delegate) {
+        this.delegate = delegate;
+        this.readLock = new ProfiledLock(delegate.readLock(), false);
+        this.writeLock = new ProfiledLock(delegate.writeLock(), true);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public ProfiledLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public ProfiledLock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(delegate).toString();
+    }
+
+}
@@ -0,0 +1,101 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import java.util.concurrent.locks.Condition;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.internal.ProfiledCondition;
+import de.invesdwin.util.concurrent.lock.internal.ProfiledLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.write.ProfiledReentrantWriteLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IReentrantReadWriteLock;
+import de.invesdwin.util.lang.Objects;
+
+@ThreadSafe
+public class ProfiledReentrantReadWriteLock implements IReentrantReadWriteLock {
+
+    private final IReentrantReadWriteLock delegate;
+    private final ProfiledLock readLock;
+    private final ProfiledReentrantWriteLock writeLock;
+
+    public ProfiledReentrantReadWriteLock(final IReentrantReadWriteLock delegate) {
+        this.delegate = delegate;
+        this.readLock = new ProfiledLock(delegate.readLock(), false);
+        this.writeLock = new ProfiledReentrantWriteLock(delegate.writeLock());
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public ProfiledLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public ProfiledReentrantWriteLock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public final boolean isFair() {
+        return delegate.isFair();
+    }
+
+    @Override
+    public int getReadLockCount() {
+        return delegate.getReadHoldCount();
+    }
+
+    @Override
+    public boolean isWriteLocked() {
+        return delegate.isWriteLocked();
+    }
+
+    @Override
+    public boolean isWriteLockedByCurrentThread() {
+        return delegate.isWriteLockedByCurrentThread();
+    }
+
+    @Override
+    public int getWriteHoldCount() {
+        return delegate.getWriteHoldCount();
+    }
+
+    @Override
+    public int getReadHoldCount() {
+        return delegate.getReadHoldCount();
+    }
+
+    @Override
+    public boolean hasQueuedThreads() {
+        return delegate.hasQueuedThreads();
+    }
+
+    @Override
+    public boolean hasQueuedThread(final Thread thread) {
+        return delegate.hasQueuedThread(thread);
+    }
+
+    @Override
+    public int getQueueLength() {
+        return delegate.getQueueLength();
+    }
+
+    @Override
+    public boolean hasWaiters(final Condition condition) {
+        return delegate.hasWaiters(ProfiledCondition.unwrap(condition));
+    }
+
+    @Override
+    public int getWaitQueueLength(final Condition condition) {
+        return delegate.getWaitQueueLength(ProfiledCondition.unwrap(condition));
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this).addValue(delegate).toString();
+    }
+
+}
@@ -0,0 +1,28 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+import de.invesdwin.util.time.duration.Duration;
+
+@ThreadSafe
+public class TimeoutOptimisticReadWriteLock extends TimeoutReadWriteLock implements IOptimisticReadWriteLock {
+
+    private final IOptimisticReadWriteLock delegate;
+
+    public TimeoutOptimisticReadWriteLock(final IOptimisticReadWriteLock delegate, final Duration lockWaitTimeout) {
+        super(delegate, lockWaitTimeout);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return delegate.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(final long stamp) {
+        return delegate.validate(stamp);
+    }
+
+}
@@ -0,0 +1,29 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite;
+
+import java.util.concurrent.locks.StampedLock;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.readwrite.IOptimisticReadWriteLock;
+
+@ThreadSafe
+public class TracedOptimisticReadWriteLock extends TracedReadWriteLock implements IOptimisticReadWriteLock {
+
+    private final StampedLock delegate;
+
+    public TracedOptimisticReadWriteLock(final String name, final StampedLock delegate) {
+        super(name, delegate.asReadWriteLock());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return delegate.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(final long stamp) {
+        return delegate.validate(stamp);
+    }
+
+}
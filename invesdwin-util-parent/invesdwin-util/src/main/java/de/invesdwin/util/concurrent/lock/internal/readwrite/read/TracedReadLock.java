@@ -28,8 +28,9 @@ public class TracedReadLock implements ILock {
     @Override
     public void lock() {
         try {
+            final long waitStartNanos = System.nanoTime();
             delegate.lock();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final Throwable t) {
             throw Locks.getLockTrace().handleLockException(getName(), t);
         }
@@ -38,8 +39,9 @@ public class TracedReadLock implements ILock {
     @Override
     public void lockInterruptibly() throws InterruptedException {
         try {
+            final long waitStartNanos = System.nanoTime();
             delegate.lockInterruptibly();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final InterruptedException t) {
             throw t;
         } catch (final Throwable t) {
@@ -50,9 +52,10 @@ public class TracedReadLock implements ILock {
     @Override
     public boolean tryLock() {
         try {
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock();
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final Throwable t) {
@@ -63,9 +66,10 @@ public class TracedReadLock implements ILock {
     @Override
     public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
         try {
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock(time, unit);
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final InterruptedException t) {
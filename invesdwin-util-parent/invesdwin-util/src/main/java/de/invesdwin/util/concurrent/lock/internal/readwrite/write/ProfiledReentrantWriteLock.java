@@ -0,0 +1,28 @@
+package de.invesdwin.util.concurrent.lock.internal.readwrite.write;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.lock.internal.AProfiledLock;
+import de.invesdwin.util.concurrent.lock.readwrite.IReentrantWriteLock;
+
+@ThreadSafe
+public class ProfiledReentrantWriteLock extends AProfiledLock implements IReentrantWriteLock {
+
+    private final IReentrantWriteLock delegate;
+
+    public ProfiledReentrantWriteLock(final IReentrantWriteLock delegate) {
+        super(delegate, true);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread() {
+        return delegate.isHeldByCurrentThread();
+    }
+
+    @Override
+    public int getHoldCount() {
+        return delegate.getHoldCount();
+    }
+
+}
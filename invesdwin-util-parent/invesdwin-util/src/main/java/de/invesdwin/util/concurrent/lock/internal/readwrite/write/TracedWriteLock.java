@@ -33,8 +33,9 @@ public class TracedWriteLock implements ILock {
     public void lock() {
         try {
             assertReadLockNotHeldByCurrentThread();
+            final long waitStartNanos = System.nanoTime();
             delegate.lock();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final Throwable t) {
             throw Locks.getLockTrace().handleLockException(getName(), t);
         }
@@ -54,8 +55,9 @@ public class TracedWriteLock implements ILock {
     public void lockInterruptibly() throws InterruptedException {
         try {
             assertReadLockNotHeldByCurrentThread();
+            final long waitStartNanos = System.nanoTime();
             delegate.lockInterruptibly();
-            Locks.getLockTrace().locked(getName());
+            Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
         } catch (final InterruptedException t) {
             throw t;
         } catch (final Throwable t) {
@@ -67,9 +69,10 @@ public class TracedWriteLock implements ILock {
     public boolean tryLock() {
         try {
             assertReadLockNotHeldByCurrentThread();
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock();
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final Throwable t) {
@@ -81,9 +84,10 @@ public class TracedWriteLock implements ILock {
     public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
         try {
             assertReadLockNotHeldByCurrentThread();
+            final long waitStartNanos = System.nanoTime();
             final boolean locked = delegate.tryLock(time, unit);
             if (locked) {
-                Locks.getLockTrace().locked(getName());
+                Locks.getLockTrace().locked(getName(), System.nanoTime() - waitStartNanos);
             }
             return locked;
         } catch (final InterruptedException t) {
@@ -0,0 +1,193 @@
+package de.invesdwin.util.concurrent.lock.profile;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Contention statistics of one lock name. Hold times are only measured for exclusive locks, since shared read locks
+ * can be held by multiple threads at once.
+ */
+@ThreadSafe
+public class LockProfile {
+
+    private final String name;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder failedAcquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder holdNanos = new LongAdder();
+    private final AtomicLong maxHoldNanos = new AtomicLong();
+
+    public LockProfile(final String name) {
+        this.name = name;
+    }
+
+    private LockProfile(final LockProfile profile) {
+        this(profile.getName());
+        acquisitions.add(profile.getAcquisitions());
+        contendedAcquisitions.add(profile.getContendedAcquisitions());
+        failedAcquisitions.add(profile.getFailedAcquisitions());
+        waitNanos.add(profile.getWaitNanos());
+        maxWaitNanos.set(profile.getMaxWaitNanos());
+        holdNanos.add(profile.getHoldNanos());
+        maxHoldNanos.set(profile.getMaxHoldNanos());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void acquired() {
+        acquisitions.increment();
+    }
+
+    public void acquiredContended(final long waitNanos) {
+        acquisitions.increment();
+        contendedAcquisitions.increment();
+        waited(waitNanos);
+    }
+
+    /**
+     * A tryLock that did not get the lock.
+     */
+    public void failed(final long waitNanos) {
+        failedAcquisitions.increment();
+        if (waitNanos > 0) {
+            waited(waitNanos);
+        }
+    }
+
+    private void waited(final long nanos) {
+        waitNanos.add(nanos);
+        updateMax(maxWaitNanos, nanos);
+    }
+
+    public void released(final long holdNanos) {
+        this.holdNanos.add(holdNanos);
+        updateMax(maxHoldNanos, holdNanos);
+    }
+
+    private static void updateMax(final AtomicLong max, final long value) {
+        long curMax = max.get();
+        while (value > curMax && !max.compareAndSet(curMax, value)) {
+            curMax = max.get();
+        }
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    public long getFailedAcquisitions() {
+        return failedAcquisitions.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long getHoldNanos() {
+        return holdNanos.sum();
+    }
+
+    public long getMaxHoldNanos() {
+        return maxHoldNanos.get();
+    }
+
+    public double getContentionRate() {
+        final long acquisitionsCopy = getAcquisitions();
+        if (acquisitionsCopy == 0) {
+            return 0D;
+        } else {
+            return (double) getContendedAcquisitions() / acquisitionsCopy;
+        }
+    }
+
+    /**
+     * Returns a copy of the current counter values that does not change anymore, e.g. to sort profiles of locks that
+     * are still in use.
+     */
+    public LockProfile newSnapshot() {
+        return new LockProfileSnapshot(this);
+    }
+
+    public void reset() {
+        acquisitions.reset();
+        contendedAcquisitions.reset();
+        failedAcquisitions.reset();
+        waitNanos.reset();
+        maxWaitNanos.set(0);
+        holdNanos.reset();
+        maxHoldNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .addValue(name)
+                .add("acquisitions", getAcquisitions())
+                .add("contended", getContendedAcquisitions())
+                .add("failed", getFailedAcquisitions())
+                .add("wait", new Duration(getWaitNanos(), FTimeUnit.NANOSECONDS))
+                .add("maxWait", new Duration(getMaxWaitNanos(), FTimeUnit.NANOSECONDS))
+                .add("hold", new Duration(getHoldNanos(), FTimeUnit.NANOSECONDS))
+                .add("maxHold", new Duration(getMaxHoldNanos(), FTimeUnit.NANOSECONDS))
+                .toString();
+    }
+
+    @Immutable
+    private static final class LockProfileSnapshot extends LockProfile {
+
+        private LockProfileSnapshot(final LockProfile profile) {
+            super(profile);
+        }
+
+        @Override
+        public void acquired() {
+            throw new UnsupportedOperationException("immutable snapshot");
+        }
+
+        @Override
+        public void acquiredContended(final long waitNanos) {
+            throw new UnsupportedOperationException("immutable snapshot");
+        }
+
+        @Override
+        public void failed(final long waitNanos) {
+            throw new UnsupportedOperationException("immutable snapshot");
+        }
+
+        @Override
+        public void released(final long holdNanos) {
+            throw new UnsupportedOperationException("immutable snapshot");
+        }
+
+        @Override
+        public void reset() {
+            throw new UnsupportedOperationException("immutable snapshot");
+        }
+
+        @Override
+        public LockProfile newSnapshot() {
+            return this;
+        }
+
+    }
+
+}
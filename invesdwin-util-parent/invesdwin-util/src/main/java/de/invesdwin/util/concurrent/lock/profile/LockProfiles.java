@@ -0,0 +1,118 @@
+package de.invesdwin.util.concurrent.lock.profile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Registry of the profiles of all locks that were created while Locks.isLockProfilingEnabled() was true. Profiles are
+ * looked up once when the lock is created, thus acquisitions only update counters.
+ */
+@ThreadSafe
+public final class LockProfiles {
+
+    /**
+     * Sorts by cumulative wait time descending, which is the best indicator for a bottleneck.
+     */
+    public static final Comparator<LockProfile> WAIT_NANOS_COMPARATOR = new Comparator<LockProfile>() {
+        @Override
+        public int compare(final LockProfile o1, final LockProfile o2) {
+            return Long.compare(o2.getWaitNanos(), o1.getWaitNanos());
+        }
+    };
+    public static final Comparator<LockProfile> CONTENDED_ACQUISITIONS_COMPARATOR = new Comparator<LockProfile>() {
+        @Override
+        public int compare(final LockProfile o1, final LockProfile o2) {
+            return Long.compare(o2.getContendedAcquisitions(), o1.getContendedAcquisitions());
+        }
+    };
+    public static final Comparator<LockProfile> MAX_HOLD_NANOS_COMPARATOR = new Comparator<LockProfile>() {
+        @Override
+        public int compare(final LockProfile o1, final LockProfile o2) {
+            return Long.compare(o2.getMaxHoldNanos(), o1.getMaxHoldNanos());
+        }
+    };
+
+    private static final Map<String, LockProfile> NAME_PROFILE = new ConcurrentHashMap<String, LockProfile>();
+
+    private LockProfiles() {}
+
+    public static LockProfile getOrCreate(final String lockName) {
+        return NAME_PROFILE.computeIfAbsent(lockName, new Function<String, LockProfile>() {
+            @Override
+            public LockProfile apply(final String t) {
+                return new LockProfile(t);
+            }
+        });
+    }
+
+    /**
+     * Returns null if no profiled lock with this name was created.
+     */
+    public static LockProfile get(final String lockName) {
+        return NAME_PROFILE.get(lockName);
+    }
+
+    public static Collection<LockProfile> getAll() {
+        return Collections.unmodifiableCollection(NAME_PROFILE.values());
+    }
+
+    public static List<LockProfile> getTop(final int count) {
+        return getTop(count, WAIT_NANOS_COMPARATOR);
+    }
+
+    /**
+     * Returns snapshots of the profiles, since sorting live profiles could violate the comparator contract while other
+     * threads still update the counters.
+     */
+    public static List<LockProfile> getTop(final int count, final Comparator<LockProfile> comparator) {
+        final List<LockProfile> profiles = new ArrayList<LockProfile>(NAME_PROFILE.size());
+        for (final LockProfile profile : NAME_PROFILE.values()) {
+            profiles.add(profile.newSnapshot());
+        }
+        Collections.sort(profiles, comparator);
+        if (profiles.size() > count) {
+            return new ArrayList<LockProfile>(profiles.subList(0, Math.max(0, count)));
+        } else {
+            return profiles;
+        }
+    }
+
+    public static String newTopReport(final int count) {
+        return newTopReport(count, WAIT_NANOS_COMPARATOR);
+    }
+
+    public static String newTopReport(final int count, final Comparator<LockProfile> comparator) {
+        final List<LockProfile> top = getTop(count, comparator);
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Top ");
+        sb.append(top.size());
+        sb.append(" of ");
+        sb.append(NAME_PROFILE.size());
+        sb.append(" profiled locks:");
+        for (int i = 0; i < top.size(); i++) {
+            sb.append("\n");
+            sb.append(i + 1);
+            sb.append(". ");
+            sb.append(top.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resets the counters but keeps the profiles, since existing locks still reference them.
+     */
+    public static void reset() {
+        for (final LockProfile profile : NAME_PROFILE.values()) {
+            profile.reset();
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package de.invesdwin.util.concurrent.lock.readwrite;
+
+/**
+ * A read write lock that additionally supports optimistic reads without acquiring the read lock (see StampedLock). This
+ * lock is not reentrant.
+ */
+public interface IOptimisticReadWriteLock extends IReadWriteLock {
+
+    /**
+     * Returns 0 if the write lock is currently held.
+     */
+    long tryOptimisticRead();
+
+    /**
+     * Returns true if the write lock was not acquired since the stamp was issued.
+     */
+    boolean validate(long stamp);
+
+}
@@ -4,6 +4,13 @@ public interface ILockTrace {
 
     void locked(String name);
 
+    /**
+     * Called by the traced locks after acquiring the lock, waitNanos is the time it took to acquire it.
+     */
+    default void locked(final String name, final long waitNanos) {
+        locked(name);
+    }
+
     void unlocked(String name);
 
     RuntimeException handleLockException(String lockName, Throwable lockException);
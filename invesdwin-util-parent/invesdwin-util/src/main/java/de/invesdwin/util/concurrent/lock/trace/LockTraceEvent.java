@@ -0,0 +1,65 @@
+package de.invesdwin.util.concurrent.lock.trace;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@Immutable
+public class LockTraceEvent {
+
+    private final String lockName;
+    private final String threadName;
+    private final boolean locked;
+    private final long timeNanos;
+    private final long durationNanos;
+
+    public LockTraceEvent(final String lockName, final String threadName, final boolean locked,
+            final long timeNanos, final long durationNanos) {
+        this.lockName = lockName;
+        this.threadName = threadName;
+        this.locked = locked;
+        this.timeNanos = timeNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getLockName() {
+        return lockName;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * True when the lock was acquired, false when it was released.
+     */
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * As given by System.nanoTime().
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * The wait time when the lock was acquired, the hold time when it was released.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("lockName", lockName)
+                .add("threadName", threadName)
+                .add(locked ? "locked" : "unlocked", new Duration(durationNanos, FTimeUnit.NANOSECONDS))
+                .toString();
+    }
+
+}
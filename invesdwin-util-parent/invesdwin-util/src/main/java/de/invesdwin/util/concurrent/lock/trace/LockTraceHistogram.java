@@ -0,0 +1,130 @@
+package de.invesdwin.util.concurrent.lock.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Counts durations in power of two buckets, so recording is only an addition without any allocation. Bucket 0 counts
+ * durations of 0 nanoseconds, bucket i counts durations between 2^(i-1) and 2^i-1 nanoseconds.
+ */
+@ThreadSafe
+public class LockTraceHistogram {
+
+    public static final int BUCKET_COUNT = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LockTraceHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long positiveNanos = Math.max(0, nanos);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(positiveNanos)].increment();
+        totalNanos.add(positiveNanos);
+        long curMaxNanos = maxNanos.get();
+        while (positiveNanos > curMaxNanos && !maxNanos.compareAndSet(curMaxNanos, positiveNanos)) {
+            curMaxNanos = maxNanos.get();
+        }
+    }
+
+    public long[] getBucketCounts() {
+        final long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * The largest duration that fits into the given bucket.
+     */
+    public static long getBucketUpperBoundNanos(final int bucket) {
+        if (bucket == 0) {
+            return 0;
+        } else if (bucket >= Long.SIZE - 1) {
+            return Long.MAX_VALUE;
+        } else {
+            return (1L << bucket) - 1;
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            count += buckets[i].sum();
+        }
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAverageNanos() {
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        } else {
+            return getTotalNanos() / count;
+        }
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile (between 0 and 100), thus the result is
+     * at most twice the actual value.
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long[] counts = getBucketCounts();
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long threshold = (long) Math.ceil(count * percentile / 100D);
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= threshold && cumulativeCount > 0) {
+                return Math.min(getBucketUpperBoundNanos(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i].reset();
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("count", getCount())
+                .add("average", new Duration(getAverageNanos(), FTimeUnit.NANOSECONDS))
+                .add("p50", new Duration(getPercentileNanos(50), FTimeUnit.NANOSECONDS))
+                .add("p99", new Duration(getPercentileNanos(99), FTimeUnit.NANOSECONDS))
+                .add("max", new Duration(getMaxNanos(), FTimeUnit.NANOSECONDS))
+                .toString();
+    }
+
+}
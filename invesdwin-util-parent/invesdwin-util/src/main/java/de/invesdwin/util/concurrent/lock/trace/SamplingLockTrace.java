@@ -0,0 +1,396 @@
+package de.invesdwin.util.concurrent.lock.trace;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.concurrent.Threads;
+import de.invesdwin.util.error.Throwables;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * A lock trace that is cheap enough to be enabled in production. Other than EnabledLockTrace it does not resolve the
+ * thread name or fill a stack trace on each acquisition. Instead events are recorded into a ring buffer per thread and
+ * wait and hold times are counted in histograms per lock name. Stack traces are only captured for every
+ * stackTraceSampleInterval-th acquisition per thread, the stack of a holding thread is otherwise captured when a dump
+ * is requested.
+ *
+ * The dump and the recent events read the per thread buffers without synchronization, thus they are a best effort
+ * snapshot. The histograms are kept per lock name until reset is called.
+ */
+@ThreadSafe
+public class SamplingLockTrace implements ILockTrace {
+
+    public static final int DEFAULT_STACK_TRACE_SAMPLE_INTERVAL = 1000;
+    public static final int DEFAULT_EVENT_BUFFER_SIZE = 256;
+    private static final int INITIAL_HELD_LOCKS_SIZE = 4;
+    private static final int PRUNE_DEAD_THREADS_INTERVAL = 64;
+
+    private final int stackTraceSampleInterval;
+    private final int eventBufferSize;
+    private final Queue<ThreadLockTrace> threadLockTraces = new ConcurrentLinkedQueue<ThreadLockTrace>();
+    private final AtomicInteger threadLockTracesRegistrations = new AtomicInteger();
+    private final Map<String, LockStatistics> lockName_statistics = new ConcurrentHashMap<String, LockStatistics>();
+    private final FastThreadLocal<ThreadLockTrace> threadLockTrace = new FastThreadLocal<ThreadLockTrace>() {
+        @Override
+        protected ThreadLockTrace initialValue() throws Exception {
+            final ThreadLockTrace trace = new ThreadLockTrace(Thread.currentThread(), eventBufferSize);
+            threadLockTraces.add(trace);
+            if (threadLockTracesRegistrations.incrementAndGet() % PRUNE_DEAD_THREADS_INTERVAL == 0) {
+                //prevent a leak when lots of short lived threads use locks without a dump being requested
+                pruneDeadThreads();
+            }
+            return trace;
+        }
+    };
+
+    public SamplingLockTrace() {
+        this(DEFAULT_STACK_TRACE_SAMPLE_INTERVAL);
+    }
+
+    public SamplingLockTrace(final int stackTraceSampleInterval) {
+        this(stackTraceSampleInterval, DEFAULT_EVENT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param stackTraceSampleInterval
+     *            0 disables stack traces on acquisition, 1 captures a stack trace for each acquisition
+     * @param eventBufferSize
+     *            the number of recent events that are kept per thread, rounded up to a power of two
+     */
+    public SamplingLockTrace(final int stackTraceSampleInterval, final int eventBufferSize) {
+        this.stackTraceSampleInterval = Math.max(0, stackTraceSampleInterval);
+        this.eventBufferSize = Integer.highestOneBit(Math.max(2, eventBufferSize - 1)) << 1;
+    }
+
+    public int getStackTraceSampleInterval() {
+        return stackTraceSampleInterval;
+    }
+
+    @Override
+    public void locked(final String lockName) {
+        locked(lockName, 0L);
+    }
+
+    @Override
+    public void locked(final String lockName, final long waitNanos) {
+        final ThreadLockTrace trace = threadLockTrace.get();
+        final long nowNanos = System.nanoTime();
+        trace.recordEvent(lockName, true, nowNanos, waitNanos);
+        trace.pushHeldLock(lockName, nowNanos, maybeSampleStackTrace(trace, lockName));
+        getStatistics(lockName).waitTime.record(waitNanos);
+    }
+
+    private LockTraceEntry maybeSampleStackTrace(final ThreadLockTrace trace, final String lockName) {
+        if (stackTraceSampleInterval == 0) {
+            return null;
+        }
+        trace.stackTraceSampleCounter++;
+        if (trace.stackTraceSampleCounter < stackTraceSampleInterval) {
+            return null;
+        }
+        trace.stackTraceSampleCounter = 0;
+        return new LockTraceEntry(lockName, Threads.getCurrentThreadName());
+    }
+
+    @Override
+    public void unlocked(final String lockName) {
+        final ThreadLockTrace trace = threadLockTrace.get();
+        final long lockedNanos = trace.popHeldLock(lockName);
+        if (lockedNanos == Long.MIN_VALUE) {
+            //locked before tracing was enabled or released by a different thread
+            return;
+        }
+        final long nowNanos = System.nanoTime();
+        final long holdNanos = nowNanos - lockedNanos;
+        trace.recordEvent(lockName, false, nowNanos, holdNanos);
+        getStatistics(lockName).holdTime.record(holdNanos);
+    }
+
+    private LockStatistics getStatistics(final String lockName) {
+        final LockStatistics statistics = lockName_statistics.get(lockName);
+        if (statistics != null) {
+            return statistics;
+        }
+        return lockName_statistics.computeIfAbsent(lockName, new Function<String, LockStatistics>() {
+            @Override
+            public LockStatistics apply(final String t) {
+                return new LockStatistics();
+            }
+        });
+    }
+
+    @Override
+    public boolean isLockedByThisThread(final String lockName) {
+        return threadLockTrace.get().isHeldLock(lockName);
+    }
+
+    public Set<String> getLockNames() {
+        return Collections.unmodifiableSet(lockName_statistics.keySet());
+    }
+
+    /**
+     * Returns null if the lock was not acquired yet.
+     */
+    public LockTraceHistogram getWaitTimeHistogram(final String lockName) {
+        final LockStatistics statistics = lockName_statistics.get(lockName);
+        if (statistics == null) {
+            return null;
+        }
+        return statistics.waitTime;
+    }
+
+    /**
+     * Returns null if the lock was not acquired yet.
+     */
+    public LockTraceHistogram getHoldTimeHistogram(final String lockName) {
+        final LockStatistics statistics = lockName_statistics.get(lockName);
+        if (statistics == null) {
+            return null;
+        }
+        return statistics.holdTime;
+    }
+
+    public void reset() {
+        lockName_statistics.clear();
+    }
+
+    private void pruneDeadThreads() {
+        final Iterator<ThreadLockTrace> iterator = threadLockTraces.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().threadRef.get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the recent events of all threads sorted by time.
+     */
+    public List<LockTraceEvent> getRecentEvents() {
+        final List<LockTraceEvent> events = new ArrayList<LockTraceEvent>();
+        final Iterator<ThreadLockTrace> iterator = threadLockTraces.iterator();
+        while (iterator.hasNext()) {
+            final ThreadLockTrace trace = iterator.next();
+            final Thread thread = trace.threadRef.get();
+            if (thread == null) {
+                iterator.remove();
+                continue;
+            }
+            trace.collectEvents(thread.getName(), events);
+        }
+        Collections.sort(events, new Comparator<LockTraceEvent>() {
+            @Override
+            public int compare(final LockTraceEvent o1, final LockTraceEvent o2) {
+                return Long.compare(o1.getTimeNanos(), o2.getTimeNanos());
+            }
+        });
+        return events;
+    }
+
+    /**
+     * Lists the locks that are currently being held by each thread together with the current stack trace of the
+     * holding thread and the sampled stack trace of the acquisition if available.
+     */
+    public String dumpHeldLocks() {
+        final StringBuilder sb = new StringBuilder();
+        final long nowNanos = System.nanoTime();
+        int countLocks = 0;
+        final Iterator<ThreadLockTrace> iterator = threadLockTraces.iterator();
+        while (iterator.hasNext()) {
+            final ThreadLockTrace trace = iterator.next();
+            final Thread thread = trace.threadRef.get();
+            if (thread == null) {
+                iterator.remove();
+                continue;
+            }
+            countLocks += trace.dumpHeldLocks(thread, nowNanos, countLocks, sb);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public RuntimeException handleLockException(final String lockName, final Throwable lockException) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("CurrentLockName [");
+        sb.append(lockName);
+        sb.append("] CurrentThread [");
+        sb.append(Threads.getCurrentThreadName());
+        sb.append("]\nThe following locks are currently being held:\n*****************************");
+        sb.append(dumpHeldLocks());
+        return new RuntimeException(sb.toString(), lockException);
+    }
+
+    private static final class LockStatistics {
+        private final LockTraceHistogram waitTime = new LockTraceHistogram();
+        private final LockTraceHistogram holdTime = new LockTraceHistogram();
+    }
+
+    /**
+     * Only written by the owning thread.
+     */
+    @NotThreadSafe
+    private static final class ThreadLockTrace {
+
+        private final WeakReference<Thread> threadRef;
+
+        private final String[] eventLockNames;
+        private final boolean[] eventLocked;
+        private final long[] eventTimeNanos;
+        private final long[] eventDurationNanos;
+        private final int eventMask;
+        private long eventCount;
+
+        private String[] heldLockNames = new String[INITIAL_HELD_LOCKS_SIZE];
+        private long[] heldLockedNanos = new long[INITIAL_HELD_LOCKS_SIZE];
+        private LockTraceEntry[] heldStackTraces = new LockTraceEntry[INITIAL_HELD_LOCKS_SIZE];
+        private int heldCount;
+
+        private int stackTraceSampleCounter;
+
+        private ThreadLockTrace(final Thread thread, final int eventBufferSize) {
+            this.threadRef = new WeakReference<Thread>(thread);
+            this.eventLockNames = new String[eventBufferSize];
+            this.eventLocked = new boolean[eventBufferSize];
+            this.eventTimeNanos = new long[eventBufferSize];
+            this.eventDurationNanos = new long[eventBufferSize];
+            this.eventMask = eventBufferSize - 1;
+        }
+
+        private void recordEvent(final String lockName, final boolean locked, final long timeNanos,
+                final long durationNanos) {
+            final int index = (int) eventCount & eventMask;
+            eventLockNames[index] = lockName;
+            eventLocked[index] = locked;
+            eventTimeNanos[index] = timeNanos;
+            eventDurationNanos[index] = durationNanos;
+            eventCount++;
+        }
+
+        private void collectEvents(final String threadName, final List<LockTraceEvent> events) {
+            final long count = eventCount;
+            final long start = Math.max(0, count - eventLockNames.length);
+            for (long i = start; i < count; i++) {
+                final int index = (int) i & eventMask;
+                final String lockName = eventLockNames[index];
+                if (lockName != null) {
+                    events.add(new LockTraceEvent(lockName, threadName, eventLocked[index], eventTimeNanos[index],
+                            eventDurationNanos[index]));
+                }
+            }
+        }
+
+        private void pushHeldLock(final String lockName, final long lockedNanos, final LockTraceEntry stackTrace) {
+            if (heldCount == heldLockNames.length) {
+                final int newLength = heldLockNames.length * 2;
+                final String[] newHeldLockNames = new String[newLength];
+                final long[] newHeldLockedNanos = new long[newLength];
+                final LockTraceEntry[] newHeldStackTraces = new LockTraceEntry[newLength];
+                System.arraycopy(heldLockNames, 0, newHeldLockNames, 0, heldCount);
+                System.arraycopy(heldLockedNanos, 0, newHeldLockedNanos, 0, heldCount);
+                System.arraycopy(heldStackTraces, 0, newHeldStackTraces, 0, heldCount);
+                heldLockNames = newHeldLockNames;
+                heldLockedNanos = newHeldLockedNanos;
+                heldStackTraces = newHeldStackTraces;
+            }
+            heldLockNames[heldCount] = lockName;
+            heldLockedNanos[heldCount] = lockedNanos;
+            heldStackTraces[heldCount] = stackTrace;
+            heldCount++;
+        }
+
+        /**
+         * Returns Long.MIN_VALUE if the lock is not held by this thread.
+         */
+        private long popHeldLock(final String lockName) {
+            //locks are normally released in reverse order, so search from the top
+            for (int i = heldCount - 1; i >= 0; i--) {
+                if (heldLockNames[i].equals(lockName)) {
+                    final long lockedNanos = heldLockedNanos[i];
+                    final int moved = heldCount - i - 1;
+                    if (moved > 0) {
+                        System.arraycopy(heldLockNames, i + 1, heldLockNames, i, moved);
+                        System.arraycopy(heldLockedNanos, i + 1, heldLockedNanos, i, moved);
+                        System.arraycopy(heldStackTraces, i + 1, heldStackTraces, i, moved);
+                    }
+                    heldCount--;
+                    heldLockNames[heldCount] = null;
+                    heldStackTraces[heldCount] = null;
+                    return lockedNanos;
+                }
+            }
+            return Long.MIN_VALUE;
+        }
+
+        private boolean isHeldLock(final String lockName) {
+            for (int i = heldCount - 1; i >= 0; i--) {
+                if (heldLockNames[i].equals(lockName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int dumpHeldLocks(final Thread thread, final long nowNanos, final int countLocksBefore,
+                final StringBuilder sb) {
+            //copy the references since the owning thread might grow the arrays concurrently
+            final String[] lockNames = heldLockNames;
+            final long[] lockedNanos = heldLockedNanos;
+            final LockTraceEntry[] stackTraces = heldStackTraces;
+            final int count = Math.min(heldCount, Math.min(lockNames.length,
+                    Math.min(lockedNanos.length, stackTraces.length)));
+            int countLocks = 0;
+            for (int i = 0; i < count; i++) {
+                final String lockName = lockNames[i];
+                if (lockName == null) {
+                    continue;
+                }
+                countLocks++;
+                sb.append("\nLock #");
+                sb.append(countLocksBefore + countLocks);
+                sb.append(": LockName [");
+                sb.append(lockName);
+                sb.append("] ThreadName [");
+                sb.append(thread.getName());
+                sb.append("] HeldSince [");
+                sb.append(new Duration(nowNanos - lockedNanos[i], FTimeUnit.NANOSECONDS));
+                sb.append("]\n");
+                final LockTraceEntry stackTrace = stackTraces[i];
+                if (stackTrace != null) {
+                    sb.append("Sampled acquisition: ");
+                    sb.append(Throwables.getFullStackTrace(stackTrace));
+                }
+                sb.append("*****************************");
+            }
+            if (countLocks > 0) {
+                sb.append("\nCurrent stack of thread [");
+                sb.append(thread.getName());
+                sb.append("]:\n");
+                for (final StackTraceElement element : thread.getStackTrace()) {
+                    sb.append("\tat ");
+                    sb.append(element);
+                    sb.append("\n");
+                }
+                sb.append("*****************************");
+            }
+            return countLocks;
+        }
+
+    }
+
+}
@@ -3,19 +3,22 @@ package de.invesdwin.util.concurrent.taskinfo;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
-import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.collections.factory.ILockCollectionFactory;
 import de.invesdwin.util.collections.fast.IFastIterableSet;
 import de.invesdwin.util.concurrent.taskinfo.provider.ITaskInfoProvider;
@@ -28,41 +31,56 @@ import io.netty.util.concurrent.FastThreadLocal;
 /**
  * This class can be used to track long running tasks that should be visualized in a UI in some way. The taskInfos can
  * be polled periodically by the UI to display an indicator.
+ *
+ * Tasks are grouped by name in a concurrent map, each group keeps its running tasks and counts the completed ones.
+ * Thus creating and completing tasks does not block on a global monitor and polling only iterates over the tasks that
+ * are still running. Listeners are notified about the latest state of a name only, so a name that gets removed and
+ * added again before the listeners were notified does not cause any notifications.
  */
 @ThreadSafe
 public final class TaskInfoManager {
 
-    @GuardedBy("this.class")
-    private static final Map<String, Map<Integer, WeakReferenceTaskInfoProvider>> NAME_TASKS = new LinkedHashMap<>();
-    @GuardedBy("this.class")
-    private static final IFastIterableSet<ITaskInfoListener> LISTENERS = ILockCollectionFactory.getInstance(false)
+    private static final Map<String, TaskInfoGroup> NAME_GROUP = new ConcurrentHashMap<>();
+    private static final AtomicLong GROUP_SEQUENCE = new AtomicLong();
+    private static final IFastIterableSet<ITaskInfoListener> LISTENERS = ILockCollectionFactory.getInstance(true)
             .newFastIterableLinkedSet();
+    private static final Set<String> PENDING_NOTIFICATIONS = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean NOTIFYING = new AtomicBoolean();
+    private static final Object NOTIFY_LOCK = new Object();
+    @GuardedBy("NOTIFY_LOCK")
+    private static final Set<String> NOTIFIED_NAMES = new LinkedHashSet<>();
     private static final FastThreadLocal<Stack<WeakReferenceTaskInfoProvider>> CURRENT_THREAD_TASK_INFO_NAME = new FastThreadLocal<>();
     private static final int MAX_DESCRIPTIONS = 3;
+    private static final Comparator<TaskInfoGroup> GROUP_SEQUENCE_COMPARATOR = new Comparator<TaskInfoGroup>() {
+        @Override
+        public int compare(final TaskInfoGroup o1, final TaskInfoGroup o2) {
+            return Long.compare(o1.sequence, o2.sequence);
+        }
+    };
 
     private TaskInfoManager() {
     }
 
-    public static synchronized void onCreated(final ITaskInfoProvider taskInfoProvider) {
+    public static void onCreated(final ITaskInfoProvider taskInfoProvider) {
         final String name = taskInfoProvider.getName();
-        Map<Integer, WeakReferenceTaskInfoProvider> tasks = NAME_TASKS.get(name);
-        boolean added = false;
-        if (tasks == null) {
-            tasks = new LinkedHashMap<>();
-            Assertions.checkNull(NAME_TASKS.put(name, tasks));
-            added = true;
-        } else {
-            final TaskInfo taskInfo = getTaskInfo(name, tasks.values());
-            if (taskInfo.isCompleted()) {
-                tasks.clear();
-            }
-        }
         final int identityHashCode = System.identityHashCode(taskInfoProvider);
         final WeakReferenceTaskInfoProvider weakReferenceTaskInfoProvider = new WeakReferenceTaskInfoProvider(
                 identityHashCode, taskInfoProvider);
-        added = tasks.putIfAbsent(identityHashCode, weakReferenceTaskInfoProvider) == null && added;
-        if (added) {
-            triggerOnTaskInfoAdded(name);
+        while (true) {
+            TaskInfoGroup group = NAME_GROUP.get(name);
+            if (group == null) {
+                final TaskInfoGroup newGroup = new TaskInfoGroup(name);
+                group = NAME_GROUP.putIfAbsent(name, newGroup);
+                if (group == null) {
+                    group = newGroup;
+                    triggerNotification(name);
+                }
+            }
+            if (group.tryAdd(weakReferenceTaskInfoProvider)) {
+                return;
+            }
+            //group got completed concurrently, replace it with a new one
+            NAME_GROUP.remove(name, group);
         }
     }
 
@@ -78,21 +96,41 @@ public final class TaskInfoManager {
         }
     }
 
-    private static void triggerOnTaskInfoAdded(final String name) {
-        final ITaskInfoListener[] array = LISTENERS.asArray(ITaskInfoListener.class);
-        for (int i = 0; i < array.length; i++) {
-            array[i].onTaskInfoAdded(name);
-        }
-    }
-
-    private static void triggerOnTaskInfoRemoved(final String name) {
-        final ITaskInfoListener[] array = LISTENERS.asArray(ITaskInfoListener.class);
-        for (int i = 0; i < array.length; i++) {
-            array[i].onTaskInfoRemoved(name);
+    private static void triggerNotification(final String name) {
+        PENDING_NOTIFICATIONS.add(name);
+        //only one thread notifies the listeners at a time, the others just leave their notification behind
+        while (!PENDING_NOTIFICATIONS.isEmpty() && NOTIFYING.compareAndSet(false, true)) {
+            try {
+                synchronized (NOTIFY_LOCK) {
+                    final Iterator<String> iterator = PENDING_NOTIFICATIONS.iterator();
+                    while (iterator.hasNext()) {
+                        final String nextName = iterator.next();
+                        iterator.remove();
+                        //notify about the latest state, thus skipping a removal that was followed by an add
+                        if (NAME_GROUP.containsKey(nextName)) {
+                            if (NOTIFIED_NAMES.add(nextName)) {
+                                final ITaskInfoListener[] array = LISTENERS.asArray(ITaskInfoListener.class);
+                                for (int i = 0; i < array.length; i++) {
+                                    array[i].onTaskInfoAdded(nextName);
+                                }
+                            }
+                        } else {
+                            if (NOTIFIED_NAMES.remove(nextName)) {
+                                final ITaskInfoListener[] array = LISTENERS.asArray(ITaskInfoListener.class);
+                                for (int i = 0; i < array.length; i++) {
+                                    array[i].onTaskInfoRemoved(nextName);
+                                }
+                            }
+                        }
+                    }
+                }
+            } finally {
+                NOTIFYING.set(false);
+            }
         }
     }
 
-    public static synchronized void onCompleted(final ITaskInfoProvider taskInfoProvider) {
+    public static void onCompleted(final ITaskInfoProvider taskInfoProvider) {
         if (taskInfoProvider.isIneritable()) {
             final Stack<WeakReferenceTaskInfoProvider> taskInfoNameList = CURRENT_THREAD_TASK_INFO_NAME.get();
             while (taskInfoNameList != null && !taskInfoNameList.isEmpty()) {
@@ -105,45 +143,46 @@ public final class TaskInfoManager {
             }
         }
         final String name = taskInfoProvider.getName();
-        final Map<Integer, WeakReferenceTaskInfoProvider> tasks = NAME_TASKS.get(name);
-        if (tasks != null) {
-            final TaskInfo taskInfo = getTaskInfo(name, tasks.values());
-            if (taskInfo.isCompleted()) {
-                if (taskInfoProvider.isIneritable()) {
-                    CURRENT_THREAD_TASK_INFO_NAME.remove();
-                }
-                Assertions.checkSame(NAME_TASKS.remove(name), tasks);
-                triggerOnTaskInfoRemoved(name);
-            }
+        final TaskInfoGroup group = NAME_GROUP.get(name);
+        final boolean groupCompleted;
+        if (group != null) {
+            final int identityHashCode = System.identityHashCode(taskInfoProvider);
+            final WeakReferenceTaskInfoProvider task = group.tasks.get(identityHashCode);
+            groupCompleted = task != null && group.remove(task) || group.isClosed();
         } else {
-            if (taskInfoProvider.isIneritable()) {
-                CURRENT_THREAD_TASK_INFO_NAME.remove();
-            }
+            groupCompleted = true;
+        }
+        if (groupCompleted && taskInfoProvider.isIneritable()) {
+            CURRENT_THREAD_TASK_INFO_NAME.remove();
         }
     }
 
-    public static synchronized List<TaskInfo> getTaskInfos() {
-        final List<TaskInfo> taskInfos = new ArrayList<>();
-        final Set<String> completedTaskInfoNames = new HashSet<>();
-        for (final Entry<String, Map<Integer, WeakReferenceTaskInfoProvider>> entry : NAME_TASKS.entrySet()) {
-            final String name = entry.getKey();
-            final Collection<WeakReferenceTaskInfoProvider> tasks = entry.getValue().values();
-            final TaskInfo taskInfo = getTaskInfo(name, tasks);
-            if (taskInfo.isCompleted()) {
-                completedTaskInfoNames.add(name);
-            } else {
+    public static List<TaskInfo> getTaskInfos() {
+        final List<TaskInfoGroup> groups = getSortedGroups();
+        final List<TaskInfo> taskInfos = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            final TaskInfo taskInfo = groups.get(i).getTaskInfo();
+            if (taskInfo != null) {
                 taskInfos.add(taskInfo);
             }
         }
-        for (final String name : completedTaskInfoNames) {
-            Assertions.checkNotNull(NAME_TASKS.remove(name));
-            triggerOnTaskInfoRemoved(name);
-        }
         return taskInfos;
     }
 
-    public static synchronized List<String> getTaskInfoNames() {
-        return new ArrayList<>(NAME_TASKS.keySet());
+    public static List<String> getTaskInfoNames() {
+        final List<TaskInfoGroup> groups = getSortedGroups();
+        final List<String> names = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            names.add(groups.get(i).name);
+        }
+        return names;
+    }
+
+    private static List<TaskInfoGroup> getSortedGroups() {
+        final List<TaskInfoGroup> groups = new ArrayList<>(NAME_GROUP.values());
+        //keep the order of creation like a linked map would
+        Collections.sort(groups, GROUP_SEQUENCE_COMPARATOR);
+        return groups;
     }
 
     public static String getCurrentThreadTaskInfoName() {
@@ -166,93 +205,174 @@ public final class TaskInfoManager {
         }
     }
 
-    public static synchronized TaskInfo getTaskInfo(final String name) {
-        final Map<Integer, WeakReferenceTaskInfoProvider> tasks = NAME_TASKS.get(name);
-        if (tasks == null) {
+    public static TaskInfo getTaskInfo(final String name) {
+        final TaskInfoGroup group = NAME_GROUP.get(name);
+        if (group == null) {
             return null;
         } else {
-            final TaskInfo taskInfo = getTaskInfo(name, tasks.values());
-            if (taskInfo.isCompleted()) {
-                Assertions.checkNotNull(NAME_TASKS.remove(name));
-                return null;
+            return group.getTaskInfo();
+        }
+    }
+
+    public static boolean registerListener(final ITaskInfoListener l) {
+        synchronized (NOTIFY_LOCK) {
+            if (LISTENERS.add(l)) {
+                for (final String name : NOTIFIED_NAMES) {
+                    l.onTaskInfoAdded(name);
+                }
+                return true;
             } else {
-                return taskInfo;
+                return false;
             }
         }
     }
 
-    //CHECKSTYLE:OFF
-    private static TaskInfo getTaskInfo(final String name, final Collection<WeakReferenceTaskInfoProvider> tasks) {
-        //CHECKSTYLE:ON
-        int createdCount = 0;
-        int startedCount = 0;
-        int completedCount = 0;
-        double sumProgressRate = 0;
-        int progressCount = 0;
-        Set<String> createdDescriptions = null;
-        Set<String> startedDescriptions = null;
-        for (final WeakReferenceTaskInfoProvider task : tasks) {
-            final TaskInfoStatus status = task.getStatus();
-            createdCount += task.getCreatedCount();
-            startedCount += task.getStartedCount();
-            completedCount += task.getCompletedCount();
-            progressCount++;
-            if (status == TaskInfoStatus.COMPLETED) {
-                sumProgressRate += 1D;
-            } else {
+    public static boolean unregisterListener(final ITaskInfoListener l) {
+        synchronized (NOTIFY_LOCK) {
+            return LISTENERS.remove(l);
+        }
+    }
+
+    @ThreadSafe
+    private static final class TaskInfoGroup {
+
+        private static final int CLOSED = -1;
+
+        private final String name;
+        private final long sequence;
+        private final Map<Integer, WeakReferenceTaskInfoProvider> tasks = new ConcurrentHashMap<>();
+        /**
+         * Counts the tasks in the map, becomes CLOSED when the last task was removed so that no tasks can be added
+         * anymore.
+         */
+        private final AtomicInteger runningCount = new AtomicInteger();
+        private final LongAdder completedCount = new LongAdder();
+
+        private TaskInfoGroup(final String name) {
+            this.name = name;
+            this.sequence = GROUP_SEQUENCE.incrementAndGet();
+        }
+
+        public boolean isClosed() {
+            return runningCount.get() == CLOSED;
+        }
+
+        /**
+         * Returns false when the group was closed already.
+         */
+        public boolean tryAdd(final WeakReferenceTaskInfoProvider task) {
+            while (true) {
+                final int count = runningCount.get();
+                if (count == CLOSED) {
+                    return false;
+                }
+                if (runningCount.compareAndSet(count, count + 1)) {
+                    break;
+                }
+            }
+            if (tasks.putIfAbsent(task.hashCode(), task) != null) {
+                //already known, so just undo the count (can not close the group since the other one is still there)
+                runningCount.decrementAndGet();
+            }
+            return true;
+        }
+
+        /**
+         * Returns true when this closed the group.
+         */
+        public boolean remove(final WeakReferenceTaskInfoProvider task) {
+            if (!tasks.remove(task.hashCode(), task)) {
+                //removed concurrently
+                return false;
+            }
+            completedCount.increment();
+            final int count = runningCount.decrementAndGet();
+            if (count == 0 && runningCount.compareAndSet(0, CLOSED)) {
+                NAME_GROUP.remove(name, this);
+                triggerNotification(name);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns null when the group is completed.
+         */
+        //CHECKSTYLE:OFF
+        public TaskInfo getTaskInfo() {
+            //CHECKSTYLE:ON
+            int createdCount = 0;
+            int startedCount = 0;
+            int completedCount = 0;
+            double sumProgressRate = 0;
+            int progressCount = 0;
+            Set<String> createdDescriptions = null;
+            Set<String> startedDescriptions = null;
+            final Collection<WeakReferenceTaskInfoProvider> values = tasks.values();
+            for (final WeakReferenceTaskInfoProvider task : values) {
+                final TaskInfoStatus status = task.getStatus();
+                if (status == TaskInfoStatus.COMPLETED) {
+                    //also cleans up tasks that got garbage collected without being completed
+                    remove(task);
+                    continue;
+                }
+                createdCount += task.getCreatedCount();
+                startedCount += task.getStartedCount();
+                completedCount += task.getCompletedCount();
+                progressCount++;
                 final Percent progress = task.getProgress();
                 if (progress != null) {
                     sumProgressRate += progress.getRate();
                 }
-            }
-            //created descriptions are a fallback if there are no started descriptions
-            if (startedDescriptions == null && status == TaskInfoStatus.CREATED
-                    && (createdDescriptions == null || createdDescriptions.size() < MAX_DESCRIPTIONS)) {
-                final String description = task.getDescription();
-                if (Strings.isNotBlank(description)) {
-                    if (createdDescriptions == null) {
-                        createdDescriptions = new LinkedHashSet<>();
+                //created descriptions are a fallback if there are no started descriptions
+                if (startedDescriptions == null && status == TaskInfoStatus.CREATED
+                        && (createdDescriptions == null || createdDescriptions.size() < MAX_DESCRIPTIONS)) {
+                    final String description = task.getDescription();
+                    if (Strings.isNotBlank(description)) {
+                        if (createdDescriptions == null) {
+                            createdDescriptions = new LinkedHashSet<>();
+                        }
+                        createdDescriptions.add(description);
                     }
-                    createdDescriptions.add(description);
                 }
-            }
-            if (status == TaskInfoStatus.STARTED
-                    && (startedDescriptions == null || startedDescriptions.size() < MAX_DESCRIPTIONS)) {
-                final String description = task.getDescription();
-                if (Strings.isNotBlank(description)) {
-                    if (startedDescriptions == null) {
-                        startedDescriptions = new LinkedHashSet<>();
-                        createdDescriptions = null;
+                if (status == TaskInfoStatus.STARTED
+                        && (startedDescriptions == null || startedDescriptions.size() < MAX_DESCRIPTIONS)) {
+                    final String description = task.getDescription();
+                    if (Strings.isNotBlank(description)) {
+                        if (startedDescriptions == null) {
+                            startedDescriptions = new LinkedHashSet<>();
+                            createdDescriptions = null;
+                        }
+                        startedDescriptions.add(description);
                     }
-                    startedDescriptions.add(description);
                 }
             }
-        }
-        final Set<String> descriptions;
-        if (startedDescriptions != null) {
-            descriptions = startedDescriptions;
-        } else if (createdDescriptions != null) {
-            descriptions = createdDescriptions;
-        } else {
-            descriptions = Collections.emptySet();
-        }
-        final Percent progress = new Percent(sumProgressRate, progressCount);
-        final int tasksCount = createdCount + startedCount + completedCount;
-        return new TaskInfo(name, createdCount, startedCount, completedCount, tasksCount, progress, descriptions);
-    }
-
-    public static synchronized boolean registerListener(final ITaskInfoListener l) {
-        if (LISTENERS.add(l)) {
-            for (final String name : getTaskInfoNames()) {
-                l.onTaskInfoAdded(name);
+            if (progressCount == 0) {
+                return null;
+            }
+            final int removedCount = (int) this.completedCount.sum();
+            completedCount += removedCount;
+            sumProgressRate += removedCount;
+            progressCount += removedCount;
+            final Set<String> descriptions;
+            if (startedDescriptions != null) {
+                descriptions = startedDescriptions;
+            } else if (createdDescriptions != null) {
+                descriptions = createdDescriptions;
+            } else {
+                descriptions = Collections.emptySet();
+            }
+            final Percent progress = new Percent(sumProgressRate, progressCount);
+            final int tasksCount = createdCount + startedCount + completedCount;
+            final TaskInfo taskInfo = new TaskInfo(name, createdCount, startedCount, completedCount, tasksCount,
+                    progress, descriptions);
+            if (taskInfo.isCompleted()) {
+                return null;
+            } else {
+                return taskInfo;
             }
-            return true;
-        } else {
-            return false;
         }
-    }
 
-    public static synchronized boolean unregisterListener(final ITaskInfoListener l) {
-        return LISTENERS.remove(l);
     }
+
 }
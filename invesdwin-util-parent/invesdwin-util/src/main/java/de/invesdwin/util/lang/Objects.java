@@ -18,6 +18,8 @@ import org.apache.commons.lang3.builder.CompareToBuilder;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.nustaq.serialization.FSTConfiguration;
+import org.nustaq.serialization.FSTObjectInput;
+import org.nustaq.serialization.FSTObjectOutput;
 
 import de.invesdwin.norva.apt.staticfacade.StaticFacadeDefinition;
 import de.invesdwin.norva.beanpath.BeanPathObjects;
@@ -71,8 +73,16 @@ public final class Objects extends AObjectsStaticFacade {
                     if (obj == null) {
                         return null;
                     }
-                    final byte[] serialized = serialize((Serializable) obj);
-                    return (T) deserialize(serialized);
+                    //read directly from the reused output buffer instead of copying it into a new array first
+                    final FSTConfiguration config = SERIALIZATION_CONFIG_HOLDER.get();
+                    try {
+                        final FSTObjectOutput out = config.getObjectOutput();
+                        out.writeObject(obj);
+                        final FSTObjectInput in = config.getObjectInput(out.getBuffer(), out.getWritten());
+                        return (T) in.readObject();
+                    } catch (final Exception e) {
+                        throw new RuntimeException(e);
+                    }
                 }
 
                 @Override
@@ -0,0 +1,33 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.decimal.scaled.ByteSize;
+
+@Immutable
+public final class ByteSizeSerde implements ISerde<ByteSize> {
+
+    public static final ByteSizeSerde INSTANCE = new ByteSizeSerde();
+    public static final int FIXED_LENGTH = Double.BYTES;
+
+    private ByteSizeSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final ByteSize obj) {
+        ByteSize.putByteSize(buffer, obj);
+    }
+
+    @Override
+    public ByteSize fromBuffer(final ByteBuffer buffer) {
+        return ByteSize.extractByteSize(buffer);
+    }
+
+}
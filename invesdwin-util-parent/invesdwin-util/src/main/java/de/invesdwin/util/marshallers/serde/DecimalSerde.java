@@ -0,0 +1,33 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.decimal.Decimal;
+
+@Immutable
+public final class DecimalSerde implements ISerde<Decimal> {
+
+    public static final DecimalSerde INSTANCE = new DecimalSerde();
+    public static final int FIXED_LENGTH = Double.BYTES;
+
+    private DecimalSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final Decimal obj) {
+        Decimal.putDecimal(buffer, obj);
+    }
+
+    @Override
+    public Decimal fromBuffer(final ByteBuffer buffer) {
+        return Decimal.extractDecimal(buffer);
+    }
+
+}
@@ -0,0 +1,33 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.time.duration.Duration;
+
+@Immutable
+public final class DurationSerde implements ISerde<Duration> {
+
+    public static final DurationSerde INSTANCE = new DurationSerde();
+    public static final int FIXED_LENGTH = Duration.BYTES;
+
+    private DurationSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final Duration obj) {
+        Duration.putDuration(buffer, obj);
+    }
+
+    @Override
+    public Duration fromBuffer(final ByteBuffer buffer) {
+        return Duration.extractDuration(buffer);
+    }
+
+}
@@ -0,0 +1,34 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FDates;
+
+@Immutable
+public final class FDateSerde implements ISerde<FDate> {
+
+    public static final FDateSerde INSTANCE = new FDateSerde();
+    public static final int FIXED_LENGTH = Long.BYTES;
+
+    private FDateSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final FDate obj) {
+        FDates.putFDate(buffer, obj);
+    }
+
+    @Override
+    public FDate fromBuffer(final ByteBuffer buffer) {
+        return FDates.extractFDate(buffer);
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary codec that writes to and reads from the current position of a ByteBuffer. Heap and direct buffers
+ * are both supported, thus values can be put directly into memory mapped files without going through a generic object
+ * serializer.
+ */
+public interface ISerde<O> {
+
+    /**
+     * The number of bytes every value occupies, null values included.
+     */
+    int getFixedLength();
+
+    void toBuffer(ByteBuffer buffer, O obj);
+
+    O fromBuffer(ByteBuffer buffer);
+
+    /**
+     * Encodes via a pooled buffer, thus only the resulting array is allocated.
+     */
+    default byte[] toBytes(final O obj) {
+        final ByteBuffer buffer = SerdeBuffers.getBuffer(getFixedLength());
+        toBuffer(buffer, obj);
+        buffer.flip();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    default O fromBytes(final byte[] bytes) {
+        return fromBuffer(ByteBuffer.wrap(bytes));
+    }
+
+}
@@ -0,0 +1,58 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.bean.tuple.Pair;
+
+/**
+ * Writes a null flag followed by the elements, each in the fixed length of its serde.
+ */
+@Immutable
+public class PairSerde<FIRST, SECOND> implements ISerde<Pair<FIRST, SECOND>> {
+
+    protected static final byte NULL = 0;
+    protected static final byte NOT_NULL = 1;
+
+    private final ISerde<FIRST> firstSerde;
+    private final ISerde<SECOND> secondSerde;
+    private final int fixedLength;
+
+    public PairSerde(final ISerde<FIRST> firstSerde, final ISerde<SECOND> secondSerde) {
+        this.firstSerde = firstSerde;
+        this.secondSerde = secondSerde;
+        this.fixedLength = Byte.BYTES + firstSerde.getFixedLength() + secondSerde.getFixedLength();
+    }
+
+    @Override
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final Pair<FIRST, SECOND> obj) {
+        if (obj == null) {
+            buffer.put(NULL);
+            firstSerde.toBuffer(buffer, null);
+            secondSerde.toBuffer(buffer, null);
+        } else {
+            buffer.put(NOT_NULL);
+            firstSerde.toBuffer(buffer, obj.getFirst());
+            secondSerde.toBuffer(buffer, obj.getSecond());
+        }
+    }
+
+    @Override
+    public Pair<FIRST, SECOND> fromBuffer(final ByteBuffer buffer) {
+        final byte flag = buffer.get();
+        final FIRST first = firstSerde.fromBuffer(buffer);
+        final SECOND second = secondSerde.fromBuffer(buffer);
+        if (flag == NULL) {
+            return null;
+        } else {
+            return Pair.of(first, second);
+        }
+    }
+
+}
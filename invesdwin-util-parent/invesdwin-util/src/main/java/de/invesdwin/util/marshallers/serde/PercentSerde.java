@@ -0,0 +1,33 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.decimal.scaled.Percent;
+
+@Immutable
+public final class PercentSerde implements ISerde<Percent> {
+
+    public static final PercentSerde INSTANCE = new PercentSerde();
+    public static final int FIXED_LENGTH = Double.BYTES;
+
+    private PercentSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final Percent obj) {
+        Percent.putPercent(buffer, obj);
+    }
+
+    @Override
+    public Percent fromBuffer(final ByteBuffer buffer) {
+        return Percent.extractPercent(buffer);
+    }
+
+}
@@ -0,0 +1,75 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Thread local buffers that are reused between encoding calls. A buffer returned here is only valid until the next
+ * call on the same thread, thus it should never be stored or handed to other threads.
+ */
+@ThreadSafe
+public final class SerdeBuffers {
+
+    public static final int INITIAL_CAPACITY = 64;
+
+    private static final FastThreadLocal<ByteBuffer> HEAP_BUFFER = new FastThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() throws Exception {
+            return ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+    };
+
+    private static final FastThreadLocal<ByteBuffer> DIRECT_BUFFER = new FastThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() throws Exception {
+            return ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        }
+    };
+
+    private SerdeBuffers() {
+    }
+
+    /**
+     * Returns a cleared heap buffer with at least the given capacity.
+     */
+    public static ByteBuffer getBuffer(final int minCapacity) {
+        ByteBuffer buffer = HEAP_BUFFER.get();
+        if (buffer.capacity() < minCapacity) {
+            buffer = ByteBuffer.allocate(newCapacity(buffer.capacity(), minCapacity));
+            HEAP_BUFFER.set(buffer);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a cleared direct buffer with at least the given capacity. Direct buffers are expensive to allocate, thus
+     * pooling them pays off even more than for heap buffers.
+     */
+    public static ByteBuffer getDirectBuffer(final int minCapacity) {
+        ByteBuffer buffer = DIRECT_BUFFER.get();
+        if (buffer.capacity() < minCapacity) {
+            buffer = ByteBuffer.allocateDirect(newCapacity(buffer.capacity(), minCapacity));
+            DIRECT_BUFFER.set(buffer);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static int newCapacity(final int capacity, final int minCapacity) {
+        int newCapacity = capacity;
+        while (newCapacity < minCapacity) {
+            newCapacity = newCapacity << 1;
+            if (newCapacity <= 0) {
+                return minCapacity;
+            }
+        }
+        return newCapacity;
+    }
+
+}
@@ -0,0 +1,33 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.time.range.TimeRange;
+
+@Immutable
+public final class TimeRangeSerde implements ISerde<TimeRange> {
+
+    public static final TimeRangeSerde INSTANCE = new TimeRangeSerde();
+    public static final int FIXED_LENGTH = Long.BYTES * 2;
+
+    private TimeRangeSerde() {
+    }
+
+    @Override
+    public int getFixedLength() {
+        return FIXED_LENGTH;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final TimeRange obj) {
+        TimeRange.putTimeRange(buffer, obj);
+    }
+
+    @Override
+    public TimeRange fromBuffer(final ByteBuffer buffer) {
+        return TimeRange.extractTimeRange(buffer);
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.bean.tuple.Triple;
+
+/**
+ * Writes a null flag followed by the elements, each in the fixed length of its serde.
+ */
+@Immutable
+public class TripleSerde<FIRST, SECOND, THIRD> implements ISerde<Triple<FIRST, SECOND, THIRD>> {
+
+    private final ISerde<FIRST> firstSerde;
+    private final ISerde<SECOND> secondSerde;
+    private final ISerde<THIRD> thirdSerde;
+    private final int fixedLength;
+
+    public TripleSerde(final ISerde<FIRST> firstSerde, final ISerde<SECOND> secondSerde,
+            final ISerde<THIRD> thirdSerde) {
+        this.firstSerde = firstSerde;
+        this.secondSerde = secondSerde;
+        this.thirdSerde = thirdSerde;
+        this.fixedLength = Byte.BYTES + firstSerde.getFixedLength() + secondSerde.getFixedLength()
+                + thirdSerde.getFixedLength();
+    }
+
+    @Override
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    @Override
+    public void toBuffer(final ByteBuffer buffer, final Triple<FIRST, SECOND, THIRD> obj) {
+        if (obj == null) {
+            buffer.put(PairSerde.NULL);
+            firstSerde.toBuffer(buffer, null);
+            secondSerde.toBuffer(buffer, null);
+            thirdSerde.toBuffer(buffer, null);
+        } else {
+            buffer.put(PairSerde.NOT_NULL);
+            firstSerde.toBuffer(buffer, obj.getFirst());
+            secondSerde.toBuffer(buffer, obj.getSecond());
+            thirdSerde.toBuffer(buffer, obj.getThird());
+        }
+    }
+
+    @Override
+    public Triple<FIRST, SECOND, THIRD> fromBuffer(final ByteBuffer buffer) {
+        final byte flag = buffer.get();
+        final FIRST first = firstSerde.fromBuffer(buffer);
+        final SECOND second = secondSerde.fromBuffer(buffer);
+        final THIRD third = thirdSerde.fromBuffer(buffer);
+        if (flag == PairSerde.NULL) {
+            return null;
+        } else {
+            return Triple.of(first, second, third);
+        }
+    }
+
+}
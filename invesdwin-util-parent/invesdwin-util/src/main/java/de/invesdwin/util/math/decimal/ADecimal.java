@@ -14,6 +14,7 @@ import java.util.Locale;
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.norva.marker.IDecimal;
+import de.invesdwin.util.concurrent.Threads;
 import de.invesdwin.util.lang.ADelegateComparator;
 import de.invesdwin.util.lang.Objects;
 import de.invesdwin.util.lang.description.TextDescription;
@@ -47,14 +48,11 @@ public abstract class ADecimal<E extends ADecimal<E>> extends Number implements
         }
     };
     private static final double ZERO = 0D;
+    private static final NumberFormat NUMBER_FORMAT_PROTOTYPE = newNumberFormatPrototype();
     private static final FastThreadLocal<NumberFormat> NUMBER_FORMAT = new FastThreadLocal<NumberFormat>() {
         @Override
         protected NumberFormat initialValue() throws Exception {
-            final NumberFormat format = NumberFormat.getNumberInstance(Locale.ENGLISH);
-            format.setMaximumFractionDigits(MathContext.DECIMAL128.getPrecision());
-            format.setRoundingMode(Decimal.DEFAULT_ROUNDING_MODE);
-            format.setGroupingUsed(false);
-            return format;
+            return (NumberFormat) NUMBER_FORMAT_PROTOTYPE.clone();
         }
     };
 
@@ -233,9 +231,28 @@ public abstract class ADecimal<E extends ADecimal<E>> extends Number implements
         }
     }
 
+    private static NumberFormat newNumberFormatPrototype() {
+        final NumberFormat format = NumberFormat.getNumberInstance(Locale.ENGLISH);
+        format.setMaximumFractionDigits(MathContext.DECIMAL128.getPrecision());
+        format.setRoundingMode(DEFAULT_ROUNDING_MODE);
+        format.setGroupingUsed(false);
+        return format;
+    }
+
+    /**
+     * Virtual threads are short lived, so instead of filling a thread local per virtual thread a copy is used.
+     */
+    private static NumberFormat getNumberFormat() {
+        if (Threads.isCurrentThreadVirtual()) {
+            return (NumberFormat) NUMBER_FORMAT_PROTOTYPE.clone();
+        } else {
+            return NUMBER_FORMAT.get();
+        }
+    }
+
     @Override
     public String toString() {
-        return NUMBER_FORMAT.get().format(getValue());
+        return getNumberFormat().format(getValue());
     }
 
     @Override
@@ -13,9 +13,11 @@ import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.bean.tuple.Pair;
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.concurrent.Threads;
 import de.invesdwin.util.lang.Strings;
 import de.invesdwin.util.math.Doubles;
 import de.invesdwin.util.math.decimal.internal.DecimalAggregate;
+import de.invesdwin.util.math.decimal.internal.DoubleDecimalAggregate;
 import de.invesdwin.util.math.decimal.internal.DummyDecimalAggregate;
 import io.netty.util.concurrent.FastThreadLocal;
 
@@ -45,19 +47,12 @@ public class Decimal extends ADecimal<Decimal> {
     public static final Decimal ONE_HUNDRED;
     public static final Decimal PI;
 
-    private static final ALoadingCache<Pair<String, DecimalFormatSymbols>, FastThreadLocal<DecimalFormat>> DECIMAL_FORMAT = new ALoadingCache<Pair<String, DecimalFormatSymbols>, FastThreadLocal<DecimalFormat>>() {
+    private static final ALoadingCache<Pair<String, DecimalFormatSymbols>, DecimalFormatThreadLocal> DECIMAL_FORMAT = new ALoadingCache<Pair<String, DecimalFormatSymbols>, DecimalFormatThreadLocal>() {
         @Override
-        protected FastThreadLocal<DecimalFormat> loadValue(final Pair<String, DecimalFormatSymbols> key) {
-            final String format = key.getFirst();
-            final DecimalFormatSymbols symbols = key.getSecond();
-            return new FastThreadLocal<DecimalFormat>() {
-                @Override
-                protected DecimalFormat initialValue() throws Exception {
-                    final DecimalFormat formatter = new DecimalFormat(format, symbols);
-                    formatter.setRoundingMode(ADecimal.DEFAULT_ROUNDING_MODE);
-                    return formatter;
-                }
-            };
+        protected DecimalFormatThreadLocal loadValue(final Pair<String, DecimalFormatSymbols> key) {
+            final DecimalFormat prototype = new DecimalFormat(key.getFirst(), key.getSecond());
+            prototype.setRoundingMode(ADecimal.DEFAULT_ROUNDING_MODE);
+            return new DecimalFormatThreadLocal(prototype);
         }
 
         @Override
@@ -254,6 +249,17 @@ public class Decimal extends ADecimal<Decimal> {
         }
     }
 
+    /**
+     * Keeps the values unboxed, the array is not copied.
+     */
+    public static IDecimalAggregate<Decimal> valueOf(final double[] values) {
+        if (values == null || values.length == 0) {
+            return DummyDecimalAggregate.getInstance();
+        } else {
+            return new DoubleDecimalAggregate<Decimal>(values, Decimal.ZERO);
+        }
+    }
+
     public static String newDefaultDecimalFormat(final int decimalDigits) {
         String format = "#,##0";
         if (decimalDigits > 0) {
@@ -279,7 +285,7 @@ public class Decimal extends ADecimal<Decimal> {
     }
 
     public static DecimalFormat newDecimalFormatInstance(final String format, final DecimalFormatSymbols symbols) {
-        return DECIMAL_FORMAT.get(Pair.of(format, symbols)).get();
+        return DECIMAL_FORMAT.get(Pair.of(format, symbols)).getInstance();
     }
 
     public static Decimal nanToNull(final Double value) {
@@ -309,4 +315,31 @@ public class Decimal extends ADecimal<Decimal> {
         }
     }
 
+    /**
+     * Virtual threads are cheap and short lived, thus a per thread instance would not be reused there. Instead we
+     * clone the prototype, which is cheaper than parsing the pattern again.
+     */
+    private static final class DecimalFormatThreadLocal extends FastThreadLocal<DecimalFormat> {
+
+        private final DecimalFormat prototype;
+
+        private DecimalFormatThreadLocal(final DecimalFormat prototype) {
+            this.prototype = prototype;
+        }
+
+        @Override
+        protected DecimalFormat initialValue() throws Exception {
+            return (DecimalFormat) prototype.clone();
+        }
+
+        public DecimalFormat getInstance() {
+            if (Threads.isCurrentThreadVirtual()) {
+                return (DecimalFormat) prototype.clone();
+            } else {
+                return get();
+            }
+        }
+
+    }
+
 }
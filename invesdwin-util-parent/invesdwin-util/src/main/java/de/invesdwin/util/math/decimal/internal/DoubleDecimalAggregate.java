@@ -0,0 +1,904 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.interpolations.IDecimalAggregateInterpolations;
+import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+
+/**
+ * A DecimalAggregate that keeps the default values unboxed in a double[]. Element wise operations allocate only one
+ * array instead of one object per value. Additionally there are overloads that accept a buffer, which gets reused when
+ * it is large enough; the buffer can also be the backing array of this aggregate itself in order to compute in place.
+ * The loops of the element wise operations are kept simple so that the JIT can auto-vectorize them.
+ *
+ * Null values are represented as NaN. Aggregations are calculated in the same order as in DecimalAggregate, thus
+ * giving the same results.
+ *
+ * The aggregate is only thread safe as long as its backing array is not used as a buffer for other operations.
+ */
+@ThreadSafe
+public class DoubleDecimalAggregate<E extends ADecimal<E>> implements IDecimalAggregate<E> {
+
+    private final E converter;
+    private final double[] values;
+    private final int size;
+
+    private final IDecimalAggregateRandomizers<E> randomizers = new DecimalAggregateRandomizers<E>(this);
+
+    public DoubleDecimalAggregate(final double[] values, final E converter) {
+        this(values, values.length, converter);
+    }
+
+    /**
+     * Only the first size elements of the given array are used. The array is not copied.
+     */
+    public DoubleDecimalAggregate(final double[] values, final int size, final E converter) {
+        Assertions.checkNotNull(converter, "converter should not be null");
+        if (size < 0 || size > values.length) {
+            throw new IllegalArgumentException(
+                    "size [" + size + "] should be between 0 and the array length [" + values.length + "]");
+        }
+        this.values = values;
+        this.size = size;
+        this.converter = converter;
+    }
+
+    public E getConverter() {
+        return converter;
+    }
+
+    /**
+     * Returns the array without copying it, only the first size() elements are valid.
+     */
+    public double[] getBackingArray() {
+        return values;
+    }
+
+    public double getDefaultValue(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index [" + index + "] out of bounds for size [" + size + "]");
+        }
+        return values[index];
+    }
+
+    public double[] toDefaultValueArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private E toObject(final double value) {
+        if (Doubles.isNaN(value)) {
+            return null;
+        }
+        return converter.fromDefaultValue(value);
+    }
+
+    private DoubleDecimalAggregate<E> newAggregate(final double[] newValues, final int newSize) {
+        return new DoubleDecimalAggregate<E>(newValues, newSize, converter);
+    }
+
+    private static double[] newBuffer(final double[] buffer, final int size) {
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        return new double[size];
+    }
+
+    private static double defaultValueOrZero(final ADecimal<?> value) {
+        if (value == null) {
+            return 0D;
+        }
+        return value.getDefaultValue();
+    }
+
+    /**
+     * All growth rates separately
+     */
+    @Override
+    public IDecimalAggregate<Percent> growthRates() {
+        return growthRates(null);
+    }
+
+    public DoubleDecimalAggregate<Percent> growthRates(final double[] buffer) {
+        final int newSize = Math.max(0, size - 1);
+        final double[] result = newBuffer(buffer, newSize);
+        for (int i = 0; i < newSize; i++) {
+            final double previousValue = values[i];
+            final double divisor = Math.abs(previousValue);
+            result[i] = divisor == 0D ? 0D : (values[i + 1] - previousValue) / divisor;
+        }
+        return new DoubleDecimalAggregate<Percent>(result, newSize, Percent.ZERO_PERCENT);
+    }
+
+    public DoubleDecimalAggregate<E> absoluteChanges() {
+        return absoluteChanges(null);
+    }
+
+    public DoubleDecimalAggregate<E> absoluteChanges(final double[] buffer) {
+        final int newSize = Math.max(0, size - 1);
+        final double[] result = newBuffer(buffer, newSize);
+        for (int i = 0; i < newSize; i++) {
+            result[i] = values[i + 1] - values[i];
+        }
+        return newAggregate(result, newSize);
+    }
+
+    /**
+     * The average of all growthRates.
+     */
+    @Override
+    public Percent growthRate() {
+        return growthRates().avg();
+    }
+
+    /**
+     * The growthRate of the growthRates.
+     */
+    @Override
+    public Percent growthRatesTrend() {
+        return growthRates().growthRate();
+    }
+
+    @Override
+    public IDecimalAggregate<E> reverse() {
+        final double[] reversed = new double[size];
+        for (int i = 0, j = size - 1; i < size; i++, j--) {
+            reversed[i] = values[j];
+        }
+        return newAggregate(reversed, size);
+    }
+
+    /**
+     * Returns a weighted average where the first value has the least weight and the last value has the highest weight.
+     */
+    @Override
+    public E avgWeightedAsc() {
+        if (size == 0) {
+            return converter.zero();
+        }
+        long sumOfWeights = 0;
+        double sumOfWeightedValues = 0D;
+        for (int i = 0; i < size; i++) {
+            final long weight = i + 1;
+            sumOfWeights += weight;
+            sumOfWeightedValues += values[i] * weight;
+        }
+        return converter.fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    /**
+     * Returns a weighted average where the first value has the highest weight and the last value has the least weight.
+     */
+    @Override
+    public E avgWeightedDesc() {
+        long sumOfWeights = 0;
+        double sumOfWeightedValues = 0D;
+        for (int i = 0; i < size; i++) {
+            final long weight = size - i;
+            sumOfWeights += weight;
+            sumOfWeightedValues += values[i] * weight;
+        }
+        return converter.fromDefaultValue(sumOfWeightedValues / sumOfWeights);
+    }
+
+    @Override
+    public E sum() {
+        double sum = 0D;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            if (!Doubles.isNaN(value)) {
+                sum += value;
+            }
+        }
+        return converter.fromDefaultValue(sum);
+    }
+
+    /**
+     * x_quer = (x_1 + x_2 + ... + x_n) / n
+     *
+     * @see <a href="http://de.wikipedia.org/wiki/Arithmetisches_Mittel">Source</a>
+     */
+    @Override
+    public E avg() {
+        //same online algorithm as DoubleStreamAvg
+        double avg = 0D;
+        for (int i = 0; i < size; i++) {
+            avg += (values[i] - avg) / (i + 1);
+        }
+        return converter.fromDefaultValue(avg);
+    }
+
+    @Override
+    public E median() {
+        if (size == 0) {
+            return null;
+        }
+        final double[] sorted = toDefaultValueArray();
+        Arrays.sort(sorted);
+        final int middle = size / 2;
+        final double median;
+        if (size % 2 == 0) {
+            median = (sorted[middle] + sorted[middle - 1]) / 2D;
+        } else {
+            median = sorted[middle];
+        }
+        return converter.fromDefaultValue(median);
+    }
+
+    /**
+     * Product = x_1 * x_2 * ... * x_n
+     *
+     * @see <a href="http://de.wikipedia.org/wiki/Arithmetisches_Mittel">Source</a>
+     */
+    @Override
+    public E product() {
+        if (size == 0) {
+            return converter.fromDefaultValue(0D);
+        }
+        final double product = Math.exp(positiveLogSum());
+        return converter.fromDefaultValue(product);
+    }
+
+    /**
+     * x_quer = (x_1 * x_2 * ... * x_n)^1/n
+     *
+     * @see <a href="http://de.wikipedia.org/wiki/Geometrisches_Mittel">Source</a>
+     * @see <a href="http://www.ee.ucl.ac.uk/~mflanaga/java/Stat.html#geom2">Source with BigDecimal</a>
+     */
+    @Override
+    public E geomAvg() {
+        if (size == 0) {
+            return converter.zero();
+        }
+        return converter.fromDefaultValue(Math.exp(positiveLogSum() / size));
+    }
+
+    private double positiveLogSum() {
+        double logSum = 0D;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            if (value > 0D) {
+                /*
+                 * though this is not nice, when trying to calculate the compoundDailyGrowthRate from a detrended
+                 * equity curve that goes negative, this is needed
+                 */
+                logSum += Math.log(value);
+            }
+        }
+        return logSum;
+    }
+
+    @Override
+    public E max() {
+        final int index = bestValueIndexOrMinusOne(true);
+        if (index < 0) {
+            return null;
+        }
+        return converter.fromDefaultValue(values[index]);
+    }
+
+    @Override
+    public E min() {
+        final int index = bestValueIndexOrMinusOne(false);
+        if (index < 0) {
+            return null;
+        }
+        return converter.fromDefaultValue(values[index]);
+    }
+
+    @Override
+    public E minMaxDistance() {
+        final int minIndex = bestValueIndexOrMinusOne(false);
+        if (minIndex < 0) {
+            return null;
+        }
+        final int maxIndex = bestValueIndexOrMinusOne(true);
+        return converter.fromDefaultValue(Math.abs(values[minIndex] - values[maxIndex]));
+    }
+
+    /**
+     * s = (1/(n-1) * sum((x_i - x_quer)^2))^1/2
+     */
+    @Override
+    public E sampleStandardDeviation() {
+        return converter.fromDefaultValue(Math.sqrt(sampleVarianceDouble()));
+    }
+
+    /**
+     * s = (1/(n) * sum((x_i - x_quer)^2))^1/2
+     *
+     * Warning: normally one will use the sampleCoefficientOfVariation since it is hard to come by a complete set of
+     * values representing the distribution of reality
+     */
+    @Deprecated
+    @Override
+    public E standardDeviation() {
+        return converter.fromDefaultValue(Math.sqrt(varianceDouble()));
+    }
+
+    /**
+     * s^2 = 1/(n) * sum((x_i - x_quer)^2)
+     *
+     * <a href="http://de.wikipedia.org/wiki/Stichprobenvarianz">Source</a>
+     *
+     * Warning: normally one will use the sampleCoefficientOfVariation since it is hard to come by a complete set of
+     * values representing the distribution of reality
+     */
+    @Deprecated
+    @Override
+    public E variance() {
+        return converter.fromDefaultValue(varianceDouble());
+    }
+
+    /**
+     * s^2 = 1/(n-1) * sum((x_i - x_quer)^2)
+     */
+    @Override
+    public E sampleVariance() {
+        return converter.fromDefaultValue(sampleVarianceDouble());
+    }
+
+    private double sampleVarianceDouble() {
+        if (size < 2) {
+            return 0D;
+        }
+        return squareSum() / (size - 1);
+    }
+
+    private double varianceDouble() {
+        if (size < 2) {
+            return 0D;
+        }
+        return squareSum() / size;
+    }
+
+    /**
+     * Same online algorithm as NumberStreamVariance.
+     */
+    private double squareSum() {
+        double avg = 0D;
+        double squareSum = 0D;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            final double delta = value - avg;
+            avg += delta / (i + 1);
+            squareSum += delta * (value - avg);
+        }
+        return squareSum;
+    }
+
+    private double avgDouble() {
+        double avg = 0D;
+        for (int i = 0; i < size; i++) {
+            avg += (values[i] - avg) / (i + 1);
+        }
+        return avg;
+    }
+
+    /**
+     * Warning: normally one will use the sampleCoefficientOfVariation since it is hard to come by a complete set of
+     * values representing the distribution of reality
+     */
+    @Deprecated
+    @Override
+    public E coefficientOfVariation() {
+        return converter.fromDefaultValue(Doubles.divide(Math.sqrt(varianceDouble()), avgDouble()));
+    }
+
+    @Override
+    public E sampleCoefficientOfVariation() {
+        return converter.fromDefaultValue(Doubles.divide(Math.sqrt(sampleVarianceDouble()), avgDouble()));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view that converts the values lazily.
+     */
+    @Override
+    public List<E> values() {
+        return new ValuesList();
+    }
+
+    @Override
+    public IDecimalAggregate<E> round() {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final RoundingMode roundingMode) {
+        return round(Decimal.DEFAULT_ROUNDING_SCALE, roundingMode);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale) {
+        return round(scale, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> round(final int scale, final RoundingMode roundingMode) {
+        return round(scale, roundingMode, null);
+    }
+
+    /**
+     * Rounding is applied to the default values.
+     */
+    public DoubleDecimalAggregate<E> round(final int scale, final RoundingMode roundingMode, final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        for (int i = 0; i < size; i++) {
+            result[i] = Doubles.round(values[i], scale, roundingMode);
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step) {
+        return roundToStep(step, Decimal.DEFAULT_ROUNDING_MODE);
+    }
+
+    @Override
+    public IDecimalAggregate<E> roundToStep(final E step, final RoundingMode roundingMode) {
+        return roundToStep(step.getDefaultValue(), roundingMode, null);
+    }
+
+    public DoubleDecimalAggregate<E> roundToStep(final double step, final RoundingMode roundingMode,
+            final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        for (int i = 0; i < size; i++) {
+            result[i] = Doubles.roundToStep(values[i], step, roundingMode);
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public String toString() {
+        return values().toString();
+    }
+
+    /**
+     * 0 is counted as positive as well here to make things simpler.
+     */
+    @Override
+    public IDecimalAggregate<E> positiveValues() {
+        return positiveValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> positiveValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value >= 0D ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> positiveNonZeroValues() {
+        return positiveNonZeroValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> positiveNonZeroValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value > 0D ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeValues() {
+        return negativeValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> negativeValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value < 0D ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> negativeOrZeroValues() {
+        return negativeOrZeroValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> negativeOrZeroValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value <= 0D ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> nonZeroValues() {
+        return nonZeroValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> nonZeroValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value != 0D ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> addEach(final E augend) {
+        return addEach(defaultValueOrZero(augend), null);
+    }
+
+    public DoubleDecimalAggregate<E> addEach(final double augend, final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        for (int i = 0; i < size; i++) {
+            result[i] = values[i] + augend;
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> subtractEach(final E subtrahend) {
+        return subtractEach(defaultValueOrZero(subtrahend), null);
+    }
+
+    public DoubleDecimalAggregate<E> subtractEach(final double subtrahend, final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        for (int i = 0; i < size; i++) {
+            result[i] = values[i] - subtrahend;
+        }
+        return newAggregate(result, size);
+    }
+
+    /**
+     * Multiplying by null results in zero.
+     */
+    @Override
+    public IDecimalAggregate<E> multiplyEach(final E multiplicant) {
+        return multiplyEach(defaultValueOrZero(multiplicant), null);
+    }
+
+    public DoubleDecimalAggregate<E> multiplyEach(final double multiplicant, final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        if (multiplicant == 0D) {
+            Arrays.fill(result, 0, size, 0D);
+        } else {
+            for (int i = 0; i < size; i++) {
+                result[i] = values[i] * multiplicant;
+            }
+        }
+        return newAggregate(result, size);
+    }
+
+    /**
+     * If the divisor is 0 or null, 0 is returned. This goes against the mathematical rules, but makes a developers
+     * life easier.
+     */
+    @Override
+    public IDecimalAggregate<E> divideEach(final E divisor) {
+        return divideEach(defaultValueOrZero(divisor), null);
+    }
+
+    public DoubleDecimalAggregate<E> divideEach(final double divisor, final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        if (divisor == 0D) {
+            Arrays.fill(result, 0, size, 0D);
+        } else {
+            for (int i = 0; i < size; i++) {
+                result[i] = values[i] / divisor;
+            }
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> nullToZeroEach() {
+        return nullToZeroEach(null);
+    }
+
+    public DoubleDecimalAggregate<E> nullToZeroEach(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            //NaN is the only value that is not equal to itself
+            result[i] = value == value ? value : 0D;
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeNullValues() {
+        return removeNullValues(null);
+    }
+
+    public DoubleDecimalAggregate<E> removeNullValues(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            result[count] = value;
+            count += value == value ? 1 : 0;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public boolean isStableOrRisingEach() {
+        for (int i = 1; i < size; i++) {
+            if (Doubles.compare(values[i], values[i - 1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isStableOrFallingEach() {
+        for (int i = 1; i < size; i++) {
+            if (Doubles.compare(values[i], values[i - 1]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Integer bestValueIndex(final boolean isHigherBetter) {
+        final int index = bestValueIndexOrMinusOne(isHigherBetter);
+        if (index < 0) {
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * Null values are skipped, the first occurrence wins on equal values.
+     */
+    private int bestValueIndexOrMinusOne(final boolean isHigherBetter) {
+        int bestValueIndex = -1;
+        double bestValue = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            if (Doubles.isNaN(value)) {
+                continue;
+            }
+            if (bestValueIndex < 0) {
+                bestValue = value;
+                bestValueIndex = i;
+            } else if (isHigherBetter) {
+                if (Doubles.compare(value, bestValue) > 0) {
+                    bestValue = value;
+                    bestValueIndex = i;
+                }
+            } else {
+                if (Doubles.compare(value, bestValue) < 0) {
+                    bestValue = value;
+                    bestValueIndex = i;
+                }
+            }
+        }
+        return bestValueIndex;
+    }
+
+    @Override
+    public IDecimalAggregate<E> normalize() {
+        if (size < 2) {
+            return this;
+        }
+        return normalize(null);
+    }
+
+    /**
+     * normalized(x) = (x-min(x))/(max(x)-min(x))
+     */
+    public DoubleDecimalAggregate<E> normalize(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        final int minIndex = bestValueIndexOrMinusOne(false);
+        if (minIndex < 0) {
+            System.arraycopy(values, 0, result, 0, size);
+            return newAggregate(result, size);
+        }
+        final double min = values[minIndex];
+        final double maxMinusMin = values[bestValueIndexOrMinusOne(true)] - min;
+        if (maxMinusMin == 0D) {
+            Arrays.fill(result, 0, size, 0D);
+        } else {
+            for (int i = 0; i < size; i++) {
+                result[i] = (values[i] - min) / maxMinusMin;
+            }
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> detrendAbsolute() {
+        if (size < 3) {
+            return this;
+        }
+        return detrendAbsolute(null);
+    }
+
+    public DoubleDecimalAggregate<E> detrendAbsolute(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        if (size == 0) {
+            return newAggregate(result, 0);
+        }
+        final double avgChange = Doubles.divide(values[size - 1] - values[0], size - 1);
+        for (int i = 0; i < size; i++) {
+            result[i] = values[i] - avgChange * i;
+        }
+        return newAggregate(result, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> detrendRelative() {
+        if (size < 3) {
+            return this;
+        }
+        return detrendRelative(null);
+    }
+
+    /**
+     * Same calculation as DecimalStreamRelativeDetrending with the index as x.
+     */
+    public DoubleDecimalAggregate<E> detrendRelative(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        if (size == 0) {
+            return newAggregate(result, 0);
+        }
+        final double fromY = assertPositiveNonZero(values[0]);
+        final double toY = assertPositiveNonZero(values[size - 1]);
+        final double logAvgChangeYperX = Math.log(toY / fromY) / size;
+        for (int i = 0; i < size; i++) {
+            final double curY = assertPositiveNonZero(values[i]);
+            final double logDetrendedProfit = Math.log(curY / fromY) - logAvgChangeYperX * i;
+            result[i] = fromY * Math.exp(logDetrendedProfit);
+        }
+        return newAggregate(result, size);
+    }
+
+    private static double assertPositiveNonZero(final double value) {
+        if (!(value > 0D)) {
+            throw new IllegalArgumentException("Current value [" + value
+                    + "] is negative or zero. Please preprocess the data so this does not happen because we cannot create a logarithm of a negative value.");
+        }
+        return value;
+    }
+
+    @Override
+    public IDecimalAggregate<E> removeFlatSequences() {
+        return removeFlatSequences(null);
+    }
+
+    /**
+     * Values are compared after rounding them with the default scale, same as ADecimal.equals().
+     */
+    public DoubleDecimalAggregate<E> removeFlatSequences(final double[] buffer) {
+        final double[] result = newBuffer(buffer, size);
+        int count = 0;
+        double prevRounded = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            final double value = values[i];
+            final double rounded = Doubles.round(value);
+            if (i == 0 || rounded != prevRounded) {
+                result[count] = value;
+                count++;
+            }
+            prevRounded = rounded;
+        }
+        return newAggregate(result, count);
+    }
+
+    @Override
+    public IDecimalAggregate<E> stopSequenceBeforeNegativeOrZero() {
+        for (int i = 0; i < size; i++) {
+            if (!(values[i] > 0D)) {
+                if (i == 0) {
+                    return DummyDecimalAggregate.getInstance();
+                }
+                //same as DecimalAggregate, no copy needed since this is a prefix
+                return newAggregate(values, i - 1);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortAscending() {
+        final double[] sorted = toDefaultValueArray();
+        Arrays.sort(sorted);
+        return newAggregate(sorted, size);
+    }
+
+    @Override
+    public IDecimalAggregate<E> sortDescending() {
+        final double[] sorted = toDefaultValueArray();
+        Arrays.sort(sorted);
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            final double swap = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = swap;
+        }
+        return newAggregate(sorted, size);
+    }
+
+    /**
+     * The values are already stored as default values, thus the array is shared.
+     */
+    @Override
+    public IDecimalAggregate<Decimal> defaultValues() {
+        return new DoubleDecimalAggregate<Decimal>(values, size, Decimal.ZERO);
+    }
+
+    @Override
+    public IDecimalAggregateInterpolations<E> interpolate() {
+        return new DecimalAggregate<E>(values(), converter).interpolate();
+    }
+
+    @Override
+    public IDecimalAggregateRandomizers<E> randomize() {
+        return randomizers;
+    }
+
+    public static <T extends ADecimal<T>> IDecimalAggregate<T> valueOf(final List<? extends T> values,
+            final T converter) {
+        if (values == null || values.isEmpty()) {
+            return DummyDecimalAggregate.getInstance();
+        }
+        final double[] defaultValues = new double[values.size()];
+        for (int i = 0; i < defaultValues.length; i++) {
+            final T value = values.get(i);
+            if (value == null) {
+                defaultValues[i] = Double.NaN;
+            } else {
+                defaultValues[i] = value.getDefaultValue();
+            }
+        }
+        return new DoubleDecimalAggregate<T>(defaultValues, converter);
+    }
+
+    @Immutable
+    private final class ValuesList extends AbstractList<E> implements RandomAccess {
+
+        @Override
+        public E get(final int index) {
+            return toObject(getDefaultValue(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
@@ -1,12 +1,18 @@
 package de.invesdwin.util.math.decimal.internal.randomizers;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
 import org.apache.commons.math3.random.RandomGenerator;
 
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
 import de.invesdwin.util.math.decimal.ADecimal;
 import de.invesdwin.util.math.decimal.IDecimalAggregate;
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.BootstrapRandomizer;
@@ -14,7 +20,9 @@ import de.invesdwin.util.math.decimal.internal.randomizers.impl.CircularBootstra
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.ShuffleRandomizer;
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.StationaryBootstrapRandomizer;
 import de.invesdwin.util.math.decimal.internal.randomizers.impl.WeightedChunksAscendingRandomizer;
+import de.invesdwin.util.math.decimal.randomizers.DecimalRandomizerType;
 import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
+import de.invesdwin.util.math.random.RandomGenerators;
 
 @ThreadSafe
 public class DecimalAggregateRandomizers<E extends ADecimal<E>> implements IDecimalAggregateRandomizers<E> {
@@ -74,4 +82,83 @@ public class DecimalAggregateRandomizers<E extends ADecimal<E>> implements IDeci
         return stationaryBootstrapRandomizer;
     }
 
+    @Override
+    public int[] shuffleIndexes(final RandomGenerator random) {
+        return new ShuffleRandomizer<E>(parent).randomizeIndexes(random);
+    }
+
+    @Override
+    public int[] bootstrapIndexes(final RandomGenerator random) {
+        return new BootstrapRandomizer<E>(parent).randomizeIndexes(random);
+    }
+
+    @Override
+    public int[] circularBlockBootstrapIndexes(final RandomGenerator random) {
+        return getCircularBootstrapRandomizer().randomizeIndexes(random);
+    }
+
+    @Override
+    public int[] stationaryBootstrapIndexes(final RandomGenerator random) {
+        return getStationaryBootstrapRandomizer().randomizeIndexes(random);
+    }
+
+    @Override
+    public int[][] resampleIndexes(final DecimalRandomizerType type, final int count, final long seed) {
+        return resampleIndexes(type, count, seed, ResamplePoolHolder.INSTANCE);
+    }
+
+    @Override
+    public int[][] resampleIndexes(final DecimalRandomizerType type, final int count, final long seed,
+            final ForkJoinPool pool) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count should not be negative: " + count);
+        }
+        final int[][] resamples = new int[count][];
+        if (count == 0) {
+            return resamples;
+        }
+        pool.invoke(new ResampleIndexesAction(type, seed, resamples, 0, count));
+        return resamples;
+    }
+
+    @NotThreadSafe
+    private final class ResampleIndexesAction extends RecursiveAction {
+
+        private final DecimalRandomizerType type;
+        private final long seed;
+        private final int[][] resamples;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private ResampleIndexesAction(final DecimalRandomizerType type, final long seed, final int[][] resamples,
+                final int fromIndex, final int toIndex) {
+            this.type = type;
+            this.seed = seed;
+            this.resamples = resamples;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex == 1) {
+                final RandomGenerator random = RandomGenerators.newDefaultRandomStream(seed, fromIndex);
+                resamples[fromIndex] = type.randomizeIndexes(DecimalAggregateRandomizers.this, random);
+            } else {
+                final int middleIndex = (fromIndex + toIndex) >>> 1;
+                invokeAll(new ResampleIndexesAction(type, seed, resamples, fromIndex, middleIndex),
+                        new ResampleIndexesAction(type, seed, resamples, middleIndex, toIndex));
+            }
+        }
+
+    }
+
+    @Immutable
+    private static final class ResamplePoolHolder {
+        private static final ConfiguredForkJoinPool INSTANCE = Executors.newForkJoinPool(
+                DecimalAggregateRandomizers.class.getSimpleName() + "_RESAMPLE", Executors.getCpuThreadPoolCount());
+
+        private ResamplePoolHolder() {}
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.invesdwin.util.math.decimal.internal.randomizers;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -8,6 +9,7 @@ import org.apache.commons.math3.random.RandomGenerator;
 
 import de.invesdwin.util.collections.iterable.EmptyCloseableIterator;
 import de.invesdwin.util.math.decimal.ADecimal;
+import de.invesdwin.util.math.decimal.randomizers.DecimalRandomizerType;
 import de.invesdwin.util.math.decimal.randomizers.IDecimalAggregateRandomizers;
 
 @Immutable
@@ -16,6 +18,8 @@ public final class DummyDecimalAggregateRandomizers<E extends ADecimal<E>> imple
     @SuppressWarnings("rawtypes")
     public static final DummyDecimalAggregateRandomizers INSTANCE = new DummyDecimalAggregateRandomizers();
 
+    private static final int[] EMPTY_INDEXES = new int[0];
+
     private DummyDecimalAggregateRandomizers() {}
 
     @Override
@@ -48,4 +52,39 @@ public final class DummyDecimalAggregateRandomizers<E extends ADecimal<E>> imple
         return EmptyCloseableIterator.getInstance();
     }
 
+    @Override
+    public int[] shuffleIndexes(final RandomGenerator random) {
+        return EMPTY_INDEXES;
+    }
+
+    @Override
+    public int[] bootstrapIndexes(final RandomGenerator random) {
+        return EMPTY_INDEXES;
+    }
+
+    @Override
+    public int[] circularBlockBootstrapIndexes(final RandomGenerator random) {
+        return EMPTY_INDEXES;
+    }
+
+    @Override
+    public int[] stationaryBootstrapIndexes(final RandomGenerator random) {
+        return EMPTY_INDEXES;
+    }
+
+    @Override
+    public int[][] resampleIndexes(final DecimalRandomizerType type, final int count, final long seed) {
+        return resampleIndexes(type, count, seed, null);
+    }
+
+    @Override
+    public int[][] resampleIndexes(final DecimalRandomizerType type, final int count, final long seed,
+            final ForkJoinPool pool) {
+        final int[][] resamples = new int[count][];
+        for (int i = 0; i < count; i++) {
+            resamples[i] = EMPTY_INDEXES;
+        }
+        return resamples;
+    }
+
 }
@@ -41,4 +41,14 @@ public class BootstrapRandomizer<E extends ADecimal<E>> implements IDecimalRando
         };
     }
 
+    @Override
+    public int[] randomizeIndexes(final RandomGenerator random) {
+        final int size = sample.size();
+        final int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+        return indexes;
+    }
+
 }
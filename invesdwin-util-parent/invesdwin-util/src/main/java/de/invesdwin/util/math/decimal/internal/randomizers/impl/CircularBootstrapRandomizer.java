@@ -39,6 +39,11 @@ public class CircularBootstrapRandomizer<E extends ADecimal<E>> implements IDeci
                 public Iterator<E> randomize(final RandomGenerator random) {
                     return internalResample(random);
                 }
+
+                @Override
+                public int[] randomizeIndexes(final RandomGenerator random) {
+                    return internalResampleIndexes(random);
+                }
             };
         }
     }
@@ -52,10 +57,36 @@ public class CircularBootstrapRandomizer<E extends ADecimal<E>> implements IDeci
         return delegate.randomize(random);
     }
 
+    @Override
+    public final int[] randomizeIndexes(final RandomGenerator random) {
+        return delegate.randomizeIndexes(random);
+    }
+
     protected int nextBlockLength(final RandomGenerator random) {
         return blockLength;
     }
 
+    private int[] internalResampleIndexes(final RandomGenerator random) {
+        final int maxResampleIdx = sample.size();
+        final int[] indexes = new int[maxResampleIdx];
+        int curResampleIdx = 0;
+        while (curResampleIdx < maxResampleIdx) {
+            final int curStartIdx = random.nextInt(maxResampleIdx);
+            final int curBlockLength = nextBlockLength(random);
+            final int maxBlockIdx;
+            if (curResampleIdx + curBlockLength < maxResampleIdx) {
+                maxBlockIdx = curBlockLength;
+            } else {
+                maxBlockIdx = maxResampleIdx - curResampleIdx;
+            }
+            for (int curBlockIdx = 0; curBlockIdx < maxBlockIdx; curBlockIdx++) {
+                indexes[curResampleIdx] = (curStartIdx + curBlockIdx) % maxResampleIdx;
+                curResampleIdx++;
+            }
+        }
+        return indexes;
+    }
+
     private Iterator<E> internalResample(final RandomGenerator random) {
         return new Iterator<E>() {
             private final int maxResampleIdx = sample.size();
@@ -10,4 +10,10 @@ public interface IDecimalRandomizer<E extends ADecimal<E>> {
 
     Iterator<E> randomize(RandomGenerator random);
 
+    /**
+     * Returns the same resample as randomize() would for a generator in the same state, but as indexes into the
+     * sample instead of the values.
+     */
+    int[] randomizeIndexes(RandomGenerator random);
+
 }
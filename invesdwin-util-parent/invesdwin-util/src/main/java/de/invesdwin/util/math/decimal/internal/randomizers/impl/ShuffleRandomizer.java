@@ -29,4 +29,23 @@ public class ShuffleRandomizer<E extends ADecimal<E>> implements IDecimalRandomi
         return sampleCopy.iterator();
     }
 
+    /**
+     * Same swaps as Collections.shuffle()
+     */
+    @Override
+    public int[] randomizeIndexes(final RandomGenerator random) {
+        final int size = sample.size();
+        final int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        for (int i = size; i > 1; i--) {
+            final int swapIdx = random.nextInt(i);
+            final int swap = indexes[i - 1];
+            indexes[i - 1] = indexes[swapIdx];
+            indexes[swapIdx] = swap;
+        }
+        return indexes;
+    }
+
 }
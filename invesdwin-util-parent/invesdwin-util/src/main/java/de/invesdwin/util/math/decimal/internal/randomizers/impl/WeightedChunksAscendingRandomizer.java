@@ -59,13 +59,31 @@ public class WeightedChunksAscendingRandomizer<E extends ADecimal<E>> implements
         };
     }
 
+    /**
+     * The chunks are filled round robin, thus the n-th value of a chunk is at chunkIndex + n * chunkCount.
+     */
+    @Override
+    public int[] randomizeIndexes(final RandomGenerator random) {
+        final int[] indexes = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            final int chunkIndex = getSampleChunkIndex(random);
+            final int sourceIdx = random.nextInt(threshold_chunk[chunkIndex].getSecond().size());
+            indexes[i] = chunkIndex + sourceIdx * threshold_chunk.length;
+        }
+        return indexes;
+    }
+
     private List<E> getSampleChunk(final RandomGenerator random) {
+        return threshold_chunk[getSampleChunkIndex(random)].getSecond();
+    }
+
+    private int getSampleChunkIndex(final RandomGenerator random) {
         final double chunkThreshold = random.nextDouble();
         for (int i = 0; i < threshold_chunk.length; i++) {
             final Pair<Double, ? extends List<E>> pair = threshold_chunk[i];
             final double threshold = pair.getFirst();
             if (chunkThreshold <= threshold) {
-                return pair.getSecond();
+                return i;
             }
         }
         throw new IllegalStateException("No chunk found for threshold: " + chunkThreshold);
@@ -0,0 +1,44 @@
+package de.invesdwin.util.math.decimal.randomizers;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import de.invesdwin.util.math.decimal.ADecimal;
+
+@Immutable
+public enum DecimalRandomizerType {
+
+    Shuffle {
+        @Override
+        public <T extends ADecimal<T>> int[] randomizeIndexes(final IDecimalAggregateRandomizers<T> randomizers,
+                final RandomGenerator random) {
+            return randomizers.shuffleIndexes(random);
+        }
+    },
+    Bootstrap {
+        @Override
+        public <T extends ADecimal<T>> int[] randomizeIndexes(final IDecimalAggregateRandomizers<T> randomizers,
+                final RandomGenerator random) {
+            return randomizers.bootstrapIndexes(random);
+        }
+    },
+    CircularBlockBootstrap {
+        @Override
+        public <T extends ADecimal<T>> int[] randomizeIndexes(final IDecimalAggregateRandomizers<T> randomizers,
+                final RandomGenerator random) {
+            return randomizers.circularBlockBootstrapIndexes(random);
+        }
+    },
+    StationaryBootstrap {
+        @Override
+        public <T extends ADecimal<T>> int[] randomizeIndexes(final IDecimalAggregateRandomizers<T> randomizers,
+                final RandomGenerator random) {
+            return randomizers.stationaryBootstrapIndexes(random);
+        }
+    };
+
+    public abstract <T extends ADecimal<T>> int[] randomizeIndexes(IDecimalAggregateRandomizers<T> randomizers,
+            RandomGenerator random);
+
+}
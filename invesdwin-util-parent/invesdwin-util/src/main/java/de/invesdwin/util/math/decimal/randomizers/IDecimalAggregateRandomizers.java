@@ -1,6 +1,7 @@
 package de.invesdwin.util.math.decimal.randomizers;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.math3.random.RandomGenerator;
 
@@ -49,4 +50,36 @@ public interface IDecimalAggregateRandomizers<E extends ADecimal<E>> {
      */
     Iterator<E> weightedChunksAscending(RandomGenerator random, int chunkCount);
 
+    /**
+     * Same as shuffle, but returns indexes into the values instead of copying them.
+     */
+    int[] shuffleIndexes(RandomGenerator random);
+
+    /**
+     * Same as bootstrap, but returns indexes into the values instead of copying them.
+     */
+    int[] bootstrapIndexes(RandomGenerator random);
+
+    /**
+     * Same as circularBlockBootstrap, but returns indexes into the values instead of copying them.
+     */
+    int[] circularBlockBootstrapIndexes(RandomGenerator random);
+
+    /**
+     * Same as stationaryBootstrap, but returns indexes into the values instead of copying them.
+     */
+    int[] stationaryBootstrapIndexes(RandomGenerator random);
+
+    /**
+     * Generates count resamples in parallel, each resample is an array of indexes into the values. Resample i uses its
+     * own random generator from RandomGenerators.newDefaultRandomStream(seed, i), thus the results are reproducible
+     * independent of the parallelism.
+     */
+    int[][] resampleIndexes(DecimalRandomizerType type, int count, long seed);
+
+    /**
+     * Same as resampleIndexes(type, count, seed), but runs the tasks in the given pool.
+     */
+    int[][] resampleIndexes(DecimalRandomizerType type, int count, long seed, ForkJoinPool pool);
+
 }
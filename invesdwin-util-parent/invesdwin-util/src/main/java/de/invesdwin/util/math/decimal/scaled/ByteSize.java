@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.decimal.scaled;
 
+import java.nio.ByteBuffer;
+
 import javax.annotation.concurrent.NotThreadSafe;
 
 import de.invesdwin.util.math.decimal.AScaledDecimal;
@@ -47,4 +49,30 @@ public class ByteSize extends AScaledDecimal<ByteSize, ByteSizeScale> {
         return ZERO;
     }
 
+    public static void putByteSize(final ByteBuffer buffer, final ByteSize value) {
+        if (value == null) {
+            buffer.putDouble(Double.MIN_VALUE);
+        } else {
+            buffer.putDouble(value.getValue(DEFAULT_SCALE));
+        }
+    }
+
+    public static ByteSize extractByteSize(final ByteBuffer buffer, final int index) {
+        final double value = buffer.getDouble(index);
+        return extractByteSize(value);
+    }
+
+    public static ByteSize extractByteSize(final ByteBuffer buffer) {
+        final double value = buffer.getDouble();
+        return extractByteSize(value);
+    }
+
+    public static ByteSize extractByteSize(final double value) {
+        if (value == Double.MIN_VALUE) {
+            return null;
+        } else {
+            return new ByteSize(value, DEFAULT_SCALE);
+        }
+    }
+
 }
@@ -82,6 +82,16 @@ public abstract class AFunction {
 
     public abstract double eval(IExpression[] args);
 
+    /**
+     * evaluates the function for all int keys from fromKey (inclusive) to toKey (exclusive) and writes the results into
+     * out starting at index 0. Override this to compute the arguments column at a time.
+     */
+    public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+        for (int key = fromKey; key < toKey; key++) {
+            out[key - fromKey] = eval(key, args);
+        }
+    }
+
     /**
      * return true if this function returns the same value for every key on the same arguments, if this is the case and
      * all arguments are constants, then this function can be simplified into a constant expression too. You don't have
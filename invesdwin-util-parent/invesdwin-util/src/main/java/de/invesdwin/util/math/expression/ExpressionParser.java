@@ -9,10 +9,13 @@ import java.util.Map;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import de.invesdwin.util.concurrent.Threads;
 import de.invesdwin.util.lang.Strings;
 import de.invesdwin.util.lang.description.TextDescription;
 import de.invesdwin.util.math.expression.eval.ConstantExpression;
 import de.invesdwin.util.math.expression.eval.DynamicPreviousKeyExpression;
+import de.invesdwin.util.math.expression.eval.ExpressionCompiler;
+import de.invesdwin.util.math.expression.eval.ExpressionDeduplicator;
 import de.invesdwin.util.math.expression.eval.FunctionCall;
 import de.invesdwin.util.math.expression.eval.IParsedExpression;
 import de.invesdwin.util.math.expression.eval.VariableFunction;
@@ -112,7 +115,12 @@ public class ExpressionParser {
     }
 
     public ExpressionParser(final String expression) {
-        tokenizer = TOKENIZER.get();
+        if (Threads.isCurrentThreadVirtual()) {
+            //virtual threads are short lived, a thread local instance would not be reused there
+            tokenizer = new Tokenizer();
+        } else {
+            tokenizer = TOKENIZER.get();
+        }
         originalExpression = modifyExpression(expression);
         tokenizer.init(new StringReader(originalExpression));
     }
@@ -138,7 +146,7 @@ public class ExpressionParser {
     }
 
     public IExpression parse() {
-        final IParsedExpression result = simplify(expression(true));
+        final IParsedExpression result = compile(deduplicate(simplify(expression(true))));
         if (tokenizer.current().isNotEnd()) {
             final Token token = tokenizer.consume();
             throw new ParseException(token,
@@ -151,6 +159,29 @@ public class ExpressionParser {
         return expression.simplify();
     }
 
+    /**
+     * Replaces structurally equal subexpressions with shared nodes. Override this to return the expression as it is in
+     * order to disable the common subexpression elimination.
+     */
+    protected IParsedExpression deduplicate(final IParsedExpression expression) {
+        return ExpressionDeduplicator.deduplicate(expression, isMemoizeCommonSubexpressions());
+    }
+
+    /**
+     * Return true to evaluate shared subexpressions only once per key. This should only be enabled when the values for
+     * a key don't change anymore (e.g. in backtests on completed bars).
+     */
+    protected boolean isMemoizeCommonSubexpressions() {
+        return false;
+    }
+
+    /**
+     * Override this to return the expression as it is in order to disable the compilation into specialized nodes.
+     */
+    protected IParsedExpression compile(final IParsedExpression expression) {
+        return ExpressionCompiler.compile(expression);
+    }
+
     protected IParsedExpression expression(final boolean commaAllowed) {
         final IParsedExpression left = relationalExpression();
         final Token current = tokenizer.current();
@@ -34,6 +34,27 @@ public interface IExpression {
         return Integers.checkedCast(evaluateDouble());
     }
 
+    /**
+     * evaluates the expression for all int keys from fromKey (inclusive) to toKey (exclusive) and writes the results
+     * into out starting at index 0. Implementations can override this to compute the whole range column at a time
+     * instead of walking the expression tree again for every key.
+     */
+    default void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        for (int key = fromKey; key < toKey; key++) {
+            out[key - fromKey] = evaluateDouble(key);
+        }
+    }
+
+    /**
+     * evaluates the expression for all int keys from fromKey (inclusive) to toKey (exclusive) and writes the results
+     * into out starting at index 0
+     */
+    default void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        for (int key = fromKey; key < toKey; key++) {
+            out[key - fromKey] = evaluateBoolean(key);
+        }
+    }
+
     boolean evaluateBoolean();
 
     boolean evaluateBoolean(FDate key);
@@ -25,4 +25,47 @@ public interface IPreviousKeyFunction {
         return expression.evaluateBoolean(previousKey);
     }
 
+    /**
+     * Resolves the previous keys with the given index for all keys from fromKey (inclusive) to toKey (exclusive).
+     */
+    default int[] getPreviousKeys(final int fromKey, final int toKey, final int index) {
+        final int[] previousKeys = new int[toKey - fromKey];
+        for (int i = 0; i < previousKeys.length; i++) {
+            previousKeys[i] = getPreviousKey(fromKey + i, index);
+        }
+        return previousKeys;
+    }
+
+    /**
+     * Resolves the previous keys with the given index for the keys fromKey + offsets[i] with i from 0 (inclusive) to
+     * count (exclusive).
+     */
+    default int[] getPreviousKeys(final int fromKey, final int[] offsets, final int count, final int index) {
+        final int[] previousKeys = new int[count];
+        for (int i = 0; i < count; i++) {
+            previousKeys[i] = getPreviousKey(fromKey + offsets[i], index);
+        }
+        return previousKeys;
+    }
+
+    /**
+     * Evaluates the expression for each previous key via evaluateDouble(expression, previousKey), thus overrides of
+     * that are honored.
+     */
+    default void evaluateDoubles(final IParsedExpression expression, final int[] previousKeys, final double[] out) {
+        for (int i = 0; i < previousKeys.length; i++) {
+            out[i] = evaluateDouble(expression, previousKeys[i]);
+        }
+    }
+
+    /**
+     * Evaluates the expression for each previous key via evaluateBoolean(expression, previousKey), thus overrides of
+     * that are honored.
+     */
+    default void evaluateBooleans(final IParsedExpression expression, final int[] previousKeys, final boolean[] out) {
+        for (int i = 0; i < previousKeys.length; i++) {
+            out[i] = evaluateBoolean(expression, previousKeys[i]);
+        }
+    }
+
 }
@@ -9,6 +9,11 @@ import de.invesdwin.util.time.fdate.FDate;
 @NotThreadSafe
 public abstract class ABinaryFunction extends AFunction {
 
+    /**
+     * subclasses that override the scalar eval have to be evaluated via that for every key in the range
+     */
+    private final boolean defaultEval = ExpressionCompiler.isDefaultEval(this, ABinaryFunction.class);
+
     @Override
     public int getNumberOfArguments() {
         return 2;
@@ -35,6 +40,21 @@ public abstract class ABinaryFunction extends AFunction {
         return eval(a, b);
     }
 
+    @Override
+    public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+        if (!defaultEval) {
+            super.eval(fromKey, toKey, args, out);
+            return;
+        }
+        final int length = toKey - fromKey;
+        final double[] b = new double[length];
+        args[0].evaluateDoubles(fromKey, toKey, out);
+        args[1].evaluateDoubles(fromKey, toKey, b);
+        for (int i = 0; i < length; i++) {
+            out[i] = eval(out[i], b[i]);
+        }
+    }
+
     protected abstract double eval(double a, double b);
 
     @Override
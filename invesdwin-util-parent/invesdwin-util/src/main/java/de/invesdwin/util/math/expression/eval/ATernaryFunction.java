@@ -9,6 +9,11 @@ import de.invesdwin.util.time.fdate.FDate;
 @NotThreadSafe
 public abstract class ATernaryFunction extends AFunction {
 
+    /**
+     * subclasses that override the scalar eval have to be evaluated via that for every key in the range
+     */
+    private final boolean defaultEval = ExpressionCompiler.isDefaultEval(this, ATernaryFunction.class);
+
     @Override
     public int getNumberOfArguments() {
         return 3;
@@ -18,7 +23,7 @@ public abstract class ATernaryFunction extends AFunction {
     public double eval(final FDate key, final IExpression[] args) {
         final double a = args[0].evaluateDouble(key);
         final double b = args[1].evaluateDouble(key);
-        final double c = args[3].evaluateDouble(key);
+        final double c = args[2].evaluateDouble(key);
         return eval(a, b, c);
     }
 
@@ -26,7 +31,7 @@ public abstract class ATernaryFunction extends AFunction {
     public double eval(final int key, final IExpression[] args) {
         final double a = args[0].evaluateDouble(key);
         final double b = args[1].evaluateDouble(key);
-        final double c = args[3].evaluateDouble(key);
+        final double c = args[2].evaluateDouble(key);
         return eval(a, b, c);
     }
 
@@ -34,10 +39,27 @@ public abstract class ATernaryFunction extends AFunction {
     public double eval(final IExpression[] args) {
         final double a = args[0].evaluateDouble();
         final double b = args[1].evaluateDouble();
-        final double c = args[3].evaluateDouble();
+        final double c = args[2].evaluateDouble();
         return eval(a, b, c);
     }
 
+    @Override
+    public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+        if (!defaultEval) {
+            super.eval(fromKey, toKey, args, out);
+            return;
+        }
+        final int length = toKey - fromKey;
+        final double[] b = new double[length];
+        final double[] c = new double[length];
+        args[0].evaluateDoubles(fromKey, toKey, out);
+        args[1].evaluateDoubles(fromKey, toKey, b);
+        args[2].evaluateDoubles(fromKey, toKey, c);
+        for (int i = 0; i < length; i++) {
+            out[i] = eval(out[i], b[i], c[i]);
+        }
+    }
+
     protected abstract double eval(double a, double b, double c);
 
     @Override
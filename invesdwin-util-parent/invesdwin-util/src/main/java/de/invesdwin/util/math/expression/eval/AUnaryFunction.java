@@ -9,6 +9,11 @@ import de.invesdwin.util.time.fdate.FDate;
 @Immutable
 public abstract class AUnaryFunction extends AFunction {
 
+    /**
+     * subclasses that override the scalar eval have to be evaluated via that for every key in the range
+     */
+    private final boolean defaultEval = ExpressionCompiler.isDefaultEval(this, AUnaryFunction.class);
+
     @Override
     public int getNumberOfArguments() {
         return 1;
@@ -32,6 +37,19 @@ public abstract class AUnaryFunction extends AFunction {
         return eval(a);
     }
 
+    @Override
+    public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+        if (!defaultEval) {
+            super.eval(fromKey, toKey, args, out);
+            return;
+        }
+        args[0].evaluateDoubles(fromKey, toKey, out);
+        final int length = toKey - fromKey;
+        for (int i = 0; i < length; i++) {
+            out[i] = eval(out[i]);
+        }
+    }
+
     protected abstract double eval(double a);
 
     @Override
@@ -0,0 +1,45 @@
+package de.invesdwin.util.math.expression.eval;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Calls the function directly with the evaluated parameters instead of going through the parameters array.
+ */
+@NotThreadSafe
+public final class BinaryFunctionCall extends FunctionCall {
+
+    private final ABinaryFunction function;
+    private final IParsedExpression a;
+    private final IParsedExpression b;
+
+    public BinaryFunctionCall(final String context, final ABinaryFunction function, final IParsedExpression a,
+            final IParsedExpression b) {
+        super(context, function, new IParsedExpression[] { a, b });
+        this.function = function;
+        this.a = a;
+        this.b = b;
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        return function.eval(a.evaluateDouble(key), b.evaluateDouble(key));
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        return function.eval(a.evaluateDouble(key), b.evaluateDouble(key));
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        return function.eval(a.evaluateDouble(key), b.evaluateDouble(key)) > 0;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        return function.eval(a.evaluateDouble(key), b.evaluateDouble(key)) > 0;
+    }
+
+}
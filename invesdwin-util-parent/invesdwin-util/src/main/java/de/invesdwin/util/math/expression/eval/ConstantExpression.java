@@ -1,5 +1,7 @@
 package de.invesdwin.util.math.expression.eval;
 
+import java.util.Arrays;
+
 import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.math.decimal.Decimal;
@@ -47,6 +49,16 @@ public class ConstantExpression implements IParsedExpression {
         return booleanValue;
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        Arrays.fill(out, 0, toKey - fromKey, doubleValue);
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        Arrays.fill(out, 0, toKey - fromKey, booleanValue);
+    }
+
     @Override
     public boolean isConstant() {
         return true;
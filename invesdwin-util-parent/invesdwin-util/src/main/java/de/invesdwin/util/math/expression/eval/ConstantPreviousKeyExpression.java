@@ -23,6 +23,18 @@ public class ConstantPreviousKeyExpression implements IParsedExpression {
         this.previousKeyFunction = previousKeyFunction;
     }
 
+    public IParsedExpression getExpression() {
+        return expression;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public IPreviousKeyFunction getPreviousKeyFunction() {
+        return previousKeyFunction;
+    }
+
     @Override
     public double evaluateDouble(final FDate key) {
         final FDate previousKey = previousKeyFunction.getPreviousKey(key, index);
@@ -57,6 +69,18 @@ public class ConstantPreviousKeyExpression implements IParsedExpression {
         throw new UnsupportedOperationException("use time or int key instead");
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int[] previousKeys = previousKeyFunction.getPreviousKeys(fromKey, toKey, index);
+        previousKeyFunction.evaluateDoubles(expression, previousKeys, out);
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        final int[] previousKeys = previousKeyFunction.getPreviousKeys(fromKey, toKey, index);
+        previousKeyFunction.evaluateBooleans(expression, previousKeys, out);
+    }
+
     @Override
     public boolean isConstant() {
         return expression.isConstant();
@@ -2,6 +2,7 @@ package de.invesdwin.util.math.expression.eval;
 
 import javax.annotation.concurrent.Immutable;
 
+import de.invesdwin.util.math.Integers;
 import de.invesdwin.util.math.expression.IExpression;
 import de.invesdwin.util.math.expression.IPreviousKeyFunction;
 import de.invesdwin.util.time.fdate.FDate;
@@ -20,6 +21,18 @@ public class DynamicPreviousKeyExpression implements IParsedExpression {
         this.previousKeyFunction = previousKeyFunction;
     }
 
+    public IParsedExpression getExpression() {
+        return expression;
+    }
+
+    public IParsedExpression getIndexExpression() {
+        return indexExpression;
+    }
+
+    public IPreviousKeyFunction getPreviousKeyFunction() {
+        return previousKeyFunction;
+    }
+
     @Override
     public double evaluateDouble(final FDate key) {
         final int index = indexExpression.evaluateInteger(key);
@@ -70,6 +83,33 @@ public class DynamicPreviousKeyExpression implements IParsedExpression {
         throw new UnsupportedOperationException("use time or int key instead");
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int[] previousKeys = getPreviousKeys(fromKey, toKey);
+        previousKeyFunction.evaluateDoubles(expression, previousKeys, out);
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        final int[] previousKeys = getPreviousKeys(fromKey, toKey);
+        previousKeyFunction.evaluateBooleans(expression, previousKeys, out);
+    }
+
+    private int[] getPreviousKeys(final int fromKey, final int toKey) {
+        final int length = toKey - fromKey;
+        final double[] indexes = new double[length];
+        indexExpression.evaluateDoubles(fromKey, toKey, indexes);
+        final int[] previousKeys = new int[length];
+        for (int i = 0; i < length; i++) {
+            final int index = Integers.checkedCast(indexes[i]);
+            if (index < 0) {
+                throw new IllegalArgumentException("index should not be negative: " + index);
+            }
+            previousKeys[i] = previousKeyFunction.getPreviousKey(fromKey + i, index);
+        }
+        return previousKeys;
+    }
+
     @Override
     public boolean isConstant() {
         return expression.isConstant() && indexExpression.isConstant();
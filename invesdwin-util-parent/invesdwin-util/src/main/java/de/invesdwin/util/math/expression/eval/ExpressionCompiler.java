@@ -0,0 +1,135 @@
+package de.invesdwin.util.math.expression.eval;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.AFunction;
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
+import de.invesdwin.util.math.expression.eval.operation.CompiledBinaryOperations;
+import de.invesdwin.util.math.expression.eval.operation.CrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.CrossesBelowOperation;
+import de.invesdwin.util.math.expression.eval.operation.NotOperation;
+import de.invesdwin.util.math.expression.eval.operation.OrOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesBelowOperation;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Rewrites a simplified expression tree into specialized nodes that are cheaper to evaluate per key: operators are
+ * inlined into their own final classes, constant operands are kept as double fields and unary/binary functions are
+ * called directly without the parameters array. The resulting tree still fulfills the same IExpression contract
+ * (children, context, toString, simplify), thus visitors and persistence are not affected.
+ *
+ * Expressions that are not known to the compiler are kept as they are.
+ */
+@Immutable
+public final class ExpressionCompiler {
+
+    private ExpressionCompiler() {
+    }
+
+    public static IParsedExpression compile(final IParsedExpression expression) {
+        return compile(expression, new IdentityHashMap<IParsedExpression, IParsedExpression>());
+    }
+
+    /**
+     * Shared nodes (e.g. from common subexpression elimination) stay shared in the compiled tree.
+     */
+    private static IParsedExpression compile(final IParsedExpression expression,
+            final Map<IParsedExpression, IParsedExpression> compiled) {
+        IParsedExpression result = compiled.get(expression);
+        if (result == null) {
+            result = compileUncached(expression, compiled);
+            compiled.put(expression, result);
+        }
+        return result;
+    }
+
+    private static IParsedExpression compileUncached(final IParsedExpression expression,
+            final Map<IParsedExpression, IParsedExpression> compiled) {
+        //subclasses from the outside might carry additional behavior, thus only the known classes are rewritten
+        final Class<?> type = expression.getClass();
+        if (type == BinaryOperation.class || type == AndOperation.class || type == OrOperation.class
+                || type == NotOperation.class || type == CrossesAboveOperation.class
+                || type == CrossesBelowOperation.class || type == SimpleCrossesAboveOperation.class
+                || type == SimpleCrossesBelowOperation.class) {
+            return compileBinaryOperation((BinaryOperation) expression, compiled);
+        } else if (type == FunctionCall.class) {
+            return compileFunctionCall((FunctionCall) expression, compiled);
+        } else if (type == ConstantPreviousKeyExpression.class) {
+            final ConstantPreviousKeyExpression cExpression = (ConstantPreviousKeyExpression) expression;
+            return new ConstantPreviousKeyExpression(compile(cExpression.getExpression(), compiled),
+                    cExpression.getIndex(), cExpression.getPreviousKeyFunction());
+        } else if (type == DynamicPreviousKeyExpression.class) {
+            final DynamicPreviousKeyExpression cExpression = (DynamicPreviousKeyExpression) expression;
+            return new DynamicPreviousKeyExpression(compile(cExpression.getExpression(), compiled),
+                    compile(cExpression.getIndexExpression(), compiled), cExpression.getPreviousKeyFunction());
+        } else if (type == MemoizedExpression.class) {
+            return new MemoizedExpression(compile(((MemoizedExpression) expression).getDelegate(), compiled));
+        } else {
+            return expression;
+        }
+    }
+
+    private static IParsedExpression compileBinaryOperation(final BinaryOperation operation,
+            final Map<IParsedExpression, IParsedExpression> compiled) {
+        final IParsedExpression left = compile(operation.getLeft(), compiled);
+        final IParsedExpression right = compile(operation.getRight(), compiled);
+        if (operation.getClass() == BinaryOperation.class) {
+            final BinaryOperation specialized = CompiledBinaryOperations
+                    .newCompiledBinaryOperation(operation.getOp(), left, right);
+            if (specialized != null) {
+                if (operation.isSealed()) {
+                    specialized.seal();
+                }
+                return specialized;
+            }
+        }
+        //already specialized (AND, OR, NOT, CROSSES_ABOVE, ...), only the children need to be replaced
+        final BinaryOperation replaced = operation.setLeft(left).setRight(right);
+        if (operation.isSealed()) {
+            replaced.seal();
+        }
+        return replaced;
+    }
+
+    private static IParsedExpression compileFunctionCall(final FunctionCall call,
+            final Map<IParsedExpression, IParsedExpression> compiled) {
+        final IParsedExpression[] parameters = call.getParameters();
+        final IParsedExpression[] compiledParameters = new IParsedExpression[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            compiledParameters[i] = compile(parameters[i], compiled);
+        }
+        final AFunction function = call.getFunction();
+        if (function instanceof AUnaryFunction && compiledParameters.length == 1
+                && isDefaultEval(function, AUnaryFunction.class)) {
+            return new UnaryFunctionCall(call.getContext(), (AUnaryFunction) function, compiledParameters[0]);
+        } else if (function instanceof ABinaryFunction && compiledParameters.length == 2
+                && isDefaultEval(function, ABinaryFunction.class)) {
+            return new BinaryFunctionCall(call.getContext(), (ABinaryFunction) function, compiledParameters[0],
+                    compiledParameters[1]);
+        } else {
+            return new FunctionCall(call.getContext(), function, compiledParameters);
+        }
+    }
+
+    /**
+     * Functions might override the array based evaluation (e.g. to evaluate parameters lazily), in that case the
+     * direct call would change the semantics.
+     */
+    static boolean isDefaultEval(final AFunction function, final Class<?> baseClass) {
+        try {
+            final Method timeEval = function.getClass().getMethod("eval", FDate.class, IExpression[].class);
+            final Method intEval = function.getClass().getMethod("eval", int.class, IExpression[].class);
+            return timeEval.getDeclaringClass() == baseClass && intEval.getDeclaringClass() == baseClass;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+}
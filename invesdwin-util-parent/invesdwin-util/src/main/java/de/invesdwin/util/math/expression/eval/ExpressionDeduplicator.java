@@ -0,0 +1,282 @@
+package de.invesdwin.util.math.expression.eval;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.math.expression.eval.operation.AndOperation;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation;
+import de.invesdwin.util.math.expression.eval.operation.CrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.CrossesBelowOperation;
+import de.invesdwin.util.math.expression.eval.operation.NotOperation;
+import de.invesdwin.util.math.expression.eval.operation.OrOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesAboveOperation;
+import de.invesdwin.util.math.expression.eval.operation.SimpleCrossesBelowOperation;
+
+/**
+ * Common subexpression elimination: structurally equal subtrees are replaced by one shared node. Two subtrees are
+ * structurally equal when they are of the same class, reference the same function/variable/previous key function
+ * instances with the same context and have the same (already deduplicated) children.
+ *
+ * Optionally the shared nodes are wrapped in a MemoizedExpression so that they are only evaluated once per key even
+ * though multiple parents reference them.
+ */
+@NotThreadSafe
+public final class ExpressionDeduplicator {
+
+    private static final IParsedExpression[] EMPTY_CHILDREN = new IParsedExpression[0];
+
+    private final Map<StructuralKey, IParsedExpression> canonical = new HashMap<>();
+    private final Map<IParsedExpression, IParsedExpression> deduplicated = new IdentityHashMap<>();
+    private final Map<IParsedExpression, Integer> references = new IdentityHashMap<>();
+    private final Map<IParsedExpression, IParsedExpression> memoized = new IdentityHashMap<>();
+
+    private ExpressionDeduplicator() {
+    }
+
+    public static IParsedExpression deduplicate(final IParsedExpression expression, final boolean memoize) {
+        final ExpressionDeduplicator deduplicator = new ExpressionDeduplicator();
+        final IParsedExpression deduplicated = deduplicator.deduplicate(expression);
+        if (memoize) {
+            return deduplicator.memoize(deduplicated);
+        } else {
+            return deduplicated;
+        }
+    }
+
+    private IParsedExpression deduplicate(final IParsedExpression expression) {
+        final IParsedExpression existing = deduplicated.get(expression);
+        if (existing != null) {
+            countReference(existing);
+            return existing;
+        }
+        final IParsedExpression[] children = getChildren(expression);
+        final IParsedExpression result;
+        if (children == null) {
+            //unknown or constant expressions are kept as they are
+            result = expression;
+        } else {
+            final IParsedExpression[] newChildren = new IParsedExpression[children.length];
+            for (int i = 0; i < children.length; i++) {
+                newChildren[i] = deduplicate(children[i]);
+            }
+            final StructuralKey key = new StructuralKey(expression, newChildren);
+            final IParsedExpression existingStructure = canonical.get(key);
+            if (existingStructure != null) {
+                result = existingStructure;
+            } else {
+                result = replaceChildren(expression, children, newChildren);
+                canonical.put(key, result);
+            }
+        }
+        deduplicated.put(expression, result);
+        countReference(result);
+        return result;
+    }
+
+    private void countReference(final IParsedExpression expression) {
+        final Integer count = references.get(expression);
+        if (count == null) {
+            references.put(expression, 1);
+        } else {
+            references.put(expression, count + 1);
+        }
+    }
+
+    private IParsedExpression memoize(final IParsedExpression expression) {
+        final IParsedExpression existing = memoized.get(expression);
+        if (existing != null) {
+            return existing;
+        }
+        final IParsedExpression[] children = getChildren(expression);
+        IParsedExpression result = expression;
+        if (children != null) {
+            final IParsedExpression[] newChildren = new IParsedExpression[children.length];
+            for (int i = 0; i < children.length; i++) {
+                newChildren[i] = memoize(children[i]);
+            }
+            result = replaceChildren(expression, children, newChildren);
+            //leaves like variable references are cheap enough to be evaluated again
+            if (children.length > 0 && shouldMemoize(expression)) {
+                result = new MemoizedExpression(result);
+            }
+        }
+        memoized.put(expression, result);
+        return result;
+    }
+
+    private boolean shouldMemoize(final IParsedExpression expression) {
+        final Integer count = references.get(expression);
+        //values that are only available point in time can change for the same key
+        return count != null && count > 1 && !expression.isConstant() && !expression.shouldPersist();
+    }
+
+    /**
+     * Returns null for leaves and expressions that can not be rebuilt.
+     */
+    private static IParsedExpression[] getChildren(final IParsedExpression expression) {
+        final Class<?> type = expression.getClass();
+        if (isKnownBinaryOperation(type)) {
+            final BinaryOperation cExpression = (BinaryOperation) expression;
+            return new IParsedExpression[] { cExpression.getLeft(), cExpression.getRight() };
+        } else if (type == FunctionCall.class) {
+            return ((FunctionCall) expression).getParameters();
+        } else if (type == ConstantPreviousKeyExpression.class) {
+            return new IParsedExpression[] { ((ConstantPreviousKeyExpression) expression).getExpression() };
+        } else if (type == DynamicPreviousKeyExpression.class) {
+            final DynamicPreviousKeyExpression cExpression = (DynamicPreviousKeyExpression) expression;
+            return new IParsedExpression[] { cExpression.getExpression(), cExpression.getIndexExpression() };
+        } else if (type == VariableReference.class) {
+            return EMPTY_CHILDREN;
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isKnownBinaryOperation(final Class<?> type) {
+        //subclasses from the outside might carry additional behavior, thus only the known classes are rebuilt
+        return type == BinaryOperation.class || type == AndOperation.class || type == OrOperation.class
+                || type == NotOperation.class || type == CrossesAboveOperation.class
+                || type == CrossesBelowOperation.class || type == SimpleCrossesAboveOperation.class
+                || type == SimpleCrossesBelowOperation.class;
+    }
+
+    private static IParsedExpression replaceChildren(final IParsedExpression expression,
+            final IParsedExpression[] children, final IParsedExpression[] newChildren) {
+        boolean changed = false;
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != newChildren[i]) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return expression;
+        }
+        if (expression instanceof BinaryOperation) {
+            final BinaryOperation cExpression = (BinaryOperation) expression;
+            final BinaryOperation replaced = cExpression.setLeft(newChildren[0]).setRight(newChildren[1]);
+            if (cExpression.isSealed()) {
+                replaced.seal();
+            }
+            return replaced;
+        } else if (expression instanceof FunctionCall) {
+            final FunctionCall cExpression = (FunctionCall) expression;
+            return new FunctionCall(cExpression.getContext(), cExpression.getFunction(), newChildren);
+        } else if (expression instanceof ConstantPreviousKeyExpression) {
+            final ConstantPreviousKeyExpression cExpression = (ConstantPreviousKeyExpression) expression;
+            return new ConstantPreviousKeyExpression(newChildren[0], cExpression.getIndex(),
+                    cExpression.getPreviousKeyFunction());
+        } else if (expression instanceof DynamicPreviousKeyExpression) {
+            final DynamicPreviousKeyExpression cExpression = (DynamicPreviousKeyExpression) expression;
+            return new DynamicPreviousKeyExpression(newChildren[0], newChildren[1],
+                    cExpression.getPreviousKeyFunction());
+        } else {
+            throw new IllegalArgumentException("Unexpected expression with children: " + expression.getClass());
+        }
+    }
+
+    /**
+     * Children are compared by identity since they are already deduplicated. Functions, variables and previous key
+     * functions normally don't implement equals, thus they are effectively compared by identity as well.
+     */
+    @Immutable
+    private static final class StructuralKey {
+
+        private final Class<?> type;
+        private final String context;
+        private final Object[] discriminators;
+        private final IParsedExpression[] children;
+        private final int hashCode;
+
+        private StructuralKey(final IParsedExpression expression, final IParsedExpression[] children) {
+            this.type = expression.getClass();
+            this.context = expression.getContext();
+            this.discriminators = newDiscriminators(expression);
+            this.children = children;
+            int hash = type.hashCode();
+            hash = 31 * hash + Objects.hashCode(context);
+            for (int i = 0; i < discriminators.length; i++) {
+                hash = 31 * hash + Objects.hashCode(discriminators[i]);
+            }
+            for (int i = 0; i < children.length; i++) {
+                hash = 31 * hash + System.identityHashCode(children[i]);
+            }
+            this.hashCode = hash;
+        }
+
+        private static Object[] newDiscriminators(final IParsedExpression expression) {
+            if (expression instanceof CrossesAboveOperation) {
+                final CrossesAboveOperation cExpression = (CrossesAboveOperation) expression;
+                return new Object[] { cExpression.getLeftPreviousKeyFunction(),
+                        cExpression.getRightPreviousKeyFunction() };
+            } else if (expression instanceof CrossesBelowOperation) {
+                final CrossesBelowOperation cExpression = (CrossesBelowOperation) expression;
+                return new Object[] { cExpression.getLeftPreviousKeyFunction(),
+                        cExpression.getRightPreviousKeyFunction() };
+            } else if (expression instanceof SimpleCrossesAboveOperation) {
+                return new Object[] { ((SimpleCrossesAboveOperation) expression).getPreviousKeyFunction() };
+            } else if (expression instanceof SimpleCrossesBelowOperation) {
+                return new Object[] { ((SimpleCrossesBelowOperation) expression).getPreviousKeyFunction() };
+            } else if (expression instanceof BinaryOperation) {
+                //sealing only matters for parsing, the evaluation is the same
+                return new Object[] { ((BinaryOperation) expression).getOp() };
+            } else if (expression instanceof FunctionCall) {
+                return new Object[] { ((FunctionCall) expression).getFunction() };
+            } else if (expression instanceof ConstantPreviousKeyExpression) {
+                final ConstantPreviousKeyExpression cExpression = (ConstantPreviousKeyExpression) expression;
+                return new Object[] { cExpression.getPreviousKeyFunction(), cExpression.getIndex() };
+            } else if (expression instanceof DynamicPreviousKeyExpression) {
+                return new Object[] { ((DynamicPreviousKeyExpression) expression).getPreviousKeyFunction() };
+            } else if (expression instanceof VariableReference) {
+                return new Object[] { ((VariableReference) expression).getVariable() };
+            } else {
+                throw new IllegalArgumentException("Unexpected expression: " + expression.getClass());
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof StructuralKey)) {
+                return false;
+            }
+            final StructuralKey other = (StructuralKey) obj;
+            if (hashCode != other.hashCode || type != other.type || !Objects.equals(context, other.context)
+                    || discriminators.length != other.discriminators.length
+                    || children.length != other.children.length) {
+                return false;
+            }
+            for (int i = 0; i < discriminators.length; i++) {
+                if (!Objects.equals(discriminators[i], other.discriminators[i])) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != other.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return type.getSimpleName() + Arrays.toString(discriminators) + Arrays.toString(children);
+        }
+
+    }
+
+}
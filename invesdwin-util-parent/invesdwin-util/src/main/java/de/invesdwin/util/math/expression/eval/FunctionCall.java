@@ -48,6 +48,21 @@ public class FunctionCall implements IParsedExpression {
         return function.eval(parameters);
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        function.eval(fromKey, toKey, parameters, out);
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        final int length = toKey - fromKey;
+        final double[] values = new double[length];
+        function.eval(fromKey, toKey, parameters, values);
+        for (int i = 0; i < length; i++) {
+            out[i] = values[i] > 0;
+        }
+    }
+
     @Override
     public boolean evaluateBoolean(final FDate key) {
         return function.eval(key, parameters) > 0;
@@ -0,0 +1,76 @@
+package de.invesdwin.util.math.expression.eval;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.expression.IExpression;
+
+/**
+ * Keeps the short circuit semantics of AND, OR and IF for range evaluations: the expression is only evaluated for the
+ * keys where the mask matches. Consecutive matching keys are still evaluated as one range.
+ */
+@Immutable
+public final class MaskedRangeEvaluations {
+
+    private MaskedRangeEvaluations() {}
+
+    /**
+     * Writes the value of the expression for fromKey + index into out for every index where mask[index] == maskValue.
+     * Other indexes of out stay untouched.
+     */
+    public static void evaluateDoublesWhere(final IExpression expression, final int fromKey, final int toKey,
+            final boolean[] mask, final boolean maskValue, final double[] out) {
+        final int length = toKey - fromKey;
+        double[] buffer = null;
+        int i = 0;
+        while (i < length) {
+            if (mask[i] != maskValue) {
+                i++;
+                continue;
+            }
+            final int runStart = i;
+            while (i < length && mask[i] == maskValue) {
+                i++;
+            }
+            if (i - runStart == 1) {
+                out[runStart] = expression.evaluateDouble(fromKey + runStart);
+            } else {
+                if (buffer == null) {
+                    buffer = new double[length - runStart];
+                }
+                expression.evaluateDoubles(fromKey + runStart, fromKey + i, buffer);
+                System.arraycopy(buffer, 0, out, runStart, i - runStart);
+            }
+        }
+    }
+
+    /**
+     * Writes the value of the expression for fromKey + index into out for every index where mask[index] == maskValue.
+     * Other indexes of out stay untouched. Mask and out may be the same array.
+     */
+    public static void evaluateBooleansWhere(final IExpression expression, final int fromKey, final int toKey,
+            final boolean[] mask, final boolean maskValue, final boolean[] out) {
+        final int length = toKey - fromKey;
+        boolean[] buffer = null;
+        int i = 0;
+        while (i < length) {
+            if (mask[i] != maskValue) {
+                i++;
+                continue;
+            }
+            final int runStart = i;
+            while (i < length && mask[i] == maskValue) {
+                i++;
+            }
+            if (i - runStart == 1) {
+                out[runStart] = expression.evaluateBoolean(fromKey + runStart);
+            } else {
+                if (buffer == null) {
+                    buffer = new boolean[length - runStart];
+                }
+                expression.evaluateBooleans(fromKey + runStart, fromKey + i, buffer);
+                System.arraycopy(buffer, 0, out, runStart, i - runStart);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package de.invesdwin.util.math.expression.eval;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.math.expression.IExpression;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Wraps a subexpression that is shared between multiple parents so that it is only evaluated once per key. Only the
+ * last key is remembered, which is sufficient for the typical access pattern where all parents evaluate the same key
+ * one after another.
+ *
+ * This assumes that the value for a key does not change between evaluations, thus it should not be used for
+ * expressions that are evaluated repeatedly on an incomplete bar.
+ */
+@ThreadSafe
+public class MemoizedExpression implements IParsedExpression {
+
+    private final IParsedExpression delegate;
+    /**
+     * the entries are immutable, thus races between threads only cause a reevaluation
+     */
+    @GuardedBy("none for performance")
+    private DateDoubleEntry lastDateDouble;
+    @GuardedBy("none for performance")
+    private IntDoubleEntry lastIntDouble;
+    @GuardedBy("none for performance")
+    private DateBooleanEntry lastDateBoolean;
+    @GuardedBy("none for performance")
+    private IntBooleanEntry lastIntBoolean;
+
+    public MemoizedExpression(final IParsedExpression delegate) {
+        this.delegate = delegate;
+    }
+
+    public IParsedExpression getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        final DateDoubleEntry entry = lastDateDouble;
+        if (entry != null && entry.key.equals(key)) {
+            return entry.value;
+        }
+        final double value = delegate.evaluateDouble(key);
+        lastDateDouble = new DateDoubleEntry(key, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        final IntDoubleEntry entry = lastIntDouble;
+        if (entry != null && entry.key == key) {
+            return entry.value;
+        }
+        final double value = delegate.evaluateDouble(key);
+        lastIntDouble = new IntDoubleEntry(key, value);
+        return value;
+    }
+
+    @Override
+    public double evaluateDouble() {
+        return delegate.evaluateDouble();
+    }
+
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        delegate.evaluateDoubles(fromKey, toKey, out);
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        final DateBooleanEntry entry = lastDateBoolean;
+        if (entry != null && entry.key.equals(key)) {
+            return entry.value;
+        }
+        final boolean value = delegate.evaluateBoolean(key);
+        lastDateBoolean = new DateBooleanEntry(key, value);
+        return value;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        final IntBooleanEntry entry = lastIntBoolean;
+        if (entry != null && entry.key == key) {
+            return entry.value;
+        }
+        final boolean value = delegate.evaluateBoolean(key);
+        lastIntBoolean = new IntBooleanEntry(key, value);
+        return value;
+    }
+
+    @Override
+    public boolean evaluateBoolean() {
+        return delegate.evaluateBoolean();
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        delegate.evaluateBooleans(fromKey, toKey, out);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return delegate.isConstant();
+    }
+
+    @Override
+    public String getContext() {
+        return delegate.getContext();
+    }
+
+    @Override
+    public boolean shouldPersist() {
+        return delegate.shouldPersist();
+    }
+
+    @Override
+    public boolean shouldDraw() {
+        return delegate.shouldDraw();
+    }
+
+    @Override
+    public IExpression[] getChildren() {
+        return delegate.getChildren();
+    }
+
+    @Override
+    public IParsedExpression simplify() {
+        return delegate.simplify();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    @Immutable
+    private static final class DateDoubleEntry {
+        private final FDate key;
+        private final double value;
+
+        private DateDoubleEntry(final FDate key, final double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    @Immutable
+    private static final class IntDoubleEntry {
+        private final int key;
+        private final double value;
+
+        private IntDoubleEntry(final int key, final double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    @Immutable
+    private static final class DateBooleanEntry {
+        private final FDate key;
+        private final boolean value;
+
+        private DateBooleanEntry(final FDate key, final boolean value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    @Immutable
+    private static final class IntBooleanEntry {
+        private final int key;
+        private final boolean value;
+
+        private IntBooleanEntry(final int key, final boolean value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.invesdwin.util.math.expression.eval;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Calls the function directly with the evaluated parameter instead of going through the parameters array.
+ */
+@NotThreadSafe
+public final class UnaryFunctionCall extends FunctionCall {
+
+    private final AUnaryFunction function;
+    private final IParsedExpression a;
+
+    public UnaryFunctionCall(final String context, final AUnaryFunction function, final IParsedExpression a) {
+        super(context, function, a);
+        this.function = function;
+        this.a = a;
+    }
+
+    @Override
+    public double evaluateDouble(final FDate key) {
+        return function.eval(a.evaluateDouble(key));
+    }
+
+    @Override
+    public double evaluateDouble(final int key) {
+        return function.eval(a.evaluateDouble(key));
+    }
+
+    @Override
+    public boolean evaluateBoolean(final FDate key) {
+        return function.eval(a.evaluateDouble(key)) > 0;
+    }
+
+    @Override
+    public boolean evaluateBoolean(final int key) {
+        return function.eval(a.evaluateDouble(key)) > 0;
+    }
+
+}
@@ -61,6 +61,11 @@ public class VariableFunction extends AFunction {
         return variable.evaluateDouble();
     }
 
+    @Override
+    public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+        variable.evaluateDoubles(fromKey, toKey, out);
+    }
+
     @Override
     public boolean isNaturalFunction(final IExpression[] args) {
         return variable.isConstant();
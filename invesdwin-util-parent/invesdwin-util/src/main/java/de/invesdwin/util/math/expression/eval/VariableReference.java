@@ -27,6 +27,11 @@ public class VariableReference implements IParsedExpression {
         return variable.getValue(key);
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        variable.getValues(fromKey, toKey, out);
+    }
+
     @Override
     public double evaluateDouble() {
         return variable.getValue();
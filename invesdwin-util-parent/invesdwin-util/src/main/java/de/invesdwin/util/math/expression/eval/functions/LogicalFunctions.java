@@ -6,6 +6,7 @@ import de.invesdwin.util.math.expression.AFunction;
 import de.invesdwin.util.math.expression.ExpressionReturnType;
 import de.invesdwin.util.math.expression.IExpression;
 import de.invesdwin.util.math.expression.IFunctionParameterInfo;
+import de.invesdwin.util.math.expression.eval.MaskedRangeEvaluations;
 import de.invesdwin.util.time.fdate.FDate;
 
 @Immutable
@@ -53,6 +54,15 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            final boolean[] check = new boolean[toKey - fromKey];
+            args[0].evaluateBooleans(fromKey, toKey, check);
+            //only evaluate the branch that is taken for each key
+            MaskedRangeEvaluations.evaluateDoublesWhere(args[1], fromKey, toKey, check, true, out);
+            MaskedRangeEvaluations.evaluateDoublesWhere(args[2], fromKey, toKey, check, false, out);
+        }
+
         @Override
         public boolean isNaturalFunction(final IExpression[] args) {
             return true;
@@ -264,6 +274,19 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            args[0].evaluateDoubles(fromKey, toKey, out);
+            final int length = toKey - fromKey;
+            for (int i = 0; i < length; i++) {
+                if (Double.isNaN(out[i])) {
+                    out[i] = 1D;
+                } else {
+                    out[i] = 0D;
+                }
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
@@ -381,6 +404,20 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            final int length = toKey - fromKey;
+            final boolean[] a = new boolean[length];
+            args[0].evaluateBooleans(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                if (a[i]) {
+                    out[i] = 1D;
+                } else {
+                    out[i] = 0D;
+                }
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
@@ -498,6 +535,20 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            final int length = toKey - fromKey;
+            final boolean[] a = new boolean[length];
+            args[0].evaluateBooleans(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                if (a[i]) {
+                    out[i] = 0D;
+                } else {
+                    out[i] = 1D;
+                }
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
@@ -615,6 +666,20 @@ public final class LogicalFunctions {
             }
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            final int length = toKey - fromKey;
+            final boolean[] a = new boolean[length];
+            args[0].evaluateBooleans(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                if (a[i]) {
+                    out[i] = 0D;
+                } else {
+                    out[i] = 1D;
+                }
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
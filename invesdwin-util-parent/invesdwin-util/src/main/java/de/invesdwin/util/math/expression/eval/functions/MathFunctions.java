@@ -2337,6 +2337,15 @@ public final class MathFunctions {
             return -a;
         }
 
+        @Override
+        public void eval(final int fromKey, final int toKey, final IExpression[] args, final double[] out) {
+            args[0].evaluateDoubles(fromKey, toKey, out);
+            final int length = toKey - fromKey;
+            for (int i = 0; i < length; i++) {
+                out[i] = -out[i];
+            }
+        }
+
         @Override
         public ExpressionReturnType getReturnType() {
             return ExpressionReturnType.Boolean;
@@ -4,6 +4,7 @@ import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.math.expression.eval.ConstantExpression;
 import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.MaskedRangeEvaluations;
 import de.invesdwin.util.time.fdate.FDate;
 
 @Immutable
@@ -58,6 +59,27 @@ public class AndOperation extends BinaryOperation {
         return left.evaluateBoolean() && right.evaluateBoolean();
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int length = toKey - fromKey;
+        final boolean[] check = new boolean[length];
+        evaluateBooleans(fromKey, toKey, check);
+        for (int i = 0; i < length; i++) {
+            if (check[i]) {
+                out[i] = 1D;
+            } else {
+                out[i] = 0D;
+            }
+        }
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        left.evaluateBooleans(fromKey, toKey, out);
+        //short circuit: the right side only decides where the left side is true
+        MaskedRangeEvaluations.evaluateBooleansWhere(right, fromKey, toKey, out, true, out);
+    }
+
     @Override
     public boolean isConstant() {
         return false;
@@ -38,6 +38,10 @@ public class BinaryOperation implements IParsedExpression {
         return right;
     }
 
+    public BinaryOperation setRight(final IParsedExpression right) {
+        return newBinaryOperation(op, left, right);
+    }
+
     public void seal() {
         sealed = true;
     }
@@ -94,6 +98,29 @@ public class BinaryOperation implements IParsedExpression {
         return op.applyBoolean(a, b);
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int length = toKey - fromKey;
+        final double[] b = new double[length];
+        left.evaluateDoubles(fromKey, toKey, out);
+        right.evaluateDoubles(fromKey, toKey, b);
+        for (int i = 0; i < length; i++) {
+            out[i] = op.applyDouble(out[i], b[i]);
+        }
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        final int length = toKey - fromKey;
+        final double[] a = new double[length];
+        final double[] b = new double[length];
+        left.evaluateDoubles(fromKey, toKey, a);
+        right.evaluateDoubles(fromKey, toKey, b);
+        for (int i = 0; i < length; i++) {
+            out[i] = op.applyBoolean(a[i], b[i]);
+        }
+    }
+
     @Override
     public IParsedExpression simplify() {
         final IParsedExpression newLeft = left.simplify();
@@ -0,0 +1,1337 @@
+package de.invesdwin.util.math.expression.eval.operation;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.math.Doubles;
+import de.invesdwin.util.math.expression.eval.ConstantExpression;
+import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.operation.BinaryOperation.Op;
+import de.invesdwin.util.time.fdate.FDate;
+
+/**
+ * Specialized operations that are used by the ExpressionCompiler instead of the generic BinaryOperation. Each operator
+ * gets its own final class so that the operator is inlined instead of being dispatched via the Op enum on every
+ * evaluation. Constant operands are held as plain double fields so that they don't need to be evaluated per key. The
+ * results are the same as those of BinaryOperation.
+ */
+@Immutable
+public final class CompiledBinaryOperations {
+
+    private CompiledBinaryOperations() {
+    }
+
+    /**
+     * Returns null when there is no specialized operation for the given operator (e.g. AND/OR which already have their
+     * own classes).
+     */
+    public static BinaryOperation newCompiledBinaryOperation(final Op op, final IParsedExpression left,
+            final IParsedExpression right) {
+        if (left instanceof ConstantExpression && !right.isConstant()) {
+            final BinaryOperation constantLeft = newConstantLeftOperation(op, left, right);
+            if (constantLeft != null) {
+                return constantLeft;
+            }
+        } else if (right instanceof ConstantExpression && !left.isConstant()) {
+            final BinaryOperation constantRight = newConstantRightOperation(op, left, right);
+            if (constantRight != null) {
+                return constantRight;
+            }
+        }
+        switch (op) {
+        case ADD:
+            return new AddOperation(left, right);
+        case SUBTRACT:
+            return new SubtractOperation(left, right);
+        case MULTIPLY:
+            return new MultiplyOperation(left, right);
+        case DIVIDE:
+            return new DivideOperation(left, right);
+        case MODULO:
+            return new ModuloOperation(left, right);
+        case POWER:
+            return new PowerOperation(left, right);
+        case LT:
+            return new LtOperation(left, right);
+        case LT_EQ:
+            return new LtEqOperation(left, right);
+        case EQ:
+            return new EqOperation(left, right);
+        case GT_EQ:
+            return new GtEqOperation(left, right);
+        case GT:
+            return new GtOperation(left, right);
+        case NEQ:
+            return new NeqOperation(left, right);
+        default:
+            return null;
+        }
+    }
+
+    private static BinaryOperation newConstantLeftOperation(final Op op, final IParsedExpression left,
+            final IParsedExpression right) {
+        switch (op) {
+        case ADD:
+            return new AddConstantLeftOperation(left, right);
+        case MULTIPLY:
+            return new MultiplyConstantLeftOperation(left, right);
+        default:
+            return null;
+        }
+    }
+
+    private static BinaryOperation newConstantRightOperation(final Op op, final IParsedExpression left,
+            final IParsedExpression right) {
+        switch (op) {
+        case SUBTRACT:
+            return new SubtractConstantRightOperation(left, right);
+        case DIVIDE:
+            return new DivideConstantRightOperation(left, right);
+        case LT:
+            return new LtConstantRightOperation(left, right);
+        case LT_EQ:
+            return new LtEqConstantRightOperation(left, right);
+        case EQ:
+            return new EqConstantRightOperation(left, right);
+        case GT_EQ:
+            return new GtEqConstantRightOperation(left, right);
+        case GT:
+            return new GtConstantRightOperation(left, right);
+        case NEQ:
+            return new NeqConstantRightOperation(left, right);
+        default:
+            return null;
+        }
+    }
+
+    @Immutable
+    static final class AddOperation extends BinaryOperation {
+
+        AddOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.ADD, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a + b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            //same as ADD in BinaryOperation, the operands are still evaluated
+            left.evaluateDouble(key);
+            right.evaluateDouble(key);
+            return false;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a + b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            //same as ADD in BinaryOperation, the operands are still evaluated
+            left.evaluateDouble(key);
+            right.evaluateDouble(key);
+            return false;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] + b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] values = new double[length];
+            left.evaluateDoubles(fromKey, toKey, values);
+            right.evaluateDoubles(fromKey, toKey, values);
+            Arrays.fill(out, 0, length, false);
+        }
+    }
+
+    @Immutable
+    static final class AddConstantLeftOperation extends BinaryOperation {
+
+        private final double constant;
+
+        AddConstantLeftOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.ADD, left, right);
+            this.constant = left.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return constant + right.evaluateDouble(key);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            right.evaluateDouble(key);
+            return false;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return constant + right.evaluateDouble(key);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            right.evaluateDouble(key);
+            return false;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] b = out;
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = constant + b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] values = new double[length];
+            right.evaluateDoubles(fromKey, toKey, values);
+            Arrays.fill(out, 0, length, false);
+        }
+    }
+
+    @Immutable
+    static final class SubtractOperation extends BinaryOperation {
+
+        SubtractOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.SUBTRACT, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a - b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a - b > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a - b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a - b > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] - b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] - b[i] > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class SubtractConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        SubtractConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.SUBTRACT, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return left.evaluateDouble(key) - constant;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return left.evaluateDouble(key) - constant > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return left.evaluateDouble(key) - constant;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return left.evaluateDouble(key) - constant > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] - constant;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] - constant > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class MultiplyOperation extends BinaryOperation {
+
+        MultiplyOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.MULTIPLY, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a * b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a * b > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a * b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a * b > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] * b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] * b[i] > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class MultiplyConstantLeftOperation extends BinaryOperation {
+
+        private final double constant;
+
+        MultiplyConstantLeftOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.MULTIPLY, left, right);
+            this.constant = left.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return constant * right.evaluateDouble(key);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return constant * right.evaluateDouble(key) > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return constant * right.evaluateDouble(key);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return constant * right.evaluateDouble(key) > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] b = out;
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = constant * b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] b = new double[length];
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = constant * b[i] > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class DivideOperation extends BinaryOperation {
+
+        DivideOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.DIVIDE, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.divide(a, b);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.divide(a, b) > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.divide(a, b);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.divide(a, b) > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.divide(a[i], b[i]);
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.divide(a[i], b[i]) > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class DivideConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        DivideConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.DIVIDE, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.divide(left.evaluateDouble(key), constant);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.divide(left.evaluateDouble(key), constant) > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.divide(left.evaluateDouble(key), constant);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.divide(left.evaluateDouble(key), constant) > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.divide(a[i], constant);
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.divide(a[i], constant) > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class ModuloOperation extends BinaryOperation {
+
+        ModuloOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.MODULO, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a % b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a % b > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a % b;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return a % b > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] % b[i];
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = a[i] % b[i] > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class PowerOperation extends BinaryOperation {
+
+        PowerOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.POWER, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Math.pow(a, b);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Math.pow(a, b) > 0D;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Math.pow(a, b);
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Math.pow(a, b) > 0D;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Math.pow(a[i], b[i]);
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Math.pow(a[i], b[i]) > 0D;
+            }
+        }
+    }
+
+    @Immutable
+    static final class LtOperation extends BinaryOperation {
+
+        LtOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.LT, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) < 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) < 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) < 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) < 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) < 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) < 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class LtConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        LtConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.LT, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) < 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) < 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) < 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) < 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) < 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) < 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class LtEqOperation extends BinaryOperation {
+
+        LtEqOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.LT_EQ, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) <= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) <= 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) <= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) <= 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) <= 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) <= 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class LtEqConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        LtEqConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.LT_EQ, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) <= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) <= 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) <= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) <= 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) <= 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) <= 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class EqOperation extends BinaryOperation {
+
+        EqOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.EQ, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) == 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) == 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) == 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) == 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) == 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) == 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class EqConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        EqConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.EQ, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) == 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) == 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) == 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) == 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) == 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) == 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class GtEqOperation extends BinaryOperation {
+
+        GtEqOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.GT_EQ, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) >= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) >= 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) >= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) >= 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) >= 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) >= 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class GtEqConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        GtEqConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.GT_EQ, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) >= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) >= 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) >= 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) >= 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) >= 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) >= 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class GtOperation extends BinaryOperation {
+
+        GtOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.GT, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) > 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) > 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) > 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) > 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) > 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) > 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class GtConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        GtConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.GT, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) > 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) > 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) > 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) > 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) > 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) > 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class NeqOperation extends BinaryOperation {
+
+        NeqOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.NEQ, left, right);
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) != 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) != 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) != 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            final double a = left.evaluateDouble(key);
+            final double b = right.evaluateDouble(key);
+            return Doubles.compare(a, b) != 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) != 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            right.evaluateDoubles(fromKey, toKey, b);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], b[i]) != 0;
+            }
+        }
+    }
+
+    @Immutable
+    static final class NeqConstantRightOperation extends BinaryOperation {
+
+        private final double constant;
+
+        NeqConstantRightOperation(final IParsedExpression left, final IParsedExpression right) {
+            super(Op.NEQ, left, right);
+            this.constant = right.evaluateDouble();
+        }
+
+        @Override
+        public double evaluateDouble(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) != 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final FDate key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) != 0;
+        }
+
+        @Override
+        public double evaluateDouble(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) != 0 ? 1D : 0D;
+        }
+
+        @Override
+        public boolean evaluateBoolean(final int key) {
+            return Doubles.compare(left.evaluateDouble(key), constant) != 0;
+        }
+
+        @Override
+        public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = out;
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) != 0 ? 1D : 0D;
+            }
+        }
+
+        @Override
+        public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+            final int length = toKey - fromKey;
+            final double[] a = new double[length];
+            left.evaluateDoubles(fromKey, toKey, a);
+            for (int i = 0; i < length; i++) {
+                out[i] = Doubles.compare(a[i], constant) != 0;
+            }
+        }
+    }
+
+}
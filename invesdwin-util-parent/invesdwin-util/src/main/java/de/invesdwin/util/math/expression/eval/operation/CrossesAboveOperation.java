@@ -21,6 +21,14 @@ public class CrossesAboveOperation extends BinaryOperation {
         this.rightPreviousKeyFunction = rightPreviousKeyFunction;
     }
 
+    public IPreviousKeyFunction getLeftPreviousKeyFunction() {
+        return leftPreviousKeyFunction;
+    }
+
+    public IPreviousKeyFunction getRightPreviousKeyFunction() {
+        return rightPreviousKeyFunction;
+    }
+
     @Override
     public double evaluateDouble(final FDate key) {
         //crosses above => left was below but went above right
@@ -115,6 +123,48 @@ public class CrossesAboveOperation extends BinaryOperation {
         throw new UnsupportedOperationException("crosses below operation is only supported with time or int index");
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int length = toKey - fromKey;
+        final boolean[] check = new boolean[length];
+        evaluateBooleans(fromKey, toKey, check);
+        for (int i = 0; i < length; i++) {
+            if (check[i]) {
+                out[i] = 1D;
+            } else {
+                out[i] = 0D;
+            }
+        }
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        final int length = toKey - fromKey;
+        final double[] leftValues0 = new double[length];
+        left.evaluateDoubles(fromKey, toKey, leftValues0);
+        final double[] rightValues0 = new double[length];
+        right.evaluateDoubles(fromKey, toKey, rightValues0);
+        //same as the scalar evaluation, previous values are only looked up where left is above right
+        final int[] candidates = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            out[i] = false;
+            if (leftValues0[i] > rightValues0[i]) {
+                candidates[count] = i;
+                count++;
+            }
+        }
+        final double[] leftValues1 = new double[count];
+        leftPreviousKeyFunction.evaluateDoubles(left,
+                leftPreviousKeyFunction.getPreviousKeys(fromKey, candidates, count, 1), leftValues1);
+        final double[] rightValues1 = new double[count];
+        rightPreviousKeyFunction.evaluateDoubles(right,
+                rightPreviousKeyFunction.getPreviousKeys(fromKey, candidates, count, 1), rightValues1);
+        for (int c = 0; c < count; c++) {
+            out[candidates[c]] = leftValues1[c] <= rightValues1[c];
+        }
+    }
+
     @Override
     public boolean isConstant() {
         return false;
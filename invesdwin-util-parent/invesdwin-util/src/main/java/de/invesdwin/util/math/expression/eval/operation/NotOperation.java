@@ -60,6 +60,29 @@ public class NotOperation extends BinaryOperation {
         return !check;
     }
 
+    @Override
+    public void evaluateDoubles(final int fromKey, final int toKey, final double[] out) {
+        final int length = toKey - fromKey;
+        final boolean[] check = new boolean[length];
+        right.evaluateBooleans(fromKey, toKey, check);
+        for (int i = 0; i < length; i++) {
+            if (check[i]) {
+                out[i] = 0D;
+            } else {
+                out[i] = 1D;
+            }
+        }
+    }
+
+    @Override
+    public void evaluateBooleans(final int fromKey, final int toKey, final boolean[] out) {
+        right.evaluateBooleans(fromKey, toKey, out);
+        final int length = toKey - fromKey;
+        for (int i = 0; i < length; i++) {
+            out[i] = !out[i];
+        }
+    }
+
     @Override
     public boolean isConstant() {
         return false;
@@ -9,6 +9,15 @@ public interface IVariable {
 
     double getValue(int key);
 
+    /**
+     * Writes the values for all int keys from fromKey (inclusive) to toKey (exclusive) into out starting at index 0.
+     */
+    default void getValues(final int fromKey, final int toKey, final double[] out) {
+        for (int key = fromKey; key < toKey; key++) {
+            out[key - fromKey] = getValue(key);
+        }
+    }
+
     double getValue();
 
     String getExpressionName();
@@ -9,6 +9,11 @@ import it.unimi.dsi.util.XoRoShiRo128PlusRandomGenerator;
 @Immutable
 public final class RandomGenerators {
 
+    /**
+     * The golden ratio as used by SplitMix64 to advance between streams.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
     private static final ThreadLocal<RandomGenerator> THREAD_LOCAL = new ThreadLocal<RandomGenerator>() {
         @Override
         protected RandomGenerator initialValue() {
@@ -26,4 +31,25 @@ public final class RandomGenerators {
         return new XoRoShiRo128PlusRandomGenerator();
     }
 
+    public static RandomGenerator newDefaultRandom(final long seed) {
+        return new XoRoShiRo128PlusRandomGenerator(seed);
+    }
+
+    /**
+     * Returns a generator for the given stream of a reproducible family of random generators. The seed of each stream
+     * is derived via the SplitMix64 mixing function, thus neighbouring stream indexes result in uncorrelated sequences.
+     * This allows parallel tasks to each use their own generator while the results stay independent of the
+     * scheduling.
+     */
+    public static RandomGenerator newDefaultRandomStream(final long seed, final long stream) {
+        return newDefaultRandom(mixSeed(seed + (stream + 1) * GOLDEN_GAMMA));
+    }
+
+    private static long mixSeed(final long seed) {
+        long z = seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
 }
@@ -0,0 +1,93 @@
+package de.invesdwin.util.time;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * A low resolution clock that is updated by a single daemon thread. Reading it is only a volatile field access instead
+ * of a call to System.currentTimeMillis() or System.nanoTime(), which helps in hot loops that only need to know
+ * whether some time has passed. The values lag behind the real clock by up to the resolution (plus scheduling delays
+ * of the clock thread), so this should not be used where precise timestamps are needed.
+ *
+ * The clock thread is started on first use. The epoch is derived from the elapsed nanoTime instead of counting ticks,
+ * thus delayed ticks do not make it drift behind the real time (it skips epochs instead).
+ */
+@ThreadSafe
+public final class CoarseClock {
+
+    public static final Duration RESOLUTION = new Duration(10, FTimeUnit.MILLISECONDS);
+    private static final long RESOLUTION_MILLIS = RESOLUTION.longValue(FTimeUnit.MILLISECONDS);
+    private static final long RESOLUTION_NANOS = RESOLUTION.longValue(FTimeUnit.NANOSECONDS);
+    private static final long START_NANOS = System.nanoTime();
+
+    private static volatile long epoch;
+    private static volatile long currentTimeMillis = System.currentTimeMillis();
+    private static volatile long nanoTime = System.nanoTime();
+
+    static {
+        final Thread thread = new Thread(CoarseClock.class.getSimpleName()) {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * Never exits, otherwise the epoch would stand still and checks based on it would never fire again.
+     */
+    private static void tick() {
+        while (true) {
+            try {
+                FTimeUnit.MILLISECONDS.sleep(RESOLUTION_MILLIS);
+            } catch (final InterruptedException e) {
+                //the clock is shared by everyone, thus it can not be stopped
+                Thread.interrupted();
+            }
+            currentTimeMillis = System.currentTimeMillis();
+            final long nanoTimeCopy = System.nanoTime();
+            nanoTime = nanoTimeCopy;
+            //written last so that readers of the epoch also see the updated time
+            epoch = (nanoTimeCopy - START_NANOS) / RESOLUTION_NANOS;
+        }
+    }
+
+    /**
+     * The number of RESOLUTION intervals that elapsed since the clock was started, as of the last tick.
+     */
+    public static long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * The number of epochs that pass in the given duration, at least 1.
+     */
+    public static long getEpochs(final Duration duration) {
+        return Math.max(1, duration.longValue(FTimeUnit.NANOSECONDS) / RESOLUTION_NANOS);
+    }
+
+    public static long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    public static long nanoTime() {
+        return nanoTime;
+    }
+
+    public static FDate newFDate() {
+        return new FDate(currentTimeMillis);
+    }
+
+    public static Instant newInstant() {
+        return new Instant(nanoTime, FTimeUnit.NANOSECONDS);
+    }
+
+}
@@ -7,6 +7,7 @@ import javax.annotation.concurrent.Immutable;
 
 import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.lang.Strings;
+import de.invesdwin.util.time.fdate.internal.ZoneOffsetTransitions;
 
 @Immutable
 public final class TimeZones {
@@ -102,7 +103,7 @@ public final class TimeZones {
     }
 
     public static int getOffsetSeconds(final ZoneId timeZone, final long millis) {
-        return timeZone.getRules().getOffset(java.time.Instant.ofEpochMilli(millis)).getTotalSeconds();
+        return ZoneOffsetTransitions.valueOf(timeZone).getOffsetSeconds(millis);
     }
 
 }
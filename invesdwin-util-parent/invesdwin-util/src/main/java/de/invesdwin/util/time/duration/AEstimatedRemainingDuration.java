@@ -47,7 +47,8 @@ public abstract class AEstimatedRemainingDuration extends AValueObject {
     }
 
     private Duration getEstimatedFullDuration(final Percent progressPercent) {
-        final FDate curTime = new FDate();
+        //estimations are only updated once per second, thus a coarse time is sufficient
+        final FDate curTime = FDate.nowCoarse();
         if (new Duration(lastUpdate, curTime).isGreaterThan(Duration.ONE_SECOND)) {
             lastUpdate = curTime;
             final Duration elapsedDuration = getElapsedDuration();
@@ -1,5 +1,6 @@
 package de.invesdwin.util.time.duration;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -43,7 +44,14 @@ public class Duration extends Number implements Comparable<Object> {
     public static final Duration ONE_MONTH = new Duration(1, FTimeUnit.MONTHS);
     public static final Duration ONE_YEAR = new Duration(1, FTimeUnit.YEARS);
 
+    /**
+     * 8 bytes for the duration and 1 byte for the time unit.
+     */
+    public static final int BYTES = Long.BYTES + Byte.BYTES;
+
     private static final long serialVersionUID = 1L;
+    private static final FTimeUnit[] TIME_UNITS = FTimeUnit.values();
+    private static final byte NULL_TIME_UNIT = -1;
 
     private final long duration;
     private final FTimeUnit timeUnit;
@@ -640,4 +648,34 @@ public class Duration extends Number implements Comparable<Object> {
         return duration + " " + timeUnit;
     }
 
+    public static void putDuration(final ByteBuffer buffer, final Duration duration) {
+        if (duration == null) {
+            buffer.putLong(0L);
+            buffer.put(NULL_TIME_UNIT);
+        } else {
+            buffer.putLong(duration.duration);
+            buffer.put((byte) duration.timeUnit.ordinal());
+        }
+    }
+
+    public static Duration extractDuration(final ByteBuffer buffer, final int index) {
+        final long duration = buffer.getLong(index);
+        final byte timeUnit = buffer.get(index + Long.BYTES);
+        return extractDuration(duration, timeUnit);
+    }
+
+    public static Duration extractDuration(final ByteBuffer buffer) {
+        final long duration = buffer.getLong();
+        final byte timeUnit = buffer.get();
+        return extractDuration(duration, timeUnit);
+    }
+
+    public static Duration extractDuration(final long duration, final byte timeUnit) {
+        if (timeUnit == NULL_TIME_UNIT) {
+            return null;
+        } else {
+            return new Duration(duration, TIME_UNITS[timeUnit]);
+        }
+    }
+
 }
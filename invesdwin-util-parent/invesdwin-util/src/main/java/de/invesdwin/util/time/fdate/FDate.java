@@ -16,7 +16,6 @@ import javax.persistence.Transient;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
-import org.joda.time.DurationFieldType;
 import org.joda.time.LocalDateTime;
 import org.joda.time.MutableDateTime;
 import org.joda.time.ReadableDateTime;
@@ -31,8 +30,11 @@ import de.invesdwin.util.lang.ADelegateComparator;
 import de.invesdwin.util.lang.Strings;
 import de.invesdwin.util.math.Integers;
 import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.time.CoarseClock;
 import de.invesdwin.util.time.TimeZones;
 import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.internal.FDateCalendar;
+import de.invesdwin.util.time.fdate.internal.WorkdaysCalendar;
 
 /**
  * FDate stands for an immutable Fast Date implementation by utilizing heavy caching.
@@ -286,13 +288,12 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate setFWeekTime(final FWeekTime weekTime) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.set(FDateField.Weekday.jodaTimeValue(), weekTime.getWeekday());
-        delegate.set(FDateField.Hour.jodaTimeValue(), weekTime.getHour());
-        delegate.set(FDateField.Minute.jodaTimeValue(), weekTime.getMinute());
-        delegate.set(FDateField.Second.jodaTimeValue(), weekTime.getSecond());
-        delegate.set(FDateField.Millisecond.jodaTimeValue(), weekTime.getMillisecond());
-        final FDate modified = new FDate(delegate);
+        long modifiedMillis = FDateCalendar.set(millis, FDateField.Weekday, weekTime.getWeekday());
+        modifiedMillis = FDateCalendar.set(modifiedMillis, FDateField.Hour, weekTime.getHour());
+        modifiedMillis = FDateCalendar.set(modifiedMillis, FDateField.Minute, weekTime.getMinute());
+        modifiedMillis = FDateCalendar.set(modifiedMillis, FDateField.Second, weekTime.getSecond());
+        modifiedMillis = FDateCalendar.set(modifiedMillis, FDateField.Millisecond, weekTime.getMillisecond());
+        final FDate modified = new FDate(modifiedMillis);
         if (!FDates.isSameJulianDay(modified, this) && modified.isAfter(this)) {
             return modified.addWeeks(-1);
         } else {
@@ -387,8 +388,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public int get(final FDateField field) {
-        final MutableDateTime delegate = newMutableDateTime();
-        return delegate.get(field.jodaTimeValue());
+        return FDateCalendar.get(millis, field);
     }
 
     public FDate set(final FDateField field, final int value, final ZoneId timeZone) {
@@ -396,9 +396,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate set(final FDateField field, final int value) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.set(field.jodaTimeValue(), value);
-        return new FDate(delegate);
+        return new FDate(FDateCalendar.set(millis, field, value));
     }
 
     public FDate add(final FTimeUnit field, final int value, final ZoneId timeZone) {
@@ -409,29 +407,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
         if (amount == 0) {
             return this;
         }
-        final MutableDateTime delegate = newMutableDateTime();
-        final int usedAmount;
-        final DurationFieldType usedField;
-        switch (field) {
-        case MILLENIA:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_MILLENIUM;
-            break;
-        case CENTURIES:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_CENTURY;
-            break;
-        case DECADES:
-            usedField = FTimeUnit.YEARS.jodaTimeValue();
-            usedAmount = amount * FTimeUnit.YEARS_IN_DECADE;
-            break;
-        default:
-            usedField = field.jodaTimeValue();
-            usedAmount = amount;
-            break;
-        }
-        delegate.add(usedField, usedAmount);
-        return new FDate(delegate);
+        return new FDate(FDateCalendar.add(millis, field, amount));
     }
 
     public FDate add(final Duration duration) {
@@ -467,10 +443,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate truncate(final FDateField field) {
-        final MutableDateTime delegate = newMutableDateTime();
-        delegate.setRounding(field.jodaTimeValue().getField(delegate.getChronology()));
-        final FDate truncated = new FDate(delegate);
-        return truncated;
+        return new FDate(FDateCalendar.truncate(millis, field));
     }
 
     public FDate truncate(final FTimeUnit timeUnit, final ZoneId timeZone) {
@@ -761,6 +734,13 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
         return new FDate();
     }
 
+    /**
+     * Cheaper than now() in hot paths, but only as precise as CoarseClock.RESOLUTION.
+     */
+    public static FDate nowCoarse() {
+        return CoarseClock.newFDate();
+    }
+
     public static FDate today(final ZoneId timeZone) {
         return now().withoutTime(timeZone);
     }
@@ -800,12 +780,14 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public boolean equalsNotNullSafe(final FDate obj) {
-        return millis == obj.millis;
+        return obj == this || millis == obj.millis;
     }
 
     @Override
     public boolean equals(final Object obj) {
-        if (obj instanceof FDate) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof FDate) {
             final FDate cObj = (FDate) obj;
             return equalsNotNullSafe(cObj);
         } else {
@@ -853,7 +835,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     private MutableDateTime newMutableDateTime() {
-        return new MutableDateTime(millis, FDates.getDefaultChronology());
+        return FDateCalendar.newMutableDateTime(millis);
     }
 
     public boolean isBefore(final FDate other) {
@@ -916,7 +898,7 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
 
     public FDate getFirstWorkdayOfMonth(final FHolidayManager holidayManager) {
         FDate firstWorkdayDay = withoutTime().setDay(1);
-        while (firstWorkdayDay.getFWeekday().isWeekend() || firstWorkdayDay.isHoliday(holidayManager)) {
+        while (!firstWorkdayDay.isWorkday(holidayManager)) {
             firstWorkdayDay = firstWorkdayDay.addDays(1);
         }
         return firstWorkdayDay;
@@ -938,27 +920,25 @@ public class FDate implements IDate, Serializable, Cloneable, Comparable<Object>
     }
 
     public FDate addWorkdays(final int workdays, final FHolidayManager holidayManager) {
-        int workdaysToShift = Integers.abs(workdays);
-        if (getFWeekday().isWeekend() || isHoliday(holidayManager)) {
-            if (workdaysToShift > 1) {
-                workdaysToShift--;
-            }
-        }
-        final int shiftUnit;
-        if (workdays >= 0) {
-            shiftUnit = 1;
+        final WorkdaysCalendar workdaysCalendar;
+        if (holidayManager == null) {
+            workdaysCalendar = WorkdaysCalendar.WEEKENDS_ONLY;
         } else {
-            shiftUnit = -1;
+            workdaysCalendar = holidayManager.getWorkdaysCalendar();
         }
-        int workdaysShifted = 0;
-        FDate cur = this;
-        while (workdaysShifted < workdaysToShift) {
-            if (!cur.getFWeekday().isWeekend() && !cur.isHoliday(holidayManager)) {
-                workdaysShifted++;
-            }
-            cur = cur.addDays(shiftUnit);
+        final long days = workdaysCalendar.getDaysToShiftWorkdays(WorkdaysCalendar.getEpochDay(this), workdays);
+        return addDays(Integers.checkedCast(days));
+    }
+
+    public boolean isWorkday(final FHolidayManager holidayManager) {
+        if (holidayManager == null) {
+            return !getFWeekday().isWeekend();
         }
-        return cur;
+        return holidayManager.isWorkday(this);
+    }
+
+    public boolean isWorkday(final FHolidayManager holidayManager, final ZoneId timeZone) {
+        return revertTimeZoneOffset(timeZone).isWorkday(holidayManager);
     }
 
     public boolean isBetween(final FDate min, final FDate max) {
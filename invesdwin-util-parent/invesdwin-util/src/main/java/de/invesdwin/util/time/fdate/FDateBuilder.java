@@ -116,11 +116,11 @@ public class FDateBuilder {
         final DateTime dateTime = new DateTime(year, monthOfYear, dayOfMonth, hourOfDay, minuteOfHour, secondOfMinute,
                 millisOfSecond, zone);
         if (weekday == null) {
-            return new FDate(dateTime);
+            return FDates.getInterner().intern(dateTime.getMillis());
         } else {
             final MutableDateTime mutableDateTime = dateTime.toMutableDateTime();
             mutableDateTime.set(FDateField.Weekday.jodaTimeValue(), weekday.jodaTimeValue());
-            return new FDate(mutableDateTime);
+            return FDates.getInterner().intern(mutableDateTime.getMillis());
         }
     }
 
@@ -0,0 +1,270 @@
+package de.invesdwin.util.time.fdate;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.invesdwin.util.bean.tuple.Pair;
+
+/**
+ * A sorted column of time keys that stores raw millis in a long[] and only materializes FDate instances on demand.
+ * This needs about a fourth of the memory of an FDate[] and makes binary searches cache friendly.
+ *
+ * Slicing via subColumn() does not copy the underlying array. Keys are expected to be sorted ascending, which is not
+ * validated for performance reasons.
+ */
+@Immutable
+public final class FDateColumn {
+
+    public static final FDateColumn EMPTY = new FDateColumn(new long[0], 0, 0);
+
+    private final long[] millis;
+    private final int offset;
+    private final int length;
+
+    private FDateColumn(final long[] millis, final int offset, final int length) {
+        this.millis = millis;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public long getMillis(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index [" + index + "] out of bounds for size [" + length + "]");
+        }
+        return millis[offset + index];
+    }
+
+    public FDate get(final int index) {
+        return new FDate(getMillis(index));
+    }
+
+    public FDate getFirst() {
+        if (length == 0) {
+            return null;
+        }
+        return get(0);
+    }
+
+    public FDate getLast() {
+        if (length == 0) {
+            return null;
+        }
+        return get(length - 1);
+    }
+
+    /**
+     * Same semantics as FDates.bisect(FDate[], FDate): returns the index of the last key that is before or equal to
+     * the given key.
+     */
+    public int bisect(final long skippingKeysAbove) {
+        return FDates.bisect(millis, offset, offset + length, skippingKeysAbove) - offset;
+    }
+
+    public int bisect(final FDate skippingKeysAbove) {
+        return bisect(skippingKeysAbove.millisValue());
+    }
+
+    /**
+     * Returns the index of the first key that is after or equal to the given key, or size() if there is none.
+     */
+    public int lowerBound(final long key) {
+        int lo = offset;
+        int hi = offset + length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (millis[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - offset;
+    }
+
+    /**
+     * Returns the index of the first key that is after the given key, or size() if there is none.
+     */
+    public int upperBound(final long key) {
+        int lo = offset;
+        int hi = offset + length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (millis[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - offset;
+    }
+
+    /**
+     * Same semantics as FDates.mapIndexes(FDate[], FDate[]).
+     */
+    public int[] mapIndexes(final FDateColumn toKeys) {
+        return FDates.mapIndexes(millis, offset, length, toKeys.millis, toKeys.offset, toKeys.length);
+    }
+
+    /**
+     * Zero copy slice of the given index range.
+     */
+    public FDateColumn subColumn(final int fromIndex, final int toIndexExclusive) {
+        if (fromIndex < 0 || toIndexExclusive > length || fromIndex > toIndexExclusive) {
+            throw new IndexOutOfBoundsException("fromIndex [" + fromIndex + "] toIndexExclusive [" + toIndexExclusive
+                    + "] out of bounds for size [" + length + "]");
+        }
+        if (fromIndex == 0 && toIndexExclusive == length) {
+            return this;
+        }
+        return new FDateColumn(millis, offset + fromIndex, toIndexExclusive - fromIndex);
+    }
+
+    /**
+     * Zero copy slice of the keys between from and to (both inclusive). Null means unbounded.
+     */
+    public FDateColumn subColumn(final FDate from, final FDate to) {
+        final int fromIndex;
+        if (from == null) {
+            fromIndex = 0;
+        } else {
+            fromIndex = lowerBound(from.millisValue());
+        }
+        final int toIndexExclusive;
+        if (to == null) {
+            toIndexExclusive = length;
+        } else {
+            toIndexExclusive = upperBound(to.millisValue());
+        }
+        if (fromIndex >= toIndexExclusive) {
+            return EMPTY;
+        }
+        return subColumn(fromIndex, toIndexExclusive);
+    }
+
+    /**
+     * Inner merge join of two sorted columns. Returns the indexes of the matching keys in this column (first) and in
+     * the other column (second). Duplicate keys are matched pairwise in order.
+     */
+    public Pair<int[], int[]> mergeJoin(final FDateColumn other) {
+        final int maxMatches = Math.min(length, other.length);
+        int[] thisIndexes = new int[maxMatches];
+        int[] otherIndexes = new int[maxMatches];
+        int matches = 0;
+        int thisIndex = 0;
+        int otherIndex = 0;
+        while (thisIndex < length && otherIndex < other.length) {
+            final long thisKey = millis[offset + thisIndex];
+            final long otherKey = other.millis[other.offset + otherIndex];
+            if (thisKey < otherKey) {
+                thisIndex++;
+            } else if (thisKey > otherKey) {
+                otherIndex++;
+            } else {
+                thisIndexes[matches] = thisIndex;
+                otherIndexes[matches] = otherIndex;
+                matches++;
+                thisIndex++;
+                otherIndex++;
+            }
+        }
+        if (matches < maxMatches) {
+            thisIndexes = Arrays.copyOf(thisIndexes, matches);
+            otherIndexes = Arrays.copyOf(otherIndexes, matches);
+        }
+        return Pair.of(thisIndexes, otherIndexes);
+    }
+
+    /**
+     * Sorted union of both columns without duplicates.
+     */
+    public FDateColumn merge(final FDateColumn other) {
+        final long[] merged = new long[length + other.length];
+        int count = 0;
+        int thisIndex = 0;
+        int otherIndex = 0;
+        while (thisIndex < length || otherIndex < other.length) {
+            final long next;
+            if (otherIndex >= other.length) {
+                next = millis[offset + thisIndex++];
+            } else if (thisIndex >= length) {
+                next = other.millis[other.offset + otherIndex++];
+            } else {
+                final long thisKey = millis[offset + thisIndex];
+                final long otherKey = other.millis[other.offset + otherIndex];
+                if (thisKey <= otherKey) {
+                    next = thisKey;
+                    thisIndex++;
+                } else {
+                    next = otherKey;
+                    otherIndex++;
+                }
+            }
+            if (count == 0 || merged[count - 1] != next) {
+                merged[count++] = next;
+            }
+        }
+        return new FDateColumn(merged, 0, count);
+    }
+
+    public long[] toMillisArray() {
+        return Arrays.copyOfRange(millis, offset, offset + length);
+    }
+
+    public FDate[] toArray() {
+        final FDate[] array = new FDate[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = new FDate(millis[offset + i]);
+        }
+        return array;
+    }
+
+    /**
+     * Wraps the given array without copying it, thus the array should not be modified afterwards.
+     */
+    public static FDateColumn wrap(final long[] millis) {
+        if (millis.length == 0) {
+            return EMPTY;
+        }
+        return new FDateColumn(millis, 0, millis.length);
+    }
+
+    public static FDateColumn valueOf(final FDate[] keys) {
+        if (keys.length == 0) {
+            return EMPTY;
+        }
+        final long[] millis = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            millis[i] = keys[i].millisValue();
+        }
+        return new FDateColumn(millis, 0, millis.length);
+    }
+
+    public static FDateColumn valueOf(final Collection<FDate> keys) {
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        final long[] millis = new long[keys.size()];
+        int i = 0;
+        for (final FDate key : keys) {
+            millis[i] = key.millisValue();
+            i++;
+        }
+        return new FDateColumn(millis, 0, millis.length);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + length + ", first=" + getFirst() + ", last=" + getLast() + "]";
+    }
+
+}
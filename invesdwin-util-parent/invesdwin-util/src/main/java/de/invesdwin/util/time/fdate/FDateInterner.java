@@ -0,0 +1,159 @@
+package de.invesdwin.util.time.fdate;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.math.Integers;
+
+/**
+ * A bounded, lock free flyweight pool for FDate instances of recurring timestamps (e.g. bar times in historical
+ * caches). It is a direct mapped cache where newer instances replace older ones on slot collisions, thus it never
+ * grows beyond its capacity.
+ *
+ * Only timestamps that are aligned to the granularity are interned (e.g. whole minutes for minute bars), other
+ * timestamps (e.g. ticks) are just instantiated since they seldomly repeat.
+ *
+ * Races between threads are benign since FDate is immutable and a lost update only means a duplicate instance.
+ *
+ * Interned instances are shared between unrelated callers, thus they ignore the mutable extension (e.g. historical
+ * caches attach their IndexedFDate to a key) which would otherwise leak between caches.
+ */
+@ThreadSafe
+public class FDateInterner {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Does not intern anything.
+     */
+    public static final FDateInterner DISABLED = new FDateInterner(1, FTimeUnit.MILLISECONDS) {
+        @Override
+        public FDate intern(final long millis) {
+            return new FDate(millis);
+        }
+
+        @Override
+        public FDate intern(final FDate date) {
+            return date;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    private final long granularityMillis;
+    private final int mask;
+    @GuardedBy("none for performance")
+    private final FDate[] slots;
+
+    public FDateInterner(final int capacity, final FTimeUnit granularity) {
+        this(capacity, granularity.toMillis(1));
+    }
+
+    public FDateInterner(final int capacity, final long granularityMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive: " + capacity);
+        }
+        if (granularityMillis <= 0) {
+            throw new IllegalArgumentException("granularityMillis should be positive: " + granularityMillis);
+        }
+        this.granularityMillis = granularityMillis;
+        final int powerOfTwoCapacity = Integers.checkedCast(Long.highestOneBit(capacity * 2L - 1));
+        this.mask = powerOfTwoCapacity - 1;
+        this.slots = new FDate[powerOfTwoCapacity];
+    }
+
+    public boolean isEnabled() {
+        return true;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getGranularityMillis() {
+        return granularityMillis;
+    }
+
+    public FDate intern(final long millis) {
+        if (millis % granularityMillis != 0) {
+            return new FDate(millis);
+        }
+        final int slot = slot(millis);
+        final FDate existing = slots[slot];
+        if (existing != null && existing.millisValue() == millis) {
+            return existing;
+        }
+        final FDate created = new InternedFDate(millis);
+        slots[slot] = created;
+        return created;
+    }
+
+    /**
+     * Returns an already interned instance with the same timestamp or the given one. The given instance is never put
+     * into the pool since its extension could be changed by the caller, instead an extension free copy is interned.
+     * Subclasses and instances that already carry an extension are returned as they are.
+     */
+    @SuppressWarnings("deprecation")
+    public FDate intern(final FDate date) {
+        if (date == null) {
+            return null;
+        }
+        if (date instanceof InternedFDate) {
+            return date;
+        }
+        final long millis = date.millisValue();
+        if (millis % granularityMillis != 0 || date.getClass() != FDate.class || date.getExtension() != null) {
+            return date;
+        }
+        final int slot = slot(millis);
+        final FDate existing = slots[slot];
+        if (existing != null && existing.millisValue() == millis) {
+            return existing;
+        }
+        slots[slot] = new InternedFDate(millis);
+        return date;
+    }
+
+    private int slot(final long millis) {
+        //consecutive bars are put into consecutive slots, thus a window of capacity bars never collides
+        final long units = millis / granularityMillis;
+        return (int) (units ^ (units >>> 32)) & mask;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+    }
+
+    /**
+     * Serialized as a plain FDate, so the pool stays an implementation detail.
+     */
+    private static final class InternedFDate extends FDate {
+
+        private InternedFDate(final long millis) {
+            super(millis);
+        }
+
+        @Deprecated
+        @Override
+        public Object getExtension() {
+            return null;
+        }
+
+        @Deprecated
+        @Override
+        public void setExtension(final Object extension) {
+            //ignore, shared instance
+        }
+
+        private Object writeReplace() {
+            return new FDate(millisValue());
+        }
+
+    }
+
+}
@@ -19,6 +19,8 @@ import de.invesdwin.util.error.FastNoSuchElementException;
 import de.invesdwin.util.error.UnknownArgumentException;
 import de.invesdwin.util.time.TimeZones;
 import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.internal.FDateCalendar;
+import de.invesdwin.util.time.fdate.internal.ZoneOffsetTransitions;
 
 @ThreadSafe
 public final class FDates {
@@ -34,6 +36,8 @@ public final class FDates {
     private static DateTimeZone defaultDateTimeZone;
     private static Chronology defaultChronology;
     private static ZoneId defaultZoneId;
+    private static ZoneOffsetTransitions defaultZoneOffsetTransitions;
+    private static volatile FDateInterner interner = FDateInterner.DISABLED;
 
     static {
         setDefaultTimeZone(TimeZone.getDefault());
@@ -48,6 +52,7 @@ public final class FDates {
         FDates.defaultDateTimeZone = DateTimeZone.forTimeZone(defaultTimeZone);
         FDates.defaultChronology = ISOChronology.getInstance(defaultDateTimeZone);
         FDates.defaultZoneId = defaultTimeZone.toZoneId();
+        FDates.defaultZoneOffsetTransitions = ZoneOffsetTransitions.valueOf(defaultZoneId);
         //CHECKSTYLE:OFF
         final Calendar cal = Calendar.getInstance();
         //CHECKSTYLE:ON
@@ -76,6 +81,29 @@ public final class FDates {
         return defaultZoneId;
     }
 
+    public static ZoneOffsetTransitions getDefaultZoneOffsetTransitions() {
+        return defaultZoneOffsetTransitions;
+    }
+
+    /**
+     * Instances that get decoded via extractFDate() or built via FDateBuilder are routed through this interner. It is
+     * disabled per default. Enabling it makes sense for long backtests where the same bar timestamps are loaded over
+     * and over again. Be aware that interned instances are shared, thus they drop extensions: setExtension() is ignored
+     * on them, so historical caches can not remember the index of such keys via IndexedFDate and have to look them up
+     * again each time.
+     */
+    public static void setInterner(final FDateInterner interner) {
+        if (interner == null) {
+            FDates.interner = FDateInterner.DISABLED;
+        } else {
+            FDates.interner = interner;
+        }
+    }
+
+    public static FDateInterner getInterner() {
+        return interner;
+    }
+
     public static Calendar newCalendar() {
         return (Calendar) templateCalendar.clone();
     }
@@ -404,8 +432,8 @@ public final class FDates {
         if (date1 == null || date2 == null) {
             return false;
         }
-        return date1.millisValue() == date2.millisValue()
-                || date1.truncate(field).millisValue() == date2.truncate(field).millisValue();
+        return date1.millisValue() == date2.millisValue() || FDateCalendar.truncate(date1.millisValue(),
+                field) == FDateCalendar.truncate(date2.millisValue(), field);
     }
 
     public static boolean isSamePeriod(final FDate date1, final FDate date2, final FTimeUnit period,
@@ -588,7 +616,7 @@ public final class FDates {
         if (time == Long.MIN_VALUE) {
             return null;
         } else {
-            return new FDate(time);
+            return interner.intern(time);
         }
     }
 
@@ -628,6 +656,75 @@ public final class FDates {
         }
     }
 
+    public static int bisect(final long[] keys, final long skippingKeysAbove) {
+        return bisect(keys, 0, keys.length, skippingKeysAbove);
+    }
+
+    /**
+     * Primitive variant of bisect(FDate[], FDate) that only searches inside [fromIndex, toIndex) and returns the
+     * absolute index.
+     */
+    public static int bisect(final long[] keys, final int fromIndex, final int toIndex,
+            final long skippingKeysAbove) {
+        int lo = fromIndex;
+        int hi = toIndex;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final long midKey = keys[mid];
+            if (midKey < skippingKeysAbove) {
+                lo = mid + 1;
+            } else if (midKey > skippingKeysAbove) {
+                hi = mid;
+            } else {
+                return mid;
+            }
+        }
+        if (lo <= fromIndex) {
+            return fromIndex;
+        }
+        if (lo >= toIndex) {
+            lo = toIndex - 1;
+        }
+        final long loTime = keys[lo];
+        if (loTime > skippingKeysAbove) {
+            final int index = lo - 1;
+            return index;
+        } else {
+            return lo;
+        }
+    }
+
+    public static int[] mapIndexes(final long[] fromKeys, final long[] toKeys) {
+        return mapIndexes(fromKeys, 0, fromKeys.length, toKeys, 0, toKeys.length);
+    }
+
+    /**
+     * Primitive variant of mapIndexes(FDate[], FDate[]) that works on ranges of the given arrays. The returned indexes
+     * are relative to toOffset.
+     */
+    public static int[] mapIndexes(final long[] fromKeys, final int fromOffset, final int fromLength,
+            final long[] toKeys, final int toOffset, final int toLength) {
+        final int[] mappingFromTo = new int[fromLength];
+        int toKeyIndex = 0;
+        for (int fromKeyIndex = 0; fromKeyIndex < fromLength; fromKeyIndex++) {
+            final long fromKey = fromKeys[fromOffset + fromKeyIndex];
+            while (true) {
+                final int nextToKeyIndex = toKeyIndex + 1;
+                if (nextToKeyIndex >= toLength) {
+                    break;
+                }
+                final long nextToKey = toKeys[toOffset + nextToKeyIndex];
+                if (nextToKey <= fromKey) {
+                    toKeyIndex = nextToKeyIndex;
+                } else {
+                    break;
+                }
+            }
+            mappingFromTo[fromKeyIndex] = toKeyIndex;
+        }
+        return mappingFromTo;
+    }
+
     public static int[] mapIndexes(final FDate[] fromKeys, final FDate[] toKeys) {
         final int[] mappingFromTo = new int[fromKeys.length];
         int toKeyIndex = 0;
@@ -16,9 +16,9 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import de.invesdwin.util.collections.loadingcache.ALoadingCache;
 import de.invesdwin.util.lang.Strings;
+import de.invesdwin.util.time.fdate.internal.WorkdaysCalendar;
 import de.jollyday.HolidayCalendar;
 import de.jollyday.HolidayManager;
-import de.jollyday.HolidayType;
 import de.jollyday.ManagerParameters;
 import de.jollyday.util.ResourceUtil;
 
@@ -68,23 +68,14 @@ public final class FHolidayManager {
 
     private final HolidayManager delegate;
 
-    private final ALoadingCache<FDate, Boolean> day_holiday = new ALoadingCache<FDate, Boolean>() {
-        @Override
-        protected Boolean loadValue(final FDate key) {
-            return delegate.isHoliday(key.calendarValue(), HolidayType.OFFICIAL_HOLIDAY);
-        }
-
-        @Override
-        protected Integer getInitialMaximumSize() {
-            return 1000;
-        }
-    };
+    private final WorkdaysCalendar workdaysCalendar;
 
     private final String calendarId;
 
     private FHolidayManager(final String calendarId) {
         this.calendarId = calendarId;
         this.delegate = HolidayManager.getInstance(ManagerParameters.create(calendarId));
+        this.workdaysCalendar = new WorkdaysCalendar(delegate);
     }
 
     private static Set<String> newAvailableCalendarIds() {
@@ -159,7 +150,25 @@ public final class FHolidayManager {
     }
 
     public boolean isHoliday(final FDate date) {
-        return day_holiday.get(date.withoutTime());
+        return workdaysCalendar.isHoliday(WorkdaysCalendar.getEpochDay(date));
+    }
+
+    /**
+     * A workday is neither a holiday nor on a weekend.
+     */
+    public boolean isWorkday(final FDate date) {
+        return workdaysCalendar.isWorkday(WorkdaysCalendar.getEpochDay(date));
+    }
+
+    /**
+     * Counts the workdays between both dates (both days inclusive).
+     */
+    public long countWorkdaysBetween(final FDate from, final FDate to) {
+        return workdaysCalendar.countWorkdays(WorkdaysCalendar.getEpochDay(from), WorkdaysCalendar.getEpochDay(to));
+    }
+
+    public WorkdaysCalendar getWorkdaysCalendar() {
+        return workdaysCalendar;
     }
 
     public static FHolidayManager getInstance(final String holidayCalendarId) {
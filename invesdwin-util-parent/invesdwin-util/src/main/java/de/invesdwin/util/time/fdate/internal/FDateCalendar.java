@@ -0,0 +1,434 @@
+package de.invesdwin.util.time.fdate.internal;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.joda.time.DurationFieldType;
+import org.joda.time.MutableDateTime;
+
+import de.invesdwin.util.time.fdate.FDateField;
+import de.invesdwin.util.time.fdate.FDates;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Allocation free civil calendar arithmetic (proleptic gregorian, ISO weekdays) on epoch millis in the default time
+ * zone. Local time is derived via epoch-day/millis-of-day math and the offsets come from the precalculated
+ * ZoneOffsetTransitions. Cases that might be ambiguous (near offset transitions, invalid field values, exotic time
+ * units) fall back to joda-time so that the results and exceptions stay identical to the previous implementation.
+ *
+ * http://howardhinnant.github.io/date_algorithms.html
+ */
+@Immutable
+public final class FDateCalendar {
+
+    /**
+     * roughly 95000 years in both directions, which is far away from any numeric overflows
+     */
+    private static final long MAX_ABS_FAST_MILLIS = 3_000_000_000_000_000L;
+    private static final int MAX_ABS_FAST_YEAR = 90_000;
+    private static final long FALLBACK = Long.MIN_VALUE;
+
+    private static final long MILLISECONDS_IN_DAY = FTimeUnit.MILLISECONDS_IN_DAY;
+    private static final long MILLISECONDS_IN_HOUR = FTimeUnit.MILLISECONDS_IN_HOUR;
+    private static final long MILLISECONDS_IN_MINUTE = FTimeUnit.MILLISECONDS_IN_MINUTE;
+    private static final long MILLISECONDS_IN_SECOND = FTimeUnit.MILLISECONDS_IN_SECOND;
+    private static final long DAYS_0000_TO_1970 = 719468;
+    private static final long DAYS_PER_ERA = 146097;
+    private static final int YEARS_PER_ERA = 400;
+    private static final int EPOCH_WEEKDAY_SHIFT = 3;
+
+    private FDateCalendar() {
+    }
+
+    public static int get(final long millis, final FDateField field) {
+        if (!isFast(millis)) {
+            return getJoda(millis, field);
+        }
+        final long local = millis + FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        switch (field) {
+        case Year:
+            return yearOfEpochDay(Math.floorDiv(local, MILLISECONDS_IN_DAY));
+        case Month:
+            return monthOfEpochDay(Math.floorDiv(local, MILLISECONDS_IN_DAY));
+        case Day:
+            return dayOfEpochDay(Math.floorDiv(local, MILLISECONDS_IN_DAY));
+        case Weekday:
+            return weekdayOfEpochDay(Math.floorDiv(local, MILLISECONDS_IN_DAY));
+        case Hour:
+            return (int) (Math.floorMod(local, MILLISECONDS_IN_DAY) / MILLISECONDS_IN_HOUR);
+        case Minute:
+            return (int) (Math.floorMod(local, MILLISECONDS_IN_HOUR) / MILLISECONDS_IN_MINUTE);
+        case Second:
+            return (int) (Math.floorMod(local, MILLISECONDS_IN_MINUTE) / MILLISECONDS_IN_SECOND);
+        case Millisecond:
+            return (int) Math.floorMod(local, MILLISECONDS_IN_SECOND);
+        default:
+            return getJoda(millis, field);
+        }
+    }
+
+    public static long set(final long millis, final FDateField field, final int value) {
+        final long result = setFast(millis, field, value);
+        if (result == FALLBACK) {
+            return setJoda(millis, field, value);
+        } else {
+            return result;
+        }
+    }
+
+    private static long setFast(final long millis, final FDateField field, final int value) {
+        if (!isFast(millis)) {
+            return FALLBACK;
+        }
+        final int offset = FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        final long local = millis + offset;
+        final long epochDay = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+        final long millisOfDay = local - epochDay * MILLISECONDS_IN_DAY;
+        final long newLocal;
+        switch (field) {
+        case Year: {
+            if (!isFastYear(value)) {
+                return FALLBACK;
+            }
+            final int month = monthOfEpochDay(epochDay);
+            final int day = Math.min(dayOfEpochDay(epochDay), daysInMonth(value, month));
+            newLocal = epochDayOf(value, month, day) * MILLISECONDS_IN_DAY + millisOfDay;
+            break;
+        }
+        case Month: {
+            if (value < 1 || value > FTimeUnit.MONTHS_IN_YEAR) {
+                return FALLBACK;
+            }
+            final int year = yearOfEpochDay(epochDay);
+            final int day = Math.min(dayOfEpochDay(epochDay), daysInMonth(year, value));
+            newLocal = epochDayOf(year, value, day) * MILLISECONDS_IN_DAY + millisOfDay;
+            break;
+        }
+        case Day: {
+            final int year = yearOfEpochDay(epochDay);
+            final int month = monthOfEpochDay(epochDay);
+            if (value < 1 || value > daysInMonth(year, month)) {
+                return FALLBACK;
+            }
+            newLocal = epochDayOf(year, month, value) * MILLISECONDS_IN_DAY + millisOfDay;
+            break;
+        }
+        case Weekday:
+            if (value < 1 || value > FTimeUnit.DAYS_IN_WEEK) {
+                return FALLBACK;
+            }
+            newLocal = local + (value - weekdayOfEpochDay(epochDay)) * MILLISECONDS_IN_DAY;
+            break;
+        case Hour:
+            if (value < 0 || value >= FTimeUnit.HOURS_IN_DAY) {
+                return FALLBACK;
+            }
+            newLocal = local + (value - millisOfDay / MILLISECONDS_IN_HOUR) * MILLISECONDS_IN_HOUR;
+            break;
+        case Minute:
+            if (value < 0 || value >= FTimeUnit.MINUTES_IN_HOUR) {
+                return FALLBACK;
+            }
+            newLocal = local + (value - (millisOfDay % MILLISECONDS_IN_HOUR) / MILLISECONDS_IN_MINUTE)
+                    * MILLISECONDS_IN_MINUTE;
+            break;
+        case Second:
+            if (value < 0 || value >= FTimeUnit.SECONDS_IN_MINUTE) {
+                return FALLBACK;
+            }
+            newLocal = local + (value - (millisOfDay % MILLISECONDS_IN_MINUTE) / MILLISECONDS_IN_SECOND)
+                    * MILLISECONDS_IN_SECOND;
+            break;
+        case Millisecond:
+            if (value < 0 || value >= FTimeUnit.MILLISECONDS_IN_SECOND) {
+                return FALLBACK;
+            }
+            newLocal = local + (value - millisOfDay % MILLISECONDS_IN_SECOND);
+            break;
+        default:
+            return FALLBACK;
+        }
+        return localToUtcKeepingOffset(newLocal, offset);
+    }
+
+    public static long add(final long millis, final FTimeUnit timeUnit, final int amount) {
+        final long result = addFast(millis, timeUnit, amount);
+        if (result == FALLBACK) {
+            return addJoda(millis, timeUnit, amount);
+        } else {
+            return result;
+        }
+    }
+
+    private static long addFast(final long millis, final FTimeUnit timeUnit, final int amount) {
+        if (!isFast(millis)) {
+            return FALLBACK;
+        }
+        switch (timeUnit) {
+        case MILLISECONDS:
+            return checkFast(millis + amount);
+        case SECONDS:
+            return checkFast(millis + amount * MILLISECONDS_IN_SECOND);
+        case MINUTES:
+            return checkFast(millis + amount * MILLISECONDS_IN_MINUTE);
+        case HOURS:
+            return checkFast(millis + amount * MILLISECONDS_IN_HOUR);
+        case DAYS:
+            return addDaysFast(millis, amount);
+        case WEEKS:
+            return addDaysFast(millis, (long) amount * FTimeUnit.DAYS_IN_WEEK);
+        case MONTHS:
+            return addMonthsFast(millis, amount);
+        case YEARS:
+            return addMonthsFast(millis, (long) amount * FTimeUnit.MONTHS_IN_YEAR);
+        case DECADES:
+            return addMonthsFast(millis, (long) amount * FTimeUnit.YEARS_IN_DECADE * FTimeUnit.MONTHS_IN_YEAR);
+        case CENTURIES:
+            return addMonthsFast(millis, (long) amount * FTimeUnit.YEARS_IN_CENTURY * FTimeUnit.MONTHS_IN_YEAR);
+        case MILLENIA:
+            return addMonthsFast(millis, (long) amount * FTimeUnit.YEARS_IN_MILLENIUM * FTimeUnit.MONTHS_IN_YEAR);
+        default:
+            return FALLBACK;
+        }
+    }
+
+    private static long addDaysFast(final long millis, final long days) {
+        final long local = millis + FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        final long newLocal = local + days * MILLISECONDS_IN_DAY;
+        if (!isFast(newLocal)) {
+            return FALLBACK;
+        }
+        return localToUtcFromLocal(newLocal);
+    }
+
+    private static long addMonthsFast(final long millis, final long months) {
+        final long local = millis + FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        final long epochDay = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+        final long millisOfDay = local - epochDay * MILLISECONDS_IN_DAY;
+        final int year = yearOfEpochDay(epochDay);
+        final int month = monthOfEpochDay(epochDay);
+        final long totalMonths = year * (long) FTimeUnit.MONTHS_IN_YEAR + (month - 1) + months;
+        final long newYear = Math.floorDiv(totalMonths, FTimeUnit.MONTHS_IN_YEAR);
+        if (!isFastYear(newYear)) {
+            return FALLBACK;
+        }
+        final int newMonth = (int) Math.floorMod(totalMonths, FTimeUnit.MONTHS_IN_YEAR) + 1;
+        final int newDay = Math.min(dayOfEpochDay(epochDay), daysInMonth((int) newYear, newMonth));
+        final long newLocal = epochDayOf((int) newYear, newMonth, newDay) * MILLISECONDS_IN_DAY + millisOfDay;
+        return localToUtcFromLocal(newLocal);
+    }
+
+    public static long truncate(final long millis, final FDateField field) {
+        final long result = truncateFast(millis, field);
+        if (result == FALLBACK) {
+            return truncateJoda(millis, field);
+        } else {
+            return result;
+        }
+    }
+
+    private static long truncateFast(final long millis, final FDateField field) {
+        if (!isFast(millis)) {
+            return FALLBACK;
+        }
+        final int offset = FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        final long local = millis + offset;
+        switch (field) {
+        case Millisecond:
+            return millis;
+        //time fields use time arithmetic in joda, thus the original offset is always kept
+        case Second:
+            return local - Math.floorMod(local, MILLISECONDS_IN_SECOND) - offset;
+        case Minute:
+            return local - Math.floorMod(local, MILLISECONDS_IN_MINUTE) - offset;
+        case Hour:
+            return local - Math.floorMod(local, MILLISECONDS_IN_HOUR) - offset;
+        case Day:
+        case Weekday:
+            return localToUtcKeepingOffset(local - Math.floorMod(local, MILLISECONDS_IN_DAY), offset);
+        case Month: {
+            final long epochDay = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+            final long newEpochDay = epochDay - dayOfEpochDay(epochDay) + 1;
+            return localToUtcKeepingOffset(newEpochDay * MILLISECONDS_IN_DAY, offset);
+        }
+        case Year: {
+            final long epochDay = Math.floorDiv(local, MILLISECONDS_IN_DAY);
+            final long newEpochDay = epochDayOf(yearOfEpochDay(epochDay), 1, 1);
+            return localToUtcKeepingOffset(newEpochDay * MILLISECONDS_IN_DAY, offset);
+        }
+        default:
+            return FALLBACK;
+        }
+    }
+
+    /**
+     * Same as the first step of joda's DateTimeZone.convertLocalToUTC(long, boolean, long): keep the original offset
+     * if it is still valid for the new instant.
+     */
+    private static long localToUtcKeepingOffset(final long newLocal, final int originalOffset) {
+        final long utc = newLocal - originalOffset;
+        if (FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(utc) == originalOffset) {
+            return utc;
+        } else {
+            return FALLBACK;
+        }
+    }
+
+    /**
+     * Same as joda's DateTimeZone.getOffsetFromLocal(long) when not near a transition.
+     */
+    private static long localToUtcFromLocal(final long newLocal) {
+        final ZoneOffsetTransitions transitions = FDates.getDefaultZoneOffsetTransitions();
+        final int offsetLocal = transitions.getOffsetMillis(newLocal);
+        final long utc = newLocal - offsetLocal;
+        if (transitions.getOffsetMillis(utc) != offsetLocal || transitions.isNearTransition(utc)) {
+            return FALLBACK;
+        }
+        return utc;
+    }
+
+    private static boolean isFast(final long millis) {
+        return millis > -MAX_ABS_FAST_MILLIS && millis < MAX_ABS_FAST_MILLIS;
+    }
+
+    private static boolean isFastYear(final long year) {
+        return year > -MAX_ABS_FAST_YEAR && year < MAX_ABS_FAST_YEAR;
+    }
+
+    private static long checkFast(final long millis) {
+        if (isFast(millis)) {
+            return millis;
+        } else {
+            return FALLBACK;
+        }
+    }
+
+    public static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int daysInMonth(final int year, final int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    public static long epochDayOf(final int year, final int month, final int day) {
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, YEARS_PER_ERA);
+        final long yearOfEra = y - era * YEARS_PER_ERA;
+        final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    public static int yearOfEpochDay(final long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(z, DAYS_PER_ERA);
+        final long dayOfEra = z - era * DAYS_PER_ERA;
+        final long yearOfEra = yearOfEra(dayOfEra);
+        final long shiftedMonth = shiftedMonth(dayOfEra, yearOfEra);
+        final long year = yearOfEra + era * YEARS_PER_ERA;
+        if (shiftedMonth >= 10) {
+            return (int) (year + 1);
+        } else {
+            return (int) year;
+        }
+    }
+
+    public static int monthOfEpochDay(final long epochDay) {
+        final long dayOfEra = dayOfEra(epochDay);
+        final long shiftedMonth = shiftedMonth(dayOfEra, yearOfEra(dayOfEra));
+        return (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    }
+
+    public static int dayOfEpochDay(final long epochDay) {
+        final long dayOfEra = dayOfEra(epochDay);
+        final long yearOfEra = yearOfEra(dayOfEra);
+        final long dayOfYear = dayOfYear(dayOfEra, yearOfEra);
+        final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        return (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    }
+
+    /**
+     * ISO weekday where monday is 1 and sunday is 7, same as joda-time.
+     */
+    public static int weekdayOfEpochDay(final long epochDay) {
+        return (int) Math.floorMod(epochDay + EPOCH_WEEKDAY_SHIFT, FTimeUnit.DAYS_IN_WEEK) + 1;
+    }
+
+    private static long dayOfEra(final long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        return Math.floorMod(z, DAYS_PER_ERA);
+    }
+
+    private static long yearOfEra(final long dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+    }
+
+    private static long dayOfYear(final long dayOfEra, final long yearOfEra) {
+        return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    }
+
+    /**
+     * March is 0 and February is 11
+     */
+    private static long shiftedMonth(final long dayOfEra, final long yearOfEra) {
+        return (5 * dayOfYear(dayOfEra, yearOfEra) + 2) / 153;
+    }
+
+    public static int getJoda(final long millis, final FDateField field) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        return delegate.get(field.jodaTimeValue());
+    }
+
+    public static long setJoda(final long millis, final FDateField field, final int value) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        delegate.set(field.jodaTimeValue(), value);
+        return delegate.getMillis();
+    }
+
+    public static long addJoda(final long millis, final FTimeUnit field, final int amount) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        final int usedAmount;
+        final DurationFieldType usedField;
+        switch (field) {
+        case MILLENIA:
+            usedField = FTimeUnit.YEARS.jodaTimeValue();
+            usedAmount = amount * FTimeUnit.YEARS_IN_MILLENIUM;
+            break;
+        case CENTURIES:
+            usedField = FTimeUnit.YEARS.jodaTimeValue();
+            usedAmount = amount * FTimeUnit.YEARS_IN_CENTURY;
+            break;
+        case DECADES:
+            usedField = FTimeUnit.YEARS.jodaTimeValue();
+            usedAmount = amount * FTimeUnit.YEARS_IN_DECADE;
+            break;
+        default:
+            usedField = field.jodaTimeValue();
+            usedAmount = amount;
+            break;
+        }
+        delegate.add(usedField, usedAmount);
+        return delegate.getMillis();
+    }
+
+    public static long truncateJoda(final long millis, final FDateField field) {
+        final MutableDateTime delegate = newMutableDateTime(millis);
+        delegate.setRounding(field.jodaTimeValue().getField(delegate.getChronology()));
+        return delegate.getMillis();
+    }
+
+    public static MutableDateTime newMutableDateTime(final long millis) {
+        return new MutableDateTime(millis, FDates.getDefaultChronology());
+    }
+
+}
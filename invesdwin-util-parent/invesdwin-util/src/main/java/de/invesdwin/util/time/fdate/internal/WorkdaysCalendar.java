@@ -0,0 +1,246 @@
+package de.invesdwin.util.time.fdate.internal;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FDates;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+import de.jollyday.HolidayManager;
+import de.jollyday.HolidayType;
+
+/**
+ * Precalculated bitsets of holidays and workdays per year together with prefix sums of the workdays. Years are lazily
+ * materialized on first access, after that isHoliday/isWorkday are O(1) and countWorkdays/addWorkdays only need to
+ * walk the years in between.
+ *
+ * Days are identified by their epoch day in the default time zone.
+ */
+@ThreadSafe
+public final class WorkdaysCalendar {
+
+    /**
+     * Only weekends are treated as non working days.
+     */
+    public static final WorkdaysCalendar WEEKENDS_ONLY = new WorkdaysCalendar(null);
+
+    private static final int SATURDAY = 6;
+    private static final long MILLISECONDS_IN_DAY = FTimeUnit.MILLISECONDS_IN_DAY;
+
+    private final HolidayManager delegate;
+    /**
+     * benign races are fine here since the years are immutable and are just calculated again
+     */
+    @GuardedBy("none for performance")
+    private final WorkdaysYear[] years = new WorkdaysYear[FDate.MAX_YEAR - FDate.MIN_YEAR + 1];
+
+    public WorkdaysCalendar(final HolidayManager delegate) {
+        this.delegate = delegate;
+    }
+
+    public boolean isHoliday(final long epochDay) {
+        final WorkdaysYear year = getWorkdaysYear(FDateCalendar.yearOfEpochDay(epochDay));
+        return year.isHoliday((int) (epochDay - year.firstEpochDay));
+    }
+
+    public boolean isWorkday(final long epochDay) {
+        final WorkdaysYear year = getWorkdaysYear(FDateCalendar.yearOfEpochDay(epochDay));
+        return year.isWorkday((int) (epochDay - year.firstEpochDay));
+    }
+
+    /**
+     * Counts the workdays between both days (both inclusive).
+     */
+    public long countWorkdays(final long fromEpochDay, final long toEpochDay) {
+        if (fromEpochDay > toEpochDay) {
+            return 0;
+        }
+        final int fromYear = FDateCalendar.yearOfEpochDay(fromEpochDay);
+        final int toYear = FDateCalendar.yearOfEpochDay(toEpochDay);
+        final WorkdaysYear first = getWorkdaysYear(fromYear);
+        final int fromIndex = (int) (fromEpochDay - first.firstEpochDay);
+        if (fromYear == toYear) {
+            final int toIndex = (int) (toEpochDay - first.firstEpochDay);
+            return first.workdaysBefore[toIndex + 1] - first.workdaysBefore[fromIndex];
+        }
+        long count = first.getWorkdays() - first.workdaysBefore[fromIndex];
+        for (int year = fromYear + 1; year < toYear; year++) {
+            count += getWorkdaysYear(year).getWorkdays();
+        }
+        final WorkdaysYear last = getWorkdaysYear(toYear);
+        final int toIndex = (int) (toEpochDay - last.firstEpochDay);
+        count += last.workdaysBefore[toIndex + 1];
+        return count;
+    }
+
+    /**
+     * Returns the number of calendar days that need to be added to the given day in order to shift it by the given
+     * workdays. The semantics are the same as the day by day iteration in FDate.addWorkdays: when starting on a
+     * non-workday, that day counts as one shift; the result is the day after the last counted workday in the
+     * direction of the shift.
+     */
+    public long getDaysToShiftWorkdays(final long epochDay, final int workdays) {
+        long workdaysToShift = Math.abs((long) workdays);
+        if (workdaysToShift > 1 && !isWorkday(epochDay)) {
+            workdaysToShift--;
+        }
+        if (workdaysToShift == 0) {
+            return 0;
+        }
+        if (workdays >= 0) {
+            return getDaysToShiftWorkdaysForward(epochDay, workdaysToShift);
+        } else {
+            return -getDaysToShiftWorkdaysBackward(epochDay, workdaysToShift);
+        }
+    }
+
+    private long getDaysToShiftWorkdaysForward(final long epochDay, final long workdaysToShift) {
+        long remaining = workdaysToShift;
+        long day = epochDay;
+        while (true) {
+            final WorkdaysYear year = getWorkdaysYear(FDateCalendar.yearOfEpochDay(day));
+            final int index = (int) (day - year.firstEpochDay);
+            final int available = year.getWorkdays() - year.workdaysBefore[index];
+            if (available >= remaining) {
+                final int target = (int) (year.workdaysBefore[index] + remaining);
+                //first prefix that reaches the target belongs to the day after the last counted workday
+                final int afterLastWorkdayIndex = firstIndexReaching(year.workdaysBefore, index + 1, target);
+                return year.firstEpochDay + afterLastWorkdayIndex - epochDay;
+            }
+            remaining -= available;
+            day = year.firstEpochDay + year.getDays();
+        }
+    }
+
+    private long getDaysToShiftWorkdaysBackward(final long epochDay, final long workdaysToShift) {
+        long remaining = workdaysToShift;
+        long day = epochDay;
+        while (true) {
+            final WorkdaysYear year = getWorkdaysYear(FDateCalendar.yearOfEpochDay(day));
+            final int index = (int) (day - year.firstEpochDay);
+            final int available = year.workdaysBefore[index + 1];
+            if (available >= remaining) {
+                final int target = (int) (available - remaining);
+                //the last counted workday is the last day whose prefix still equals the target
+                final int lastWorkdayIndex = firstIndexReaching(year.workdaysBefore, 0, target + 1) - 1;
+                return epochDay - (year.firstEpochDay + lastWorkdayIndex) + 1;
+            }
+            remaining -= available;
+            day = year.firstEpochDay - 1;
+        }
+    }
+
+    /**
+     * Binary search for the first index in the non decreasing prefix array that is greater than or equal to target.
+     */
+    private static int firstIndexReaching(final int[] prefix, final int fromIndex, final int target) {
+        int lo = fromIndex;
+        int hi = prefix.length - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (prefix[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private WorkdaysYear getWorkdaysYear(final int year) {
+        final int index = year - FDate.MIN_YEAR;
+        if (index < 0 || index >= years.length) {
+            return newWorkdaysYear(year);
+        }
+        WorkdaysYear workdaysYear = years[index];
+        if (workdaysYear == null) {
+            workdaysYear = newWorkdaysYear(year);
+            years[index] = workdaysYear;
+        }
+        return workdaysYear;
+    }
+
+    private WorkdaysYear newWorkdaysYear(final int year) {
+        final long firstEpochDay = FDateCalendar.epochDayOf(year, 1, 1);
+        final int days = (int) (FDateCalendar.epochDayOf(year + 1, 1, 1) - firstEpochDay);
+        final long[] holidays = new long[(days >> 6) + 1];
+        final long[] workdays = new long[holidays.length];
+        final int[] workdaysBefore = new int[days + 1];
+        final Calendar cal;
+        if (delegate != null) {
+            cal = FDates.newCalendar();
+            if (cal instanceof GregorianCalendar) {
+                //epoch days are proleptic gregorian, thus the julian calendar must not be used before 1582
+                final GregorianCalendar cCal = (GregorianCalendar) cal;
+                cCal.setGregorianChange(new Date(Long.MIN_VALUE));
+            }
+            cal.set(year, Calendar.JANUARY, 1);
+        } else {
+            cal = null;
+        }
+        for (int i = 0; i < days; i++) {
+            final boolean holiday = cal != null && delegate.isHoliday(cal, HolidayType.OFFICIAL_HOLIDAY);
+            final boolean weekend = FDateCalendar.weekdayOfEpochDay(firstEpochDay + i) >= SATURDAY;
+            if (holiday) {
+                holidays[i >> 6] |= 1L << i;
+            }
+            final boolean workday = !holiday && !weekend;
+            if (workday) {
+                workdays[i >> 6] |= 1L << i;
+            }
+            workdaysBefore[i + 1] = workdaysBefore[i] + (workday ? 1 : 0);
+            if (cal != null) {
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+            }
+        }
+        return new WorkdaysYear(firstEpochDay, holidays, workdays, workdaysBefore);
+    }
+
+    public static long getEpochDay(final FDate date) {
+        final long millis = date.millisValue();
+        final long local = millis + FDates.getDefaultZoneOffsetTransitions().getOffsetMillis(millis);
+        return Math.floorDiv(local, MILLISECONDS_IN_DAY);
+    }
+
+    @Immutable
+    private static final class WorkdaysYear {
+        private final long firstEpochDay;
+        private final long[] holidays;
+        private final long[] workdays;
+        /**
+         * workdaysBefore[i] contains the number of workdays before day index i of this year, the last element
+         * contains the workdays of the whole year
+         */
+        private final int[] workdaysBefore;
+
+        private WorkdaysYear(final long firstEpochDay, final long[] holidays, final long[] workdays,
+                final int[] workdaysBefore) {
+            this.firstEpochDay = firstEpochDay;
+            this.holidays = holidays;
+            this.workdays = workdays;
+            this.workdaysBefore = workdaysBefore;
+        }
+
+        public int getDays() {
+            return workdaysBefore.length - 1;
+        }
+
+        public int getWorkdays() {
+            return workdaysBefore[workdaysBefore.length - 1];
+        }
+
+        public boolean isHoliday(final int index) {
+            return (holidays[index >> 6] & (1L << index)) != 0;
+        }
+
+        public boolean isWorkday(final int index) {
+            return (workdays[index >> 6] & (1L << index)) != 0;
+        }
+    }
+
+}
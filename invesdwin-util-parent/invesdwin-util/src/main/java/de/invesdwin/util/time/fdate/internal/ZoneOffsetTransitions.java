@@ -0,0 +1,198 @@
+package de.invesdwin.util.time.fdate.internal;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import de.invesdwin.util.collections.loadingcache.ALoadingCache;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+/**
+ * Precalculated table of offset transitions for a given ZoneId. This allows to lookup offsets via a binary search over
+ * a primitive array instead of going through ZoneRules (which allocates Instant and ZoneOffset objects).
+ *
+ * Transitions are precalculated until MAX_PRECALCULATED_YEAR, after that the ZoneRules are consulted directly.
+ */
+@ThreadSafe
+public final class ZoneOffsetTransitions {
+
+    public static final int MAX_PRECALCULATED_YEAR = 2200;
+    private static final long MILLISECONDS_IN_DAY = FTimeUnit.MILLISECONDS_IN_DAY;
+    private static final long MAX_PRECALCULATED_MILLIS = java.time.LocalDate.of(MAX_PRECALCULATED_YEAR + 1, 1, 1)
+            .atStartOfDay(ZoneOffset.UTC)
+            .toInstant()
+            .toEpochMilli();
+
+    private static final ALoadingCache<ZoneId, ZoneOffsetTransitions> ZONEID_TRANSITIONS = new ALoadingCache<ZoneId, ZoneOffsetTransitions>() {
+        @Override
+        protected ZoneOffsetTransitions loadValue(final ZoneId key) {
+            return new ZoneOffsetTransitions(key);
+        }
+
+        @Override
+        protected boolean isHighConcurrency() {
+            return true;
+        }
+    };
+
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    private final boolean fixedOffset;
+    /**
+     * transitionMillis[i] is the first millisecond where offsetMillis[i+1] is active
+     */
+    private final long[] transitionMillis;
+    /**
+     * has one more element than transitionMillis, offsetMillis[0] is active before the first transition
+     */
+    private final int[] offsetMillis;
+    private final long maxPrecalculatedMillis;
+    /**
+     * sequential access is the common case, thus remember the last hit; any index is valid here, since it gets
+     * verified before being used
+     */
+    @GuardedBy("none for performance")
+    private int lastIndex;
+
+    private ZoneOffsetTransitions(final ZoneId zoneId) {
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        this.fixedOffset = rules.isFixedOffset();
+        if (fixedOffset) {
+            this.transitionMillis = new long[0];
+            this.offsetMillis = new int[] { toMillis(rules.getOffset(java.time.Instant.EPOCH)) };
+            this.maxPrecalculatedMillis = Long.MAX_VALUE;
+        } else {
+            final List<ZoneOffsetTransition> historic = rules.getTransitions();
+            long[] transitions = new long[historic.size() + (MAX_PRECALCULATED_YEAR - 1900) * 2];
+            int[] offsets = new int[transitions.length + 1];
+            int count = 0;
+            java.time.Instant lastTransition = null;
+            for (int i = 0; i < historic.size(); i++) {
+                final ZoneOffsetTransition transition = historic.get(i);
+                if (count == 0) {
+                    offsets[0] = toMillis(transition.getOffsetBefore());
+                }
+                transitions[count] = transition.toEpochSecond() * 1000L;
+                offsets[count + 1] = toMillis(transition.getOffsetAfter());
+                lastTransition = transition.getInstant();
+                count++;
+            }
+            if (count == 0) {
+                offsets[0] = toMillis(rules.getOffset(java.time.Instant.EPOCH));
+            }
+            if (!rules.getTransitionRules().isEmpty()) {
+                ZoneOffsetTransition next = rules.nextTransition(
+                        lastTransition != null ? lastTransition : java.time.Instant.ofEpochMilli(Long.MIN_VALUE / 2));
+                while (next != null && next.toEpochSecond() * 1000L < MAX_PRECALCULATED_MILLIS) {
+                    if (count >= transitions.length) {
+                        transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                        offsets = Arrays.copyOf(offsets, transitions.length + 1);
+                    }
+                    if (count == 0) {
+                        offsets[0] = toMillis(next.getOffsetBefore());
+                    }
+                    transitions[count] = next.toEpochSecond() * 1000L;
+                    offsets[count + 1] = toMillis(next.getOffsetAfter());
+                    count++;
+                    next = rules.nextTransition(next.getInstant());
+                }
+                this.maxPrecalculatedMillis = MAX_PRECALCULATED_MILLIS;
+            } else {
+                //no further transitions will happen
+                this.maxPrecalculatedMillis = Long.MAX_VALUE;
+            }
+            this.transitionMillis = Arrays.copyOf(transitions, count);
+            this.offsetMillis = Arrays.copyOf(offsets, count + 1);
+        }
+    }
+
+    private static int toMillis(final ZoneOffset offset) {
+        return offset.getTotalSeconds() * 1000;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public boolean isFixedOffset() {
+        return fixedOffset;
+    }
+
+    public int getOffsetMillis(final long millis) {
+        if (fixedOffset) {
+            return offsetMillis[0];
+        }
+        if (millis >= maxPrecalculatedMillis) {
+            return toMillis(rules.getOffset(java.time.Instant.ofEpochMilli(millis)));
+        }
+        return offsetMillis[indexOfOffset(millis)];
+    }
+
+    public int getOffsetSeconds(final long millis) {
+        return getOffsetMillis(millis) / 1000;
+    }
+
+    /**
+     * Returns true when a transition might happen within one day before or after the given instant. In that case local
+     * time conversions might be ambiguous and a fallback to a full featured implementation should be used.
+     */
+    public boolean isNearTransition(final long millis) {
+        if (fixedOffset) {
+            return false;
+        }
+        if (millis >= maxPrecalculatedMillis - MILLISECONDS_IN_DAY) {
+            return true;
+        }
+        final int index = indexOfOffset(millis);
+        if (index > 0 && millis - transitionMillis[index - 1] <= MILLISECONDS_IN_DAY) {
+            return true;
+        }
+        return index < transitionMillis.length && transitionMillis[index] - millis <= MILLISECONDS_IN_DAY;
+    }
+
+    /**
+     * Returns the index inside offsetMillis that is active for the given instant.
+     */
+    private int indexOfOffset(final long millis) {
+        final int index = lastIndex;
+        if ((index == 0 || transitionMillis[index - 1] <= millis)
+                && (index == transitionMillis.length || millis < transitionMillis[index])) {
+            return index;
+        }
+        final int searchedIndex = bisectOffset(millis);
+        lastIndex = searchedIndex;
+        return searchedIndex;
+    }
+
+    private int bisectOffset(final long millis) {
+        int lo = 0;
+        int hi = transitionMillis.length - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final long midTransition = transitionMillis[mid];
+            if (midTransition <= millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    public static ZoneOffsetTransitions valueOf(final ZoneId zoneId) {
+        return ZONEID_TRANSITIONS.get(zoneId);
+    }
+
+    @Override
+    public String toString() {
+        return zoneId.toString();
+    }
+
+}
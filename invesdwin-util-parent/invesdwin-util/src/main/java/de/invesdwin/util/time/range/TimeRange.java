@@ -123,6 +123,16 @@ public class TimeRange extends AValueObject {
         }
     }
 
+    public static TimeRange extractTimeRange(final ByteBuffer buffer) {
+        final long from = buffer.getLong();
+        final long to = buffer.getLong();
+        if (from == Long.MAX_VALUE && to == Long.MAX_VALUE) {
+            return null;
+        } else {
+            return new TimeRange(FDates.extractFDate(from), FDates.extractFDate(to));
+        }
+    }
+
     public boolean contains(final FDate time) {
         return FDates.isBetween(time, from, to);
     }
@@ -0,0 +1,214 @@
+package de.invesdwin.util.bean.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.bean.AValueObject;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class ValueObjectDeepCloneTest {
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void testDeepClone() {
+        final CloneVO vo = newCloneVO();
+        final CloneVO child = new CloneVO();
+        child.setParent(vo);
+        vo.getChildren().add(child);
+        vo.getChildren().add(child);
+        vo.addPropertyChangeListener(new java.beans.PropertyChangeListener() {
+            @Override
+            public void propertyChange(final java.beans.PropertyChangeEvent evt) {}
+        });
+
+        final CloneVO clone = (CloneVO) vo.deepCloneStructural();
+        Assertions.assertThat(clone).isNotSameAs(vo);
+        Assertions.assertThat(clone).isEqualTo(vo);
+        //immutable values are shared
+        Assertions.assertThat(clone.getDate()).isSameAs(vo.getDate());
+        Assertions.assertThat(clone.getDecimal()).isSameAs(vo.getDecimal());
+        //mutable ones are copied
+        Assertions.assertThat(clone.getMutableValue()).isNotSameAs(vo.getMutableValue());
+        Assertions.assertThat(clone.getMutableValue()).isEqualTo(vo.getMutableValue());
+        Assertions.assertThat(clone.getValues()).isNotSameAs(vo.getValues());
+        Assertions.assertThat(clone.getValues()).isEqualTo(vo.getValues());
+        Assertions.assertThat(clone.getChildren()).isNotSameAs(vo.getChildren());
+        //identities and cycles are kept
+        final CloneVO clonedChild = clone.getChildren().get(0);
+        Assertions.assertThat(clonedChild).isNotSameAs(child);
+        Assertions.assertThat(clone.getChildren().get(1)).isSameAs(clonedChild);
+        Assertions.assertThat(clonedChild.getParent()).isSameAs(clone);
+        //listeners are transient
+        Assertions.assertThat(clone.getPropertyChangeListeners()).isEmpty();
+    }
+
+    @Test
+    public void testSameAsSerialization() {
+        final CloneVO vo = newCloneVO();
+        final CloneVO child = new CloneVO();
+        child.setParent(vo);
+        vo.getChildren().add(child);
+        final CloneVO structural = (CloneVO) vo.deepCloneStructural();
+        final CloneVO serialized = Objects.deepClone(vo);
+        Assertions.assertThat(structural).isEqualTo(serialized);
+        Assertions.assertThat(structural.getChildren().get(0).getParent()).isSameAs(structural);
+        Assertions.assertThat(serialized.getChildren().get(0).getParent()).isSameAs(serialized);
+    }
+
+    @Test
+    public void testFallbackDuplicatesBackReferences() {
+        final CloneVO vo = newCloneVO();
+        vo.setOther(new BackReference(vo));
+        final CloneVO serialized = Objects.deepClone(vo);
+        Assertions.assertThat(((BackReference) serialized.getOther()).getParent()).isSameAs(serialized);
+        //the fallback copies the back reference on its own, thus it gets an equal but separate copy
+        final CloneVO structural = (CloneVO) vo.deepCloneStructural();
+        final CloneVO parentCopy = ((BackReference) structural.getOther()).getParent();
+        Assertions.assertThat(parentCopy).isNotSameAs(structural);
+        Assertions.assertThat(parentCopy).isNotSameAs(vo);
+        Assertions.assertThat(parentCopy.getValues()).isEqualTo(vo.getValues());
+    }
+
+    @Test
+    public void testNotSerializableValue() {
+        final CloneVO vo = newCloneVO();
+        vo.setOther(new NotSerializableValue());
+        try {
+            vo.deepCloneStructural();
+            Assertions.failBecauseExceptionWasNotThrown(RuntimeException.class);
+        } catch (final RuntimeException e) {
+            //expected
+        }
+    }
+
+    @Ignore("manual benchmark")
+    @Test
+    public void testPerformance() {
+        final CloneVO vo = newCloneVO();
+        for (int round = 0; round < 3; round++) {
+            Instant start = new Instant();
+            for (int i = 0; i < ITERATIONS; i++) {
+                vo.clone();
+            }
+            final double serializationSeconds = start.toDuration().doubleValue(FTimeUnit.SECONDS);
+            start = new Instant();
+            for (int i = 0; i < ITERATIONS; i++) {
+                vo.deepCloneStructural();
+            }
+            final double structuralSeconds = start.toDuration().doubleValue(FTimeUnit.SECONDS);
+            //CHECKSTYLE:OFF
+            System.out.println(String.format("serialization: %.0f clones/s, structural: %.0f clones/s",
+                    ITERATIONS / serializationSeconds, ITERATIONS / structuralSeconds));
+            //CHECKSTYLE:ON
+        }
+    }
+
+    private static CloneVO newCloneVO() {
+        final CloneVO vo = new CloneVO();
+        vo.setDate(new FDate());
+        vo.setDecimal(new Decimal("1.5"));
+        vo.setMutableValue(new MutableInt(5));
+        vo.setValues(new double[] { 1, 2, 3 });
+        return vo;
+    }
+
+    public static class CloneVO extends AValueObject {
+
+        private static final long serialVersionUID = 1L;
+
+        private FDate date;
+        private Decimal decimal;
+        private MutableInt mutableValue;
+        private double[] values;
+        private final List<CloneVO> children = new ArrayList<CloneVO>();
+        private CloneVO parent;
+        private Object other;
+
+        public FDate getDate() {
+            return date;
+        }
+
+        public void setDate(final FDate date) {
+            this.date = date;
+        }
+
+        public Decimal getDecimal() {
+            return decimal;
+        }
+
+        public void setDecimal(final Decimal decimal) {
+            this.decimal = decimal;
+        }
+
+        public MutableInt getMutableValue() {
+            return mutableValue;
+        }
+
+        public void setMutableValue(final MutableInt mutableValue) {
+            this.mutableValue = mutableValue;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(final double[] values) {
+            this.values = values;
+        }
+
+        public List<CloneVO> getChildren() {
+            return children;
+        }
+
+        public CloneVO getParent() {
+            return parent;
+        }
+
+        public void setParent(final CloneVO parent) {
+            this.parent = parent;
+        }
+
+        public Object getOther() {
+            return other;
+        }
+
+        public void setOther(final Object other) {
+            this.other = other;
+        }
+
+    }
+
+    public static class BackReference implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CloneVO parent;
+
+        public BackReference(final CloneVO parent) {
+            this.parent = parent;
+        }
+
+        public CloneVO getParent() {
+            return parent;
+        }
+
+    }
+
+    public static class NotSerializableValue {
+    }
+
+}
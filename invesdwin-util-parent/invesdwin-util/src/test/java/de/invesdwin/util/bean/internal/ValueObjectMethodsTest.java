@@ -0,0 +1,144 @@
+package de.invesdwin.util.bean.internal;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.bean.AValueObject;
+import de.invesdwin.util.lang.Objects;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class ValueObjectMethodsTest {
+
+    private static final int ITERATIONS = 1_000_000;
+
+    @Test
+    public void testSameAsReflection() {
+        for (int i = 0; i < 16; i++) {
+            final TestVO vo1 = newTestVO(i);
+            final TestVO vo2 = newTestVO(i / 2);
+            Assertions.checkEquals(Objects.reflectionHashCode(vo1), ValueObjectMethods.hashCode(vo1));
+            Assertions.checkEquals(Objects.reflectionEquals(vo1, vo2), ValueObjectMethods.equals(vo1, vo2));
+            Assertions.checkEquals(Integer.signum(Objects.reflectionCompareTo(vo1, vo2)),
+                    Integer.signum(ValueObjectMethods.compareTo(vo1, vo2)));
+            Assertions.checkEquals(Objects.toString(vo1), ValueObjectMethods.toString(vo1));
+        }
+    }
+
+    @Test
+    public void testCyclicReference() {
+        final TestVO vo1 = newTestVO(1);
+        final TestVO vo2 = newTestVO(1);
+        vo1.setOther(vo2);
+        vo2.setOther(vo1);
+        Assertions.checkEquals(vo1.hashCode(), vo2.hashCode());
+        Assertions.checkTrue(vo1.equals(vo2));
+        Assertions.checkTrue(vo1.compareTo(newTestVO(1)) > 0);
+    }
+
+    @Test
+    public void testHashSet() {
+        final Set<TestVO> set = new HashSet<TestVO>();
+        for (int i = 0; i < 100; i++) {
+            set.add(newTestVO(i % 10));
+        }
+        Assertions.checkEquals(10, set.size());
+        Assertions.checkTrue(set.contains(newTestVO(5)));
+    }
+
+    @Ignore("manual benchmark")
+    @Test
+    public void testPerformance() {
+        final TestVO vo1 = newTestVO(1);
+        final TestVO vo2 = newTestVO(1);
+        for (int round = 0; round < 3; round++) {
+            Instant start = new Instant();
+            int hash = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                hash += Objects.reflectionHashCode(vo1);
+                if (!Objects.reflectionEquals(vo1, vo2) || Objects.reflectionCompareTo(vo1, vo2) != 0) {
+                    throw new IllegalStateException("not equal");
+                }
+            }
+            final double reflectionSeconds = start.toDuration().doubleValue(FTimeUnit.SECONDS);
+            start = new Instant();
+            for (int i = 0; i < ITERATIONS; i++) {
+                hash += ValueObjectMethods.hashCode(vo1);
+                if (!ValueObjectMethods.equals(vo1, vo2) || ValueObjectMethods.compareTo(vo1, vo2) != 0) {
+                    throw new IllegalStateException("not equal");
+                }
+            }
+            final double methodsSeconds = start.toDuration().doubleValue(FTimeUnit.SECONDS);
+            //CHECKSTYLE:OFF
+            System.out.println(String.format("reflection: %.0f ops/s, methods: %.0f ops/s (%s)",
+                    ITERATIONS / reflectionSeconds, ITERATIONS / methodsSeconds, hash));
+            //CHECKSTYLE:ON
+        }
+    }
+
+    private static TestVO newTestVO(final int value) {
+        final TestVO vo = new TestVO();
+        vo.setIntValue(value);
+        vo.setStringValue(String.valueOf(value % 3));
+        vo.setDoubleValues(new double[] { value, value % 2 });
+        return vo;
+    }
+
+    public static class TestVO extends AValueObject {
+
+        private int intValue;
+        private String stringValue;
+        private double[] doubleValues;
+        private TestVO other;
+        private transient int transientValue;
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public void setIntValue(final int intValue) {
+            this.intValue = intValue;
+        }
+
+        public String getStringValue() {
+            return stringValue;
+        }
+
+        public void setStringValue(final String stringValue) {
+            this.stringValue = stringValue;
+        }
+
+        public double[] getDoubleValues() {
+            return doubleValues;
+        }
+
+        public void setDoubleValues(final double[] doubleValues) {
+            this.doubleValues = doubleValues;
+        }
+
+        public TestVO getOther() {
+            return other;
+        }
+
+        public void setOther(final TestVO other) {
+            this.other = other;
+        }
+
+        public int getTransientValue() {
+            return transientValue;
+        }
+
+        public void setTransientValue(final int transientValue) {
+            this.transientValue = transientValue;
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+package de.invesdwin.util.collections.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.fast.IFastIterableDoubleList;
+import de.invesdwin.util.collections.fast.IFastIterableIntMap;
+import de.invesdwin.util.collections.fast.IFastIterableIntSet;
+import de.invesdwin.util.collections.fast.IFastIterableLongMap;
+import de.invesdwin.util.collections.fast.IFastIterableLongSet;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.future.Futures;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+
+@NotThreadSafe
+public class LockCollectionFactoryTest {
+
+    @Test
+    public void testFastIterableLongMap() {
+        testFastIterableLongMap(ILockCollectionFactory.getInstance(false));
+        testFastIterableLongMap(ILockCollectionFactory.getInstance(true));
+    }
+
+    private void testFastIterableLongMap(final ILockCollectionFactory factory) {
+        final IFastIterableLongMap<String> map = factory.newFastIterableLongMap();
+        map.put(1L, "1");
+        map.put(2L, "2");
+        Assertions.checkEquals(2, map.asKeyArray().length);
+        Assertions.checkEquals(2, map.asValueArray(String.class).length);
+        map.put(3L, null);
+        Assertions.checkEquals(3, map.asKeyArray().length);
+        map.remove(1L);
+        final long[] keys = map.asKeyArray();
+        Assertions.checkEquals(2, keys.length);
+        Assertions.checkSame(keys, map.asKeyArray());
+        Assertions.checkEquals("2", map.get(2L));
+        map.clear();
+        Assertions.checkEquals(0, map.asKeyArray().length);
+    }
+
+    @Test
+    public void testFastIterableIntMap() {
+        testFastIterableIntMap(ILockCollectionFactory.getInstance(false));
+        testFastIterableIntMap(ILockCollectionFactory.getInstance(true));
+    }
+
+    private void testFastIterableIntMap(final ILockCollectionFactory factory) {
+        final IFastIterableIntMap<String> map = factory.newFastIterableIntMap();
+        map.put(1, "1");
+        Assertions.checkNull(map.putIfAbsent(2, "2"));
+        Assertions.checkEquals("2", map.putIfAbsent(2, "3"));
+        Assertions.checkEquals(2, map.asValueArray(String.class).length);
+        try {
+            map.keySet().remove(1);
+            Assertions.checkFalse(true, "views should be unmodifiable");
+        } catch (final UnsupportedOperationException e) {
+            //expected
+        }
+        Assertions.checkTrue(map.containsKey(1));
+    }
+
+    @Test
+    public void testSynchronizedFastIterableLongMapCompoundOperations() throws InterruptedException {
+        final int threads = 8;
+        final int keys = 1000;
+        final IFastIterableLongMap<Integer> map = ILockCollectionFactory.getInstance(true).newFastIterableLongMap();
+        final AtomicInteger putIfAbsentWinners = new AtomicInteger();
+        final AtomicInteger computeIfAbsentCalls = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testSynchronizedCompound", threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (long k = 0; k < keys; k++) {
+                            if (map.putIfAbsent(k, thread) == null) {
+                                putIfAbsentWinners.incrementAndGet();
+                            }
+                            map.computeIfAbsent(keys + k, new LongFunction<Integer>() {
+                                @Override
+                                public Integer apply(final long value) {
+                                    computeIfAbsentCalls.incrementAndGet();
+                                    return thread;
+                                }
+                            });
+                            map.merge(2 * keys + k, 1, new BiFunction<Integer, Integer, Integer>() {
+                                @Override
+                                public Integer apply(final Integer oldValue, final Integer value) {
+                                    return oldValue + value;
+                                }
+                            });
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            //rethrows assertion errors and exceptions of the workers
+            Futures.get(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.checkEquals(keys, putIfAbsentWinners.get());
+        Assertions.checkEquals(keys, computeIfAbsentCalls.get());
+        for (long k = 0; k < keys; k++) {
+            Assertions.checkEquals(threads, map.get(2 * keys + k));
+        }
+        Assertions.checkEquals(3 * keys, map.asKeyArray().length);
+    }
+
+    @Test
+    public void testFastIterableLongSet() {
+        testFastIterableLongSet(ILockCollectionFactory.getInstance(false));
+        testFastIterableLongSet(ILockCollectionFactory.getInstance(true));
+    }
+
+    private void testFastIterableLongSet(final ILockCollectionFactory factory) {
+        final IFastIterableLongSet set = factory.newFastIterableLongSet();
+        set.add(1L);
+        set.add(2L);
+        final long[] array = set.asArray();
+        Assertions.checkEquals(2, array.length);
+        Assertions.checkSame(array, set.asArray());
+        Assertions.checkFalse(set.add(2L));
+        Assertions.checkSame(array, set.asArray());
+        final LongIterator iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.nextLong() == 1L) {
+                iterator.remove();
+            }
+        }
+        Assertions.checkEquals(1, set.asArray().length);
+        Assertions.checkEquals(2L, set.asArray()[0]);
+        set.clear();
+        Assertions.checkEquals(0, set.asArray().length);
+    }
+
+    @Test
+    public void testFastIterableIntSet() {
+        testFastIterableIntSet(ILockCollectionFactory.getInstance(false));
+        testFastIterableIntSet(ILockCollectionFactory.getInstance(true));
+    }
+
+    private void testFastIterableIntSet(final ILockCollectionFactory factory) {
+        final IFastIterableIntSet set = factory.newFastIterableIntSet();
+        set.add(1);
+        set.add(2);
+        Assertions.checkEquals(2, set.asArray().length);
+        set.remove(1);
+        Assertions.checkEquals(1, set.asArray().length);
+        Assertions.checkEquals(2, set.asArray()[0]);
+    }
+
+    @Test
+    public void testFastIterableDoubleList() {
+        testFastIterableDoubleList(ILockCollectionFactory.getInstance(false));
+        testFastIterableDoubleList(ILockCollectionFactory.getInstance(true));
+    }
+
+    private void testFastIterableDoubleList(final ILockCollectionFactory factory) {
+        final IFastIterableDoubleList list = factory.newFastIterableDoubleArrayList();
+        list.add(3D);
+        list.add(1D);
+        list.add(2D);
+        final double[] array = list.asArray();
+        Assertions.checkEquals(3, array.length);
+        Assertions.checkSame(array, list.asArray());
+        list.sort(null);
+        Assertions.checkEquals(1D, list.asArray()[0]);
+        list.subList(0, 1).clear();
+        Assertions.checkEquals(2, list.asArray().length);
+        list.set(0, 5D);
+        Assertions.checkEquals(5D, list.asArray()[0]);
+        list.removeDouble(1);
+        Assertions.checkEquals(1, list.asArray().length);
+    }
+
+}
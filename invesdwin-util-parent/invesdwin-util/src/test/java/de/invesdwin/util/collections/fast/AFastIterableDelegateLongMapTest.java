@@ -0,0 +1,83 @@
+package de.invesdwin.util.collections.fast;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.fast.concurrent.ASynchronizedFastIterableDelegateLongMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+@NotThreadSafe
+public class AFastIterableDelegateLongMapTest {
+
+    @Test
+    public void testReplaceAll() {
+        assertReplaceAll(new AFastIterableDelegateLongMap<String>() {
+            @Override
+            protected Long2ObjectMap<String> newDelegate() {
+                return new Long2ObjectOpenHashMap<String>();
+            }
+        });
+        assertReplaceAll(new ASynchronizedFastIterableDelegateLongMap<String>() {
+            @Override
+            protected Long2ObjectMap<String> newDelegate() {
+                return new Long2ObjectOpenHashMap<String>();
+            }
+        });
+    }
+
+    @Test
+    public void testRemoveNullValue() {
+        assertRemoveNullValue(new AFastIterableDelegateLongMap<String>() {
+            @Override
+            protected Long2ObjectMap<String> newDelegate() {
+                return new Long2ObjectOpenHashMap<String>();
+            }
+        });
+        assertRemoveNullValue(new ASynchronizedFastIterableDelegateLongMap<String>() {
+            @Override
+            protected Long2ObjectMap<String> newDelegate() {
+                return new Long2ObjectOpenHashMap<String>();
+            }
+        });
+    }
+
+    private static void assertReplaceAll(final IFastIterableLongMap<String> map) {
+        map.put(1L, "1");
+        map.put(2L, "2");
+        Assertions.checkEquals(Arrays.asList("1", "2"), sortedValues(map));
+        map.replaceAll(new BiFunction<Long, String, String>() {
+            @Override
+            public String apply(final Long key, final String value) {
+                return value + "x";
+            }
+        });
+        Assertions.checkEquals("1x", map.get(1L));
+        Assertions.checkEquals(Arrays.asList("1x", "2x"), sortedValues(map));
+    }
+
+    private static void assertRemoveNullValue(final IFastIterableLongMap<String> map) {
+        map.put(1L, "1");
+        map.put(2L, null);
+        Assertions.checkEquals(2, map.asKeyArray().length);
+        Assertions.checkNull(map.remove(2L));
+        Assertions.checkFalse(map.containsKey(2L));
+        Assertions.checkEquals(1, map.asKeyArray().length);
+        Assertions.checkEquals(1L, map.asKeyArray()[0]);
+        Assertions.checkEquals(1, map.asValueArray(String.class).length);
+    }
+
+    private static List<String> sortedValues(final IFastIterableLongMap<String> map) {
+        //the cached array must not be modified
+        final String[] values = map.asValueArray(String.class).clone();
+        Arrays.sort(values);
+        return Arrays.asList(values);
+    }
+
+}
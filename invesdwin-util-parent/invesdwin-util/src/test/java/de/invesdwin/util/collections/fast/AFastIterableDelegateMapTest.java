@@ -0,0 +1,84 @@
+package de.invesdwin.util.collections.fast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class AFastIterableDelegateMapTest {
+
+    @Test
+    public void testChunkedFastIterable() {
+        final AFastIterableDelegateMap<Integer, String> map = new AFastIterableDelegateMap<Integer, String>() {
+            @Override
+            protected Map<Integer, String> newDelegate() {
+                return new LinkedHashMap<Integer, String>();
+            }
+
+            @Override
+            protected boolean isChunkedFastIterable() {
+                return true;
+            }
+        };
+        final Map<Integer, String> expected = new LinkedHashMap<Integer, String>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, String.valueOf(i));
+            expected.put(i, String.valueOf(i));
+        }
+        final Iterator<Entry<Integer, String>> before = map.entrySet().iterator();
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove(i);
+            expected.remove(i);
+        }
+        map.put(500, "replaced");
+        expected.put(500, "replaced");
+        map.put(2000, null);
+        expected.put(2000, null);
+
+        final List<Entry<Integer, String>> entries = toList(map.entrySet().iterator());
+        Assertions.checkEquals(expected.size(), entries.size());
+        int i = 0;
+        for (final Entry<Integer, String> e : expected.entrySet()) {
+            Assertions.checkEquals(e.getKey(), entries.get(i).getKey());
+            Assertions.checkEquals(e.getValue(), entries.get(i).getValue());
+            i++;
+        }
+        final Integer[] keys = map.asKeyArray(Integer.class);
+        Assertions.checkEquals(expected.size(), keys.length);
+        Assertions.checkEquals(2000, keys[keys.length - 1]);
+        Assertions.checkEquals(new ArrayList<String>(expected.values()),
+                Arrays.asList(map.asValueArray(String.class)));
+
+        //removing an absent key keeps the cached arrays
+        map.remove(3000);
+        Assertions.checkSame(keys, map.asKeyArray(Integer.class));
+
+        //iterators keep working on the snapshot they were created with
+        Assertions.checkEquals(1000, toList(before).size());
+
+        map.remove(2000);
+        Assertions.checkEquals(expected.size() - 1, map.asEntryArray().length);
+        Assertions.checkEquals(1, map.asEntryArray()[0].getKey());
+        map.clear();
+        Assertions.checkFalse(map.entrySet().iterator().hasNext());
+    }
+
+    private static <E> List<E> toList(final Iterator<E> iterator) {
+        final List<E> list = new ArrayList<E>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+}
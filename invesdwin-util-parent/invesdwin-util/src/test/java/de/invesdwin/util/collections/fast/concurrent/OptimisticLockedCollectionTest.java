@@ -0,0 +1,84 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class OptimisticLockedCollectionTest {
+
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testReadsDuringWrites() throws InterruptedException {
+        final OptimisticLockedCollection<Integer> collection = new OptimisticLockedCollection<Integer>(
+                new ArrayList<Integer>());
+        for (int i = 0; i < VALUES; i++) {
+            collection.add(i);
+        }
+        final AtomicBoolean stop = new AtomicBoolean();
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    //grows the backing array and removes the additional values again
+                    for (int i = VALUES; i < VALUES * 10; i++) {
+                        collection.add(i);
+                    }
+                    for (int i = VALUES; i < VALUES * 10; i++) {
+                        collection.remove(i);
+                    }
+                }
+            }
+        };
+        writer.start();
+        try {
+            for (int r = 0; r < 100; r++) {
+                Assertions.checkTrue(collection.contains(r));
+                Assertions.checkTrue(collection.containsAll(Arrays.asList(0, VALUES / 2, VALUES - 1)));
+                Assertions.checkTrue(collection.size() >= VALUES);
+                Assertions.checkFalse(collection.isEmpty());
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        Assertions.checkEquals(VALUES, collection.size());
+        Assertions.checkFalse(collection.contains(VALUES));
+    }
+
+    @Test(timeout = 10000)
+    public void testReadFromWriteOperation() {
+        final OptimisticLockedCollection<Integer> collection = new OptimisticLockedCollection<Integer>(
+                new ArrayList<Integer>());
+        collection.add(1);
+        //the source is iterated while the write lock is held
+        collection.addAll(new AbstractCollection<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return Arrays.asList(collection.size() + 1, collection.contains(1) ? 3 : -1).iterator();
+            }
+
+            @Override
+            public int size() {
+                return 2;
+            }
+
+            @Override
+            public Object[] toArray() {
+                return new Object[] { collection.size() + 1, collection.contains(1) ? 3 : -1 };
+            }
+        });
+        Assertions.checkEquals(3, collection.size());
+        Assertions.checkTrue(collection.containsAll(Arrays.asList(1, 2, 3)));
+    }
+
+}
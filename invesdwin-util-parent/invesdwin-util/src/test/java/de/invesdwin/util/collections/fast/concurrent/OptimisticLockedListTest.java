@@ -0,0 +1,84 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class OptimisticLockedListTest {
+
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testReadsDuringWrites() throws InterruptedException {
+        final OptimisticLockedList<Integer> list = new OptimisticLockedList<Integer>(new ArrayList<Integer>());
+        for (int i = 0; i < VALUES; i++) {
+            list.add(i);
+        }
+        final AtomicBoolean stop = new AtomicBoolean();
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    //grows the backing array and removes the additional values again, the first values never change
+                    for (int i = VALUES; i < VALUES * 10; i++) {
+                        list.add(i);
+                    }
+                    for (int i = VALUES * 10 - 1; i >= VALUES; i--) {
+                        list.remove(i);
+                    }
+                }
+            }
+        };
+        writer.start();
+        try {
+            for (int r = 0; r < 100; r++) {
+                for (int i = 0; i < VALUES; i += 10) {
+                    Assertions.checkEquals(i, list.get(i));
+                    Assertions.checkEquals(i, list.indexOf(i));
+                }
+                Assertions.checkTrue(list.contains(r));
+                Assertions.checkTrue(list.size() >= VALUES);
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        Assertions.checkEquals(VALUES, list.size());
+        Assertions.checkEquals(-1, list.lastIndexOf(VALUES));
+    }
+
+    @Test(timeout = 10000)
+    public void testReadFromWriteOperation() {
+        final OptimisticLockedList<Integer> list = new OptimisticLockedList<Integer>(new ArrayList<Integer>());
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        //the operator and the comparator run while the write lock is held
+        list.replaceAll(new UnaryOperator<Integer>() {
+            @Override
+            public Integer apply(final Integer value) {
+                //earlier elements are already replaced, but the original value is still its last occurrence
+                return list.size() - list.lastIndexOf(value);
+            }
+        });
+        Assertions.checkEquals(10, list.get(0));
+        list.sort(new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                Assertions.checkFalse(list.isEmpty());
+                return Integer.compare(o1, o2);
+            }
+        });
+        Assertions.checkEquals(1, list.get(0));
+        Assertions.checkEquals(10, list.get(list.size() - 1));
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+@NotThreadSafe
+public class OptimisticLockedMapTest {
+
+    private static final int KEYS = 1000;
+
+    @Test
+    public void testReadsDuringWrites() throws InterruptedException {
+        final OptimisticLockedMap<Integer, Integer> map = new OptimisticLockedMap<Integer, Integer>(
+                new Object2ObjectOpenHashMap<Integer, Integer>());
+        for (int i = 0; i < KEYS; i++) {
+            map.put(i, i);
+        }
+        final AtomicBoolean stop = new AtomicBoolean();
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                int round = 0;
+                while (!stop.get()) {
+                    //resizes the table and removes the additional keys again, the original keys are never changed
+                    for (int i = KEYS; i < KEYS * 10; i++) {
+                        map.put(i, round);
+                    }
+                    for (int i = KEYS; i < KEYS * 10; i++) {
+                        map.remove(i);
+                    }
+                    round++;
+                }
+            }
+        };
+        writer.start();
+        try {
+            for (int r = 0; r < 100; r++) {
+                for (int i = 0; i < KEYS; i++) {
+                    Assertions.checkEquals(i, map.get(i));
+                    Assertions.checkTrue(map.containsKey(i));
+                }
+                Assertions.checkTrue(map.size() >= KEYS);
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        Assertions.checkEquals(KEYS, map.size());
+        Assertions.checkNull(map.get(KEYS));
+    }
+
+    @Test(timeout = 10000)
+    public void testReadFromMappingFunction() {
+        final OptimisticLockedMap<Integer, Integer> map = new OptimisticLockedMap<Integer, Integer>(
+                new Object2ObjectOpenHashMap<Integer, Integer>());
+        map.put(1, 10);
+        //the write lock is held while the mapping function runs, reads of the same thread must not wait for it
+        final Integer computed = map.computeIfAbsent(2, new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(final Integer key) {
+                Assertions.checkTrue(map.containsKey(1));
+                Assertions.checkFalse(map.containsKey(key));
+                return map.get(1) + map.size();
+            }
+        });
+        Assertions.checkEquals(11, computed);
+        Assertions.checkEquals(11, map.get(2));
+    }
+
+    @Test
+    public void testRejectsUnsafeDelegates() {
+        @SuppressWarnings("unchecked")
+        final List<Map<Integer, Integer>> delegates = Arrays.asList(new HashMap<Integer, Integer>(),
+                new LinkedHashMap<Integer, Integer>(16, 0.75f, true), new TreeMap<Integer, Integer>(),
+                new WeakHashMap<Integer, Integer>());
+        for (final Map<Integer, Integer> delegate : delegates) {
+            try {
+                new OptimisticLockedMap<Integer, Integer>(delegate);
+                Assertions.failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+            } catch (final IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package de.invesdwin.util.collections.fast.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+@NotThreadSafe
+public class OptimisticLockedSetTest {
+
+    private static final int VALUES = 1000;
+
+    @Test
+    public void testReadsDuringWrites() throws InterruptedException {
+        final OptimisticLockedSet<Integer> set = new OptimisticLockedSet<Integer>(
+                new ObjectOpenHashSet<Integer>());
+        for (int i = 0; i < VALUES; i++) {
+            set.add(i);
+        }
+        final AtomicBoolean stop = new AtomicBoolean();
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    //resizes the table and removes the additional values again
+                    for (int i = VALUES; i < VALUES * 10; i++) {
+                        set.add(i);
+                    }
+                    for (int i = VALUES; i < VALUES * 10; i++) {
+                        set.remove(i);
+                    }
+                }
+            }
+        };
+        writer.start();
+        try {
+            for (int r = 0; r < 100; r++) {
+                Assertions.checkTrue(set.contains(r));
+                Assertions.checkTrue(set.containsAll(Arrays.asList(0, VALUES / 2, VALUES - 1)));
+                Assertions.checkTrue(set.size() >= VALUES);
+                Assertions.checkFalse(set.isEmpty());
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        Assertions.checkEquals(VALUES, set.size());
+        Assertions.checkFalse(set.contains(VALUES));
+    }
+
+    @Test(timeout = 10000)
+    public void testReadFromWriteOperation() {
+        final OptimisticLockedSet<Integer> set = new OptimisticLockedSet<Integer>(
+                new ObjectOpenHashSet<Integer>());
+        set.add(1);
+        //the source is iterated while the write lock is held
+        set.addAll(new AbstractCollection<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return Arrays.asList(set.size() + 1, set.contains(1) ? 3 : -1).iterator();
+            }
+
+            @Override
+            public int size() {
+                return 2;
+            }
+
+            @Override
+            public Object[] toArray() {
+                return new Object[] { set.size() + 1, set.contains(1) ? 3 : -1 };
+            }
+        });
+        Assertions.checkEquals(3, set.size());
+        Assertions.checkTrue(set.containsAll(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    public void testRejectsUnsafeDelegates() {
+        @SuppressWarnings("unchecked")
+        final List<Set<Integer>> delegates = Arrays.asList(new HashSet<Integer>(), new LinkedHashSet<Integer>(),
+                new TreeSet<Integer>());
+        for (final Set<Integer> delegate : delegates) {
+            try {
+                new OptimisticLockedSet<Integer>(delegate);
+                Assertions.failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+            } catch (final IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package de.invesdwin.util.collections.iterable.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ICloseableIterator;
+
+@NotThreadSafe
+public class ArrayBufferingIteratorTest {
+
+    private static final int COUNT = ArrayBufferingIterator.DEFAULT_SEGMENT_SIZE * 3 + 7;
+
+    @Test
+    public void testSameAsBufferingIterator() {
+        final List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < COUNT; i++) {
+            list.add(i);
+        }
+        final BufferingIterator<Integer> expected = new BufferingIterator<Integer>(list);
+        final ArrayBufferingIterator<Integer> actual = new ArrayBufferingIterator<Integer>(list);
+        expected.prepend(-1);
+        actual.prepend(-1);
+        expected.add(COUNT);
+        actual.add(COUNT);
+        Assertions.checkEquals(expected.size(), actual.size());
+        Assertions.checkEquals(expected.toString(), actual.toString());
+        while (expected.hasNext()) {
+            Assertions.checkTrue(actual.hasNext());
+            Assertions.checkEquals(expected.getHead(), actual.getHead());
+            Assertions.checkEquals(expected.getTail(), actual.getTail());
+            Assertions.checkEquals(expected.next(), actual.next());
+            Assertions.checkEquals(expected.size(), actual.size());
+        }
+        Assertions.checkFalse(actual.hasNext());
+        Assertions.checkNull(actual.getHead());
+        Assertions.checkNull(actual.getTail());
+    }
+
+    @Test
+    public void testConsume() {
+        final ArrayBufferingIterator<Integer> first = new ArrayBufferingIterator<Integer>();
+        final ArrayBufferingIterator<Integer> second = new ArrayBufferingIterator<Integer>();
+        for (int i = 0; i < COUNT; i++) {
+            first.add(i);
+            second.add(COUNT + i);
+        }
+        Assertions.checkTrue(first.consume(second));
+        Assertions.checkTrue(second.isEmpty());
+        Assertions.checkEquals(COUNT * 2, first.size());
+        Assertions.checkEquals(COUNT * 2 - 1, first.getTail());
+        second.add(-1);
+        Assertions.checkEquals(COUNT * 2 - 1, first.getTail());
+        final ICloseableIterator<Integer> iterator = first.iterator();
+        for (int i = 0; i < COUNT * 2; i++) {
+            Assertions.checkEquals(i, iterator.next());
+        }
+        Assertions.checkFalse(iterator.hasNext());
+        first.clear();
+        Assertions.checkTrue(first.isEmpty());
+        Assertions.checkEquals(-1, second.next());
+    }
+
+    @Test
+    public void testConsumeBufferingIteratorAsIterable() {
+        final ArrayBufferingIterator<Integer> buffer = new ArrayBufferingIterator<Integer>();
+        final BufferingIterator<Integer> furtherValues = new BufferingIterator<Integer>();
+        for (int i = 0; i < COUNT; i++) {
+            furtherValues.add(i);
+        }
+        //callers like AGapHistoricalCache only know the iterable type, the source still has to be emptied
+        final Iterable<Integer> iterable = furtherValues;
+        Assertions.checkTrue(buffer.consume(iterable));
+        Assertions.checkTrue(furtherValues.isEmpty());
+        Assertions.checkEquals(COUNT, buffer.size());
+        Assertions.checkEquals(COUNT - 1, buffer.getTail());
+    }
+
+}
@@ -0,0 +1,110 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ACloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@NotThreadSafe
+public class AParallelChunkConsumerIteratorTest {
+
+    private static final int COUNT = 1000;
+
+    @Test
+    public void testOwnedExecutorOrdered() {
+        Assertions.checkEquals(newRequests(), consume(newIterator(3, null, true)));
+    }
+
+    @Test
+    public void testSharedExecutorOrdered() {
+        Assertions.checkEquals(newRequests(),
+                consume(newIterator(7, AParallelChunkConsumerIterator.getSharedExecutor(), true)));
+    }
+
+    @Test
+    public void testSharedExecutorUnordered() {
+        final List<Integer> results = consume(
+                newIterator(7, AParallelChunkConsumerIterator.getSharedExecutor(), false));
+        Collections.sort(results);
+        Assertions.checkEquals(newRequests(), results);
+    }
+
+    @Test
+    public void testCloseCancelsPending() throws InterruptedException {
+        for (final boolean ordered : new boolean[] { true, false }) {
+            //not a WrappedExecutorService so that all chunks are queued without checking the pending count
+            final ExecutorService executor = java.util.concurrent.Executors.newSingleThreadExecutor();
+            final AtomicInteger started = new AtomicInteger();
+            final CountDownLatch blockingStarted = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final ACloseableIterator<Integer> iterator = new AParallelChunkConsumerIterator<Integer, Integer>(
+                    "testCloseCancelsPending", WrapperCloseableIterable.maybeWrap(newRequests()).iterator(), 5,
+                    executor, ordered) {
+                @Override
+                protected Integer doWork(final Integer request) {
+                    started.incrementAndGet();
+                    if (request > 0) {
+                        blockingStarted.countDown();
+                        try {
+                            release.await();
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                    return request;
+                }
+            };
+            Assertions.checkEquals(0, iterator.next());
+            blockingStarted.await();
+            iterator.close();
+            release.countDown();
+            executor.shutdown();
+            Assertions.checkTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            //the queued requests 2 to 4 should have been cancelled
+            Assertions.checkEquals(2, started.get(), "ordered=%s", ordered);
+        }
+    }
+
+    private List<Integer> newRequests() {
+        final List<Integer> requests = new ArrayList<Integer>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            requests.add(i);
+        }
+        return requests;
+    }
+
+    private ACloseableIterator<Integer> newIterator(final int chunkSize,
+            final ExecutorService executor, final boolean ordered) {
+        return new AParallelChunkConsumerIterator<Integer, Integer>("testParallelChunkConsumer",
+                WrapperCloseableIterable.maybeWrap(newRequests()).iterator(), chunkSize, executor, ordered) {
+            @Override
+            protected Integer doWork(final Integer request) {
+                return request;
+            }
+        };
+    }
+
+    private List<Integer> consume(final ACloseableIterator<Integer> iterator) {
+        final List<Integer> results = new ArrayList<Integer>(COUNT);
+        try {
+            while (iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,54 @@
+package de.invesdwin.util.collections.iterable.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.collections.iterable.ACloseableIterator;
+import de.invesdwin.util.collections.iterable.WrapperCloseableIterable;
+
+@NotThreadSafe
+public class ProducerQueueIterableTest {
+
+    //not a multiple of the chunk size so that the last chunk needs to be flushed
+    private static final int COUNT = 100_003;
+
+    @Test
+    public void testWaitStrategies() {
+        final List<Integer> expected = new ArrayList<Integer>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            expected.add(i);
+        }
+        for (final ProducerQueueWaitStrategy waitStrategy : ProducerQueueWaitStrategy.values()) {
+            //small queue so that the producer has to wait for the consumer
+            final ProducerQueueIterable<Integer> iterable = new ProducerQueueIterable<Integer>(
+                    "testWaitStrategies_" + waitStrategy, WrapperCloseableIterable.maybeWrap(expected), 1000)
+                            .withWaitStrategy(waitStrategy);
+            final List<Integer> actual = new ArrayList<Integer>(COUNT);
+            final ACloseableIterator<Integer> iterator = iterable.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    actual.add(iterator.next());
+                }
+            } finally {
+                iterator.close();
+            }
+            Assertions.checkEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testIdle() throws InterruptedException {
+        for (final ProducerQueueWaitStrategy waitStrategy : ProducerQueueWaitStrategy.values()) {
+            //every strategy can idle, independent of the queue it uses
+            for (int idleCount = 0; idleCount < 20; idleCount++) {
+                waitStrategy.idle(idleCount);
+            }
+        }
+    }
+
+}
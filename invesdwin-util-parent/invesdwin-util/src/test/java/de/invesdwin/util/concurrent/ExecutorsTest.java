@@ -87,6 +87,87 @@ public class ExecutorsTest {
         Assertions.assertThat(success).isTrue();
     }
 
+    @Test
+    public void testVirtualThreadPerTaskExecutor() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newVirtualThreadPerTaskExecutor("testVirtual");
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    Assertions.checkEquals(Executors.isVirtualThreadsSupported(), Threads.isCurrentThreadVirtual());
+                    Assertions.checkTrue(Threads.getCurrentThreadName().contains("testVirtual"));
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(100);
+                    } catch (final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        Futures.submitAndWait(executor, tasks);
+        Assertions.checkEquals(0, executor.getPendingCount());
+        executor.shutdown();
+        executor.awaitTermination();
+    }
+
+    @Test
+    public void testFixedVirtualThreadPool() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedVirtualThreadPool("testFixedVirtual", 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    final int curRunning = running.incrementAndGet();
+                    try {
+                        int curMax = maxRunning.get();
+                        while (curRunning > curMax && !maxRunning.compareAndSet(curMax, curRunning)) {
+                            curMax = maxRunning.get();
+                        }
+                        Assertions.checkEquals(Executors.isVirtualThreadsSupported(),
+                                Threads.isCurrentThreadVirtual());
+                        Assertions.checkTrue(Threads.getCurrentThreadName().contains("testFixedVirtual"));
+                        TimeUnit.MILLISECONDS.sleep(10);
+                        return true;
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            }));
+        }
+        //rethrows assertion errors from the workers
+        for (final Boolean result : Futures.get(futures)) {
+            Assertions.checkTrue(result);
+        }
+        Assertions.checkTrue(maxRunning.get() <= 2, "%s running in parallel", maxRunning.get());
+        executor.shutdown();
+        executor.awaitTermination();
+        Assertions.checkEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void testFixedVirtualThreadPoolWaitOnFullPendingCount() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedVirtualThreadPool("testFixedVirtualWait", 2)
+                .withWaitOnFullPendingCount(true);
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Assertions.checkEquals(Executors.isVirtualThreadsSupported(), Threads.isCurrentThreadVirtual());
+                }
+            }));
+            Assertions.checkTrue(executor.getPendingCount() <= 2);
+        }
+        Futures.wait(futures);
+        executor.shutdown();
+        executor.awaitTermination();
+        Assertions.checkEquals(0, executor.getPendingCount());
+    }
+
     @Test
     public void testExceptionWithFixedThreadPool() throws InterruptedException {
         final WrappedExecutorService executor = Executors.newFixedThreadPool("testException", 1);
@@ -21,6 +21,7 @@ public class LoopInterruptedCheckTest {
         testLoopAlwaysInstant();
         testLoopAlwaysCheck();
         testLoopAlwaysCheckMs();
+        testLoopAlwaysCheckCoarse();
     }
 
     private void testLoopAlwaysCheck() throws InterruptedException {
@@ -53,6 +54,21 @@ public class LoopInterruptedCheckTest {
         //CHECKSTYLE:ON
     }
 
+    private void testLoopAlwaysCheckCoarse() throws InterruptedException {
+        final Instant start = new Instant();
+        final LoopInterruptedCheck check = new CoarseLoopInterruptedCheck(Duration.ONE_SECOND);
+        int iterations = 0;
+        for (int i = 0; i < SECONDS;) {
+            if (check.check()) {
+                i++;
+            }
+            iterations++;
+        }
+        //CHECKSTYLE:OFF
+        System.out.println("testLoopAlwaysCheckCoarse " + iterations + ": " + start);
+        //CHECKSTYLE:ON
+    }
+
     private void testLoopAlwaysInstant() throws InterruptedException {
         final Instant start = new Instant();
         Instant prevInterruptCheck = new Instant();
@@ -0,0 +1,192 @@
+package de.invesdwin.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.taskinfo.TaskInfoManager;
+import de.invesdwin.util.concurrent.taskinfo.provider.TaskInfoStatus;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class WrappedExecutorServicePendingCountTest {
+
+    private static final Runnable EMPTY_RUNNABLE = new Runnable() {
+        @Override
+        public void run() {}
+    };
+
+    @Test
+    public void testAwaitPendingCount() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testAwaitPendingCount", 4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(1);
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+            executor.awaitPendingCount(50);
+            Assertions.checkTrue(executor.getPendingCount() <= 50);
+            executor.awaitPendingCount(0);
+            Assertions.checkEquals(0, executor.getPendingCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWaitOnFullPendingCount() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testWaitOnFullPendingCount", 2)
+                .withWaitOnFullPendingCount(true);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(EMPTY_RUNNABLE);
+                Assertions.checkTrue(executor.getPendingCount() <= 2);
+            }
+            executor.awaitPendingCount(0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPendingCountListenerSeesLatestCount() throws InterruptedException {
+        final WrappedExecutorService executor = Executors.newFixedThreadPool("testPendingCountListener", 4);
+        final List<Integer> counts = new ArrayList<Integer>();
+        executor.getPendingCountListeners().add(new IPendingCountListener() {
+            @Override
+            public void onPendingCountChanged(final int currentPendingCount) {
+                synchronized (counts) {
+                    counts.add(currentPendingCount);
+                }
+            }
+        });
+        try {
+            for (int i = 0; i < 10000; i++) {
+                executor.execute(EMPTY_RUNNABLE);
+            }
+            executor.awaitPendingCount(0);
+            //notifications are asynchronous, but the last one has to report the final count
+            final Instant start = new Instant();
+            while (true) {
+                synchronized (counts) {
+                    if (!counts.isEmpty() && counts.get(counts.size() - 1) == 0) {
+                        break;
+                    }
+                }
+                Assertions.checkTrue(start.toDuration().longValue(FTimeUnit.SECONDS) < 10);
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTaskInfoPendingCountListenerSeesEveryTransition() throws InterruptedException {
+        final String name = "testTaskInfoPendingCountListener";
+        final WrappedExecutorService executor = Executors.newFixedThreadPool(name, 1);
+        final List<Integer> counts = new ArrayList<Integer>();
+        final TaskInfoPendingCountListener listener = new TaskInfoPendingCountListener(name) {
+            @Override
+            public synchronized void onPendingCountChanged(final int currentPendingCount) {
+                super.onPendingCountChanged(currentPendingCount);
+                synchronized (counts) {
+                    counts.add(currentPendingCount);
+                }
+            }
+        };
+        executor.getPendingCountListeners().add(listener);
+        try {
+            final int transitions = 100;
+            for (int i = 0; i < transitions; i++) {
+                final CountDownLatch latch = new CountDownLatch(1);
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            latch.await();
+                        } catch (final InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                //synchronous listeners are notified before execute returns
+                Assertions.checkEquals(TaskInfoStatus.STARTED, listener.getStatus());
+                Assertions.checkNotNull(TaskInfoManager.getTaskInfo(name));
+                latch.countDown();
+                awaitCountsSize(counts, (i + 1) * 2);
+                Assertions.checkEquals(TaskInfoStatus.COMPLETED, listener.getStatus());
+                Assertions.checkNull(TaskInfoManager.getTaskInfo(name));
+            }
+            //no transition from and to zero got coalesced
+            synchronized (counts) {
+                Assertions.checkEquals(transitions * 2, counts.size());
+                for (int i = 0; i < counts.size(); i++) {
+                    Assertions.checkEquals((i + 1) % 2, counts.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitCountsSize(final List<Integer> counts, final int size) throws InterruptedException {
+        final Instant start = new Instant();
+        while (true) {
+            synchronized (counts) {
+                if (counts.size() >= size) {
+                    return;
+                }
+            }
+            Assertions.checkTrue(start.toDuration().longValue(FTimeUnit.SECONDS) < 10);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    @Ignore("manual benchmark")
+    @Test
+    public void testSubmitThroughputPerformance() throws InterruptedException {
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+        final int tasksPerThread = 1_000_000;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            final WrappedExecutorService executor = Executors.newFixedThreadPool("testSubmitThroughputPerformance",
+                    threads);
+            final WrappedExecutorService submitters = Executors
+                    .newFixedThreadPool("testSubmitThroughputPerformance_submitters", threads);
+            final Instant start = new Instant();
+            for (int t = 0; t < threads; t++) {
+                submitters.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < tasksPerThread; i++) {
+                            executor.execute(EMPTY_RUNNABLE);
+                        }
+                    }
+                });
+            }
+            submitters.awaitPendingCount(0);
+            executor.awaitPendingCount(0);
+            final double seconds = start.toDuration().doubleValue(FTimeUnit.SECONDS);
+            System.out.println(String.format("%s threads: %.0f tasks/s", threads, threads * tasksPerThread / seconds)); //SUPPRESS CHECKSTYLE single line
+            submitters.shutdown();
+            executor.shutdown();
+        }
+    }
+
+}
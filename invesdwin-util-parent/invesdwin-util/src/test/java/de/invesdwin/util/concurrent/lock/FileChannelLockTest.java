@@ -2,11 +2,13 @@ package de.invesdwin.util.concurrent.lock;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.junit.Test;
 
+import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.lang.Files;
 
 @NotThreadSafe
@@ -32,4 +34,91 @@ public class FileChannelLockTest {
 
     }
 
+    @Test
+    public void testTimedWait() throws InterruptedException {
+        final File lockFile = new File("cache/" + FileChannelLock.class.getSimpleName() + "_timed.lock");
+        Files.deleteQuietly(lockFile);
+        final FileChannelLock lock1 = new FileChannelLock(lockFile);
+        final FileChannelLock lock2 = new FileChannelLock(lockFile);
+        lock1.tryLockThrowing();
+        Assertions.checkFalse(lock2.tryLock(50, TimeUnit.MILLISECONDS));
+        final Thread unlocker = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                lock1.unlock();
+            }
+        };
+        unlocker.start();
+        //lock1 deletes the file on unlock, thus lock2 needs to reopen its channel on the new file
+        Assertions.checkTrue(lock2.tryLock(5, TimeUnit.SECONDS));
+        unlocker.join();
+        Assertions.checkTrue(lock2.isLocked());
+        Assertions.checkFalse(lock1.isLocked());
+        lock2.close();
+        Assertions.checkFalse(lockFile.exists());
+    }
+
+    @Test
+    public void testFailedTryLockClosesChannel() throws InterruptedException {
+        final File lockFile = new File("cache/" + FileChannelLock.class.getSimpleName() + "_failed.lock");
+        Files.deleteQuietly(lockFile);
+        final FileChannelLock lock1 = new FileChannelLock(lockFile);
+        final FileChannelLock lock2 = new FileChannelLock(lockFile);
+        lock1.tryLockThrowing();
+        Assertions.checkTrue(lock1.isChannelOpen());
+        Assertions.checkFalse(lock2.tryLock());
+        Assertions.checkFalse(lock2.isChannelOpen());
+        Assertions.checkFalse(lock2.tryLock(50, TimeUnit.MILLISECONDS));
+        Assertions.checkFalse(lock2.isChannelOpen());
+        //the failed attempts must not have deleted the file of the holder
+        Assertions.checkTrue(lockFile.exists());
+        lock1.close();
+        Assertions.checkFalse(lock1.isChannelOpen());
+        Assertions.checkFalse(lockFile.exists());
+    }
+
+    @Test
+    public void testSharedLock() throws InterruptedException {
+        final File lockFile = new File("cache/" + FileChannelLock.class.getSimpleName() + "_shared.lock");
+        Files.deleteQuietly(lockFile);
+        final FileChannelLock shared = new FileChannelLock(lockFile, true);
+        final FileChannelLock exclusive = new FileChannelLock(lockFile);
+        shared.tryLockThrowing();
+        Assertions.checkTrue(shared.isShared());
+        Assertions.checkFalse(exclusive.tryLock(50, TimeUnit.MILLISECONDS));
+        shared.unlock();
+        //other readers might still use the file, thus shared locks never delete it
+        Assertions.checkFalse(shared.isLocked());
+        Assertions.checkTrue(lockFile.exists());
+
+        exclusive.tryLockThrowing();
+        Assertions.checkFalse(shared.tryLock(50, TimeUnit.MILLISECONDS));
+        final Thread unlocker = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                exclusive.unlock();
+            }
+        };
+        unlocker.start();
+        //the exclusive holder deletes the file before releasing the lock, thus the reader locks a new file
+        Assertions.checkTrue(shared.tryLock(5, TimeUnit.SECONDS));
+        unlocker.join();
+        Assertions.checkFalse(exclusive.isLocked());
+        Assertions.checkTrue(lockFile.exists());
+        shared.close();
+        Assertions.checkFalse(shared.isLocked());
+        Assertions.checkTrue(lockFile.exists());
+        Files.deleteQuietly(lockFile);
+    }
+
 }
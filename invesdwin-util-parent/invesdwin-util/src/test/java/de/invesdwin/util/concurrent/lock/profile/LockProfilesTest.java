@@ -0,0 +1,172 @@
+package de.invesdwin.util.concurrent.lock.profile;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.lock.internal.ProfiledReentrantLock;
+import de.invesdwin.util.concurrent.lock.internal.WrappedReentrantLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.ProfiledReentrantReadWriteLock;
+import de.invesdwin.util.concurrent.lock.internal.readwrite.WrappedReentrantReadWriteLock;
+
+@NotThreadSafe
+public class LockProfilesTest {
+
+    @Test
+    public void testContention() throws InterruptedException {
+        final ProfiledReentrantLock idleLock = new ProfiledReentrantLock(
+                new WrappedReentrantLock("LockProfilesTest_idleLock", new ReentrantLock()));
+        final ProfiledReentrantLock busyLock = new ProfiledReentrantLock(
+                new WrappedReentrantLock("LockProfilesTest_busyLock", new ReentrantLock()));
+        idleLock.lock();
+        idleLock.lock();
+        idleLock.unlock();
+        idleLock.unlock();
+        Assertions.checkEquals(2L, idleLock.getProfile().getAcquisitions());
+        Assertions.checkEquals(0L, idleLock.getProfile().getContendedAcquisitions());
+
+        final CountDownLatch locked = new CountDownLatch(1);
+        final Thread holder = new Thread() {
+            @Override
+            public void run() {
+                busyLock.lock();
+                try {
+                    locked.countDown();
+                    TimeUnit.MILLISECONDS.sleep(50);
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    busyLock.unlock();
+                }
+            }
+        };
+        holder.start();
+        locked.await();
+        Assertions.checkFalse(busyLock.tryLock());
+        busyLock.lock();
+        busyLock.unlock();
+        holder.join();
+
+        final LockProfile profile = LockProfiles.get("LockProfilesTest_busyLock");
+        Assertions.checkSame(busyLock.getProfile(), profile);
+        Assertions.checkEquals(2L, profile.getAcquisitions());
+        Assertions.checkEquals(1L, profile.getContendedAcquisitions());
+        Assertions.checkEquals(1L, profile.getFailedAcquisitions());
+        Assertions.checkTrue(profile.getMaxWaitNanos() > 0);
+        Assertions.checkTrue(profile.getMaxHoldNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        final List<LockProfile> top = LockProfiles.getTop(1);
+        Assertions.checkEquals(1, top.size());
+        final LockProfile snapshot = top.get(0);
+        Assertions.checkEquals(profile.getName(), snapshot.getName());
+        Assertions.checkEquals(2L, snapshot.getAcquisitions());
+        busyLock.lock();
+        busyLock.unlock();
+        Assertions.checkEquals(3L, profile.getAcquisitions());
+        Assertions.checkEquals(2L, snapshot.getAcquisitions());
+        Assertions.checkTrue(LockProfiles.newTopReport(10).contains("LockProfilesTest_busyLock"));
+    }
+
+    @Test
+    public void testConditionAwaitEndsHoldTime() throws InterruptedException {
+        final ProfiledReentrantLock lock = new ProfiledReentrantLock(
+                new WrappedReentrantLock("LockProfilesTest_conditionLock", new ReentrantLock()));
+        final Condition condition = lock.newCondition();
+        lock.lock();
+        lock.lock();
+        try {
+            Assertions.checkFalse(condition.await(100, TimeUnit.MILLISECONDS));
+            Assertions.checkEquals(2, lock.getHoldCount());
+            Assertions.checkFalse(lock.hasWaiters(condition));
+        } finally {
+            lock.unlock();
+            lock.unlock();
+        }
+        final LockProfile profile = lock.getProfile();
+        //the hold time was split by the await, waiting on the condition does not count as holding the lock
+        Assertions.checkTrue(profile.getMaxHoldNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.checkEquals(3L, profile.getAcquisitions());
+    }
+
+    @Test
+    public void testIllegalUnlockKeepsHoldTime() throws InterruptedException {
+        final ProfiledReentrantLock lock = new ProfiledReentrantLock(
+                new WrappedReentrantLock("LockProfilesTest_illegalUnlockLock", new ReentrantLock()));
+        final AtomicBoolean illegalUnlockFailed = new AtomicBoolean();
+        lock.lock();
+        try {
+            final Thread nonOwner = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        lock.unlock();
+                    } catch (final IllegalMonitorStateException e) {
+                        illegalUnlockFailed.set(true);
+                    }
+                }
+            };
+            nonOwner.start();
+            nonOwner.join();
+            TimeUnit.MILLISECONDS.sleep(50);
+        } finally {
+            lock.unlock();
+        }
+        Assertions.checkTrue(illegalUnlockFailed.get());
+        final LockProfile profile = lock.getProfile();
+        //the hold time only ends with the unlock of the owner
+        Assertions.checkTrue(profile.getMaxHoldNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.checkFalse(lock.isHeldByCurrentThread());
+    }
+
+    @Test
+    public void testReadWriteLockConditionWaiters() throws InterruptedException {
+        final ProfiledReentrantReadWriteLock lock = new ProfiledReentrantReadWriteLock(
+                new WrappedReentrantReadWriteLock("LockProfilesTest_readWriteConditionLock",
+                        new ReentrantReadWriteLock()));
+        final Condition condition = lock.writeLock().newCondition();
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final Thread waiter = new Thread() {
+            @Override
+            public void run() {
+                lock.writeLock().lock();
+                try {
+                    waiting.countDown();
+                    condition.await();
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+        waiter.start();
+        waiting.await();
+        lock.writeLock().lock();
+        try {
+            //the waiter releases the lock while awaiting, thus it is registered once we get the lock
+            Assertions.checkTrue(lock.hasWaiters(condition));
+            Assertions.checkEquals(1, lock.getWaitQueueLength(condition));
+            condition.signalAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        waiter.join();
+        lock.writeLock().lock();
+        try {
+            Assertions.checkFalse(lock.hasWaiters(condition));
+            Assertions.checkEquals(0, lock.getWaitQueueLength(condition));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.invesdwin.util.concurrent.lock.trace;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class SamplingLockTraceTest {
+
+    @Test
+    public void testHeldLocksAndHistograms() {
+        final SamplingLockTrace trace = new SamplingLockTrace(2, 4);
+        trace.locked("outer", 1000);
+        trace.locked("inner", 0);
+        trace.locked("inner", 5);
+        Assertions.checkTrue(trace.isLockedByThisThread("outer"));
+        Assertions.checkTrue(trace.isLockedByThisThread("inner"));
+        final String dump = trace.dumpHeldLocks();
+        Assertions.checkTrue(dump.contains("LockName [outer]"));
+        Assertions.checkTrue(dump.contains("Sampled acquisition"));
+
+        trace.unlocked("inner");
+        Assertions.checkTrue(trace.isLockedByThisThread("inner"));
+        trace.unlocked("inner");
+        Assertions.checkFalse(trace.isLockedByThisThread("inner"));
+        trace.unlocked("outer");
+        Assertions.checkFalse(trace.isLockedByThisThread("outer"));
+        Assertions.checkEquals("", trace.dumpHeldLocks());
+        //not held, thus ignored
+        trace.unlocked("outer");
+
+        Assertions.checkEquals(1L, trace.getWaitTimeHistogram("outer").getCount());
+        Assertions.checkEquals(1000L, trace.getWaitTimeHistogram("outer").getMaxNanos());
+        Assertions.checkEquals(1L, trace.getHoldTimeHistogram("outer").getCount());
+        Assertions.checkEquals(2L, trace.getWaitTimeHistogram("inner").getCount());
+        Assertions.checkEquals(2L, trace.getHoldTimeHistogram("inner").getCount());
+        Assertions.checkNull(trace.getWaitTimeHistogram("unknown"));
+
+        //only the last 4 events are kept
+        final List<LockTraceEvent> events = trace.getRecentEvents();
+        Assertions.checkEquals(4, events.size());
+        Assertions.checkEquals("inner", events.get(0).getLockName());
+        Assertions.checkTrue(events.get(0).isLocked());
+        Assertions.checkEquals("outer", events.get(3).getLockName());
+        Assertions.checkFalse(events.get(3).isLocked());
+    }
+
+    @Test
+    public void testHistogramPercentile() {
+        final LockTraceHistogram histogram = new LockTraceHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        histogram.record(1_000_000);
+        Assertions.checkEquals(100L, histogram.getCount());
+        Assertions.checkEquals(15L, histogram.getPercentileNanos(50));
+        Assertions.checkEquals(15L, histogram.getPercentileNanos(99));
+        Assertions.checkEquals(1_000_000L, histogram.getPercentileNanos(100));
+        histogram.reset();
+        Assertions.checkEquals(0L, histogram.getCount());
+    }
+
+}
@@ -0,0 +1,84 @@
+package de.invesdwin.util.concurrent.taskinfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.concurrent.Executors;
+import de.invesdwin.util.concurrent.WrappedExecutorService;
+import de.invesdwin.util.concurrent.taskinfo.provider.TaskInfoRunnable;
+
+@NotThreadSafe
+public class TaskInfoManagerTest {
+
+    @Test
+    public void testProgress() {
+        final String name = TaskInfoManagerTest.class.getSimpleName() + "_progress";
+        final List<TaskInfoRunnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(TaskInfoRunnable.of(name, new Runnable() {
+                @Override
+                public void run() {}
+            }));
+        }
+        Assertions.checkEquals(4, TaskInfoManager.getTaskInfo(name).getCreatedCount());
+        tasks.get(0).run();
+        final TaskInfo taskInfo = TaskInfoManager.getTaskInfo(name);
+        Assertions.checkEquals(3, taskInfo.getCreatedCount());
+        Assertions.checkEquals(1, taskInfo.getCompletedCount());
+        Assertions.checkEquals(4, taskInfo.getTasksCount());
+        Assertions.checkEquals(0.25D, taskInfo.getProgress().getRate());
+        for (int i = 1; i < tasks.size(); i++) {
+            tasks.get(i).run();
+        }
+        Assertions.checkNull(TaskInfoManager.getTaskInfo(name));
+        Assertions.checkFalse(TaskInfoManager.getTaskInfoNames().contains(name));
+    }
+
+    @Test
+    public void testListenerWithManyTasks() throws InterruptedException {
+        final String name = TaskInfoManagerTest.class.getSimpleName() + "_listener";
+        final AtomicInteger added = new AtomicInteger();
+        final AtomicInteger removed = new AtomicInteger();
+        final ITaskInfoListener listener = new ITaskInfoListener() {
+            @Override
+            public void onTaskInfoAdded(final String taskInfoName) {
+                if (name.equals(taskInfoName)) {
+                    added.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onTaskInfoRemoved(final String taskInfoName) {
+                if (name.equals(taskInfoName)) {
+                    removed.incrementAndGet();
+                }
+            }
+        };
+        TaskInfoManager.registerListener(listener);
+        try {
+            final WrappedExecutorService executor = Executors.newFixedThreadPool(name, 4);
+            final TaskInfoExecutorService taskInfoExecutor = new TaskInfoExecutorService(name, executor);
+            for (int i = 0; i < 10000; i++) {
+                taskInfoExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {}
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination();
+            Assertions.checkNull(TaskInfoManager.getTaskInfo(name));
+            Assertions.checkTrue(added.get() >= 1);
+            //notifications might be coalesced, but they always end with the removal
+            Assertions.checkEquals(added.get(), removed.get());
+        } finally {
+            TaskInfoManager.unregisterListener(listener);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package de.invesdwin.util.marshallers.serde;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.bean.tuple.Pair;
+import de.invesdwin.util.bean.tuple.Triple;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.scaled.ByteSize;
+import de.invesdwin.util.math.decimal.scaled.ByteSizeScale;
+import de.invesdwin.util.math.decimal.scaled.Percent;
+import de.invesdwin.util.math.decimal.scaled.PercentScale;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+import de.invesdwin.util.time.range.TimeRange;
+
+@NotThreadSafe
+public class SerdeTest {
+
+    @Test
+    public void testRoundtrip() {
+        final FDate now = new FDate();
+        assertRoundtrip(FDateSerde.INSTANCE, now);
+        assertRoundtrip(DecimalSerde.INSTANCE, new Decimal("123.456"));
+        assertRoundtrip(PercentSerde.INSTANCE, new Percent(12.5, PercentScale.PERCENT));
+        assertRoundtrip(ByteSizeSerde.INSTANCE, new ByteSize(3, ByteSizeScale.MEGABYTES));
+        assertRoundtrip(DurationSerde.INSTANCE, new Duration(5, FTimeUnit.MINUTES));
+        assertRoundtrip(TimeRangeSerde.INSTANCE, new TimeRange(now.addDays(-1), now));
+        assertRoundtrip(new PairSerde<FDate, Decimal>(FDateSerde.INSTANCE, DecimalSerde.INSTANCE),
+                Pair.of(now, Decimal.ONE));
+        assertRoundtrip(new PairSerde<FDate, Decimal>(FDateSerde.INSTANCE, DecimalSerde.INSTANCE),
+                Pair.of((FDate) null, Decimal.ONE));
+        assertRoundtrip(
+                new TripleSerde<FDate, Duration, Percent>(FDateSerde.INSTANCE, DurationSerde.INSTANCE,
+                        PercentSerde.INSTANCE),
+                Triple.of(now, Duration.ONE_DAY, (Percent) null));
+    }
+
+    @Test
+    public void testNull() {
+        assertRoundtrip(FDateSerde.INSTANCE, null);
+        assertRoundtrip(DecimalSerde.INSTANCE, null);
+        assertRoundtrip(PercentSerde.INSTANCE, null);
+        assertRoundtrip(ByteSizeSerde.INSTANCE, null);
+        assertRoundtrip(DurationSerde.INSTANCE, null);
+        assertRoundtrip(TimeRangeSerde.INSTANCE, null);
+        assertRoundtrip(new PairSerde<FDate, Decimal>(FDateSerde.INSTANCE, DecimalSerde.INSTANCE), null);
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        final ByteBuffer buffer = SerdeBuffers.getDirectBuffer(DurationSerde.FIXED_LENGTH * 3);
+        DurationSerde.INSTANCE.toBuffer(buffer, Duration.ONE_SECOND);
+        DurationSerde.INSTANCE.toBuffer(buffer, null);
+        DurationSerde.INSTANCE.toBuffer(buffer, Duration.ONE_HOUR);
+        Assertions.checkEquals(DurationSerde.FIXED_LENGTH * 3, buffer.position());
+        buffer.flip();
+        Assertions.checkEquals(Duration.ONE_SECOND, DurationSerde.INSTANCE.fromBuffer(buffer));
+        Assertions.checkNull(DurationSerde.INSTANCE.fromBuffer(buffer));
+        Assertions.checkEquals(Duration.ONE_HOUR, DurationSerde.INSTANCE.fromBuffer(buffer));
+        Assertions.checkEquals(Duration.ONE_HOUR, Duration.extractDuration(buffer, DurationSerde.FIXED_LENGTH * 2));
+    }
+
+    @Test
+    public void testBufferGrows() {
+        final ByteBuffer small = SerdeBuffers.getBuffer(1);
+        Assertions.checkTrue(small.capacity() >= 1);
+        final ByteBuffer large = SerdeBuffers.getBuffer(SerdeBuffers.INITIAL_CAPACITY * 3);
+        Assertions.checkTrue(large.capacity() >= SerdeBuffers.INITIAL_CAPACITY * 3);
+        Assertions.checkSame(large, SerdeBuffers.getBuffer(1));
+    }
+
+    private <O> void assertRoundtrip(final ISerde<O> serde, final O value) {
+        final byte[] bytes = serde.toBytes(value);
+        Assertions.checkEquals(serde.getFixedLength(), bytes.length);
+        Assertions.checkEquals(value, serde.fromBytes(bytes));
+    }
+
+}
@@ -1,6 +1,8 @@
 package de.invesdwin.util.math.decimal.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -9,8 +11,11 @@ import org.junit.Test;
 
 import de.invesdwin.util.assertions.Assertions;
 import de.invesdwin.util.collections.list.Lists;
+import de.invesdwin.util.concurrent.ConfiguredForkJoinPool;
+import de.invesdwin.util.concurrent.Executors;
 import de.invesdwin.util.math.decimal.Decimal;
 import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.decimal.randomizers.DecimalRandomizerType;
 import de.invesdwin.util.math.random.RandomGenerators;
 
 @NotThreadSafe
@@ -78,4 +83,46 @@ public class DecimalAggregateRandomizersTest {
         }
     }
 
+    @Test
+    public void testResampleIndexes() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(new Decimal(i));
+        }
+
+        final IDecimalAggregate<Decimal> agg = Decimal.valueOf(values);
+        final ConfiguredForkJoinPool singlePool = Executors.newForkJoinPool("testResampleIndexes_single", 1);
+        final ConfiguredForkJoinPool parallelPool = Executors.newForkJoinPool("testResampleIndexes_parallel", 4);
+        try {
+            for (final DecimalRandomizerType type : DecimalRandomizerType.values()) {
+                final int[][] single = agg.randomize().resampleIndexes(type, REPEAT_COUNT, 123L, singlePool);
+                final int[][] parallel = agg.randomize().resampleIndexes(type, REPEAT_COUNT, 123L, parallelPool);
+                Assertions.checkTrue(Arrays.deepEquals(single, parallel));
+                for (int i = 0; i < REPEAT_COUNT; i++) {
+                    Assertions.assertThat(single[i]).hasSize(values.size());
+                }
+                Assertions.checkFalse(Arrays.equals(single[0], single[1]));
+            }
+        } finally {
+            singlePool.shutdownNow();
+            parallelPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResampleIndexesSameAsIterator() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(new Decimal(i));
+        }
+
+        final IDecimalAggregate<Decimal> agg = Decimal.valueOf(values);
+        final int[] indexes = agg.randomize().stationaryBootstrapIndexes(RandomGenerators.newDefaultRandom(1L));
+        final Iterator<Decimal> iterator = agg.randomize().stationaryBootstrap(RandomGenerators.newDefaultRandom(1L));
+        for (int i = 0; i < indexes.length; i++) {
+            Assertions.checkEquals(values.get(indexes[i]), iterator.next());
+        }
+        Assertions.checkFalse(iterator.hasNext());
+    }
+
 }
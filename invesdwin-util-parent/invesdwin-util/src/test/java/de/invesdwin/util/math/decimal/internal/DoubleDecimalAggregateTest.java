@@ -0,0 +1,139 @@
+package de.invesdwin.util.math.decimal.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.decimal.Decimal;
+import de.invesdwin.util.math.decimal.IDecimalAggregate;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+
+@NotThreadSafe
+public class DoubleDecimalAggregateTest {
+
+    private static final int SIZE = 1000;
+    private static final int BENCHMARK_SIZE = 100000;
+    private static final int BENCHMARK_ITERATIONS = 100;
+
+    @Test
+    public void testSameAsDecimalAggregate() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        random.setSeed(1);
+        final List<Decimal> values = new ArrayList<Decimal>(SIZE);
+        final double[] doubles = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            final double value = 100D + random.nextGaussian() * 10D;
+            values.add(new Decimal(value));
+            doubles[i] = value;
+        }
+        final IDecimalAggregate<Decimal> expected = new DecimalAggregate<Decimal>(values, Decimal.ZERO);
+        final IDecimalAggregate<Decimal> actual = new DoubleDecimalAggregate<Decimal>(doubles, Decimal.ZERO);
+        assertSame(expected, actual);
+        assertSame(expected.addEach(Decimal.ONE), actual.addEach(Decimal.ONE));
+        assertSame(expected.subtractEach(Decimal.ONE), actual.subtractEach(Decimal.ONE));
+        assertSame(expected.multiplyEach(Decimal.TWO), actual.multiplyEach(Decimal.TWO));
+        assertSame(expected.divideEach(Decimal.TWO), actual.divideEach(Decimal.TWO));
+        assertSame(expected.round(2), actual.round(2));
+        assertSame(expected.normalize(), actual.normalize());
+        assertSame(expected.detrendAbsolute(), actual.detrendAbsolute());
+        assertSame(expected.detrendRelative(), actual.detrendRelative());
+        assertSame(expected.reverse(), actual.reverse());
+        assertSame(expected.sortAscending(), actual.sortAscending());
+        assertSame(expected.sortDescending(), actual.sortDescending());
+        assertSame(expected.subtractEach(Decimal.valueOf(100)).positiveValues(),
+                actual.subtractEach(Decimal.valueOf(100)).positiveValues());
+        assertSame(expected.subtractEach(Decimal.valueOf(100)).negativeValues(),
+                actual.subtractEach(Decimal.valueOf(100)).negativeValues());
+        assertSame(expected.round(0).removeFlatSequences(), actual.round(0).removeFlatSequences());
+        Assertions.checkEquals(expected.growthRates().values(), actual.growthRates().values());
+        Assertions.checkEquals(expected.growthRate(), actual.growthRate());
+    }
+
+    private void assertSame(final IDecimalAggregate<Decimal> expected, final IDecimalAggregate<Decimal> actual) {
+        Assertions.checkEquals(expected.values(), actual.values());
+        Assertions.checkEquals(expected.sum(), actual.sum());
+        Assertions.checkEquals(expected.avg(), actual.avg());
+        Assertions.checkEquals(expected.avgWeightedAsc(), actual.avgWeightedAsc());
+        Assertions.checkEquals(expected.avgWeightedDesc(), actual.avgWeightedDesc());
+        Assertions.checkEquals(expected.median(), actual.median());
+        Assertions.checkEquals(expected.geomAvg(), actual.geomAvg());
+        Assertions.checkEquals(expected.min(), actual.min());
+        Assertions.checkEquals(expected.max(), actual.max());
+        Assertions.checkEquals(expected.minMaxDistance(), actual.minMaxDistance());
+        Assertions.checkEquals(expected.sampleStandardDeviation(), actual.sampleStandardDeviation());
+        Assertions.checkEquals(expected.sampleVariance(), actual.sampleVariance());
+        Assertions.checkEquals(expected.sampleCoefficientOfVariation(), actual.sampleCoefficientOfVariation());
+        Assertions.checkEquals(expected.bestValueIndex(true), actual.bestValueIndex(true));
+        Assertions.checkEquals(expected.bestValueIndex(false), actual.bestValueIndex(false));
+        Assertions.checkEquals(expected.isStableOrRisingEach(), actual.isStableOrRisingEach());
+        Assertions.checkEquals(expected.isStableOrFallingEach(), actual.isStableOrFallingEach());
+    }
+
+    @Test
+    public void testNullValues() {
+        final List<Decimal> values = new ArrayList<Decimal>();
+        values.add(Decimal.ONE);
+        values.add(null);
+        values.add(Decimal.TWO);
+        final IDecimalAggregate<Decimal> aggregate = DoubleDecimalAggregate.valueOf(values, Decimal.ZERO);
+        Assertions.checkEquals(values, aggregate.values());
+        Assertions.checkEquals(Decimal.valueOf(3), aggregate.sum());
+        Assertions.checkEquals(2, aggregate.removeNullValues().size());
+        Assertions.checkEquals(Decimal.ZERO, aggregate.nullToZeroEach().values().get(1));
+        Assertions.checkEquals(Decimal.TWO, aggregate.max());
+        Assertions.checkEquals(Decimal.ONE, aggregate.min());
+    }
+
+    @Test
+    public void testBuffer() {
+        final double[] values = { 1D, 2D, 3D };
+        final DoubleDecimalAggregate<Decimal> aggregate = new DoubleDecimalAggregate<Decimal>(values, Decimal.ZERO);
+        final double[] buffer = new double[10];
+        final DoubleDecimalAggregate<Decimal> added = aggregate.addEach(1D, buffer);
+        Assertions.checkSame(buffer, added.getBackingArray());
+        Assertions.checkEquals(3, added.size());
+        Assertions.checkEquals(Decimal.valueOf(9), added.sum());
+        //in place
+        final DoubleDecimalAggregate<Decimal> multiplied = aggregate.multiplyEach(2D, values);
+        Assertions.checkSame(values, multiplied.getBackingArray());
+        Assertions.checkEquals(Decimal.valueOf(12), aggregate.sum());
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        final List<Decimal> values = new ArrayList<Decimal>(BENCHMARK_SIZE);
+        final double[] doubles = new double[BENCHMARK_SIZE];
+        for (int i = 0; i < BENCHMARK_SIZE; i++) {
+            final double value = 100D + random.nextGaussian();
+            values.add(new Decimal(value));
+            doubles[i] = value;
+        }
+        for (int i = 0; i < 5; i++) {
+            testPerformance(new DecimalAggregate<Decimal>(values, Decimal.ZERO));
+            testPerformance(new DoubleDecimalAggregate<Decimal>(doubles, Decimal.ZERO));
+        }
+    }
+
+    private void testPerformance(final IDecimalAggregate<Decimal> aggregate) {
+        final Instant start = new Instant();
+        double sum = 0D;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            sum += aggregate.growthRates().sampleStandardDeviation().getDefaultValue();
+            sum += aggregate.normalize().avg().getDefaultValue();
+            sum += aggregate.multiplyEach(Decimal.TWO).positiveValues().sum().getDefaultValue();
+        }
+        //CHECKSTYLE:OFF
+        System.out.println(aggregate.getClass().getSimpleName() + " " + sum + ": " + start);
+        //CHECKSTYLE:ON
+    }
+
+}
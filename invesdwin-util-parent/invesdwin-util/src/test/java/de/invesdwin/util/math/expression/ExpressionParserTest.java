@@ -5,13 +5,26 @@ import javax.annotation.concurrent.NotThreadSafe;
 import org.junit.Test;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.expression.eval.AUnaryFunction;
 import de.invesdwin.util.math.expression.eval.IParsedExpression;
+import de.invesdwin.util.math.expression.eval.MemoizedExpression;
+import de.invesdwin.util.math.expression.eval.VariableReference;
+import de.invesdwin.util.math.expression.eval.functions.MathFunctions;
 import de.invesdwin.util.math.expression.tokenizer.ParseException;
+import de.invesdwin.util.math.expression.variable.IVariable;
 import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FTimeUnit;
 
 @NotThreadSafe
 public class ExpressionParserTest {
 
+    private static final String[] BATCH_EXPRESSIONS = { "x + 1", "1 + x", "x - 1", "2 * x", "x / 3", "x / 0",
+            "x % 7", "x ^ 2", "x > 10", "x >= 10", "x < 10", "x <= 10", "x == 10", "x != 10", "10 > x",
+            "x + x * x - x / x", "abs(x) > 50 && x < 0", "max(x, 10) - min(x, -10)", "!(x > 0) || x > 90",
+            "round(x) == 0", "if(x > 0, x, -x)", "isNaN(x / 0)", "between(x, -10, 10)", "x crosses above 0",
+            "x crosses below 0", "x[2] > x[1]", "x[round(abs(x) / 50)]", "keyOf(x)", "keyOf(x) + x", "keyOf(x)[3]",
+            "keyOf(x[1]) > 50 && x[2] > 0" };
+
     @Test
     public void testExponent() {
         final IExpression parsed = new ExpressionParser("3-6^2").parse();
@@ -293,4 +306,460 @@ public class ExpressionParserTest {
                 "((((NaN[1] > NaN[2]) && (NaN[2] > NaN[9])) && (NaN[6] > NaN[7])) && (isNaN(NaN)[0] crosses above 50))");
 
     }
+
+    @Test
+    public void testCompiledSameAsInterpreted() {
+        final String[] expressions = { "x + 1", "1 + x", "x - 1", "2 * x", "x / 3", "x / 0", "x % 7", "x ^ 2",
+                "x > 10", "x >= 10", "x < 10", "x <= 10", "x == 10", "x != 10", "10 > x", "x + x * x - x / x",
+                "abs(x) > 50 && x < 0", "max(x, 10) - min(x, -10)", "!(x > 0) || x > 90", "round(x) == 0",
+                "if(x > 0, x, -x)", "x crosses above 0", "x crosses below 0", "x[2] > x[1]" };
+        for (final String expression : expressions) {
+            final IExpression compiled = newKeyParser(expression, true).parse();
+            final IExpression interpreted = newKeyParser(expression, false).parse();
+            Assertions.checkEquals(interpreted.toString(), compiled.toString());
+            for (int key = 5; key < 100; key++) {
+                final FDate dateKey = new FDate((long) key * FTimeUnit.MILLISECONDS_IN_DAY);
+                Assertions.checkEquals(interpreted.evaluateDouble(key), compiled.evaluateDouble(key));
+                Assertions.checkEquals(interpreted.evaluateBoolean(key), compiled.evaluateBoolean(key));
+                Assertions.checkEquals(interpreted.evaluateDouble(dateKey), compiled.evaluateDouble(dateKey));
+                Assertions.checkEquals(interpreted.evaluateBoolean(dateKey), compiled.evaluateBoolean(dateKey));
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluateDoublesSameAsEvaluateDouble() {
+        final int fromKey = 5;
+        final int toKey = 100;
+        final double[] doubles = new double[toKey - fromKey];
+        final boolean[] booleans = new boolean[toKey - fromKey];
+        for (final String expression : BATCH_EXPRESSIONS) {
+            for (final boolean compiled : new boolean[] { true, false }) {
+                final IExpression parsed = newBatchKeyParser(expression, compiled).parse();
+                parsed.evaluateDoubles(fromKey, toKey, doubles);
+                parsed.evaluateBooleans(fromKey, toKey, booleans);
+                for (int key = fromKey; key < toKey; key++) {
+                    Assertions.checkEquals(parsed.evaluateDouble(key), doubles[key - fromKey]);
+                    Assertions.checkEquals(parsed.evaluateBoolean(key), booleans[key - fromKey]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluateDoublesShortCircuits() {
+        final String[] expressions = { "x > 50 && x[1] < 0", "x > 50 || x[1] < 0", "if(x > 50, x[1], x[2])",
+                "x > 90 && x < 95 && x[1] > 0" };
+        final int fromKey = 5;
+        final int toKey = 100;
+        final double[] doubles = new double[toKey - fromKey];
+        for (final String expression : expressions) {
+            for (final boolean compiled : new boolean[] { true, false }) {
+                final CountingKeyVariable scalarVariable = new CountingKeyVariable();
+                final IExpression scalar = newDeduplicationParser(expression, scalarVariable, false, false, compiled)
+                        .parse();
+                final CountingKeyVariable batchVariable = new CountingKeyVariable();
+                final IExpression batch = newDeduplicationParser(expression, batchVariable, false, false, compiled)
+                        .parse();
+                batch.evaluateDoubles(fromKey, toKey, doubles);
+                for (int key = fromKey; key < toKey; key++) {
+                    Assertions.checkEquals(scalar.evaluateDouble(key), doubles[key - fromKey]);
+                }
+                //the operands that are skipped in the scalar evaluation are skipped in the batch evaluation as well
+                Assertions.checkEquals(scalarVariable.getCount(), batchVariable.getCount(), "%s", expression);
+            }
+        }
+    }
+
+    @Test
+    public void testCrossesEvaluateBooleansSameAsEvaluateBoolean() {
+        final String[] expressions = { "x crosses above 0", "x crosses below 0", "x crosses above x[1]",
+                "x crosses below x[2]" };
+        final int maxKey = 20;
+        final boolean[] booleans = new boolean[maxKey];
+        for (final String expression : expressions) {
+            //separate previous key functions per side, a shared one (simple crosses) and one that overrides the lookup
+            final IExpression[] parsedExpressions = { newKeyParser(expression, false).parse(),
+                    newDeduplicationParser(expression, new KeyVariable(), false, false, false).parse(),
+                    newBatchKeyParser(expression, false).parse() };
+            for (final IExpression parsed : parsedExpressions) {
+                //x changes its sign every three to four keys, thus the ranges start and end on crossings as well
+                for (int fromKey = 0; fromKey < maxKey; fromKey++) {
+                    for (int toKey = fromKey; toKey <= maxKey; toKey++) {
+                        parsed.evaluateBooleans(fromKey, toKey, booleans);
+                        for (int key = fromKey; key < toKey; key++) {
+                            Assertions.checkEquals(parsed.evaluateBoolean(key), booleans[key - fromKey],
+                                    "%s [%s, %s) at %s", parsed, fromKey, toKey, key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDeduplicatedSameAsDuplicated() {
+        final String[] expressions = { "(x + 1) * 2 > 0 && (x + 1) * 2 < 50", "abs(x) + abs(x) + abs(x)",
+                "(x + 1) crosses above (x[1] + 1) || (x + 1) > x[1] + 1", "max(x[1], x[2]) - max(x[1], x[2])[1]" };
+        for (final String expression : expressions) {
+            for (final boolean compiled : new boolean[] { true, false }) {
+                final CountingKeyVariable duplicatedVariable = new CountingKeyVariable();
+                final IExpression duplicated = newDeduplicationParser(expression, duplicatedVariable, false, false,
+                        compiled).parse();
+                final CountingKeyVariable deduplicatedVariable = new CountingKeyVariable();
+                final IExpression deduplicated = newDeduplicationParser(expression, deduplicatedVariable, true, false,
+                        compiled).parse();
+                final CountingKeyVariable memoizedVariable = new CountingKeyVariable();
+                final IExpression memoized = newDeduplicationParser(expression, memoizedVariable, true, true,
+                        compiled).parse();
+                Assertions.checkEquals(duplicated.toString(), deduplicated.toString());
+                Assertions.checkEquals(duplicated.toString(), memoized.toString());
+                for (int key = 5; key < 100; key++) {
+                    final double duplicatedDouble = duplicated.evaluateDouble(key);
+                    Assertions.checkEquals(duplicatedDouble, deduplicated.evaluateDouble(key));
+                    Assertions.checkEquals(duplicatedDouble, memoized.evaluateDouble(key));
+                    final boolean duplicatedBoolean = duplicated.evaluateBoolean(key);
+                    Assertions.checkEquals(duplicatedBoolean, deduplicated.evaluateBoolean(key));
+                    Assertions.checkEquals(duplicatedBoolean, memoized.evaluateBoolean(key));
+                }
+                //sharing nodes alone does not change the number of evaluations
+                Assertions.checkEquals(duplicatedVariable.getCount(), deduplicatedVariable.getCount());
+                Assertions.checkTrue(memoizedVariable.getCount() <= duplicatedVariable.getCount(),
+                        "%s: %s memoized evaluations should not exceed %s duplicated evaluations", expression,
+                        memoizedVariable.getCount(), duplicatedVariable.getCount());
+            }
+        }
+    }
+
+    @Test
+    public void testDeduplicatedSharesInstances() {
+        final String expression = "abs(x) + abs(x) + abs(x)";
+        final IExpression duplicated = newDeduplicationParser(expression, new CountingKeyVariable(), false, false,
+                false).parse();
+        final IExpression[] duplicatedChildren = duplicated.getChildren();
+        final IExpression[] duplicatedInnerChildren = duplicatedChildren[0].getChildren();
+        Assertions.assertThat(duplicatedInnerChildren[0]).isNotSameAs(duplicatedInnerChildren[1]);
+        Assertions.assertThat(duplicatedInnerChildren[0]).isNotSameAs(duplicatedChildren[1]);
+
+        for (final boolean memoize : new boolean[] { true, false }) {
+            final IExpression deduplicated = newDeduplicationParser(expression, new CountingKeyVariable(), true,
+                    memoize, false).parse();
+            final IExpression[] children = deduplicated.getChildren();
+            final IExpression[] innerChildren = children[0].getChildren();
+            Assertions.checkSame(innerChildren[0], innerChildren[1]);
+            Assertions.checkSame(innerChildren[0], children[1]);
+            Assertions.checkEquals(memoize, innerChildren[0] instanceof MemoizedExpression);
+        }
+    }
+
+    @Test
+    public void testMemoizedReducesEvaluations() {
+        final String expression = "abs(x) + abs(x) + abs(x)";
+        final int fromKey = 5;
+        final int toKey = 100;
+        for (final boolean compiled : new boolean[] { true, false }) {
+            final CountingKeyVariable duplicatedVariable = new CountingKeyVariable();
+            final IExpression duplicated = newDeduplicationParser(expression, duplicatedVariable, false, false,
+                    compiled).parse();
+            final CountingKeyVariable memoizedVariable = new CountingKeyVariable();
+            final IExpression memoized = newDeduplicationParser(expression, memoizedVariable, true, true, compiled)
+                    .parse();
+            for (int key = fromKey; key < toKey; key++) {
+                Assertions.checkEquals(duplicated.evaluateDouble(key), memoized.evaluateDouble(key));
+            }
+            Assertions.checkEquals(3 * (toKey - fromKey), duplicatedVariable.getCount());
+            //the shared abs(x) is evaluated only once per key
+            Assertions.checkEquals(toKey - fromKey, memoizedVariable.getCount());
+        }
+    }
+
+    private ExpressionParser newDeduplicationParser(final String str, final KeyVariable variable,
+            final boolean deduplicate, final boolean memoize, final boolean compiled) {
+        return new ExpressionParser(str) {
+            //shared instances so that the subexpressions are structurally equal
+            private final VariableReference x = new VariableReference(null, variable);
+            private final IPreviousKeyFunction previousKeyFunction = new IPreviousKeyFunction() {
+
+                @Override
+                public int getPreviousKey(final int key, final int index) {
+                    return key - index;
+                }
+
+                @Override
+                public FDate getPreviousKey(final FDate key, final int index) {
+                    return key.addDays(-index);
+                }
+            };
+
+            @Override
+            protected IParsedExpression deduplicate(final IParsedExpression expression) {
+                if (deduplicate) {
+                    return super.deduplicate(expression);
+                } else {
+                    return expression;
+                }
+            }
+
+            @Override
+            protected boolean isMemoizeCommonSubexpressions() {
+                return memoize;
+            }
+
+            @Override
+            protected IParsedExpression compile(final IParsedExpression expression) {
+                if (compiled) {
+                    return super.compile(expression);
+                } else {
+                    return expression;
+                }
+            }
+
+            @Override
+            protected VariableReference getVariable(final String context, final String name) {
+                if ("x".equals(name)) {
+                    return x;
+                }
+                return super.getVariable(context, name);
+            }
+
+            @Override
+            protected IPreviousKeyFunction getPreviousKeyFunction(final String context) {
+                return previousKeyFunction;
+            }
+        };
+    }
+
+    private ExpressionParser newKeyParser(final String str, final boolean compiled) {
+        return new ExpressionParser(str) {
+            @Override
+            protected IParsedExpression compile(final IParsedExpression expression) {
+                if (compiled) {
+                    return super.compile(expression);
+                } else {
+                    return expression;
+                }
+            }
+
+            @Override
+            protected VariableReference getVariable(final String context, final String name) {
+                if ("x".equals(name)) {
+                    return new VariableReference(context, new KeyVariable());
+                }
+                return super.getVariable(context, name);
+            }
+
+            @Override
+            protected IPreviousKeyFunction getPreviousKeyFunction(final String context) {
+                return new IPreviousKeyFunction() {
+
+                    @Override
+                    public int getPreviousKey(final int key, final int index) {
+                        return key - index;
+                    }
+
+                    @Override
+                    public FDate getPreviousKey(final FDate key, final int index) {
+                        return key.addDays(-index);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * The batch evaluation has to honor functions and previous key functions that override the scalar evaluation.
+     */
+    private ExpressionParser newBatchKeyParser(final String str, final boolean compiled) {
+        return new ExpressionParser(str) {
+            @Override
+            protected IParsedExpression compile(final IParsedExpression expression) {
+                if (compiled) {
+                    return super.compile(expression);
+                } else {
+                    return expression;
+                }
+            }
+
+            @Override
+            protected VariableReference getVariable(final String context, final String name) {
+                if ("x".equals(name)) {
+                    return new VariableReference(context, new BatchKeyVariable());
+                }
+                return super.getVariable(context, name);
+            }
+
+            @Override
+            protected AFunction getFunction(final String context, final String name) {
+                if ("keyof".equals(name)) {
+                    return new KeyOfFunction();
+                }
+                return super.getFunction(context, name);
+            }
+
+            @Override
+            protected IPreviousKeyFunction getPreviousKeyFunction(final String context) {
+                return new IPreviousKeyFunction() {
+
+                    @Override
+                    public int getPreviousKey(final int key, final int index) {
+                        return key - index;
+                    }
+
+                    @Override
+                    public FDate getPreviousKey(final FDate key, final int index) {
+                        return key.addDays(-index);
+                    }
+
+                    @Override
+                    public double evaluateDouble(final IParsedExpression expression, final int previousKey) {
+                        //e.g. a lookup into a cache that is not aware of the int key range of the expression
+                        return expression.evaluateDouble(previousKey) + 1000D;
+                    }
+                };
+            }
+        };
+    }
+
+    private static class KeyVariable implements IVariable {
+
+        @Override
+        public double getValue(final FDate key) {
+            return getValue((int) (key.millisValue() / FTimeUnit.MILLISECONDS_IN_DAY));
+        }
+
+        @Override
+        public double getValue(final int key) {
+            return Math.sin(key) * 100D;
+        }
+
+        @Override
+        public double getValue() {
+            throw new UnsupportedOperationException("use time or int key instead");
+        }
+
+        @Override
+        public String getExpressionName() {
+            return "x";
+        }
+
+        @Override
+        public String getName() {
+            return "X";
+        }
+
+        @Override
+        public String getDescription() {
+            return "sin(key) * 100";
+        }
+
+        @Override
+        public ExpressionReturnType getType() {
+            return ExpressionReturnType.Double;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean shouldPersist() {
+            return false;
+        }
+
+        @Override
+        public boolean shouldDraw() {
+            return true;
+        }
+
+    }
+
+    @NotThreadSafe
+    private static final class CountingKeyVariable extends KeyVariable {
+
+        private int count;
+
+        @Override
+        public double getValue(final int key) {
+            count++;
+            return super.getValue(key);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+    }
+
+    private static final class BatchKeyVariable extends KeyVariable {
+
+        @Override
+        public double getValue() {
+            return Double.NaN;
+        }
+
+    }
+
+    /**
+     * Only overrides the scalar evaluation, the argument is ignored.
+     */
+    private static final class KeyOfFunction extends AUnaryFunction {
+
+        @Override
+        public double eval(final FDate key, final IExpression[] args) {
+            return key.millisValue() / FTimeUnit.MILLISECONDS_IN_DAY;
+        }
+
+        @Override
+        public double eval(final int key, final IExpression[] args) {
+            return key;
+        }
+
+        @Override
+        protected double eval(final double a) {
+            return a;
+        }
+
+        @Override
+        public String getExpressionName() {
+            return "keyOf";
+        }
+
+        @Override
+        protected IFunctionParameterInfo getParameterInfo(final int index) {
+            return MathFunctions.ABS.getParameterInfos()[index];
+        }
+
+        @Override
+        public boolean isNaturalFunction(final IExpression[] args) {
+            return false;
+        }
+
+        @Override
+        public ExpressionReturnType getReturnType() {
+            return ExpressionReturnType.Double;
+        }
+
+        @Override
+        public String getName() {
+            return "Key Of";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Returns the key the expression is evaluated for.";
+        }
+
+        @Override
+        public boolean shouldPersist() {
+            return false;
+        }
+
+        @Override
+        public boolean shouldDraw() {
+            return false;
+        }
+
+    }
+
 }
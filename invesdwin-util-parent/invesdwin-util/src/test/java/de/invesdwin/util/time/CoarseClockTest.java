@@ -0,0 +1,33 @@
+package de.invesdwin.util.time;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.time.duration.Duration;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class CoarseClockTest {
+
+    @Test
+    public void testEpochFollowsElapsedTime() throws InterruptedException {
+        final long resolutionNanos = CoarseClock.RESOLUTION.longValue(FTimeUnit.NANOSECONDS);
+        final long startEpoch = CoarseClock.getEpoch();
+        final long startNanos = System.nanoTime();
+        FTimeUnit.MILLISECONDS.sleep(300);
+        final long elapsedEpochs = CoarseClock.getEpoch() - startEpoch;
+        final long expectedEpochs = (System.nanoTime() - startNanos) / resolutionNanos;
+        //both readings lag behind by about one tick, but delayed ticks must not accumulate
+        Assertions.checkTrue(elapsedEpochs >= expectedEpochs - 3, "%s >= %s - 3", elapsedEpochs, expectedEpochs);
+        Assertions.checkTrue(elapsedEpochs <= expectedEpochs + 3, "%s <= %s + 3", elapsedEpochs, expectedEpochs);
+    }
+
+    @Test
+    public void testGetEpochs() {
+        Assertions.checkEquals(1L, CoarseClock.getEpochs(new Duration(1, FTimeUnit.NANOSECONDS)));
+        Assertions.checkEquals(100L, CoarseClock.getEpochs(Duration.ONE_SECOND));
+    }
+
+}
@@ -0,0 +1,54 @@
+package de.invesdwin.util.time.fdate;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+
+@NotThreadSafe
+public class FDateInternerTest {
+
+    @Test
+    public void testIntern() {
+        final FDateInterner interner = new FDateInterner(1000, FTimeUnit.MINUTES);
+        Assertions.assertThat(interner.getCapacity()).isEqualTo(1024);
+        final long minute = FTimeUnit.MINUTES.toMillis(123456);
+        final FDate first = interner.intern(minute);
+        Assertions.assertThat(interner.intern(minute)).isSameAs(first);
+        Assertions.assertThat(interner.intern(new FDate(minute))).isSameAs(first);
+        //not aligned to granularity
+        final FDate tick = interner.intern(minute + 1);
+        Assertions.assertThat(interner.intern(minute + 1)).isNotSameAs(tick);
+        Assertions.assertThat(interner.intern(minute + 1)).isEqualTo(tick);
+    }
+
+    @Test
+    public void testDisabled() {
+        final FDate date = new FDate(0);
+        Assertions.assertThat(FDateInterner.DISABLED.intern(date)).isSameAs(date);
+        Assertions.assertThat(FDateInterner.DISABLED.intern(0)).isNotSameAs(FDateInterner.DISABLED.intern(0));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testExtensionNotShared() {
+        final FDateInterner interner = new FDateInterner(1000, FTimeUnit.MINUTES);
+        final long minute = FTimeUnit.MINUTES.toMillis(123456);
+        final FDate interned = interner.intern(minute);
+        interned.setExtension("cache1");
+        Assertions.assertThat(interned.getExtension()).isNull();
+        Assertions.assertThat(interner.intern(minute).getExtension()).isNull();
+
+        //a caller owned instance that gets an extension is not put into the pool
+        final long otherMinute = minute + FTimeUnit.MINUTES.toMillis(1);
+        final FDate owned = new FDate(otherMinute);
+        Assertions.assertThat(interner.intern(owned)).isSameAs(owned);
+        owned.setExtension("cache2");
+        final FDate otherInterned = interner.intern(otherMinute);
+        Assertions.assertThat(otherInterned).isNotSameAs(owned);
+        Assertions.assertThat(otherInterned.getExtension()).isNull();
+        Assertions.assertThat(interner.intern(owned)).isSameAs(owned);
+    }
+
+}
@@ -5,6 +5,7 @@ import javax.annotation.concurrent.NotThreadSafe;
 import org.junit.Test;
 
 import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.bean.tuple.Pair;
 import de.invesdwin.util.time.TimeZones;
 
 @NotThreadSafe
@@ -17,6 +18,35 @@ public class FDatesTest {
         Assertions.assertThat(FDates.bisect(dates, FDate.MIN_DATE)).isEqualTo(0);
     }
 
+    @Test
+    public void testBisectColumn() {
+        final FDate[] dates = { FDateBuilder.newDate(2000), FDateBuilder.newDate(2001), FDateBuilder.newDate(2002) };
+        final FDateColumn column = FDateColumn.valueOf(dates);
+        for (final FDate key : new FDate[] { FDate.MIN_DATE, FDateBuilder.newDate(2000), FDateBuilder.newDate(2001, 6),
+                FDateBuilder.newDate(2002), FDate.MAX_DATE }) {
+            Assertions.assertThat(column.bisect(key)).isEqualTo(FDates.bisect(dates, key));
+        }
+        final FDateColumn sub = column.subColumn(FDateBuilder.newDate(2001), null);
+        Assertions.assertThat(sub.size()).isEqualTo(2);
+        Assertions.assertThat(sub.bisect(FDate.MAX_DATE)).isEqualTo(1);
+        Assertions.assertThat(sub.getFirst()).isEqualTo(FDateBuilder.newDate(2001));
+    }
+
+    @Test
+    public void testMapIndexesColumn() {
+        final FDate[] fromKeys = { FDateBuilder.newDate(2000), FDateBuilder.newDate(2001),
+                FDateBuilder.newDate(2001, 6), FDateBuilder.newDate(2003) };
+        final FDate[] toKeys = { FDateBuilder.newDate(2000), FDateBuilder.newDate(2001), FDateBuilder.newDate(2002) };
+        final int[] expected = FDates.mapIndexes(fromKeys, toKeys);
+        final int[] actual = FDateColumn.valueOf(fromKeys).mapIndexes(FDateColumn.valueOf(toKeys));
+        Assertions.assertThat(actual).isEqualTo(expected);
+
+        final Pair<int[], int[]> join = FDateColumn.valueOf(fromKeys).mergeJoin(FDateColumn.valueOf(toKeys));
+        Assertions.assertThat(join.getFirst()).isEqualTo(new int[] { 0, 1 });
+        Assertions.assertThat(join.getSecond()).isEqualTo(new int[] { 0, 1 });
+        Assertions.assertThat(FDateColumn.valueOf(fromKeys).merge(FDateColumn.valueOf(toKeys)).size()).isEqualTo(5);
+    }
+
     @Test
     public void testRevertTimeZone() {
         final FDate now = new FDate();
@@ -0,0 +1,111 @@
+package de.invesdwin.util.time.fdate.internal;
+
+import java.util.TimeZone;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.Instant;
+import de.invesdwin.util.time.TimeZones;
+import de.invesdwin.util.time.fdate.FDateField;
+import de.invesdwin.util.time.fdate.FDates;
+import de.invesdwin.util.time.fdate.FTimeUnit;
+
+@NotThreadSafe
+public class FDateCalendarTest {
+
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Berlin", "America/New_York", "Australia/Lord_Howe",
+            "America/Sao_Paulo", "Asia/Kolkata" };
+    private static final long MILLIS_IN_YEAR = FTimeUnit.MILLISECONDS_IN_DAY * (long) FTimeUnit.DAYS_IN_YEAR;
+    private static final int ITERATIONS = 10000;
+    private static final int BENCHMARK_ITERATIONS = 10000000;
+
+    @Test
+    public void testSameAsJoda() {
+        final TimeZone defaultTimeZone = FDates.getDefaultTimeZone();
+        try {
+            for (final String timeZone : TIME_ZONES) {
+                FDates.setDefaultTimeZone(TimeZones.getTimeZone(timeZone));
+                final RandomGenerator random = RandomGenerators.newDefaultRandom();
+                random.setSeed(timeZone.hashCode());
+                for (int i = 0; i < ITERATIONS; i++) {
+                    final long millis = random.nextLong() % (200 * MILLIS_IN_YEAR);
+                    assertSameAsJoda(random, millis);
+                }
+            }
+        } finally {
+            FDates.setDefaultTimeZone(defaultTimeZone);
+        }
+    }
+
+    private void assertSameAsJoda(final RandomGenerator random, final long millis) {
+        for (final FDateField field : FDateField.values()) {
+            Assertions.checkEquals(FDateCalendar.getJoda(millis, field), FDateCalendar.get(millis, field));
+            Assertions.checkEquals(FDateCalendar.truncateJoda(millis, field), FDateCalendar.truncate(millis, field));
+            final int value = random.nextInt(60);
+            Long expected;
+            try {
+                expected = FDateCalendar.setJoda(millis, field, value);
+            } catch (final IllegalArgumentException e) {
+                expected = null;
+            }
+            Long actual;
+            try {
+                actual = FDateCalendar.set(millis, field, value);
+            } catch (final IllegalArgumentException e) {
+                actual = null;
+            }
+            Assertions.checkEquals(expected, actual);
+        }
+        for (final FTimeUnit timeUnit : new FTimeUnit[] { FTimeUnit.CENTURIES, FTimeUnit.DECADES, FTimeUnit.YEARS,
+                FTimeUnit.MONTHS, FTimeUnit.WEEKS, FTimeUnit.DAYS, FTimeUnit.HOURS, FTimeUnit.MINUTES,
+                FTimeUnit.SECONDS, FTimeUnit.MILLISECONDS }) {
+            final int amount = random.nextInt(2000) - 1000;
+            Assertions.checkEquals(FDateCalendar.addJoda(millis, timeUnit, amount),
+                    FDateCalendar.add(millis, timeUnit, amount));
+        }
+    }
+
+    @Ignore("manual test")
+    @Test
+    public void testPerformance() {
+        for (int i = 0; i < 5; i++) {
+            testPerformanceFast();
+            testPerformanceJoda();
+        }
+    }
+
+    private void testPerformanceFast() {
+        final Instant start = new Instant();
+        long sum = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            final long millis = (long) i * FTimeUnit.MILLISECONDS_IN_MINUTE;
+            sum += FDateCalendar.get(millis, FDateField.Hour);
+            sum += FDateCalendar.truncate(millis, FDateField.Day);
+            sum += FDateCalendar.add(millis, FTimeUnit.DAYS, 1);
+        }
+        //CHECKSTYLE:OFF
+        System.out.println("testPerformanceFast " + sum + ": " + start);
+        //CHECKSTYLE:ON
+    }
+
+    private void testPerformanceJoda() {
+        final Instant start = new Instant();
+        long sum = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            final long millis = (long) i * FTimeUnit.MILLISECONDS_IN_MINUTE;
+            sum += FDateCalendar.getJoda(millis, FDateField.Hour);
+            sum += FDateCalendar.truncateJoda(millis, FDateField.Day);
+            sum += FDateCalendar.addJoda(millis, FTimeUnit.DAYS, 1);
+        }
+        //CHECKSTYLE:OFF
+        System.out.println("testPerformanceJoda " + sum + ": " + start);
+        //CHECKSTYLE:ON
+    }
+
+}
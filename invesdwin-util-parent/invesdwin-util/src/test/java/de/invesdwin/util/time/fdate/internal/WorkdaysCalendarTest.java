@@ -0,0 +1,156 @@
+package de.invesdwin.util.time.fdate.internal;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.Test;
+
+import de.invesdwin.util.assertions.Assertions;
+import de.invesdwin.util.math.Integers;
+import de.invesdwin.util.math.random.RandomGenerators;
+import de.invesdwin.util.time.fdate.FDate;
+import de.invesdwin.util.time.fdate.FDateBuilder;
+import de.invesdwin.util.time.fdate.FHolidayManager;
+import de.jollyday.HolidayCalendar;
+import de.jollyday.HolidayManager;
+import de.jollyday.HolidayType;
+import de.jollyday.ManagerParameters;
+
+@NotThreadSafe
+public class WorkdaysCalendarTest {
+
+    private static final int[] WORKDAYS = { -400, -30, -5, -2, -1, 0, 1, 2, 5, 30, 400 };
+    private static final int ITERATIONS = 1000;
+
+    /**
+     * Looked up directly instead of via the bitsets so that the loops below behave like the previous implementation.
+     */
+    private final HolidayManager germany = HolidayManager
+            .getInstance(ManagerParameters.create(HolidayCalendar.GERMANY));
+
+    @Test
+    public void testIsWorkdaySameAsLoop() {
+        final WorkdaysCalendar calendar = new WorkdaysCalendar(germany);
+        //crosses two year boundaries
+        FDate day = FDateBuilder.newDate(2015, 12, 1);
+        final FDate to = FDateBuilder.newDate(2017, 1, 31);
+        while (!day.isAfter(to)) {
+            final long epochDay = WorkdaysCalendar.getEpochDay(day);
+            Assertions.checkEquals(isHolidayLoop(day, germany), calendar.isHoliday(epochDay), "%s", day);
+            Assertions.checkEquals(isWorkdayLoop(day, germany), calendar.isWorkday(epochDay), "%s", day);
+            Assertions.checkEquals(isWorkdayLoop(day, null), WorkdaysCalendar.WEEKENDS_ONLY.isWorkday(epochDay),
+                    "%s", day);
+            day = day.addDays(1);
+        }
+    }
+
+    @Test
+    public void testBeforeGregorianChange() {
+        final WorkdaysCalendar calendar = new WorkdaysCalendar(germany);
+        //the julian calendar would shift the holidays by ten days
+        Assertions.checkTrue(calendar.isHoliday(FDateCalendar.epochDayOf(1500, 1, 1)));
+        Assertions.checkTrue(calendar.isHoliday(FDateCalendar.epochDayOf(1500, 12, 25)));
+        Assertions.checkFalse(calendar.isHoliday(FDateCalendar.epochDayOf(1500, 12, 15)));
+        Assertions.checkTrue(calendar.isHoliday(FDateCalendar.epochDayOf(1582, 12, 25)));
+    }
+
+    @Test
+    public void testCountWorkdaysBetween() {
+        //sat 24th, christmas on sun 25th and mon 26th, new year on sun 1st
+        final FDate christmasEve = FDateBuilder.newDate(2016, 12, 24);
+        final FDate afterNewYear = FDateBuilder.newDate(2017, 1, 2);
+        Assertions.checkEquals(5L, FHolidayManager.GERMANY.countWorkdaysBetween(christmasEve, afterNewYear));
+        Assertions.checkEquals(6L, WorkdaysCalendar.WEEKENDS_ONLY.countWorkdays(
+                WorkdaysCalendar.getEpochDay(christmasEve), WorkdaysCalendar.getEpochDay(afterNewYear)));
+        //both days are inclusive
+        Assertions.checkEquals(1L, FHolidayManager.GERMANY.countWorkdaysBetween(afterNewYear, afterNewYear));
+        Assertions.checkEquals(0L, FHolidayManager.GERMANY.countWorkdaysBetween(christmasEve, christmasEve));
+        Assertions.checkEquals(0L, FHolidayManager.GERMANY.countWorkdaysBetween(afterNewYear, christmasEve));
+    }
+
+    @Test
+    public void testCountWorkdaysSameAsLoop() {
+        final WorkdaysCalendar calendar = new WorkdaysCalendar(germany);
+        final RandomGenerator random = RandomGenerators.newDefaultRandom();
+        random.setSeed(1);
+        final FDate min = FDateBuilder.newDate(2014, 1, 1);
+        for (int i = 0; i < ITERATIONS; i++) {
+            final FDate from = min.addDays(random.nextInt(5 * 365));
+            //up to two year boundaries in between
+            final FDate to = from.addDays(random.nextInt(3 * 365) - 30);
+            final long fromEpochDay = WorkdaysCalendar.getEpochDay(from);
+            final long toEpochDay = WorkdaysCalendar.getEpochDay(to);
+            Assertions.checkEquals(countWorkdaysLoop(from, to, germany), calendar.countWorkdays(fromEpochDay,
+                    toEpochDay), "%s -> %s", from, to);
+            Assertions.checkEquals(countWorkdaysLoop(from, to, null),
+                    WorkdaysCalendar.WEEKENDS_ONLY.countWorkdays(fromEpochDay, toEpochDay), "%s -> %s", from, to);
+        }
+    }
+
+    @Test
+    public void testAddWorkdaysSameAsLoop() {
+        final WorkdaysCalendar calendar = new WorkdaysCalendar(germany);
+        FDate day = FDateBuilder.newDate(2016, 12, 1);
+        final FDate to = FDateBuilder.newDate(2017, 1, 31);
+        while (!day.isAfter(to)) {
+            final long epochDay = WorkdaysCalendar.getEpochDay(day);
+            for (final int workdays : WORKDAYS) {
+                Assertions.checkEquals(addWorkdaysLoop(day, workdays, germany),
+                        day.addDays(Integers.checkedCast(calendar.getDaysToShiftWorkdays(epochDay, workdays))),
+                        "%s %s", day, workdays);
+                Assertions.checkEquals(addWorkdaysLoop(day, workdays, null), day.addWorkdays(workdays, null), "%s %s",
+                        day, workdays);
+            }
+            day = day.addDays(1);
+        }
+    }
+
+    private static boolean isHolidayLoop(final FDate day, final HolidayManager holidayManager) {
+        return holidayManager != null
+                && holidayManager.isHoliday(day.withoutTime().calendarValue(), HolidayType.OFFICIAL_HOLIDAY);
+    }
+
+    private static boolean isWorkdayLoop(final FDate day, final HolidayManager holidayManager) {
+        return !day.getFWeekday().isWeekend() && !isHolidayLoop(day, holidayManager);
+    }
+
+    private static long countWorkdaysLoop(final FDate from, final FDate to, final HolidayManager holidayManager) {
+        long count = 0;
+        FDate cur = from;
+        while (!cur.isAfter(to)) {
+            if (isWorkdayLoop(cur, holidayManager)) {
+                count++;
+            }
+            cur = cur.addDays(1);
+        }
+        return count;
+    }
+
+    /**
+     * The implementation of FDate.addWorkdays before the workdays were precalculated.
+     */
+    private static FDate addWorkdaysLoop(final FDate from, final int workdays, final HolidayManager holidayManager) {
+        int workdaysToShift = Integers.abs(workdays);
+        if (from.getFWeekday().isWeekend() || isHolidayLoop(from, holidayManager)) {
+            if (workdaysToShift > 1) {
+                workdaysToShift--;
+            }
+        }
+        final int shiftUnit;
+        if (workdays >= 0) {
+            shiftUnit = 1;
+        } else {
+            shiftUnit = -1;
+        }
+        int workdaysShifted = 0;
+        FDate cur = from;
+        while (workdaysShifted < workdaysToShift) {
+            if (!cur.getFWeekday().isWeekend() && !isHolidayLoop(cur, holidayManager)) {
+                workdaysShifted++;
+            }
+            cur = cur.addDays(shiftUnit);
+        }
+        return cur;
+    }
+
+}